@@ -0,0 +1,15 @@
+#!/usr/bin/env bash
+# Compares a JMH JSON result file with the stored baseline and exits non-zero on regressions.
+#   ./compare.sh results/<run>.json [baseline.json] [threshold%]
+set -euo pipefail
+cd "$(dirname "$0")"
+
+if [ $# -lt 1 ]; then
+    echo "Usage: $0 <current.json> [baseline.json] [threshold%]" >&2
+    exit 2
+fi
+current="$1"
+baseline="${2:-baseline/baseline.json}"
+threshold="${3:-10}"
+
+exec java -cp target/benchmarks.jar com.example.ecommerce.benchmark.BenchmarkComparison "$baseline" "$current" "$threshold"
@@ -0,0 +1,13 @@
+#!/usr/bin/env bash
+# Runs the open-loop order lifecycle load generator; reports go to results/load-<timestamp>/.
+#   ./load.sh --rate=20 --duration=60 --cancel-ratio=0.1
+# JVM options (e.g. -Decommerce.auth.pbkdf2-iterations=10000) can be passed in JAVA_OPTS.
+set -euo pipefail
+cd "$(dirname "$0")"
+
+if [ ! -f target/benchmarks.jar ]; then
+    echo "target/benchmarks.jar not found; build it first (see README, Benchmarks)" >&2
+    exit 2
+fi
+
+exec java ${JAVA_OPTS:-} -cp target/benchmarks.jar com.example.ecommerce.benchmark.load.LoadGenerator "$@"
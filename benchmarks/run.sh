@@ -0,0 +1,16 @@
+#!/usr/bin/env bash
+# Runs the service benchmarks and writes JMH JSON results to results/<timestamp>.json.
+# Extra arguments go to JMH, e.g.:
+#   ./run.sh OrderServiceBenchmark -t 4 -p products=1000,100000
+set -euo pipefail
+cd "$(dirname "$0")"
+
+if [ ! -f target/benchmarks.jar ]; then
+    echo "target/benchmarks.jar not found; build it first (see README, Benchmarks)" >&2
+    exit 2
+fi
+
+mkdir -p results
+output="results/$(date +%Y%m%d-%H%M%S).json"
+java -jar target/benchmarks.jar -rf json -rff "$output" "$@"
+echo "Results written to $output"
@@ -0,0 +1,140 @@
+package com.example.ecommerce.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares two JMH JSON result files (-rf json) and flags regressions.
+ * Results are matched on benchmark, mode, thread count and parameters. Throughput is better when higher and
+ * every time-based mode when lower; a result regresses when it is worse by more than the threshold and the
+ * difference is larger than the two error margins combined, so noisy runs are not reported as regressions.
+ * Exits with 1 when anything regressed, 2 on bad input.
+ *
+ * <pre>java -cp target/benchmarks.jar com.example.ecommerce.benchmark.BenchmarkComparison baseline.json current.json [threshold%]</pre>
+ */
+public final class BenchmarkComparison {
+    
+    private static final double DEFAULT_THRESHOLD_PERCENT = 10.0;
+    
+    private BenchmarkComparison() {
+    }
+    
+    public static void main(String[] args) {
+        if (args.length < 2 || args.length > 3) {
+            System.err.println("Usage: BenchmarkComparison <baseline.json> <current.json> [threshold%]");
+            System.exit(2);
+        }
+        try {
+            double threshold = args.length == 3 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD_PERCENT;
+            Map<String, Result> baseline = read(new File(args[0]));
+            Map<String, Result> current = read(new File(args[1]));
+            List<String> report = new ArrayList<>();
+            int regressions = compare(baseline, current, threshold, report);
+            report.forEach(System.out::println);
+            System.out.printf(Locale.ROOT, "%d regression(s) beyond %.1f%%%n", regressions, threshold);
+            System.exit(regressions > 0 ? 1 : 0);
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Cannot compare results: " + e.getMessage());
+            System.exit(2);
+        }
+    }
+    
+    /**
+     * Appends one line per result to {@code report} and returns the number of regressions.
+     */
+    static int compare(Map<String, Result> baseline, Map<String, Result> current, double thresholdPercent,
+                       List<String> report) {
+        int regressions = 0;
+        for (Map.Entry<String, Result> entry : current.entrySet()) {
+            Result now = entry.getValue();
+            Result before = baseline.get(entry.getKey());
+            if (before == null) {
+                report.add(String.format(Locale.ROOT, "NEW        %s: %.3f %s", entry.getKey(), now.score, now.unit));
+                continue;
+            }
+            if (!before.unit.equals(now.unit)) {
+                throw new IllegalArgumentException("Unit changed for " + entry.getKey() + ": " + before.unit + " -> " + now.unit);
+            }
+            double changePercent = (now.score - before.score) / before.score * 100.0;
+            // positive means worse, whichever direction the mode counts as better
+            double worsePercent = now.higherIsBetter() ? -changePercent : changePercent;
+            boolean beyondNoise = Math.abs(now.score - before.score) > before.error + now.error;
+            String verdict;
+            if (worsePercent > thresholdPercent && beyondNoise) {
+                verdict = "REGRESSION";
+                regressions++;
+            } else if (worsePercent < -thresholdPercent && beyondNoise) {
+                verdict = "IMPROVED  ";
+            } else {
+                verdict = "OK        ";
+            }
+            report.add(String.format(Locale.ROOT, "%s %s: %.3f -> %.3f %s (%+.1f%%)", verdict, entry.getKey(),
+                    before.score, now.score, now.unit, changePercent));
+        }
+        for (String key : baseline.keySet()) {
+            if (!current.containsKey(key)) {
+                report.add("MISSING    " + key);
+            }
+        }
+        return regressions;
+    }
+    
+    static Map<String, Result> read(File file) throws IOException {
+        JsonNode root = new ObjectMapper().readTree(file);
+        if (root == null || !root.isArray()) {
+            throw new IllegalArgumentException(file + " is not a JMH JSON result file");
+        }
+        Map<String, Result> results = new LinkedHashMap<>();
+        for (JsonNode run : root) {
+            JsonNode metric = run.path("primaryMetric");
+            double error = metric.path("scoreError").asDouble(0.0);
+            Result result = new Result(run.path("mode").asText(), metric.path("score").asDouble(),
+                    Double.isNaN(error) ? 0.0 : error, metric.path("scoreUnit").asText());
+            results.put(key(run), result);
+        }
+        return results;
+    }
+    
+    private static String key(JsonNode run) {
+        StringBuilder key = new StringBuilder(run.path("benchmark").asText())
+                .append(" [").append(run.path("mode").asText())
+                .append(", threads=").append(run.path("threads").asInt());
+        Map<String, String> params = new TreeMap<>();
+        Iterator<Map.Entry<String, JsonNode>> fields = run.path("params").fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            params.put(field.getKey(), field.getValue().asText());
+        }
+        params.forEach((name, value) -> key.append(", ").append(name).append('=').append(value));
+        return key.append(']').toString();
+    }
+    
+    static final class Result {
+        
+        final String mode;
+        final double score;
+        final double error;
+        final String unit;
+        
+        Result(String mode, double score, double error, String unit) {
+            this.mode = mode;
+            this.score = score;
+            this.error = error;
+            this.unit = unit;
+        }
+        
+        boolean higherIsBetter() {
+            return "thrpt".equals(mode);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.ecommerce.benchmark.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-operation latency histograms in microseconds. Response time runs from when an operation should have
+ * started had the system kept up with the arrival schedule, which corrects for coordinated omission; service
+ * time runs from when it actually started. Only operations of sessions scheduled after warmup are recorded.
+ */
+public class LatencyRecorder {
+    
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+    private static final int SIGNIFICANT_DIGITS = 3;
+    
+    private final Map<Operation, Histogram> responseTimes = new EnumMap<>(Operation.class);
+    private final Map<Operation, Histogram> serviceTimes = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    
+    public LatencyRecorder() {
+        for (Operation operation : Operation.values()) {
+            responseTimes.put(operation, histogram());
+            serviceTimes.put(operation, histogram());
+            errors.put(operation, new LongAdder());
+        }
+    }
+    
+    public void record(Operation operation, long intendedStartNanos, long startNanos, long endNanos) {
+        responseTimes.get(operation).recordValue(micros(endNanos - intendedStartNanos));
+        serviceTimes.get(operation).recordValue(micros(endNanos - startNanos));
+    }
+    
+    public void recordError(Operation operation) {
+        errors.get(operation).increment();
+    }
+    
+    public Histogram getResponseTimes(Operation operation) {
+        return responseTimes.get(operation);
+    }
+    
+    public Histogram getServiceTimes(Operation operation) {
+        return serviceTimes.get(operation);
+    }
+    
+    public long getErrors(Operation operation) {
+        return errors.get(operation).sum();
+    }
+    
+    private static Histogram histogram() {
+        return new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+    }
+    
+    private static long micros(long nanos) {
+        // anything slower than the trackable range is clamped rather than dropped
+        return Math.min(Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos)), HIGHEST_TRACKABLE_MICROS);
+    }
+}
@@ -0,0 +1,212 @@
+package com.example.ecommerce.benchmark.load;
+
+import com.example.ecommerce.benchmark.service.ServiceContext;
+import com.example.ecommerce.model.Order;
+import com.example.ecommerce.model.Payment.PaymentMethod;
+import com.example.ecommerce.model.User;
+import com.example.ecommerce.service.OrderService;
+import com.example.ecommerce.service.UserService;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Open-loop load generator for the order lifecycle, run headless against the application on in-memory H2.
+ * Sessions arrive on a fixed schedule (constant or Poisson) regardless of how fast earlier ones finish, and
+ * each one registers a user, places an order, confirms and processes it, then either ships and completes it or,
+ * for the cancel ratio, cancels it. Sessions that wait for a worker are charged the wait in the first step's
+ * response time, so a stalled system shows up in the percentiles instead of lowering the offered load.
+ *
+ * <pre>java -cp target/benchmarks.jar com.example.ecommerce.benchmark.load.LoadGenerator --rate=50 --duration=120</pre>
+ */
+public class LoadGenerator {
+    
+    private static final PaymentMethod[] PAYMENT_METHODS = PaymentMethod.values();
+    
+    private final LoadOptions options;
+    private final ServiceContext context;
+    private final UserService userService;
+    private final OrderService orderService;
+    private final LatencyRecorder latencies = new LatencyRecorder();
+    private final String runId = UUID.randomUUID().toString().substring(0, 8);
+    private final AtomicLong sequence = new AtomicLong();
+    private final LongAdder measuredScheduled = new LongAdder();
+    private final LongAdder measuredCompleted = new LongAdder();
+    private final LongAdder measuredFailed = new LongAdder();
+    private final AtomicLong lastCompletionNanos = new AtomicLong(Long.MIN_VALUE);
+    private final Map<String, LongAdder> errorsByType = new ConcurrentHashMap<>();
+    
+    public LoadGenerator(LoadOptions options, ServiceContext context) {
+        this.options = options;
+        this.context = context;
+        this.userService = context.getBean(UserService.class);
+        this.orderService = context.getBean(OrderService.class);
+    }
+    
+    public static void main(String[] args) throws IOException, InterruptedException {
+        LoadOptions options;
+        try {
+            options = LoadOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Options: --rate=<sessions/s> --arrivals=constant|poisson --warmup=<s> --duration=<s> "
+                    + "--drain-timeout=<s> --workers=<n> --cancel-ratio=<0..1> --lines=<n> --products=<n> --output=<dir>");
+            System.exit(2);
+            return;
+        }
+        
+        ServiceContext context = new ServiceContext();
+        context.products = options.getProducts();
+        context.users = 1;
+        context.start();
+        LoadResult result;
+        try {
+            result = new LoadGenerator(options, context).run();
+        } finally {
+            context.stop();
+        }
+        LoadReport report = new LoadReport(options, result);
+        report.print(System.out);
+        Path directory = report.write(Path.of(options.getOutputDirectory()));
+        System.out.println("Report written to " + directory);
+        System.exit(0);
+    }
+    
+    public LoadResult run() throws InterruptedException {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("load-session-");
+        threadFactory.setDaemon(true);
+        ThreadPoolExecutor workers = new ThreadPoolExecutor(options.getWorkers(), options.getWorkers(),
+                0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), threadFactory);
+        workers.prestartAllCoreThreads();
+        
+        Instant startedAt = Instant.now();
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(options.getWarmupSeconds());
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(options.getDurationSeconds());
+        double periodNanos = TimeUnit.SECONDS.toNanos(1) / options.getRate();
+        int maxBacklog = 0;
+        
+        // The schedule is computed from the start time, never from when the previous arrival was issued
+        double offsetNanos = 0;
+        long intended = start;
+        while (intended < end) {
+            long now;
+            while ((now = System.nanoTime()) < intended) {
+                LockSupport.parkNanos(intended - now);
+            }
+            long scheduled = intended;
+            boolean measured = scheduled >= measureFrom;
+            if (measured) {
+                measuredScheduled.increment();
+            }
+            workers.execute(() -> runSession(scheduled, measured));
+            maxBacklog = Math.max(maxBacklog, workers.getQueue().size());
+            
+            offsetNanos += options.getArrivals() == LoadOptions.Arrivals.POISSON
+                    ? -Math.log(1.0 - ThreadLocalRandom.current().nextDouble()) * periodNanos
+                    : periodNanos;
+            intended = start + (long) offsetNanos;
+        }
+        
+        workers.shutdown();
+        workers.awaitTermination(options.getDrainTimeoutSeconds(), TimeUnit.SECONDS);
+        long unfinished = measuredScheduled.sum() - measuredCompleted.sum() - measuredFailed.sum();
+        workers.shutdownNow();
+        
+        Map<String, Long> errors = new TreeMap<>();
+        errorsByType.forEach((type, count) -> errors.put(type, count.sum()));
+        // an overloaded run keeps completing sessions after the schedule ends, so its throughput is measured to the last one
+        double measuredSeconds = (Math.max(end, lastCompletionNanos.get()) - measureFrom) / 1e9;
+        return new LoadResult(startedAt, measuredSeconds, measuredScheduled.sum(), measuredCompleted.sum(),
+                measuredFailed.sum(), unfinished, maxBacklog, errors, latencies);
+    }
+    
+    private void runSession(long scheduled, boolean measured) {
+        Session session = new Session(scheduled, measured);
+        long n = sequence.incrementAndGet();
+        try {
+            User user = session.step(Operation.CREATE_USER, () -> userService.createUser("Load", "User" + n,
+                    "load-" + runId + "-" + n + "@load.example.com", "password-" + n, "555-0100"));
+            Order order = session.step(Operation.CREATE_ORDER, () -> orderService.createOrder(user.getId(), orderLines(),
+                    PAYMENT_METHODS[ThreadLocalRandom.current().nextInt(PAYMENT_METHODS.length)]));
+            Long orderId = order.getId();
+            session.step(Operation.CONFIRM_ORDER, () -> orderService.confirmOrder(orderId));
+            session.step(Operation.PROCESS_ORDER, () -> orderService.processOrder(orderId, user.getEmail()));
+            if (ThreadLocalRandom.current().nextDouble() < options.getCancelRatio()) {
+                session.step(Operation.CANCEL_ORDER, () -> orderService.cancelOrder(orderId));
+            } else {
+                session.step(Operation.SHIP_ORDER, () -> orderService.shipOrder(orderId, "TRK-" + runId + "-" + n));
+                session.step(Operation.COMPLETE_ORDER, () -> orderService.completeOrder(orderId));
+            }
+            if (measured) {
+                long endNanos = System.nanoTime();
+                latencies.record(Operation.SESSION, scheduled, session.startNanos, endNanos);
+                lastCompletionNanos.accumulateAndGet(endNanos, Math::max);
+                measuredCompleted.increment();
+            }
+        } catch (RuntimeException e) {
+            if (measured) {
+                measuredFailed.increment();
+                errorsByType.computeIfAbsent(e.getClass().getSimpleName(), type -> new LongAdder()).increment();
+            }
+        }
+    }
+    
+    private Map<Long, Integer> orderLines() {
+        Map<Long, Integer> lines = new HashMap<>();
+        for (int i = 0; i < options.getLinesPerOrder(); i++) {
+            lines.merge(context.randomProductId(), 1, Integer::sum);
+        }
+        return lines;
+    }
+    
+    /**
+     * Tracks when the next step should start: the scheduled arrival for the first step, then the end of the
+     * previous one, since a customer moves on as soon as a step returns.
+     */
+    private final class Session {
+        
+        private final boolean measured;
+        private final long startNanos;
+        private long intendedNanos;
+        
+        private Session(long scheduled, boolean measured) {
+            this.measured = measured;
+            this.startNanos = System.nanoTime();
+            this.intendedNanos = scheduled;
+        }
+        
+        private <T> T step(Operation operation, Supplier<T> call) {
+            long stepStart = System.nanoTime();
+            try {
+                T result = call.get();
+                long stepEnd = System.nanoTime();
+                if (measured) {
+                    latencies.record(operation, intendedNanos, stepStart, stepEnd);
+                }
+                intendedNanos = stepEnd;
+                return result;
+            } catch (RuntimeException e) {
+                if (measured) {
+                    latencies.recordError(operation);
+                }
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.ecommerce.benchmark.load;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Load generator settings, parsed from {@code --name=value} arguments. Unknown names are rejected so that a
+ * typo does not silently run the defaults.
+ */
+public class LoadOptions {
+    
+    public enum Arrivals {
+        CONSTANT, POISSON
+    }
+    
+    private double rate = 20.0;
+    private Arrivals arrivals = Arrivals.CONSTANT;
+    private int warmupSeconds = 10;
+    private int durationSeconds = 60;
+    private int drainTimeoutSeconds = 60;
+    private int workers = 64;
+    private double cancelRatio = 0.1;
+    private int linesPerOrder = 3;
+    private int products = 1000;
+    private String outputDirectory = "results";
+    
+    public static LoadOptions parse(String... args) {
+        LoadOptions options = new LoadOptions();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            String name = arg.substring(2, equals);
+            String value = arg.substring(equals + 1);
+            switch (name) {
+                case "rate":
+                    options.rate = Double.parseDouble(value);
+                    break;
+                case "arrivals":
+                    options.arrivals = Arrivals.valueOf(value.toUpperCase());
+                    break;
+                case "warmup":
+                    options.warmupSeconds = Integer.parseInt(value);
+                    break;
+                case "duration":
+                    options.durationSeconds = Integer.parseInt(value);
+                    break;
+                case "drain-timeout":
+                    options.drainTimeoutSeconds = Integer.parseInt(value);
+                    break;
+                case "workers":
+                    options.workers = Integer.parseInt(value);
+                    break;
+                case "cancel-ratio":
+                    options.cancelRatio = Double.parseDouble(value);
+                    break;
+                case "lines":
+                    options.linesPerOrder = Integer.parseInt(value);
+                    break;
+                case "products":
+                    options.products = Integer.parseInt(value);
+                    break;
+                case "output":
+                    options.outputDirectory = value;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option --" + name);
+            }
+        }
+        options.validate();
+        return options;
+    }
+    
+    private void validate() {
+        if (rate <= 0 || durationSeconds < 1 || warmupSeconds < 0 || drainTimeoutSeconds < 0) {
+            throw new IllegalArgumentException("rate and duration must be positive, warmup and drain-timeout non-negative");
+        }
+        if (workers < 1 || linesPerOrder < 1 || products < 1) {
+            throw new IllegalArgumentException("workers, lines and products must be positive");
+        }
+        if (cancelRatio < 0 || cancelRatio > 1) {
+            throw new IllegalArgumentException("cancel-ratio must be between 0 and 1");
+        }
+    }
+    
+    public Map<String, Object> asMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("rate", rate);
+        map.put("arrivals", arrivals.name().toLowerCase());
+        map.put("warmupSeconds", warmupSeconds);
+        map.put("durationSeconds", durationSeconds);
+        map.put("workers", workers);
+        map.put("cancelRatio", cancelRatio);
+        map.put("linesPerOrder", linesPerOrder);
+        map.put("products", products);
+        return map;
+    }
+    
+    public double getRate() {
+        return rate;
+    }
+    
+    public Arrivals getArrivals() {
+        return arrivals;
+    }
+    
+    public int getWarmupSeconds() {
+        return warmupSeconds;
+    }
+    
+    public int getDurationSeconds() {
+        return durationSeconds;
+    }
+    
+    public int getDrainTimeoutSeconds() {
+        return drainTimeoutSeconds;
+    }
+    
+    public int getWorkers() {
+        return workers;
+    }
+    
+    public double getCancelRatio() {
+        return cancelRatio;
+    }
+    
+    public int getLinesPerOrder() {
+        return linesPerOrder;
+    }
+    
+    public int getProducts() {
+        return products;
+    }
+    
+    public String getOutputDirectory() {
+        return outputDirectory;
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.ecommerce.benchmark.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Writes a load run as {@code report.json} (settings, session counts and fixed percentiles per operation, in
+ * milliseconds) plus one HdrHistogram percentile distribution ({@code .hgrm}) per operation, which
+ * HdrHistogram's plotter can overlay across runs. The JSON keys are stable, so reports diff cleanly.
+ */
+public class LoadReport {
+    
+    private static final double[] PERCENTILES = {50.0, 90.0, 99.0, 99.9, 99.99};
+    private static final DateTimeFormatter DIRECTORY_NAME = DateTimeFormatter.ofPattern("'load-'yyyyMMdd-HHmmss")
+            .withZone(ZoneOffset.UTC);
+    
+    private final LoadOptions options;
+    private final LoadResult result;
+    
+    public LoadReport(LoadOptions options, LoadResult result) {
+        this.options = options;
+        this.result = result;
+    }
+    
+    public Path write(Path outputDirectory) throws IOException {
+        Path directory = outputDirectory.resolve(DIRECTORY_NAME.format(result.getStartedAt()));
+        Files.createDirectories(directory);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(directory.resolve("report.json").toFile(), toMap());
+        for (Operation operation : Operation.values()) {
+            Histogram responseTimes = result.getLatencies().getResponseTimes(operation);
+            if (responseTimes.getTotalCount() == 0) {
+                continue;
+            }
+            try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve(operation.getLabel() + ".hgrm")),
+                    false, "UTF-8")) {
+                // recorded in microseconds, written in milliseconds
+                responseTimes.outputPercentileDistribution(out, 5, 1000.0);
+            }
+        }
+        return directory;
+    }
+    
+    public void print(PrintStream out) {
+        out.printf(Locale.ROOT, "%nOffered %.1f sessions/s for %ds: %d scheduled, %d completed (%.1f/s), %d failed, %d unfinished, max backlog %d%n",
+                options.getRate(), options.getDurationSeconds(), result.getSessionsScheduled(), result.getSessionsCompleted(),
+                result.getCompletedPerSecond(), result.getSessionsFailed(), result.getSessionsUnfinished(), result.getMaxBacklog());
+        out.printf(Locale.ROOT, "%-14s %8s %7s %10s %10s %10s %10s %10s %10s%n",
+                "response (ms)", "count", "errors", "p50", "p90", "p99", "p99.9", "max", "svc p99");
+        for (Operation operation : Operation.values()) {
+            Histogram responseTimes = result.getLatencies().getResponseTimes(operation);
+            Histogram serviceTimes = result.getLatencies().getServiceTimes(operation);
+            out.printf(Locale.ROOT, "%-14s %8d %7d %10.2f %10.2f %10.2f %10.2f %10.2f %10.2f%n", operation.getLabel(),
+                    responseTimes.getTotalCount(), result.getLatencies().getErrors(operation),
+                    millis(responseTimes.getValueAtPercentile(50.0)), millis(responseTimes.getValueAtPercentile(90.0)),
+                    millis(responseTimes.getValueAtPercentile(99.0)), millis(responseTimes.getValueAtPercentile(99.9)),
+                    millis(responseTimes.getMaxValue()), millis(serviceTimes.getValueAtPercentile(99.0)));
+        }
+        if (!result.getErrorsByType().isEmpty()) {
+            out.println("Failed sessions by exception: " + result.getErrorsByType());
+        }
+    }
+    
+    Map<String, Object> toMap() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("startedAt", result.getStartedAt().toString());
+        report.put("options", options.asMap());
+        
+        Map<String, Object> sessions = new LinkedHashMap<>();
+        sessions.put("scheduled", result.getSessionsScheduled());
+        sessions.put("completed", result.getSessionsCompleted());
+        sessions.put("failed", result.getSessionsFailed());
+        sessions.put("unfinished", result.getSessionsUnfinished());
+        sessions.put("measuredSeconds", result.getMeasuredSeconds());
+        sessions.put("completedPerSecond", result.getCompletedPerSecond());
+        sessions.put("maxBacklog", result.getMaxBacklog());
+        sessions.put("errorsByType", result.getErrorsByType());
+        report.put("sessions", sessions);
+        
+        Map<String, Object> operations = new LinkedHashMap<>();
+        for (Operation operation : Operation.values()) {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            Histogram responseTimes = result.getLatencies().getResponseTimes(operation);
+            stats.put("count", responseTimes.getTotalCount());
+            stats.put("errors", result.getLatencies().getErrors(operation));
+            stats.put("responseTimeMs", summary(responseTimes));
+            stats.put("serviceTimeMs", summary(result.getLatencies().getServiceTimes(operation)));
+            operations.put(operation.getLabel(), stats);
+        }
+        report.put("operations", operations);
+        return report;
+    }
+    
+    private static Map<String, Object> summary(Histogram histogram) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        if (histogram.getTotalCount() == 0) {
+            return summary;
+        }
+        summary.put("mean", millis(histogram.getMean()));
+        for (double percentile : PERCENTILES) {
+            summary.put("p" + (percentile == Math.rint(percentile) ? String.valueOf((int) percentile) : String.valueOf(percentile)),
+                    millis(histogram.getValueAtPercentile(percentile)));
+        }
+        summary.put("max", millis(histogram.getMaxValue()));
+        return summary;
+    }
+    
+    private static double millis(double micros) {
+        return Math.round(micros) / 1000.0;
+    }
+}
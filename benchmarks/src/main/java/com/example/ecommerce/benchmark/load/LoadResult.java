@@ -0,0 +1,80 @@
+package com.example.ecommerce.benchmark.load;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Outcome of one load run: the latency histograms plus session counts for the measured interval.
+ */
+public class LoadResult {
+    
+    private final Instant startedAt;
+    private final double measuredSeconds;
+    private final long sessionsScheduled;
+    private final long sessionsCompleted;
+    private final long sessionsFailed;
+    private final long sessionsUnfinished;
+    private final int maxBacklog;
+    private final Map<String, Long> errorsByType;
+    private final LatencyRecorder latencies;
+    
+    public LoadResult(Instant startedAt, double measuredSeconds, long sessionsScheduled, long sessionsCompleted,
+                      long sessionsFailed, long sessionsUnfinished, int maxBacklog, Map<String, Long> errorsByType,
+                      LatencyRecorder latencies) {
+        this.startedAt = startedAt;
+        this.measuredSeconds = measuredSeconds;
+        this.sessionsScheduled = sessionsScheduled;
+        this.sessionsCompleted = sessionsCompleted;
+        this.sessionsFailed = sessionsFailed;
+        this.sessionsUnfinished = sessionsUnfinished;
+        this.maxBacklog = maxBacklog;
+        this.errorsByType = errorsByType;
+        this.latencies = latencies;
+    }
+    
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+    
+    /**
+     * From the end of warmup to the end of the schedule or the last measured completion, whichever is later.
+     */
+    public double getMeasuredSeconds() {
+        return measuredSeconds;
+    }
+    
+    public long getSessionsScheduled() {
+        return sessionsScheduled;
+    }
+    
+    public long getSessionsCompleted() {
+        return sessionsCompleted;
+    }
+    
+    public long getSessionsFailed() {
+        return sessionsFailed;
+    }
+    
+    /**
+     * Measured sessions still queued or running when the drain timeout expired; they are in no histogram.
+     */
+    public long getSessionsUnfinished() {
+        return sessionsUnfinished;
+    }
+    
+    public int getMaxBacklog() {
+        return maxBacklog;
+    }
+    
+    public Map<String, Long> getErrorsByType() {
+        return errorsByType;
+    }
+    
+    public LatencyRecorder getLatencies() {
+        return latencies;
+    }
+    
+    public double getCompletedPerSecond() {
+        return sessionsCompleted / measuredSeconds;
+    }
+}
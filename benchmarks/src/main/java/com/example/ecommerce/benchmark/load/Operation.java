@@ -0,0 +1,25 @@
+package com.example.ecommerce.benchmark.load;
+
+/**
+ * Steps of a load session, in lifecycle order; SESSION covers a whole session from its scheduled arrival.
+ */
+public enum Operation {
+    CREATE_USER("createUser"),
+    CREATE_ORDER("createOrder"),
+    CONFIRM_ORDER("confirmOrder"),
+    PROCESS_ORDER("processOrder"),
+    SHIP_ORDER("shipOrder"),
+    COMPLETE_ORDER("completeOrder"),
+    CANCEL_ORDER("cancelOrder"),
+    SESSION("session");
+    
+    private final String label;
+    
+    Operation(String label) {
+        this.label = label;
+    }
+    
+    public String getLabel() {
+        return label;
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.ecommerce.benchmark.micro;
+
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.example.ecommerce.audit.AuditEvent;
+import com.example.ecommerce.audit.AuditEventType;
+import com.example.ecommerce.audit.AuditPipeline;
+import com.example.ecommerce.audit.BackpressurePolicy;
+import com.example.ecommerce.audit.Slf4jAuditSink;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caller-thread cost of one audit event: the inline SLF4J call AuditService used to make
+ * versus capturing the event into the ring. Both paths log through the same pattern encoder
+ * into a discarding stream, so console I/O does not dominate the inline numbers.
+ * With DROP the ring numbers are pure capture cost (the tear-down line reports how many events the
+ * consumer could not keep up with); with BLOCK producers are throttled to the consumer's sustained rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuditPipelineBenchmark {
+    
+    private static final Long ORDER_ID = 4242L;
+    private static final Long USER_ID = 1717L;
+    private static final String ORDER_NUMBER = "ORD-1700000000000-1234";
+    
+    @Param({"DROP", "BLOCK"})
+    public BackpressurePolicy policy;
+    
+    private Logger inlineLogger;
+    private AuditPipeline pipeline;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        discardOutput("com.example.ecommerce.service.AuditService");
+        inlineLogger = LoggerFactory.getLogger("com.example.ecommerce.service.AuditService");
+        pipeline = new AuditPipeline(Collections.singletonList(new Slf4jAuditSink()), 65536, 256,
+                policy, 0, 50);
+        pipeline.start();
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        pipeline.stop();
+        System.out.println("Dropped audit events: " + pipeline.getDroppedCount());
+    }
+    
+    @Benchmark
+    public void inlineLogger() {
+        inlineLogger.info("[AUDIT] Order created: ID={}, OrderNumber={}, UserID={}, Time={}",
+                ORDER_ID, ORDER_NUMBER, USER_ID, LocalDateTime.now());
+    }
+    
+    @Benchmark
+    public void ringBuffer() {
+        AuditEvent event = pipeline.begin(AuditEventType.ORDER_CREATED);
+        if (event != null) {
+            pipeline.commit(event.entityId(ORDER_ID).text(ORDER_NUMBER).relatedId(USER_ID));
+        }
+    }
+    
+    @Benchmark
+    @Threads(4)
+    public void inlineLoggerContended() {
+        inlineLogger();
+    }
+    
+    @Benchmark
+    @Threads(4)
+    public void ringBufferContended() {
+        ringBuffer();
+    }
+    
+    private static void discardOutput(String loggerName) {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d %-5level [%thread] %logger{36} : %msg%n");
+        encoder.start();
+        
+        OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+        appender.setContext(context);
+        appender.setEncoder(encoder);
+        appender.setOutputStream(OutputStream.nullOutputStream());
+        appender.start();
+        
+        ch.qos.logback.classic.Logger logger = context.getLogger(loggerName);
+        logger.detachAndStopAllAppenders();
+        logger.addAppender(appender);
+        logger.setLevel(ch.qos.logback.classic.Level.INFO);
+        logger.setAdditive(false);
+    }
+    
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(AuditPipelineBenchmark.class.getSimpleName()).build()).run();
+    }
+}
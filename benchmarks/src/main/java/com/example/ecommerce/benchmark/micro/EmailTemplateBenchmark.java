@@ -0,0 +1,81 @@
+package com.example.ecommerce.benchmark.micro;
+
+import com.example.ecommerce.email.EmailTemplateRegistry;
+import com.example.ecommerce.email.RenderedEmail;
+import com.example.ecommerce.model.EmailOutboxMessage.EmailKind;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-threaded messages per second for a payment confirmation, i.e. throughput per core:
+ * the precompiled registry against the two approaches it replaces, String.format and parsing the
+ * template text on every send.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(1)
+@Fork(1)
+public class EmailTemplateBenchmark {
+    
+    private static final String SUBJECT_SOURCE = "Payment received for order {{orderNumber}}";
+    private static final String BODY_SOURCE = "We received your payment for order {{orderNumber}}.\nTransaction: {{transactionId}}";
+    
+    @Param({"en", "de"})
+    public String locale;
+    
+    private EmailTemplateRegistry registry;
+    private Locale resolvedLocale;
+    private long sequence;
+    
+    @Setup
+    public void setUp() {
+        registry = new EmailTemplateRegistry("email-templates", "en");
+        resolvedLocale = Locale.forLanguageTag(locale);
+    }
+    
+    @Benchmark
+    public RenderedEmail precompiled() {
+        long n = sequence++;
+        return registry.render(EmailKind.PAYMENT_CONFIRMATION, resolvedLocale, "ORD-" + n, "TXN-" + n);
+    }
+    
+    @Benchmark
+    public RenderedEmail stringFormat() {
+        long n = sequence++;
+        String orderNumber = "ORD-" + n;
+        return new RenderedEmail(String.format("Payment received for order %s", orderNumber),
+                String.format("We received your payment for order %s.%nTransaction: %s", orderNumber, "TXN-" + n));
+    }
+    
+    @Benchmark
+    public RenderedEmail parsedPerSend() {
+        long n = sequence++;
+        String orderNumber = "ORD-" + n;
+        String transactionId = "TXN-" + n;
+        return new RenderedEmail(SUBJECT_SOURCE.replace("{{orderNumber}}", orderNumber),
+                BODY_SOURCE.replace("{{orderNumber}}", orderNumber).replace("{{transactionId}}", transactionId));
+    }
+    
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(EmailTemplateBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.ecommerce.benchmark.micro;
+
+import com.example.ecommerce.model.Payment.PaymentMethod;
+import com.example.ecommerce.service.PaymentVelocityService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a velocity check on the payment path, single-threaded and under contention.
+ * Limits are set high so every call takes the full add-then-check path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PaymentVelocityBenchmark {
+    
+    private static final BigDecimal AMOUNT = new BigDecimal("19.99");
+    
+    @Param({"1", "10000"})
+    public int customers;
+    
+    private PaymentVelocityService velocityService;
+    private String[] subjects;
+    
+    @Setup
+    public void setUp() {
+        velocityService = new PaymentVelocityService(true, 60, Long.MAX_VALUE / 2, new BigDecimal("1000000000"));
+        subjects = new String[customers];
+        for (int i = 0; i < customers; i++) {
+            subjects[i] = "customer" + i + "@example.com";
+        }
+    }
+    
+    @Benchmark
+    public boolean tryRecord() {
+        return velocityService.tryRecord(nextSubject(), PaymentMethod.CREDIT_CARD, AMOUNT);
+    }
+    
+    @Benchmark
+    @Threads(8)
+    public boolean tryRecordContended() {
+        return velocityService.tryRecord(nextSubject(), PaymentMethod.CREDIT_CARD, AMOUNT);
+    }
+    
+    private String nextSubject() {
+        return subjects[ThreadLocalRandom.current().nextInt(subjects.length)];
+    }
+    
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(PaymentVelocityBenchmark.class.getSimpleName()).build()).run();
+    }
+}
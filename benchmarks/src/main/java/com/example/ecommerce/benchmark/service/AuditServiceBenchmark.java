@@ -0,0 +1,50 @@
+package com.example.ecommerce.benchmark.service;
+
+import com.example.ecommerce.service.AuditService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caller-side cost of audit logging with the pipeline, its consumer and the binary store all running.
+ * Under the default BLOCK backpressure a consumer that falls behind shows up here as a lower score.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class AuditServiceBenchmark {
+    
+    private ServiceContext context;
+    private AuditService auditService;
+    private long sequence;
+    
+    @Setup(Level.Trial)
+    public void setUp(ServiceContext context) {
+        this.context = context;
+        this.auditService = context.getBean(AuditService.class);
+    }
+    
+    @Benchmark
+    public void logOrderCreated() {
+        long n = sequence++;
+        auditService.logOrderCreated(n, "ORD-" + n, context.userId(context.randomUserIndex()));
+    }
+    
+    @Benchmark
+    public void logStockUpdated() {
+        auditService.logStockUpdated(context.randomProductId(), 100, 99);
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.ecommerce.benchmark.service;
+
+import com.example.ecommerce.model.Order;
+import com.example.ecommerce.model.Payment.PaymentMethod;
+import com.example.ecommerce.service.OrderService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order placement and processing through OrderService, each in its own transaction as in production.
+ * processOrder needs a fresh pending order per call, so one is placed in a per-invocation setup that JMH
+ * leaves out of the measurement. Per-invocation setup is safe at this scale: both operations take far longer
+ * than the timestamps it adds.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class OrderServiceBenchmark {
+    
+    @State(Scope.Thread)
+    public static class OrderLines {
+        
+        @Param({"3"})
+        public int linesPerOrder;
+        
+        ServiceContext context;
+        OrderService orderService;
+        
+        @Setup(Level.Trial)
+        public void setUp(ServiceContext context) {
+            this.context = context;
+            this.orderService = context.getBean(OrderService.class);
+        }
+        
+        Map<Long, Integer> randomLines() {
+            Map<Long, Integer> lines = new HashMap<>();
+            for (int i = 0; i < linesPerOrder; i++) {
+                lines.merge(context.randomProductId(), 1 + ThreadLocalRandom.current().nextInt(3), Integer::sum);
+            }
+            return lines;
+        }
+    }
+    
+    @State(Scope.Thread)
+    public static class PendingOrder {
+        
+        Order order;
+        String userEmail;
+        
+        @Setup(Level.Invocation)
+        public void place(OrderLines lines) {
+            int user = lines.context.randomUserIndex();
+            order = lines.orderService.createOrder(lines.context.userId(user), lines.randomLines(), PaymentMethod.CREDIT_CARD);
+            userEmail = lines.context.userEmail(user);
+        }
+    }
+    
+    @Benchmark
+    public Order createOrder(OrderLines lines) {
+        long userId = lines.context.userId(lines.context.randomUserIndex());
+        return lines.orderService.createOrder(userId, lines.randomLines(), PaymentMethod.CREDIT_CARD);
+    }
+    
+    @Benchmark
+    public Order processOrder(OrderLines lines, PendingOrder pending) {
+        return lines.orderService.processOrder(pending.order.getId(), pending.userEmail);
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.ecommerce.benchmark.service;
+
+import com.example.ecommerce.model.Payment.PaymentMethod;
+import com.example.ecommerce.reactive.service.ReactiveOrderService;
+import com.example.ecommerce.service.OrderService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * createOrder throughput on the blocking and the reactive stack with {@code inFlight} orders outstanding.
+ * The blocking side holds one pool thread per in-flight order, as Tomcat holds one request thread; the
+ * reactive side keeps {@code inFlight} orders subscribed at once from a single caller thread.
+ * Each invocation places {@link #ORDERS_PER_INVOCATION} orders, so scores are per order. Run with
+ * {@code -prof gc} for heap per order ({@code gc.alloc.rate.norm}); on top of that the blocking stack reserves
+ * one thread stack ({@code -Xss}, 1 MB by default) per in-flight request, which the reactive stack does not.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(1)
+@State(Scope.Benchmark)
+public class OrderStackBenchmark {
+    
+    static final int ORDERS_PER_INVOCATION = 256;
+    
+    @Param({"16", "64", "256"})
+    public int inFlight;
+    
+    @Param({"3"})
+    public int linesPerOrder;
+    
+    private ServiceContext context;
+    private OrderService orderService;
+    private ReactiveOrderService reactiveOrderService;
+    private ExecutorService requestThreads;
+    
+    @Setup(Level.Trial)
+    public void setUp(ServiceContext context) {
+        this.context = context;
+        this.orderService = context.getBean(OrderService.class);
+        this.reactiveOrderService = context.getBean(ReactiveOrderService.class);
+        this.requestThreads = Executors.newFixedThreadPool(inFlight);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        requestThreads.shutdownNow();
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(ORDERS_PER_INVOCATION)
+    public int blocking() throws InterruptedException, ExecutionException {
+        List<Callable<Long>> orders = new ArrayList<>(ORDERS_PER_INVOCATION);
+        for (int i = 0; i < ORDERS_PER_INVOCATION; i++) {
+            orders.add(() -> orderService.createOrder(randomUserId(), randomLines(), PaymentMethod.CREDIT_CARD).getId());
+        }
+        int placed = 0;
+        for (Future<Long> order : requestThreads.invokeAll(orders)) {
+            order.get();
+            placed++;
+        }
+        return placed;
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(ORDERS_PER_INVOCATION)
+    public long reactive() {
+        return Flux.range(0, ORDERS_PER_INVOCATION)
+                .flatMap(i -> reactiveOrderService.createOrder(randomUserId(), randomLines(), PaymentMethod.CREDIT_CARD), inFlight)
+                .count()
+                .block();
+    }
+    
+    private long randomUserId() {
+        return context.userId(context.randomUserIndex());
+    }
+    
+    private Map<Long, Integer> randomLines() {
+        Map<Long, Integer> lines = new HashMap<>();
+        for (int i = 0; i < linesPerOrder; i++) {
+            lines.merge(context.randomProductId(), 1 + ThreadLocalRandom.current().nextInt(3), Integer::sum);
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.ecommerce.benchmark.service;
+
+import com.example.ecommerce.model.Product;
+import com.example.ecommerce.service.ProductService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stock reduction on random products and keyword search. The search keyword matches about ten products
+ * whatever the dataset size, so its cost tracks the scan rather than the result size.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class ProductServiceBenchmark {
+    
+    private ServiceContext context;
+    private ProductService productService;
+    
+    @Setup(Level.Trial)
+    public void setUp(ServiceContext context) {
+        this.context = context;
+        this.productService = context.getBean(ProductService.class);
+    }
+    
+    @Benchmark
+    public void reduceStock() {
+        productService.reduceStock(context.randomProductId(), 1);
+    }
+    
+    @Benchmark
+    public List<Product> searchProducts() {
+        // "Product 00012" matches Product 000120..000129
+        String name = ServiceContext.productName(ThreadLocalRandom.current().nextInt(context.products));
+        return productService.searchProducts(name.substring(0, name.length() - 1));
+    }
+}
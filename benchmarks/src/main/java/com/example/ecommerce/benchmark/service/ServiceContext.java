@@ -0,0 +1,171 @@
+package com.example.ecommerce.benchmark.service;
+
+import com.example.ecommerce.EcommerceApplication;
+import com.example.ecommerce.model.Product;
+import com.example.ecommerce.model.User;
+import com.example.ecommerce.repository.ProductRepository;
+import com.example.ecommerce.repository.UserRepository;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The full application context on a private in-memory H2 database, seeded with {@code products} products and
+ * {@code users} users; run with {@code -p products=...,...} to sweep dataset sizes.
+ * Benchmark defaults below keep the runs about the service layer: no SQL echo, quiet logging, an instant stub
+ * payment gateway and velocity limits that never trip. Any of them can be overridden with
+ * {@code -jvmArgsAppend -D<property>=<value>}, as can any other application property.
+ * The load generator starts it directly, outside JMH.
+ */
+@State(Scope.Benchmark)
+public class ServiceContext {
+    
+    static final String[] CATEGORIES = {"Electronics", "Books", "Garden", "Toys", "Kitchen", "Sports", "Music", "Office"};
+    
+    private static final int SEED_CHUNK = 1000;
+    private static final int SEED_STOCK = Integer.MAX_VALUE / 2;
+    
+    @Param({"1000"})
+    public int products;
+    
+    @Param({"1000"})
+    public int users;
+    
+    private ConfigurableApplicationContext context;
+    private Path auditDirectory;
+    private long[] productIds;
+    private long[] userIds;
+    private String[] userEmails;
+    
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        auditDirectory = Files.createTempDirectory("benchmark-audit");
+        Map<String, String> defaults = new LinkedHashMap<>();
+        defaults.put("spring.datasource.url", "jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        defaults.put("spring.jpa.show-sql", "false");
+        defaults.put("spring.h2.console.enabled", "false");
+        defaults.put("logging.level.com.example.ecommerce", "WARN");
+        defaults.put("ecommerce.audit.store.directory", auditDirectory.toString());
+        defaults.put("ecommerce.payment.gateway.stub.base-latency-ms", "0");
+        defaults.put("ecommerce.payment.gateway.stub.jitter-ms", "0");
+        defaults.put("ecommerce.payment.gateway.stub.tail-probability", "0");
+        defaults.put("ecommerce.velocity.max-payments", String.valueOf(Integer.MAX_VALUE));
+        defaults.put("ecommerce.velocity.max-amount", "1000000000000");
+        
+        // Command-line arguments outrank application.properties; system properties set by the caller still win
+        List<String> args = new ArrayList<>();
+        defaults.forEach((key, value) -> {
+            if (System.getProperty(key) == null) {
+                args.add("--" + key + "=" + value);
+            }
+        });
+        context = new SpringApplicationBuilder(EcommerceApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(args.toArray(new String[0]));
+        seed();
+    }
+    
+    @TearDown(Level.Trial)
+    public void stop() throws IOException {
+        if (context != null) {
+            context.close();
+        }
+        if (auditDirectory != null) {
+            FileSystemUtils.deleteRecursively(auditDirectory);
+        }
+    }
+    
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+    
+    public long randomProductId() {
+        return productIds[ThreadLocalRandom.current().nextInt(productIds.length)];
+    }
+    
+    public int randomUserIndex() {
+        return ThreadLocalRandom.current().nextInt(userIds.length);
+    }
+    
+    public long userId(int index) {
+        return userIds[index];
+    }
+    
+    public String userEmail(int index) {
+        return userEmails[index];
+    }
+    
+    static String productName(int index) {
+        return String.format("Product %06d", index);
+    }
+    
+    /**
+     * Seeds through the repositories in chunks; going through the services would spend minutes on password hashing.
+     */
+    private void seed() {
+        if (products < 1 || users < 1) {
+            throw new IllegalArgumentException("products and users must be positive");
+        }
+        ProductRepository productRepository = getBean(ProductRepository.class);
+        UserRepository userRepository = getBean(UserRepository.class);
+        TransactionTemplate transaction = new TransactionTemplate(getBean(PlatformTransactionManager.class));
+        
+        productIds = new long[products];
+        for (int from = 0; from < products; from += SEED_CHUNK) {
+            int start = from;
+            int end = Math.min(from + SEED_CHUNK, products);
+            transaction.executeWithoutResult(status -> {
+                List<Product> chunk = new ArrayList<>(end - start);
+                for (int i = start; i < end; i++) {
+                    chunk.add(new Product(productName(i), "Seeded product " + i,
+                            BigDecimal.valueOf(5 + i % 200).add(new BigDecimal("0.99")), SEED_STOCK,
+                            CATEGORIES[i % CATEGORIES.length]));
+                }
+                List<Product> saved = productRepository.saveAll(chunk);
+                for (int i = 0; i < saved.size(); i++) {
+                    productIds[start + i] = saved.get(i).getId();
+                }
+            });
+        }
+        
+        userIds = new long[users];
+        userEmails = new String[users];
+        for (int from = 0; from < users; from += SEED_CHUNK) {
+            int start = from;
+            int end = Math.min(from + SEED_CHUNK, users);
+            transaction.executeWithoutResult(status -> {
+                List<User> chunk = new ArrayList<>(end - start);
+                for (int i = start; i < end; i++) {
+                    User user = new User("Seeded", "User" + i, "seeded" + i + "@bench.example.com", "not-a-hash", "555-0100");
+                    user.setAddress(i + " Benchmark Street");
+                    chunk.add(user);
+                }
+                List<User> saved = userRepository.saveAll(chunk);
+                for (int i = 0; i < saved.size(); i++) {
+                    userIds[start + i] = saved.get(i).getId();
+                    userEmails[start + i] = saved.get(i).getEmail();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.ecommerce.benchmark.service;
+
+import com.example.ecommerce.model.User;
+import com.example.ecommerce.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * User registration, dominated by password hashing at the configured PBKDF2 cost. With more threads than
+ * {@code ecommerce.auth.hashing.threads} the hashing pool may shed work, which fails the run rather than
+ * hiding in the score; raise the pool or lower {@code ecommerce.auth.pbkdf2-iterations} via -jvmArgsAppend.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class UserServiceBenchmark {
+    
+    private UserService userService;
+    private String prefix;
+    private long sequence;
+    
+    @Setup(Level.Trial)
+    public void setUp(ServiceContext context) {
+        this.userService = context.getBean(UserService.class);
+        this.prefix = "bench-" + UUID.randomUUID().toString().substring(0, 8) + "-";
+    }
+    
+    @Benchmark
+    public User createUser() {
+        long n = sequence++;
+        return userService.createUser("Bench", "User" + n, prefix + n + "@bench.example.com", "correct horse " + n, "555-0100");
+    }
+}
@@ -0,0 +1,301 @@
+package com.example.ecommerce.benchmark.startup;
+
+import com.example.ecommerce.benchmark.startup.StartupOptions.Variant;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+import java.util.jar.Attributes;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Cold-start benchmark: launches the application in a fresh JVM per run and records the time from process
+ * start to the first successful {@code POST /api/orders}. Each run waits for the HTTP port, registers a user and
+ * a product through the API, places the order, then stops the process. Runs use a private in-memory database
+ * and cheap password hashing so the fixture does not dominate; override with {@code --app-args}.
+ * Needs the runnable plain jar from {@code mvn -Pappcds package}; the {@code prod-cds} variant also needs the
+ * archive it builds.
+ *
+ * <pre>java -cp target/benchmarks.jar com.example.ecommerce.benchmark.startup.StartupBenchmark --runs=5</pre>
+ */
+public class StartupBenchmark {
+    
+    private static final DateTimeFormatter DIRECTORY_NAME = DateTimeFormatter.ofPattern("'startup-'yyyyMMdd-HHmmss")
+            .withZone(ZoneOffset.UTC);
+    private static final long POLL_MILLIS = 10;
+    
+    private final StartupOptions options;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+    
+    public StartupBenchmark(StartupOptions options) {
+        this.options = options;
+    }
+    
+    public static void main(String[] args) throws IOException, InterruptedException {
+        StartupOptions options;
+        try {
+            options = StartupOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Options: --runs=<n> --variants=dev,prod,prod-cds --jar=<plain jar> --archive=<jsa> "
+                    + "--java=<java executable> --jvm-args=\"...\" --app-args=\"...\" --timeout=<s> --output=<dir>");
+            System.exit(2);
+            return;
+        }
+        if (!isRunnable(Path.of(options.getJar()))) {
+            System.err.println(options.getJar() + " is not runnable on its own; build it with mvn -Pappcds package");
+            System.exit(2);
+            return;
+        }
+        
+        Instant startedAt = Instant.now();
+        Path directory = Path.of(options.getOutputDirectory()).resolve(DIRECTORY_NAME.format(startedAt));
+        Files.createDirectories(directory);
+        Map<Variant, List<Run>> results = new StartupBenchmark(options).run(directory);
+        
+        print(results);
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("startedAt", startedAt.toString());
+        report.put("options", options.asMap());
+        Map<String, Object> variants = new LinkedHashMap<>();
+        results.forEach((variant, runs) -> variants.put(variant.getLabel(), toMap(runs)));
+        report.put("variants", variants);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(directory.resolve("report.json").toFile(), report);
+        System.out.println("Report written to " + directory);
+    }
+    
+    /**
+     * Runs the variants interleaved, one run of each per round, so drift on the machine spreads across all of them.
+     */
+    public Map<Variant, List<Run>> run(Path directory) throws IOException, InterruptedException {
+        List<Variant> variants = new ArrayList<>(options.getVariants());
+        if (variants.contains(Variant.PROD_CDS) && !Files.isRegularFile(Path.of(options.getArchive()))) {
+            System.err.println("No archive at " + options.getArchive() + "; skipping prod-cds");
+            variants.remove(Variant.PROD_CDS);
+        }
+        Map<Variant, List<Run>> results = new LinkedHashMap<>();
+        variants.forEach(variant -> results.put(variant, new ArrayList<>()));
+        for (int round = 1; round <= options.getRuns(); round++) {
+            for (Variant variant : variants) {
+                Run run = launch(variant, directory.resolve(variant.getLabel() + "-" + round + ".log"));
+                System.out.printf(Locale.ROOT, "%-9s run %d: %s%n", variant.getLabel(), round, run);
+                results.get(variant).add(run);
+            }
+        }
+        return results;
+    }
+    
+    private Run launch(Variant variant, Path log) throws IOException, InterruptedException {
+        int port = freePort();
+        Path auditDirectory = Files.createTempDirectory("startup-audit");
+        List<String> command = new ArrayList<>();
+        command.add(options.getJava());
+        if (variant == Variant.PROD_CDS) {
+            command.add("-XX:SharedArchiveFile=" + options.getArchive());
+        }
+        command.addAll(options.getJvmArgs());
+        command.add("-jar");
+        command.add(options.getJar());
+        if (variant != Variant.DEV) {
+            command.add("--spring.profiles.active=prod");
+        }
+        command.addAll(Arrays.asList("--server.port=" + port, "--ecommerce.reactive.port=-1",
+                "--spring.datasource.url=jdbc:h2:mem:startup", "--ecommerce.auth.pbkdf2-iterations=1000",
+                "--ecommerce.audit.store.directory=" + auditDirectory));
+        command.addAll(options.getAppArgs());
+        
+        long launched = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log.toFile()).start();
+        long deadline = launched + TimeUnit.SECONDS.toNanos(options.getTimeoutSeconds());
+        try {
+            String base = "http://localhost:" + port;
+            awaitHealthy(base, process, deadline);
+            long ready = System.nanoTime();
+            
+            Map<String, Object> user = new LinkedHashMap<>();
+            user.put("firstName", "Startup");
+            user.put("lastName", "Benchmark");
+            user.put("email", "startup@bench.example.com");
+            user.put("password", "startup");
+            user.put("phone", "555-0100");
+            long userId = post(base + "/api/users", user).get("id").asLong();
+            Map<String, Object> product = new LinkedHashMap<>();
+            product.put("name", "Startup product");
+            product.put("price", "9.99");
+            product.put("stockQuantity", 100);
+            long productId = post(base + "/api/products", product).get("id").asLong();
+            
+            Map<String, Object> order = new LinkedHashMap<>();
+            order.put("userId", userId);
+            order.put("items", Collections.singletonMap(String.valueOf(productId), 1));
+            long orderStart = System.nanoTime();
+            post(base + "/api/orders", order);
+            long ordered = System.nanoTime();
+            return new Run(millis(ready - launched), millis(ordered - launched), millis(ordered - orderStart));
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+            deleteRecursively(auditDirectory);
+        }
+    }
+    
+    private void awaitHealthy(String base, Process process, long deadline) throws IOException, InterruptedException {
+        HttpRequest health = HttpRequest.newBuilder(URI.create(base + "/actuator/health")).build();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with " + process.exitValue() + " before it was ready");
+            }
+            try {
+                if (http.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (ConnectException e) {
+                // not listening yet
+            }
+            Thread.sleep(POLL_MILLIS);
+        }
+        throw new IllegalStateException("Application not ready within " + options.getTimeoutSeconds() + "s");
+    }
+    
+    private JsonNode post(String url, Map<String, Object> body) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                .build();
+        HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 201) {
+            throw new IllegalStateException("POST " + url + " returned " + response.statusCode() + ": " + response.body());
+        }
+        return objectMapper.readTree(response.body());
+    }
+    
+    private static void print(Map<Variant, List<Run>> results) {
+        System.out.printf(Locale.ROOT, "%n%-9s %5s %12s %12s %12s %12s%n", "variant", "runs", "ready p50",
+                "order p50", "order min", "order max");
+        results.forEach((variant, runs) -> {
+            List<Double> ready = sorted(runs, Run::getReadyMillis);
+            List<Double> firstOrder = sorted(runs, Run::getFirstOrderMillis);
+            System.out.printf(Locale.ROOT, "%-9s %5d %10.0fms %10.0fms %10.0fms %10.0fms%n", variant.getLabel(),
+                    runs.size(), median(ready), median(firstOrder), firstOrder.get(0), firstOrder.get(firstOrder.size() - 1));
+        });
+    }
+    
+    private static Map<String, Object> toMap(List<Run> runs) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        List<Double> ready = sorted(runs, Run::getReadyMillis);
+        List<Double> firstOrder = sorted(runs, Run::getFirstOrderMillis);
+        map.put("readyMillisMedian", median(ready));
+        map.put("firstOrderMillisMedian", median(firstOrder));
+        map.put("firstOrderMillisMin", firstOrder.get(0));
+        map.put("firstOrderMillisMax", firstOrder.get(firstOrder.size() - 1));
+        map.put("runs", runs.stream().map(Run::asMap).collect(Collectors.toList()));
+        return map;
+    }
+    
+    private static List<Double> sorted(List<Run> runs, ToDoubleFunction<Run> metric) {
+        return runs.stream().mapToDouble(metric).sorted().boxed().collect(Collectors.toList());
+    }
+    
+    private static double median(List<Double> sorted) {
+        int middle = sorted.size() / 2;
+        return sorted.size() % 2 == 1 ? sorted.get(middle) : (sorted.get(middle - 1) + sorted.get(middle)) / 2;
+    }
+    
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+    
+    private static boolean isRunnable(Path jar) throws IOException {
+        if (!Files.isRegularFile(jar)) {
+            return false;
+        }
+        try (JarFile file = new JarFile(jar.toFile())) {
+            Manifest manifest = file.getManifest();
+            return manifest != null && manifest.getMainAttributes().getValue(Attributes.Name.CLASS_PATH) != null;
+        }
+    }
+    
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+    
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Collections.reverseOrder()).collect(Collectors.toList())) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+    
+    /**
+     * One launch: process start to healthy, process start to the first placed order, and that order's own latency.
+     */
+    public static final class Run {
+        
+        private final double readyMillis;
+        private final double firstOrderMillis;
+        private final double createOrderMillis;
+        
+        Run(double readyMillis, double firstOrderMillis, double createOrderMillis) {
+            this.readyMillis = readyMillis;
+            this.firstOrderMillis = firstOrderMillis;
+            this.createOrderMillis = createOrderMillis;
+        }
+        
+        public double getReadyMillis() {
+            return readyMillis;
+        }
+        
+        public double getFirstOrderMillis() {
+            return firstOrderMillis;
+        }
+        
+        public double getCreateOrderMillis() {
+            return createOrderMillis;
+        }
+        
+        Map<String, Object> asMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("readyMillis", readyMillis);
+            map.put("firstOrderMillis", firstOrderMillis);
+            map.put("createOrderMillis", createOrderMillis);
+            return map;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "ready %.0f ms, first order %.0f ms (createOrder %.0f ms)",
+                    readyMillis, firstOrderMillis, createOrderMillis);
+        }
+    }
+}
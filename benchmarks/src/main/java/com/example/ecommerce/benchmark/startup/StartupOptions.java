@@ -0,0 +1,156 @@
+package com.example.ecommerce.benchmark.startup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Startup benchmark settings, parsed from {@code --name=value} arguments. Unknown names are rejected so that a
+ * typo does not silently run the defaults.
+ */
+public class StartupOptions {
+    
+    /**
+     * How the application is launched: the development defaults, the prod profile, and the prod profile on the
+     * AppCDS archive.
+     */
+    public enum Variant {
+        DEV, PROD, PROD_CDS;
+        
+        public String getLabel() {
+            return name().toLowerCase().replace('_', '-');
+        }
+        
+        static Variant fromLabel(String label) {
+            return valueOf(label.trim().toUpperCase().replace('-', '_'));
+        }
+    }
+    
+    private int runs = 5;
+    private List<Variant> variants = Arrays.asList(Variant.values());
+    private String jar = "../target/ecommerce-order-system-1.0.0-SNAPSHOT.jar";
+    private String archive = "../target/ecommerce.jsa";
+    private String java = System.getProperty("java.home") + "/bin/java";
+    private List<String> jvmArgs = new ArrayList<>();
+    private List<String> appArgs = new ArrayList<>();
+    private int timeoutSeconds = 180;
+    private String outputDirectory = "results";
+    
+    public static StartupOptions parse(String... args) {
+        StartupOptions options = new StartupOptions();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            String name = arg.substring(2, equals);
+            String value = arg.substring(equals + 1);
+            switch (name) {
+                case "runs":
+                    options.runs = Integer.parseInt(value);
+                    break;
+                case "variants":
+                    options.variants = new ArrayList<>();
+                    for (String label : value.split(",")) {
+                        options.variants.add(Variant.fromLabel(label));
+                    }
+                    break;
+                case "jar":
+                    options.jar = value;
+                    break;
+                case "archive":
+                    options.archive = value;
+                    break;
+                case "java":
+                    options.java = value;
+                    break;
+                case "jvm-args":
+                    options.jvmArgs = split(value);
+                    break;
+                case "app-args":
+                    options.appArgs = split(value);
+                    break;
+                case "timeout":
+                    options.timeoutSeconds = Integer.parseInt(value);
+                    break;
+                case "output":
+                    options.outputDirectory = value;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option --" + name);
+            }
+        }
+        options.validate();
+        return options;
+    }
+    
+    private static List<String> split(String value) {
+        List<String> parts = new ArrayList<>();
+        for (String part : value.trim().split("\\s+")) {
+            if (!part.isEmpty()) {
+                parts.add(part);
+            }
+        }
+        return parts;
+    }
+    
+    private void validate() {
+        if (runs < 1 || timeoutSeconds < 1) {
+            throw new IllegalArgumentException("runs and timeout must be positive");
+        }
+        if (variants.isEmpty()) {
+            throw new IllegalArgumentException("at least one variant is required");
+        }
+    }
+    
+    public Map<String, Object> asMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("runs", runs);
+        List<String> labels = new ArrayList<>();
+        variants.forEach(variant -> labels.add(variant.getLabel()));
+        map.put("variants", labels);
+        map.put("jar", jar);
+        map.put("archive", archive);
+        map.put("jvmArgs", jvmArgs);
+        map.put("appArgs", appArgs);
+        return map;
+    }
+    
+    public int getRuns() {
+        return runs;
+    }
+    
+    public List<Variant> getVariants() {
+        return variants;
+    }
+    
+    public String getJar() {
+        return jar;
+    }
+    
+    public String getArchive() {
+        return archive;
+    }
+    
+    public String getJava() {
+        return java;
+    }
+    
+    public List<String> getJvmArgs() {
+        return jvmArgs;
+    }
+    
+    public List<String> getAppArgs() {
+        return appArgs;
+    }
+    
+    public int getTimeoutSeconds() {
+        return timeoutSeconds;
+    }
+    
+    public String getOutputDirectory() {
+        return outputDirectory;
+    }
+}
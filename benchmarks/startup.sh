@@ -0,0 +1,13 @@
+#!/usr/bin/env bash
+# Measures cold start to the first successful createOrder; reports go to results/startup-<timestamp>/.
+#   ./startup.sh --runs=5 --variants=dev,prod,prod-cds
+# Build the application with mvn -Pappcds package first: the runs use its runnable plain jar and AppCDS archive.
+set -euo pipefail
+cd "$(dirname "$0")"
+
+if [ ! -f target/benchmarks.jar ]; then
+    echo "target/benchmarks.jar not found; build it first (see README, Benchmarks)" >&2
+    exit 2
+fi
+
+exec java ${JAVA_OPTS:-} -cp target/benchmarks.jar com.example.ecommerce.benchmark.startup.StartupBenchmark "$@"
@@ -2,12 +2,14 @@ package com.example.ecommerce;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration;
 
 /**
  * Main Spring Boot Application
  * E-Commerce Order Management System
+ * The R2DBC transaction manager is left out so that JPA's stays the only TransactionManager (see ReactiveStackConfig).
  */
-@SpringBootApplication
+@SpringBootApplication(exclude = R2dbcTransactionManagerAutoConfiguration.class)
 public class EcommerceApplication {
     
     public static void main(String[] args) {
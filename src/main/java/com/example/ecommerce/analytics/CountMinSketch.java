@@ -0,0 +1,57 @@
+package com.example.ecommerce.analytics;
+
+import java.util.Arrays;
+
+/**
+ * Count-min sketch over long keys - fixed memory, never under-estimates
+ */
+public class CountMinSketch {
+    
+    private final int width;
+    private final int depth;
+    private final int[] counts;
+    
+    public CountMinSketch(int width, int depth) {
+        if (width <= 0 || depth <= 0) {
+            throw new IllegalArgumentException("Sketch width and depth must be positive");
+        }
+        this.width = width;
+        this.depth = depth;
+        this.counts = new int[width * depth];
+    }
+    
+    public void add(long key, int count) {
+        for (int row = 0; row < depth; row++) {
+            int index = row * width + bucket(key, row);
+            counts[index] = saturatedAdd(counts[index], count);
+        }
+    }
+    
+    public int estimate(long key) {
+        int min = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, counts[row * width + bucket(key, row)]);
+        }
+        return min;
+    }
+    
+    public void clear() {
+        Arrays.fill(counts, 0);
+    }
+    
+    private int bucket(long key, int row) {
+        long hash = mix(key + (row + 1) * 0x9E3779B97F4A7C15L);
+        return (int) Math.floorMod(hash, (long) width);
+    }
+    
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return z ^ (z >>> 33);
+    }
+    
+    private static int saturatedAdd(int a, int b) {
+        long sum = (long) a + b;
+        return sum > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) sum;
+    }
+}
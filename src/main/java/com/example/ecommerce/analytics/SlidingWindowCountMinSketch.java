@@ -0,0 +1,58 @@
+package com.example.ecommerce.analytics;
+
+/**
+ * Sliding-window frequency estimates built from a ring of count-min sketches,
+ * one per time bucket. Expired buckets are cleared lazily when their slot is reused.
+ */
+public class SlidingWindowCountMinSketch {
+    
+    private final long bucketMillis;
+    private final CountMinSketch[] buckets;
+    private final long[] bucketEpochs;
+    
+    public SlidingWindowCountMinSketch(long windowMillis, int bucketCount, int width, int depth) {
+        if (bucketCount <= 0 || windowMillis < bucketCount) {
+            throw new IllegalArgumentException("Window must cover at least one millisecond per bucket");
+        }
+        this.bucketMillis = windowMillis / bucketCount;
+        this.buckets = new CountMinSketch[bucketCount];
+        this.bucketEpochs = new long[bucketCount];
+        for (int i = 0; i < bucketCount; i++) {
+            buckets[i] = new CountMinSketch(width, depth);
+            bucketEpochs[i] = -1;
+        }
+    }
+    
+    public void add(long key, int count, long nowMillis) {
+        long epoch = epochOf(nowMillis);
+        int slot = slotOf(epoch);
+        if (bucketEpochs[slot] != epoch) {
+            buckets[slot].clear();
+            bucketEpochs[slot] = epoch;
+        }
+        buckets[slot].add(key, count);
+    }
+    
+    public long estimate(long key, long nowMillis) {
+        long currentEpoch = epochOf(nowMillis);
+        long total = 0;
+        for (int slot = 0; slot < buckets.length; slot++) {
+            if (isLive(bucketEpochs[slot], currentEpoch)) {
+                total += buckets[slot].estimate(key);
+            }
+        }
+        return total;
+    }
+    
+    public long epochOf(long nowMillis) {
+        return nowMillis / bucketMillis;
+    }
+    
+    private int slotOf(long epoch) {
+        return (int) (epoch % buckets.length);
+    }
+    
+    private boolean isLive(long bucketEpoch, long currentEpoch) {
+        return bucketEpoch >= 0 && bucketEpoch <= currentEpoch && currentEpoch - bucketEpoch < buckets.length;
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.ecommerce.analytics;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-saving heavy-hitter tracker with a fixed number of counters kept in an
+ * indexed min-heap, so the smallest counter can be replaced in O(log k).
+ */
+public class SpaceSavingTopK {
+    
+    private final Counter[] heap;
+    private final Map<Long, Counter> counters;
+    private int size;
+    
+    public SpaceSavingTopK(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.heap = new Counter[capacity];
+        this.counters = new HashMap<>(capacity * 2);
+    }
+    
+    public void add(long key, long count) {
+        Counter counter = counters.get(key);
+        if (counter != null) {
+            counter.count += count;
+            siftDown(counter.heapIndex);
+            return;
+        }
+        
+        if (size < heap.length) {
+            counter = new Counter(key, count);
+            counter.heapIndex = size;
+            heap[size++] = counter;
+            counters.put(key, counter);
+            siftUp(counter.heapIndex);
+            return;
+        }
+        
+        // Replace the smallest counter; its count becomes the newcomer's error bound
+        Counter min = heap[0];
+        counters.remove(min.key);
+        min.key = key;
+        min.count += count;
+        counters.put(key, min);
+        siftDown(0);
+    }
+    
+    /**
+     * Overwrites the count of every tracked key, e.g. after re-scoring against a sliding window.
+     */
+    public void rescore(KeyScorer scorer) {
+        for (int i = 0; i < size; i++) {
+            heap[i].count = scorer.score(heap[i].key);
+        }
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            siftDown(i);
+        }
+    }
+    
+    public List<Long> keys() {
+        List<Long> keys = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            keys.add(heap[i].key);
+        }
+        return keys;
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    private void siftUp(int index) {
+        Counter counter = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent].count <= counter.count) {
+                break;
+            }
+            place(heap[parent], index);
+            index = parent;
+        }
+        place(counter, index);
+    }
+    
+    private void siftDown(int index) {
+        Counter counter = heap[index];
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            int right = child + 1;
+            if (right < size && heap[right].count < heap[child].count) {
+                child = right;
+            }
+            if (counter.count <= heap[child].count) {
+                break;
+            }
+            place(heap[child], index);
+            index = child;
+        }
+        place(counter, index);
+    }
+    
+    private void place(Counter counter, int index) {
+        heap[index] = counter;
+        counter.heapIndex = index;
+    }
+    
+    public interface KeyScorer {
+        long score(long key);
+    }
+    
+    private static final class Counter {
+        private long key;
+        private long count;
+        private int heapIndex;
+        
+        private Counter(long key, long count) {
+            this.key = key;
+            this.count = count;
+        }
+    }
+}
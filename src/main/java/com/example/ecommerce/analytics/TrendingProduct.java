@@ -0,0 +1,23 @@
+package com.example.ecommerce.analytics;
+
+/**
+ * A product ranked by its estimated units sold within the trending window
+ */
+public class TrendingProduct {
+    
+    private final Long productId;
+    private final long estimatedQuantity;
+    
+    public TrendingProduct(Long productId, long estimatedQuantity) {
+        this.productId = productId;
+        this.estimatedQuantity = estimatedQuantity;
+    }
+    
+    public Long getProductId() {
+        return productId;
+    }
+    
+    public long getEstimatedQuantity() {
+        return estimatedQuantity;
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.ecommerce.audit;
+
+/**
+ * Kinds of entity an audit record can be looked up by
+ */
+public enum AuditEntityKind {
+    USER,
+    PRODUCT,
+    ORDER,
+    PAYMENT
+}
@@ -0,0 +1,199 @@
+package com.example.ecommerce.audit;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Preallocated, reusable audit event slot. Producers fill it in place; sinks read it during
+ * {@link AuditSink#write} and must not keep a reference, because the slot is reused afterwards.
+ * Collection and map payloads are referenced, not copied, so callers must not modify them after logging.
+ */
+public final class AuditEvent {
+    
+    private AuditEventType type;
+    private long sequence;
+    private long timestampMillis;
+    private Long entityId;
+    private Long relatedId;
+    private String primaryText;
+    private String secondaryText;
+    private int oldQuantity;
+    private int newQuantity;
+    private int changeCount;
+    private long netDelta;
+    private long lastTimestampMillis;
+    private Object payload;
+    
+    /**
+     * Creates an event outside any ring, for writing straight to a sink.
+     */
+    public static AuditEvent detached(AuditEventType type) {
+        AuditEvent event = new AuditEvent();
+        event.reset(type, System.currentTimeMillis(), -1);
+        return event;
+    }
+    
+    void reset(AuditEventType type, long timestampMillis, long sequence) {
+        this.type = type;
+        this.sequence = sequence;
+        this.timestampMillis = timestampMillis;
+        this.entityId = null;
+        this.relatedId = null;
+        this.primaryText = null;
+        this.secondaryText = null;
+        this.oldQuantity = 0;
+        this.newQuantity = 0;
+        this.changeCount = 0;
+        this.netDelta = 0;
+        this.lastTimestampMillis = timestampMillis;
+        this.payload = null;
+    }
+    
+    void release() {
+        reset(null, 0, -1);
+    }
+    
+    public AuditEvent entityId(Long entityId) {
+        this.entityId = entityId;
+        return this;
+    }
+    
+    public AuditEvent relatedId(Long relatedId) {
+        this.relatedId = relatedId;
+        return this;
+    }
+    
+    public AuditEvent text(String primaryText) {
+        this.primaryText = primaryText;
+        return this;
+    }
+    
+    public AuditEvent text(String primaryText, String secondaryText) {
+        this.primaryText = primaryText;
+        this.secondaryText = secondaryText;
+        return this;
+    }
+    
+    public AuditEvent quantities(int oldQuantity, int newQuantity) {
+        this.oldQuantity = oldQuantity;
+        this.newQuantity = newQuantity;
+        return this;
+    }
+    
+    /**
+     * Summary of a window of folded stock changes; the event timestamp is the first change in the window.
+     */
+    public AuditEvent aggregate(int changeCount, long netDelta, long lastTimestampMillis) {
+        this.changeCount = changeCount;
+        this.netDelta = netDelta;
+        this.lastTimestampMillis = lastTimestampMillis;
+        return this;
+    }
+    
+    public AuditEvent payload(Object payload) {
+        this.payload = payload;
+        return this;
+    }
+    
+    public AuditEventType getType() {
+        return type;
+    }
+    
+    long getSequence() {
+        return sequence;
+    }
+    
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+    
+    public Long getEntityId() {
+        return entityId;
+    }
+    
+    public Long getRelatedId() {
+        return relatedId;
+    }
+    
+    public String getPrimaryText() {
+        return primaryText;
+    }
+    
+    public String getSecondaryText() {
+        return secondaryText;
+    }
+    
+    public int getOldQuantity() {
+        return oldQuantity;
+    }
+    
+    public int getNewQuantity() {
+        return newQuantity;
+    }
+    
+    public int getChangeCount() {
+        return changeCount;
+    }
+    
+    public long getNetDelta() {
+        return netDelta;
+    }
+    
+    public long getLastTimestampMillis() {
+        return lastTimestampMillis;
+    }
+    
+    public Object getPayload() {
+        return payload;
+    }
+    
+    public LocalDateTime getTime() {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(timestampMillis), ZoneId.systemDefault());
+    }
+    
+    /**
+     * Arguments for {@link AuditEventType#getPattern()}, in pattern order.
+     */
+    public Object[] toLogArguments() {
+        switch (type) {
+            case USER_CREATED:
+            case USER_UPDATED:
+            case PRODUCT_CREATED:
+            case PRODUCT_UPDATED:
+            case PAYMENT_REFUNDED:
+                return new Object[] {entityId, primaryText, getTime()};
+            case USER_BATCH_IMPORTED:
+                return new Object[] {payloadSize(), getTime()};
+            case STOCK_UPDATED:
+                return new Object[] {entityId, oldQuantity, newQuantity, getTime()};
+            case ORDER_CREATED:
+                return new Object[] {entityId, primaryText, relatedId, getTime()};
+            case ORDER_STATUS_CHANGED:
+            case PAYMENT_PROCESSED:
+                return new Object[] {entityId, primaryText, secondaryText, getTime()};
+            case ORDER_BATCH_STATUS_CHANGED:
+                return new Object[] {payloadSize(), payload, primaryText, getTime()};
+            case STOCK_AGGREGATED:
+                return new Object[] {entityId, oldQuantity, newQuantity, changeCount, netDelta, getTime(),
+                        LocalDateTime.ofInstant(Instant.ofEpochMilli(lastTimestampMillis), ZoneId.systemDefault())};
+            case PAYMENT_BATCH_PROCESSED:
+            case PAYMENT_BATCH_REFUNDED:
+                return new Object[] {payloadSize(), payload, getTime()};
+            default:
+                throw new IllegalStateException("Unknown audit event type: " + type);
+        }
+    }
+    
+    private int payloadSize() {
+        if (payload instanceof Collection) {
+            return ((Collection<?>) payload).size();
+        }
+        if (payload instanceof Map) {
+            return ((Map<?, ?>) payload).size();
+        }
+        return 0;
+    }
+}
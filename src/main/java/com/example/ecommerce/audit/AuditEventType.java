@@ -0,0 +1,38 @@
+package com.example.ecommerce.audit;
+
+/**
+ * Kinds of audit events, each with the entity it concerns and the SLF4J pattern it is rendered with.
+ * Ordinals are persisted by BinaryAuditStore, so new types must be appended at the end.
+ */
+public enum AuditEventType {
+    USER_CREATED(AuditEntityKind.USER, "[AUDIT] User created: ID={}, Email={}, Time={}"),
+    USER_UPDATED(AuditEntityKind.USER, "[AUDIT] User updated: ID={}, Email={}, Time={}"),
+    USER_BATCH_IMPORTED(AuditEntityKind.USER, "[AUDIT] User batch imported: Count={}, Time={}"),
+    PRODUCT_CREATED(AuditEntityKind.PRODUCT, "[AUDIT] Product created: ID={}, Name={}, Time={}"),
+    PRODUCT_UPDATED(AuditEntityKind.PRODUCT, "[AUDIT] Product updated: ID={}, Name={}, Time={}"),
+    STOCK_UPDATED(AuditEntityKind.PRODUCT, "[AUDIT] Stock updated: ProductID={}, OldStock={}, NewStock={}, Time={}"),
+    ORDER_CREATED(AuditEntityKind.ORDER, "[AUDIT] Order created: ID={}, OrderNumber={}, UserID={}, Time={}"),
+    ORDER_STATUS_CHANGED(AuditEntityKind.ORDER, "[AUDIT] Order status changed: ID={}, From={}, To={}, Time={}"),
+    ORDER_BATCH_STATUS_CHANGED(AuditEntityKind.ORDER, "[AUDIT] Order batch status changed: Count={}, IDs={}, To={}, Time={}"),
+    PAYMENT_PROCESSED(AuditEntityKind.PAYMENT, "[AUDIT] Payment processed: ID={}, TransactionID={}, Status={}, Time={}"),
+    PAYMENT_BATCH_PROCESSED(AuditEntityKind.PAYMENT, "[AUDIT] Payment batch processed: Count={}, Statuses={}, Time={}"),
+    PAYMENT_REFUNDED(AuditEntityKind.PAYMENT, "[AUDIT] Payment refunded: ID={}, TransactionID={}, Time={}"),
+    PAYMENT_BATCH_REFUNDED(AuditEntityKind.PAYMENT, "[AUDIT] Payment batch refunded: Count={}, TransactionIDs={}, Time={}"),
+    STOCK_AGGREGATED(AuditEntityKind.PRODUCT, "[AUDIT] Stock aggregated: ProductID={}, FirstStock={}, LastStock={}, Changes={}, NetDelta={}, From={}, To={}");
+    
+    private final AuditEntityKind entityKind;
+    private final String pattern;
+    
+    AuditEventType(AuditEntityKind entityKind, String pattern) {
+        this.entityKind = entityKind;
+        this.pattern = pattern;
+    }
+    
+    public AuditEntityKind getEntityKind() {
+        return entityKind;
+    }
+    
+    public String getPattern() {
+        return pattern;
+    }
+}
@@ -0,0 +1,240 @@
+package com.example.ecommerce.audit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous audit pipeline: producers fill preallocated ring slots, and one background
+ * consumer hands them to the configured sinks in batches.
+ * Usage: {@code AuditEvent event = begin(type); if (event != null) { fill it; commit(event); }}
+ */
+@Component
+public class AuditPipeline {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AuditPipeline.class);
+    
+    private final AuditRingBuffer ring;
+    private final List<AuditSink> sinks;
+    private final BackpressurePolicy backpressurePolicy;
+    private final long blockTimeoutNanos;
+    private final int batchSize;
+    private final long idleParkNanos;
+    private final StockWindowAggregator stockAggregator;
+    
+    private final LongAdder published = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final AtomicLongArray droppedByType = new AtomicLongArray(AuditEventType.values().length);
+    private final LongAdder sinkErrors = new LongAdder();
+    private final LongAdder consumed = new LongAdder();
+    
+    private volatile boolean running;
+    private Thread consumer;
+    
+    public AuditPipeline(List<AuditSink> sinks, int ringSize, int batchSize, BackpressurePolicy backpressurePolicy,
+                         long blockTimeoutMillis, long idleParkMicros) {
+        this(sinks, ringSize, batchSize, backpressurePolicy, blockTimeoutMillis, idleParkMicros, false, 0);
+    }
+    
+    /**
+     * With stock aggregation enabled, STOCK_UPDATED events are folded per product into one STOCK_AGGREGATED
+     * event per window before they reach the sinks; every other event type is still written individually.
+     */
+    @Autowired
+    public AuditPipeline(List<AuditSink> sinks,
+                         @Value("${ecommerce.audit.ring-size:8192}") int ringSize,
+                         @Value("${ecommerce.audit.batch-size:256}") int batchSize,
+                         @Value("${ecommerce.audit.backpressure:TIMEOUT}") BackpressurePolicy backpressurePolicy,
+                         @Value("${ecommerce.audit.block-timeout-ms:50}") long blockTimeoutMillis,
+                         @Value("${ecommerce.audit.idle-park-micros:200}") long idleParkMicros,
+                         @Value("${ecommerce.audit.stock-aggregation.enabled:false}") boolean stockAggregationEnabled,
+                         @Value("${ecommerce.audit.stock-aggregation.window-seconds:60}") long stockWindowSeconds) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        this.ring = new AuditRingBuffer(ringSize);
+        this.sinks = new ArrayList<>(sinks);
+        this.backpressurePolicy = backpressurePolicy;
+        this.blockTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(blockTimeoutMillis);
+        this.batchSize = batchSize;
+        this.idleParkNanos = TimeUnit.MICROSECONDS.toNanos(idleParkMicros);
+        this.stockAggregator = stockAggregationEnabled
+                ? new StockWindowAggregator(TimeUnit.SECONDS.toMillis(stockWindowSeconds)) : null;
+    }
+    
+    /**
+     * Claims and resets a slot for the event, or returns null if the backpressure policy dropped it.
+     * A non-null slot must be passed to {@link #commit} by the same thread.
+     */
+    public AuditEvent begin(AuditEventType type) {
+        long sequence;
+        switch (backpressurePolicy) {
+            case DROP:
+                sequence = ring.tryClaim();
+                break;
+            case TIMEOUT:
+                sequence = ring.claim(blockTimeoutNanos, TimeUnit.NANOSECONDS);
+                break;
+            default:
+                sequence = ring.claim(-1, TimeUnit.NANOSECONDS);
+        }
+        if (sequence < 0) {
+            dropped.increment();
+            droppedByType.incrementAndGet(type.ordinal());
+            return null;
+        }
+        AuditEvent event = ring.get(sequence);
+        event.reset(type, System.currentTimeMillis(), sequence);
+        return event;
+    }
+    
+    public void commit(AuditEvent event) {
+        ring.publish(event.getSequence());
+        published.increment();
+    }
+    
+    @PostConstruct
+    public void start() {
+        running = true;
+        consumer = new Thread(this::consumeLoop, "audit-pipeline");
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+    
+    /**
+     * Stops the consumer after it has written every event published so far.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (consumer != null) {
+            LockSupport.unpark(consumer);
+            consumer.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        if (ring.getBacklog() > 0) {
+            logger.warn("Audit pipeline stopped with {} events not written", ring.getBacklog());
+        }
+    }
+    
+    /**
+     * Writes one batch of published events to the sinks; returns the number written.
+     * Called by the consumer thread, or directly when no consumer has been started.
+     */
+    int drainBatch() {
+        int drained = ring.drain(this::route, batchSize);
+        boolean windowsEmitted = false;
+        if (stockAggregator != null) {
+            long emittedBefore = stockAggregator.getEmittedCount();
+            stockAggregator.emitDue(System.currentTimeMillis(), this::dispatch);
+            windowsEmitted = stockAggregator.getEmittedCount() != emittedBefore;
+        }
+        if (drained > 0 || windowsEmitted) {
+            flushSinks();
+            consumed.add(drained);
+        }
+        return drained;
+    }
+    
+    private void consumeLoop() {
+        while (running) {
+            if (drainBatch() == 0) {
+                LockSupport.parkNanos(idleParkNanos);
+            }
+        }
+        while (drainBatch() > 0) {
+            // flush what producers published before shutdown
+        }
+        flushOpenWindows();
+    }
+    
+    /**
+     * Writes every open stock window as an aggregate, whether or not it has ended.
+     */
+    void flushOpenWindows() {
+        if (stockAggregator == null || stockAggregator.getOpenWindowCount() == 0) {
+            return;
+        }
+        stockAggregator.emitAll(this::dispatch);
+        flushSinks();
+    }
+    
+    private void route(AuditEvent event) {
+        if (stockAggregator != null && event.getType() == AuditEventType.STOCK_UPDATED) {
+            stockAggregator.add(event, this::dispatch);
+        } else {
+            dispatch(event);
+        }
+    }
+    
+    private void flushSinks() {
+        for (AuditSink sink : sinks) {
+            try {
+                sink.flush();
+            } catch (RuntimeException e) {
+                sinkErrors.increment();
+                logger.warn("Audit sink {} failed to flush", sink.getClass().getSimpleName(), e);
+            }
+        }
+    }
+    
+    private void dispatch(AuditEvent event) {
+        for (AuditSink sink : sinks) {
+            try {
+                sink.write(event);
+            } catch (RuntimeException e) {
+                sinkErrors.increment();
+                logger.warn("Audit sink {} failed on {} event", sink.getClass().getSimpleName(), event.getType(), e);
+            }
+        }
+    }
+    
+    public long getPublishedCount() {
+        return published.sum();
+    }
+    
+    public long getConsumedCount() {
+        return consumed.sum();
+    }
+    
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+    
+    public long getDroppedCount(AuditEventType type) {
+        return droppedByType.get(type.ordinal());
+    }
+    
+    public long getSinkErrorCount() {
+        return sinkErrors.sum();
+    }
+    
+    /**
+     * Number of STOCK_UPDATED events folded into aggregates; always 0 when aggregation is disabled.
+     */
+    public long getStockEventsFolded() {
+        return stockAggregator == null ? 0 : stockAggregator.getFoldedCount();
+    }
+    
+    public long getStockAggregatesEmitted() {
+        return stockAggregator == null ? 0 : stockAggregator.getEmittedCount();
+    }
+    
+    public long getBacklog() {
+        return ring.getBacklog();
+    }
+    
+    public BackpressurePolicy getBackpressurePolicy() {
+        return backpressurePolicy;
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.ecommerce.audit;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * An audit event read back from the binary audit store
+ */
+public final class AuditRecord {
+    
+    private final AuditEventType type;
+    private final long timestampMillis;
+    private final Long entityId;
+    private final Long relatedId;
+    private final String primaryText;
+    private final String secondaryText;
+    private final int oldQuantity;
+    private final int newQuantity;
+    private final int changeCount;
+    private final long netDelta;
+    private final long lastTimestampMillis;
+    private final List<Long> payloadIds;
+    private final String payloadText;
+    
+    AuditRecord(AuditEventType type, long timestampMillis, Long entityId, Long relatedId, String primaryText,
+                String secondaryText, int oldQuantity, int newQuantity, int changeCount, long netDelta,
+                long lastTimestampMillis, List<Long> payloadIds, String payloadText) {
+        this.type = type;
+        this.timestampMillis = timestampMillis;
+        this.entityId = entityId;
+        this.relatedId = relatedId;
+        this.primaryText = primaryText;
+        this.secondaryText = secondaryText;
+        this.oldQuantity = oldQuantity;
+        this.newQuantity = newQuantity;
+        this.changeCount = changeCount;
+        this.netDelta = netDelta;
+        this.lastTimestampMillis = lastTimestampMillis;
+        this.payloadIds = payloadIds;
+        this.payloadText = payloadText;
+    }
+    
+    public AuditEventType getType() {
+        return type;
+    }
+    
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+    
+    public LocalDateTime getTime() {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(timestampMillis), ZoneId.systemDefault());
+    }
+    
+    public Long getEntityId() {
+        return entityId;
+    }
+    
+    public Long getRelatedId() {
+        return relatedId;
+    }
+    
+    public String getPrimaryText() {
+        return primaryText;
+    }
+    
+    public String getSecondaryText() {
+        return secondaryText;
+    }
+    
+    public int getOldQuantity() {
+        return oldQuantity;
+    }
+    
+    public int getNewQuantity() {
+        return newQuantity;
+    }
+    
+    /**
+     * Number of stock changes folded into a STOCK_AGGREGATED record; 0 for other types.
+     */
+    public int getChangeCount() {
+        return changeCount;
+    }
+    
+    public long getNetDelta() {
+        return netDelta;
+    }
+    
+    /**
+     * Time of the last folded change for STOCK_AGGREGATED records, otherwise the record's own timestamp.
+     */
+    public long getLastTimestampMillis() {
+        return lastTimestampMillis;
+    }
+    
+    /**
+     * Entity IDs carried by batch events (e.g. the orders of a batch status change), otherwise empty.
+     */
+    public List<Long> getPayloadIds() {
+        return payloadIds;
+    }
+    
+    /**
+     * Text form of non-ID batch payloads (transaction IDs, status maps), otherwise null.
+     */
+    public String getPayloadText() {
+        return payloadText;
+    }
+    
+    @Override
+    public String toString() {
+        return "AuditRecord{type=" + type + ", time=" + getTime() + ", entityId=" + entityId
+                + ", relatedId=" + relatedId + ", text=" + primaryText + "/" + secondaryText
+                + ", quantities=" + oldQuantity + "->" + newQuantity
+                + (type == AuditEventType.STOCK_AGGREGATED ? ", changes=" + changeCount + ", netDelta=" + netDelta : "")
+                + ", payload=" + (payloadText != null ? payloadText : payloadIds) + "}";
+    }
+}
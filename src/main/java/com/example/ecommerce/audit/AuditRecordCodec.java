@@ -0,0 +1,207 @@
+package com.example.ecommerce.audit;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Binary record format of the audit store:
+ * {@code int bodyLength | body | int crc32(body)}, where the body is
+ * {@code byte type | long timestamp | long entityId | long relatedId | int oldQty | int newQty |
+ * string primary | string secondary | byte payloadKind | payload}.
+ * STOCK_AGGREGATED bodies end with {@code int changeCount | long netDelta | long lastTimestamp}.
+ * Strings are a short length (-1 for null) followed by UTF-8 bytes; a zero body length marks the end of a segment.
+ */
+final class AuditRecordCodec {
+    
+    static final int OVERHEAD = 8;
+    
+    private static final long NULL_ID = Long.MIN_VALUE;
+    private static final int AGGREGATE_BYTES = 4 + 8 + 8;
+    private static final byte PAYLOAD_NONE = 0;
+    private static final byte PAYLOAD_IDS = 1;
+    private static final byte PAYLOAD_TEXT = 2;
+    private static final AuditEventType[] TYPES = AuditEventType.values();
+    
+    private final CRC32 crc = new CRC32();
+    private ByteBuffer scratch = ByteBuffer.allocate(512);
+    
+    /**
+     * Encodes the event into a reused buffer, returned ready to read; valid until the next call.
+     */
+    ByteBuffer encode(AuditEvent event) {
+        byte[] primary = utf8(event.getPrimaryText());
+        byte[] secondary = utf8(event.getSecondaryText());
+        Object payload = event.getPayload();
+        List<Long> ids = idsOf(payload);
+        byte[] payloadText = ids == null && payload != null ? utf8(payload.toString()) : null;
+        
+        int bodyLength = 1 + 8 + 8 + 8 + 4 + 4 + stringSize(primary) + stringSize(secondary) + 1
+                + (ids != null ? 4 + 8 * ids.size() : payloadText != null ? 4 + payloadText.length : 0)
+                + (event.getType() == AuditEventType.STOCK_AGGREGATED ? AGGREGATE_BYTES : 0);
+        ensureCapacity(bodyLength + OVERHEAD);
+        
+        scratch.clear();
+        scratch.putInt(bodyLength);
+        scratch.put((byte) event.getType().ordinal());
+        scratch.putLong(event.getTimestampMillis());
+        scratch.putLong(orNull(event.getEntityId()));
+        scratch.putLong(orNull(event.getRelatedId()));
+        scratch.putInt(event.getOldQuantity());
+        scratch.putInt(event.getNewQuantity());
+        putString(primary);
+        putString(secondary);
+        if (ids != null) {
+            scratch.put(PAYLOAD_IDS).putInt(ids.size());
+            for (Long id : ids) {
+                scratch.putLong(id);
+            }
+        } else if (payloadText != null) {
+            scratch.put(PAYLOAD_TEXT).putInt(payloadText.length).put(payloadText);
+        } else {
+            scratch.put(PAYLOAD_NONE);
+        }
+        if (event.getType() == AuditEventType.STOCK_AGGREGATED) {
+            scratch.putInt(event.getChangeCount()).putLong(event.getNetDelta()).putLong(event.getLastTimestampMillis());
+        }
+        crc.reset();
+        crc.update(scratch.array(), 4, bodyLength);
+        scratch.putInt((int) crc.getValue());
+        scratch.flip();
+        return scratch;
+    }
+    
+    /**
+     * Total size of the record at the offset, or -1 if there is no complete, intact record there.
+     */
+    static int recordSize(ByteBuffer buffer, int offset, int limit) {
+        if (offset + OVERHEAD > limit) {
+            return -1;
+        }
+        int bodyLength = buffer.getInt(offset);
+        if (bodyLength <= 0 || offset + OVERHEAD + bodyLength > limit) {
+            return -1;
+        }
+        CRC32 check = new CRC32();
+        ByteBuffer body = buffer.duplicate();
+        body.limit(offset + 4 + bodyLength).position(offset + 4);
+        check.update(body);
+        return (int) check.getValue() == buffer.getInt(offset + 4 + bodyLength) ? bodyLength + OVERHEAD : -1;
+    }
+    
+    static AuditRecord decode(ByteBuffer buffer, int offset) {
+        ByteBuffer in = buffer.duplicate();
+        in.position(offset + 4);
+        AuditEventType type = TYPES[in.get()];
+        long timestamp = in.getLong();
+        Long entityId = toId(in.getLong());
+        Long relatedId = toId(in.getLong());
+        int oldQuantity = in.getInt();
+        int newQuantity = in.getInt();
+        String primary = getString(in);
+        String secondary = getString(in);
+        List<Long> ids = Collections.emptyList();
+        String payloadText = null;
+        byte payloadKind = in.get();
+        if (payloadKind == PAYLOAD_IDS) {
+            int count = in.getInt();
+            ids = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                ids.add(in.getLong());
+            }
+        } else if (payloadKind == PAYLOAD_TEXT) {
+            byte[] text = new byte[in.getInt()];
+            in.get(text);
+            payloadText = new String(text, StandardCharsets.UTF_8);
+        }
+        int changeCount = 0;
+        long netDelta = 0;
+        long lastTimestamp = timestamp;
+        if (type == AuditEventType.STOCK_AGGREGATED) {
+            changeCount = in.getInt();
+            netDelta = in.getLong();
+            lastTimestamp = in.getLong();
+        }
+        return new AuditRecord(type, timestamp, entityId, relatedId, primary, secondary,
+                oldQuantity, newQuantity, changeCount, netDelta, lastTimestamp, ids, payloadText);
+    }
+    
+    /**
+     * Reads just the fields the store indexes on, without decoding strings and payload text.
+     */
+    static long timestampAt(ByteBuffer buffer, int offset) {
+        return buffer.getLong(offset + 5);
+    }
+    
+    private void ensureCapacity(int size) {
+        if (scratch.capacity() < size) {
+            scratch = ByteBuffer.allocate(Math.max(size, scratch.capacity() * 2));
+        }
+    }
+    
+    private void putString(byte[] bytes) {
+        if (bytes == null) {
+            scratch.putShort((short) -1);
+        } else {
+            scratch.putShort((short) bytes.length).put(bytes);
+        }
+    }
+    
+    private static String getString(ByteBuffer in) {
+        short length = in.getShort();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+    
+    private static byte[] utf8(String value) {
+        if (value == null) {
+            return null;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        // Texts are names, emails and statuses; anything longer is cut to fit the short length prefix,
+        // backing off continuation bytes so the cut never splits a character
+        if (bytes.length <= Short.MAX_VALUE) {
+            return bytes;
+        }
+        int end = Short.MAX_VALUE;
+        while ((bytes[end] & 0xC0) == 0x80) {
+            end--;
+        }
+        return Arrays.copyOf(bytes, end);
+    }
+    
+    private static int stringSize(byte[] bytes) {
+        return 2 + (bytes == null ? 0 : bytes.length);
+    }
+    
+    private static List<Long> idsOf(Object payload) {
+        if (!(payload instanceof Collection) || ((Collection<?>) payload).isEmpty()) {
+            return null;
+        }
+        List<Long> ids = new ArrayList<>(((Collection<?>) payload).size());
+        for (Object element : (Collection<?>) payload) {
+            if (!(element instanceof Long)) {
+                return null;
+            }
+            ids.add((Long) element);
+        }
+        return ids;
+    }
+    
+    private static long orNull(Long id) {
+        return id == null ? NULL_ID : id;
+    }
+    
+    private static Long toId(long value) {
+        return value == NULL_ID ? null : value;
+    }
+}
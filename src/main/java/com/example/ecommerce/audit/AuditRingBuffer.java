@@ -0,0 +1,110 @@
+package com.example.ecommerce.audit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Multi-producer, single-consumer ring of preallocated {@link AuditEvent} slots.
+ * Producers claim a sequence with a CAS, fill the slot in place and publish it; the consumer
+ * reads published slots in sequence order and only then frees them for reuse.
+ */
+public final class AuditRingBuffer {
+    
+    private final AuditEvent[] slots;
+    private final int mask;
+    private final AtomicLongArray published;
+    private final AtomicLong claimCursor = new AtomicLong(-1);
+    private final AtomicLong consumerCursor = new AtomicLong(-1);
+    
+    public AuditRingBuffer(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Ring capacity must be a power of two: " + capacity);
+        }
+        this.slots = new AuditEvent[capacity];
+        this.mask = capacity - 1;
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new AuditEvent();
+            published.set(i, -1);
+        }
+    }
+    
+    /**
+     * Claims the next sequence, or returns -1 immediately when the ring is full.
+     */
+    public long tryClaim() {
+        while (true) {
+            long current = claimCursor.get();
+            long next = current + 1;
+            if (next - slots.length > consumerCursor.get()) {
+                return -1;
+            }
+            if (claimCursor.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+    
+    /**
+     * Claims the next sequence, waiting for the consumer to free a slot.
+     * A negative timeout waits indefinitely; returns -1 if the timeout elapses first.
+     */
+    public long claim(long timeout, TimeUnit unit) {
+        long sequence = tryClaim();
+        if (sequence >= 0) {
+            return sequence;
+        }
+        long deadline = timeout < 0 ? Long.MAX_VALUE : System.nanoTime() + unit.toNanos(timeout);
+        int spins = 0;
+        while ((sequence = tryClaim()) < 0) {
+            if (timeout >= 0 && System.nanoTime() - deadline >= 0) {
+                return -1;
+            }
+            if (++spins < 100) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(10_000);
+            }
+        }
+        return sequence;
+    }
+    
+    public AuditEvent get(long sequence) {
+        return slots[(int) sequence & mask];
+    }
+    
+    public void publish(long sequence) {
+        published.lazySet((int) sequence & mask, sequence);
+    }
+    
+    /**
+     * Hands up to {@code maxEvents} published events to the handler in order, then frees their slots.
+     * Must only be called from the single consumer thread.
+     */
+    public int drain(Consumer<AuditEvent> handler, int maxEvents) {
+        long next = consumerCursor.get() + 1;
+        int drained = 0;
+        while (drained < maxEvents && published.get((int) next & mask) == next) {
+            AuditEvent event = slots[(int) next & mask];
+            handler.accept(event);
+            event.release();
+            next++;
+            drained++;
+        }
+        if (drained > 0) {
+            consumerCursor.lazySet(next - 1);
+        }
+        return drained;
+    }
+    
+    public long getBacklog() {
+        return claimCursor.get() - consumerCursor.get();
+    }
+    
+    public int getCapacity() {
+        return slots.length;
+    }
+}
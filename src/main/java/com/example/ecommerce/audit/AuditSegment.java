@@ -0,0 +1,262 @@
+package com.example.ecommerce.audit;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * One fixed-size, memory-mapped, append-only segment file of the binary audit store.
+ * Keeps a sparse block index (offset plus min/max timestamp of every block of records) for time-range scans.
+ * Only the store's writer thread appends; readers see records up to the volatile write position.
+ */
+final class AuditSegment implements Closeable {
+    
+    static final String SUFFIX = ".audit";
+    
+    private static final int MAGIC = 0x41554431;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    
+    private final int number;
+    private final Path file;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int blockRecords;
+    
+    private volatile int writePosition;
+    private volatile long minTimestamp = Long.MAX_VALUE;
+    private volatile long maxTimestamp = Long.MIN_VALUE;
+    private int recordCount;
+    
+    private int[] blockOffsets = new int[16];
+    private long[] blockMin = new long[16];
+    private long[] blockMax = new long[16];
+    private volatile int blockCount;
+    
+    private AuditSegment(int number, Path file, FileChannel channel, MappedByteBuffer buffer, int blockRecords) {
+        this.number = number;
+        this.file = file;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.blockRecords = blockRecords;
+    }
+    
+    static AuditSegment create(Path directory, int number, int sizeBytes, int blockRecords) throws IOException {
+        Path file = directory.resolve(fileName(number));
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, sizeBytes);
+        buffer.putInt(0, MAGIC).putInt(4, VERSION).putLong(8, number);
+        AuditSegment segment = new AuditSegment(number, file, channel, buffer, blockRecords);
+        segment.writePosition = HEADER_BYTES;
+        return segment;
+    }
+    
+    /**
+     * Maps an existing segment and recovers its write position, stopping at the first torn or missing record.
+     * The consumer is called with each recovered record's offset so the caller can rebuild its indexes.
+     */
+    static AuditSegment open(Path file, int blockRecords, ObjIntConsumer<AuditSegment> recordVisitor) throws IOException {
+        AuditSegment segment = map(file, blockRecords);
+        MappedByteBuffer buffer = segment.buffer;
+        int offset = HEADER_BYTES;
+        int size;
+        while ((size = AuditRecordCodec.recordSize(buffer, offset, buffer.capacity())) > 0) {
+            segment.indexRecord(offset, AuditRecordCodec.timestampAt(buffer, offset));
+            segment.writePosition = offset + size;
+            recordVisitor.accept(segment, offset);
+            offset += size;
+        }
+        segment.writePosition = offset;
+        return segment;
+    }
+    
+    /**
+     * Maps a sealed segment with the state stored in its index file instead of scanning its records.
+     */
+    static AuditSegment openSealed(Path file, int blockRecords, AuditSegmentIndex index) throws IOException {
+        AuditSegment segment = map(file, blockRecords);
+        if (segment.number != index.getSegmentNumber() || index.getWritePosition() < HEADER_BYTES
+                || index.getWritePosition() > segment.buffer.capacity()) {
+            segment.close();
+            throw new IOException("Audit index does not match segment: " + file);
+        }
+        int blocks = index.getBlockCount();
+        segment.blockOffsets = new int[Math.max(blocks, 1)];
+        segment.blockMin = new long[Math.max(blocks, 1)];
+        segment.blockMax = new long[Math.max(blocks, 1)];
+        for (int b = 0; b < blocks; b++) {
+            segment.blockOffsets[b] = index.getBlockOffset(b);
+            segment.blockMin[b] = index.getBlockMin(b);
+            segment.blockMax[b] = index.getBlockMax(b);
+        }
+        segment.blockCount = blocks;
+        segment.recordCount = index.getRecordCount();
+        segment.minTimestamp = index.getMinTimestamp();
+        segment.maxTimestamp = index.getMaxTimestamp();
+        segment.writePosition = index.getWritePosition();
+        return segment;
+    }
+    
+    private static AuditSegment map(Path file, int blockRecords) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            channel.close();
+            throw new IOException("Not an audit segment: " + file);
+        }
+        return new AuditSegment((int) buffer.getLong(8), file, channel, buffer, blockRecords);
+    }
+    
+    static String fileName(int number) {
+        return String.format("%010d%s", number, SUFFIX);
+    }
+    
+    static boolean isSegmentFile(Path file) {
+        return Files.isRegularFile(file) && file.getFileName().toString().endsWith(SUFFIX);
+    }
+    
+    /**
+     * Appends an encoded record, returning its offset, or -1 if it does not fit in this segment.
+     * The byte after the record stays zero, which marks the end of data for recovery.
+     */
+    int append(ByteBuffer record) {
+        int offset = writePosition;
+        int size = record.remaining();
+        if (offset + size + 4 > buffer.capacity()) {
+            return -1;
+        }
+        ByteBuffer target = buffer.duplicate();
+        target.position(offset);
+        target.put(record.duplicate());
+        indexRecord(offset, AuditRecordCodec.timestampAt(buffer, offset));
+        writePosition = offset + size;
+        return offset;
+    }
+    
+    /**
+     * Zeroes everything after the last intact record before a recovered segment is appended to again,
+     * so bytes of a torn write can never line up with new records and be read back as data.
+     */
+    void clearTail() {
+        byte[] zeros = new byte[4096];
+        ByteBuffer tail = buffer.duplicate();
+        tail.position(writePosition);
+        while (tail.hasRemaining()) {
+            tail.put(zeros, 0, Math.min(zeros.length, tail.remaining()));
+        }
+    }
+    
+    AuditRecord read(int offset) {
+        if (offset >= writePosition) {
+            throw new IllegalArgumentException("No record at offset " + offset + " in segment " + number);
+        }
+        return AuditRecordCodec.decode(buffer, offset);
+    }
+    
+    /**
+     * Calls the visitor for every record whose timestamp is in [from, to], skipping blocks that cannot match.
+     */
+    void forEachBetween(long from, long to, ObjIntConsumer<AuditRecord> visitor) {
+        int blocks = blockCount;
+        int limit = writePosition;
+        for (int b = 0; b < blocks; b++) {
+            long min;
+            long max;
+            int start;
+            int end;
+            synchronized (this) {
+                min = blockMin[b];
+                max = blockMax[b];
+                start = blockOffsets[b];
+                end = b + 1 < blockCount ? Math.min(blockOffsets[b + 1], limit) : limit;
+            }
+            if (max < from || min > to) {
+                continue;
+            }
+            for (int offset = start; offset < end; offset += buffer.getInt(offset) + AuditRecordCodec.OVERHEAD) {
+                long timestamp = AuditRecordCodec.timestampAt(buffer, offset);
+                if (timestamp >= from && timestamp <= to) {
+                    visitor.accept(AuditRecordCodec.decode(buffer, offset), offset);
+                }
+            }
+        }
+    }
+    
+    void force() {
+        buffer.force();
+    }
+    
+    int getNumber() {
+        return number;
+    }
+    
+    Path getFile() {
+        return file;
+    }
+    
+    long getMinTimestamp() {
+        return minTimestamp;
+    }
+    
+    long getMaxTimestamp() {
+        return maxTimestamp;
+    }
+    
+    int getRecordCount() {
+        return recordCount;
+    }
+    
+    int getWritePosition() {
+        return writePosition;
+    }
+    
+    int getBlockCount() {
+        return blockCount;
+    }
+    
+    synchronized int getBlockOffset(int block) {
+        return blockOffsets[block];
+    }
+    
+    synchronized long getBlockMin(int block) {
+        return blockMin[block];
+    }
+    
+    synchronized long getBlockMax(int block) {
+        return blockMax[block];
+    }
+    
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+    
+    private synchronized void indexRecord(int offset, long timestamp) {
+        if (recordCount % blockRecords == 0) {
+            if (blockCount == blockOffsets.length) {
+                blockOffsets = Arrays.copyOf(blockOffsets, blockCount * 2);
+                blockMin = Arrays.copyOf(blockMin, blockCount * 2);
+                blockMax = Arrays.copyOf(blockMax, blockCount * 2);
+            }
+            blockOffsets[blockCount] = offset;
+            blockMin[blockCount] = timestamp;
+            blockMax[blockCount] = timestamp;
+            blockCount++;
+        } else {
+            int block = blockCount - 1;
+            blockMin[block] = Math.min(blockMin[block], timestamp);
+            blockMax[block] = Math.max(blockMax[block], timestamp);
+        }
+        recordCount++;
+        minTimestamp = Math.min(minTimestamp, timestamp);
+        maxTimestamp = Math.max(maxTimestamp, timestamp);
+    }
+}
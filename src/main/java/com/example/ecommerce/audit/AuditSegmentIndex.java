@@ -0,0 +1,157 @@
+package com.example.ecommerce.audit;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Index file of a sealed audit segment, kept next to its data file: the segment's write position and block index,
+ * and its entity positions as (key, offset) entries sorted by key. Written once when the segment is rolled over
+ * and memory-mapped read-only on open, so a sealed segment is neither scanned nor indexed in heap again.
+ */
+final class AuditSegmentIndex {
+    
+    static final String SUFFIX = ".idx";
+    
+    private static final int MAGIC = 0x41554958;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 48;
+    private static final int BLOCK_BYTES = 4 + 8 + 8;
+    private static final int ENTRY_BYTES = 8 + 4;
+    
+    private final Path file;
+    private final MappedByteBuffer buffer;
+    private final int blockCount;
+    private final int entryCount;
+    private final int entriesStart;
+    
+    private AuditSegmentIndex(Path file, MappedByteBuffer buffer) {
+        this.file = file;
+        this.buffer = buffer;
+        this.blockCount = buffer.getInt(24);
+        this.entryCount = buffer.getInt(28);
+        this.entriesStart = HEADER_BYTES + blockCount * BLOCK_BYTES;
+    }
+    
+    static Path fileFor(Path segmentFile) {
+        String name = segmentFile.getFileName().toString();
+        return segmentFile.resolveSibling(name.substring(0, name.length() - AuditSegment.SUFFIX.length()) + SUFFIX);
+    }
+    
+    /**
+     * Writes the index of a segment that takes no more appends. The entries must be sorted by key, and by offset
+     * within a key. The file is written under a temporary name and moved into place, so a crash never leaves
+     * a partial index behind.
+     */
+    static AuditSegmentIndex write(AuditSegment segment, long[] keys, int[] offsets) throws IOException {
+        Path file = fileFor(segment.getFile());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        int blocks = segment.getBlockCount();
+        long size = HEADER_BYTES + (long) blocks * BLOCK_BYTES + (long) keys.length * ENTRY_BYTES;
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Audit index too large for segment " + segment.getFile());
+        }
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            out.putInt(MAGIC).putInt(VERSION).putLong(segment.getNumber())
+                    .putInt(segment.getWritePosition()).putInt(segment.getRecordCount())
+                    .putInt(blocks).putInt(keys.length)
+                    .putLong(segment.getMinTimestamp()).putLong(segment.getMaxTimestamp());
+            for (int b = 0; b < blocks; b++) {
+                out.putInt(segment.getBlockOffset(b)).putLong(segment.getBlockMin(b)).putLong(segment.getBlockMax(b));
+            }
+            for (int i = 0; i < keys.length; i++) {
+                out.putLong(keys[i]).putInt(offsets[i]);
+            }
+            out.force();
+        }
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return open(file);
+    }
+    
+    static AuditSegmentIndex open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION
+                    || buffer.capacity() != HEADER_BYTES + (long) buffer.getInt(24) * BLOCK_BYTES
+                            + (long) buffer.getInt(28) * ENTRY_BYTES) {
+                throw new IOException("Not a valid audit index: " + file);
+            }
+            return new AuditSegmentIndex(file, buffer);
+        }
+    }
+    
+    /**
+     * Offsets of the key's records in the segment, in write order.
+     */
+    int[] offsets(long key) {
+        int low = 0;
+        int high = entryCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keyAt(mid) < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        int end = low;
+        while (end < entryCount && keyAt(end) == key) {
+            end++;
+        }
+        int[] offsets = new int[end - low];
+        for (int i = low; i < end; i++) {
+            offsets[i - low] = buffer.getInt(entriesStart + i * ENTRY_BYTES + 8);
+        }
+        return offsets;
+    }
+    
+    Path getFile() {
+        return file;
+    }
+    
+    int getSegmentNumber() {
+        return (int) buffer.getLong(8);
+    }
+    
+    int getWritePosition() {
+        return buffer.getInt(16);
+    }
+    
+    int getRecordCount() {
+        return buffer.getInt(20);
+    }
+    
+    long getMinTimestamp() {
+        return buffer.getLong(32);
+    }
+    
+    long getMaxTimestamp() {
+        return buffer.getLong(40);
+    }
+    
+    int getBlockCount() {
+        return blockCount;
+    }
+    
+    int getBlockOffset(int block) {
+        return buffer.getInt(HEADER_BYTES + block * BLOCK_BYTES);
+    }
+    
+    long getBlockMin(int block) {
+        return buffer.getLong(HEADER_BYTES + block * BLOCK_BYTES + 4);
+    }
+    
+    long getBlockMax(int block) {
+        return buffer.getLong(HEADER_BYTES + block * BLOCK_BYTES + 12);
+    }
+    
+    private long keyAt(int entry) {
+        return buffer.getLong(entriesStart + entry * ENTRY_BYTES);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.ecommerce.audit;
+
+/**
+ * Destination for audit events. Called only from the pipeline's consumer thread,
+ * once per event and then {@link #flush()} at the end of each batch.
+ */
+public interface AuditSink {
+    
+    /**
+     * Consumes one event; the event slot is reused after this call returns.
+     */
+    void write(AuditEvent event);
+    
+    default void flush() {
+    }
+}
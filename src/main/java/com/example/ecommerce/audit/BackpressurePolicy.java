@@ -0,0 +1,13 @@
+package com.example.ecommerce.audit;
+
+/**
+ * What a producer does when the audit ring is full
+ */
+public enum BackpressurePolicy {
+    /** Wait for the consumer to free a slot, without a limit; no event is lost, but a stalled sink stalls callers */
+    BLOCK,
+    /** Drop the new event immediately and count it */
+    DROP,
+    /** Wait up to the configured timeout, then drop and count; the default */
+    TIMEOUT
+}
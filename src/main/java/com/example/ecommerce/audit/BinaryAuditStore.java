@@ -0,0 +1,427 @@
+package com.example.ecommerce.audit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Durable audit sink: appends binary records to memory-mapped segment files that roll over when full
+ * and are deleted once every record in them is older than the retention period.
+ * Indexes (entity kind, ID) to record positions, so an entity's timeline is a handful of random reads instead of
+ * a log scan. Only the active segment's index is kept in heap; a segment's index is written to a file next to it
+ * when it is sealed ({@link AuditSegmentIndex}) and mapped from there on start, so only the active segment,
+ * or a sealed one whose index is missing or damaged, is scanned on open.
+ */
+@Component
+@ConditionalOnProperty(prefix = "ecommerce.audit.store", name = "enabled", havingValue = "true")
+public class BinaryAuditStore implements AuditSink {
+    
+    private static final Logger logger = LoggerFactory.getLogger(BinaryAuditStore.class);
+    
+    private static final int ID_BITS = 58;
+    private static final long MAX_INDEXED_ID = (1L << ID_BITS) - 1;
+    private static final String LOCK_FILE = "audit.lock";
+    
+    private final Path directory;
+    private final int segmentBytes;
+    private final int blockRecords;
+    private final long retentionMillis;
+    private final long forceIntervalMillis;
+    private final LongSupplier clock;
+    
+    private final AuditRecordCodec codec = new AuditRecordCodec();
+    private final ConcurrentNavigableMap<Integer, AuditSegment> segments = new ConcurrentSkipListMap<>();
+    private final ConcurrentNavigableMap<Integer, AuditSegmentIndex> sealedIndexes = new ConcurrentSkipListMap<>();
+    private final LongAdder oversizedRecords = new LongAdder();
+    
+    private FileChannel lockChannel;
+    private AuditSegment active;
+    private volatile ActiveIndex activeIndex;
+    private long lastForce;
+    private boolean dirty;
+    
+    @Autowired
+    public BinaryAuditStore(@Value("${ecommerce.audit.store.directory:data/audit}") String directory,
+                            @Value("${ecommerce.audit.store.segment-bytes:67108864}") int segmentBytes,
+                            @Value("${ecommerce.audit.store.block-records:128}") int blockRecords,
+                            @Value("${ecommerce.audit.store.retention-hours:720}") long retentionHours,
+                            @Value("${ecommerce.audit.store.force-interval-ms:1000}") long forceIntervalMillis) {
+        this(Paths.get(directory), segmentBytes, blockRecords, TimeUnit.HOURS.toMillis(retentionHours),
+                forceIntervalMillis, System::currentTimeMillis);
+    }
+    
+    BinaryAuditStore(Path directory, int segmentBytes, int blockRecords, long retentionMillis,
+                     long forceIntervalMillis, LongSupplier clock) {
+        if (segmentBytes < 4096 || blockRecords < 1 || retentionMillis <= 0) {
+            throw new IllegalArgumentException("Segments must be at least 4 KiB, with positive block size and retention");
+        }
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.blockRecords = blockRecords;
+        this.retentionMillis = retentionMillis;
+        this.forceIntervalMillis = forceIntervalMillis;
+        this.clock = clock;
+    }
+    
+    /**
+     * Locks the directory and maps existing segments. Sealed segments are opened from their index files;
+     * the last one, and any sealed one without a usable index, is recovered up to its last intact record
+     * and indexed by a scan.
+     */
+    @PostConstruct
+    public synchronized void open() throws IOException {
+        Files.createDirectories(directory);
+        lock();
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(AuditSegment::isSegmentFile).sorted().collect(Collectors.toList());
+        }
+        int scanned = 0;
+        for (int i = 0; i < files.size(); i++) {
+            Path file = files.get(i);
+            boolean last = i == files.size() - 1;
+            AuditSegment segment = last ? null : openSealed(file);
+            if (segment == null) {
+                Map<Long, PositionList> positions = new ConcurrentHashMap<>();
+                segment = AuditSegment.open(file, blockRecords,
+                        (opened, offset) -> index(positions, offset, opened.read(offset)));
+                scanned++;
+                if (last) {
+                    // The active segment is appended to again, so an index left over from an earlier run is stale
+                    Files.deleteIfExists(AuditSegmentIndex.fileFor(file));
+                    activeIndex = new ActiveIndex(segment.getNumber(), positions);
+                } else {
+                    sealedIndexes.put(segment.getNumber(), writeIndex(segment, positions));
+                }
+            }
+            segments.put(segment.getNumber(), segment);
+        }
+        if (segments.isEmpty()) {
+            active = AuditSegment.create(directory, 1, segmentBytes, blockRecords);
+            segments.put(active.getNumber(), active);
+            activeIndex = new ActiveIndex(active.getNumber(), new ConcurrentHashMap<>());
+        } else {
+            active = segments.lastEntry().getValue();
+            active.clearTail();
+        }
+        applyRetention();
+        logger.info("Audit store opened in {}: {} segments, {} scanned", directory, segments.size(), scanned);
+    }
+    
+    @Override
+    public synchronized void write(AuditEvent event) {
+        ByteBuffer record = codec.encode(event);
+        int offset = active.append(record);
+        if (offset < 0) {
+            roll();
+            offset = active.append(record);
+            if (offset < 0) {
+                oversizedRecords.increment();
+                logger.warn("Dropped {} audit record of {} bytes: larger than a segment", event.getType(),
+                        record.remaining());
+                return;
+            }
+        }
+        index(activeIndex.positions, offset, event);
+        dirty = true;
+    }
+    
+    @Override
+    public synchronized void flush() {
+        long now = clock.getAsLong();
+        if (dirty && now - lastForce >= forceIntervalMillis) {
+            active.force();
+            lastForce = now;
+            dirty = false;
+        }
+    }
+    
+    /**
+     * Every record that concerns the entity, oldest first.
+     */
+    public List<AuditRecord> timeline(AuditEntityKind kind, long id) {
+        return timeline(kind, id, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+    
+    public List<AuditRecord> timeline(AuditEntityKind kind, long id, long fromMillis, long toMillis) {
+        long key = key(kind, id);
+        // Segments sealed after this snapshot was taken are still read through the snapshot's heap index
+        ActiveIndex current = activeIndex;
+        List<AuditRecord> records = new ArrayList<>();
+        for (AuditSegmentIndex index : sealedIndexes.headMap(current.segmentNumber).values()) {
+            collect(segments.get(index.getSegmentNumber()), index.offsets(key), fromMillis, toMillis, records);
+        }
+        PositionList positions = current.positions.get(key);
+        if (positions != null) {
+            collect(segments.get(current.segmentNumber), positions.snapshot(), fromMillis, toMillis, records);
+        }
+        return records;
+    }
+    
+    /**
+     * Records with a timestamp in [from, to], in write order, up to the limit.
+     * Segments and blocks outside the range are skipped using their min/max timestamps.
+     */
+    public List<AuditRecord> findBetween(long fromMillis, long toMillis, int limit) {
+        List<AuditRecord> records = new ArrayList<>();
+        for (AuditSegment segment : segments.values()) {
+            if (records.size() >= limit) {
+                break;
+            }
+            if (segment.getMaxTimestamp() < fromMillis || segment.getMinTimestamp() > toMillis) {
+                continue;
+            }
+            segment.forEachBetween(fromMillis, toMillis, (record, offset) -> {
+                if (records.size() < limit) {
+                    records.add(record);
+                }
+            });
+        }
+        return records;
+    }
+    
+    public int getSegmentCount() {
+        return segments.size();
+    }
+    
+    public long getOversizedRecordCount() {
+        return oversizedRecords.sum();
+    }
+    
+    int getSealedIndexCount() {
+        return sealedIndexes.size();
+    }
+    
+    @PreDestroy
+    public synchronized void close() {
+        if (active != null) {
+            active.force();
+        }
+        for (AuditSegment segment : segments.values()) {
+            try {
+                segment.close();
+            } catch (IOException e) {
+                logger.warn("Failed to close audit segment {}", segment.getFile(), e);
+            }
+        }
+        if (lockChannel != null) {
+            try {
+                lockChannel.close();
+            } catch (IOException e) {
+                logger.warn("Failed to release audit store lock in {}", directory, e);
+            }
+            lockChannel = null;
+        }
+    }
+    
+    /**
+     * Takes an exclusive lock on the directory, so a second process cannot append to the same active segment.
+     */
+    private void lock() throws IOException {
+        FileChannel channel = FileChannel.open(directory.resolve(LOCK_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock lock;
+        try {
+            lock = channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            lock = null;
+        }
+        if (lock == null) {
+            channel.close();
+            throw new IllegalStateException("Audit store directory is in use by another store: " + directory);
+        }
+        lockChannel = channel;
+    }
+    
+    /**
+     * Seals the active segment, writing its index file, and starts the next one with an empty heap index.
+     */
+    private void roll() {
+        active.force();
+        AuditSegment sealed = active;
+        AuditSegmentIndex index;
+        try {
+            index = writeIndex(sealed, activeIndex.positions);
+            active = AuditSegment.create(directory, sealed.getNumber() + 1, segmentBytes, blockRecords);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to roll over audit segment in " + directory, e);
+        }
+        sealedIndexes.put(sealed.getNumber(), index);
+        segments.put(active.getNumber(), active);
+        activeIndex = new ActiveIndex(active.getNumber(), new ConcurrentHashMap<>());
+        applyRetention();
+    }
+    
+    /**
+     * Opens a sealed segment from its index file, or returns null when the index is missing or unusable.
+     */
+    private AuditSegment openSealed(Path file) {
+        Path indexFile = AuditSegmentIndex.fileFor(file);
+        if (!Files.exists(indexFile)) {
+            return null;
+        }
+        try {
+            AuditSegmentIndex index = AuditSegmentIndex.open(indexFile);
+            AuditSegment segment = AuditSegment.openSealed(file, blockRecords, index);
+            sealedIndexes.put(segment.getNumber(), index);
+            return segment;
+        } catch (IOException e) {
+            logger.warn("Rebuilding unusable audit index {}", indexFile, e);
+            return null;
+        }
+    }
+    
+    private static AuditSegmentIndex writeIndex(AuditSegment segment, Map<Long, PositionList> positions)
+            throws IOException {
+        long[] keys = positions.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+        int entries = 0;
+        for (PositionList list : positions.values()) {
+            entries += list.size();
+        }
+        long[] entryKeys = new long[entries];
+        int[] entryOffsets = new int[entries];
+        int entry = 0;
+        for (long key : keys) {
+            for (int offset : positions.get(key).snapshot()) {
+                entryKeys[entry] = key;
+                entryOffsets[entry++] = offset;
+            }
+        }
+        return AuditSegmentIndex.write(segment, entryKeys, entryOffsets);
+    }
+    
+    private static void collect(AuditSegment segment, int[] offsets, long fromMillis, long toMillis,
+                                List<AuditRecord> records) {
+        if (segment == null) {
+            return;
+        }
+        for (int offset : offsets) {
+            AuditRecord record = segment.read(offset);
+            if (record.getTimestampMillis() >= fromMillis && record.getTimestampMillis() <= toMillis) {
+                records.add(record);
+            }
+        }
+    }
+    
+    private void applyRetention() {
+        long cutoff = clock.getAsLong() - retentionMillis;
+        Iterator<AuditSegment> iterator = segments.values().iterator();
+        while (iterator.hasNext()) {
+            AuditSegment segment = iterator.next();
+            if (segment == active || segment.getMaxTimestamp() >= cutoff) {
+                break;
+            }
+            iterator.remove();
+            sealedIndexes.remove(segment.getNumber());
+            try {
+                segment.close();
+                Files.deleteIfExists(segment.getFile());
+                Files.deleteIfExists(AuditSegmentIndex.fileFor(segment.getFile()));
+            } catch (IOException e) {
+                logger.warn("Failed to delete expired audit segment {}", segment.getFile(), e);
+            }
+        }
+    }
+    
+    private static void index(Map<Long, PositionList> positions, int offset, AuditEvent event) {
+        AuditEntityKind kind = event.getType().getEntityKind();
+        indexId(positions, kind, event.getEntityId(), offset);
+        if (event.getType() == AuditEventType.ORDER_CREATED) {
+            indexId(positions, AuditEntityKind.USER, event.getRelatedId(), offset);
+        }
+        if (event.getType() == AuditEventType.ORDER_BATCH_STATUS_CHANGED && event.getPayload() instanceof Iterable) {
+            for (Object id : (Iterable<?>) event.getPayload()) {
+                indexId(positions, kind, id instanceof Long ? (Long) id : null, offset);
+            }
+        }
+    }
+    
+    private static void index(Map<Long, PositionList> positions, int offset, AuditRecord record) {
+        AuditEntityKind kind = record.getType().getEntityKind();
+        indexId(positions, kind, record.getEntityId(), offset);
+        if (record.getType() == AuditEventType.ORDER_CREATED) {
+            indexId(positions, AuditEntityKind.USER, record.getRelatedId(), offset);
+        }
+        for (Long id : record.getPayloadIds()) {
+            indexId(positions, kind, id, offset);
+        }
+    }
+    
+    private static void indexId(Map<Long, PositionList> positions, AuditEntityKind kind, Long id, int offset) {
+        if (id == null || id < 0 || id > MAX_INDEXED_ID) {
+            return;
+        }
+        positions.computeIfAbsent(key(kind, id), k -> new PositionList()).add(offset);
+    }
+    
+    private static long key(AuditEntityKind kind, long id) {
+        return ((long) kind.ordinal() << ID_BITS) | id;
+    }
+    
+    /**
+     * Heap index of the segment being appended to, replaced as a whole when that segment is sealed.
+     */
+    private static final class ActiveIndex {
+        
+        private final int segmentNumber;
+        private final Map<Long, PositionList> positions;
+        
+        ActiveIndex(int segmentNumber, Map<Long, PositionList> positions) {
+            this.segmentNumber = segmentNumber;
+            this.positions = positions;
+        }
+    }
+    
+    /**
+     * Growable, append-only list of one entity's record offsets in the active segment, kept in write order.
+     */
+    private static final class PositionList {
+        
+        private int[] offsets = new int[4];
+        private int size;
+        
+        synchronized void add(int offset) {
+            if (size == offsets.length) {
+                offsets = Arrays.copyOf(offsets, size * 2);
+            }
+            offsets[size++] = offset;
+        }
+        
+        synchronized int[] snapshot() {
+            return Arrays.copyOf(offsets, size);
+        }
+        
+        synchronized int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.ecommerce.audit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes audit events as the same "[AUDIT] ..." log lines AuditService used to emit inline
+ */
+@Component
+public class Slf4jAuditSink implements AuditSink {
+    
+    private static final Logger logger = LoggerFactory.getLogger("com.example.ecommerce.service.AuditService");
+    
+    @Override
+    public void write(AuditEvent event) {
+        if (logger.isInfoEnabled()) {
+            logger.info(event.getType().getPattern(), event.toLogArguments());
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.ecommerce.audit;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Folds STOCK_UPDATED events into one STOCK_AGGREGATED event per product and tumbling time window,
+ * carrying the first and last stock level, the number of changes and the net delta.
+ * Used only from the audit pipeline's consumer thread, so it is not thread-safe.
+ */
+final class StockWindowAggregator {
+    
+    private final long windowMillis;
+    private final Map<Long, StockWindow> open = new HashMap<>();
+    private final AuditEvent aggregate = new AuditEvent();
+    private long nextBoundary = Long.MIN_VALUE;
+    private long foldedCount;
+    private long emittedCount;
+    
+    StockWindowAggregator(long windowMillis) {
+        if (windowMillis <= 0) {
+            throw new IllegalArgumentException("Aggregation window must be positive");
+        }
+        this.windowMillis = windowMillis;
+    }
+    
+    /**
+     * Folds a stock event into its product's window, first emitting that product's previous window if it has ended.
+     */
+    void add(AuditEvent event, Consumer<AuditEvent> emitter) {
+        Long productId = event.getEntityId();
+        if (productId == null) {
+            emitter.accept(event);
+            return;
+        }
+        long windowStart = windowStart(event.getTimestampMillis());
+        StockWindow window = open.get(productId);
+        if (window == null) {
+            window = new StockWindow();
+            open.put(productId, window);
+            window.start(windowStart, event);
+        } else if (windowStart > window.windowStart) {
+            emit(productId, window, emitter);
+            window.start(windowStart, event);
+        } else {
+            window.fold(event);
+        }
+        foldedCount++;
+        if (nextBoundary == Long.MIN_VALUE) {
+            nextBoundary = windowStart + windowMillis;
+        }
+    }
+    
+    /**
+     * Emits every window that ended at or before {@code nowMillis}; cheap until a window boundary passes.
+     */
+    void emitDue(long nowMillis, Consumer<AuditEvent> emitter) {
+        if (nowMillis < nextBoundary || open.isEmpty()) {
+            return;
+        }
+        Iterator<Map.Entry<Long, StockWindow>> iterator = open.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Long, StockWindow> entry = iterator.next();
+            if (entry.getValue().windowStart + windowMillis <= nowMillis) {
+                emit(entry.getKey(), entry.getValue(), emitter);
+                iterator.remove();
+            }
+        }
+        nextBoundary = windowStart(nowMillis) + windowMillis;
+    }
+    
+    void emitAll(Consumer<AuditEvent> emitter) {
+        open.forEach((productId, window) -> emit(productId, window, emitter));
+        open.clear();
+    }
+    
+    long getFoldedCount() {
+        return foldedCount;
+    }
+    
+    long getEmittedCount() {
+        return emittedCount;
+    }
+    
+    int getOpenWindowCount() {
+        return open.size();
+    }
+    
+    private void emit(Long productId, StockWindow window, Consumer<AuditEvent> emitter) {
+        aggregate.reset(AuditEventType.STOCK_AGGREGATED, window.firstTimestamp, -1);
+        aggregate.entityId(productId)
+                .quantities(window.firstStock, window.lastStock)
+                .aggregate(window.changes, window.netDelta, window.lastTimestamp);
+        emitter.accept(aggregate);
+        aggregate.release();
+        emittedCount++;
+    }
+    
+    private long windowStart(long timestampMillis) {
+        return timestampMillis - Math.floorMod(timestampMillis, windowMillis);
+    }
+    
+    private static final class StockWindow {
+        
+        private long windowStart;
+        private long firstTimestamp;
+        private long lastTimestamp;
+        private int firstStock;
+        private int lastStock;
+        private int changes;
+        private long netDelta;
+        
+        private void start(long windowStart, AuditEvent event) {
+            this.windowStart = windowStart;
+            this.firstTimestamp = event.getTimestampMillis();
+            this.lastTimestamp = event.getTimestampMillis();
+            this.firstStock = event.getOldQuantity();
+            this.lastStock = event.getNewQuantity();
+            this.changes = 1;
+            this.netDelta = (long) event.getNewQuantity() - event.getOldQuantity();
+        }
+        
+        private void fold(AuditEvent event) {
+            lastTimestamp = Math.max(lastTimestamp, event.getTimestampMillis());
+            lastStock = event.getNewQuantity();
+            changes++;
+            netDelta += (long) event.getNewQuantity() - event.getOldQuantity();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.ecommerce.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Training run for the AppCDS archive built by the {@code appcds} Maven profile. With
+ * {@code ecommerce.startup.training-run=true} the application places and processes one order through its own
+ * REST API, so the classes of the whole request path get loaded, then exits. The JVM, started with
+ * {@code -XX:ArchiveClassesAtExit}, dumps every loaded class into the archive on the way out.
+ */
+@Component
+@ConditionalOnProperty(name = "ecommerce.startup.training-run", havingValue = "true")
+public class CdsTrainingRun implements ApplicationRunner {
+    
+    private static final Logger logger = LoggerFactory.getLogger(CdsTrainingRun.class);
+    
+    @Autowired
+    private ApplicationContext context;
+    
+    @Override
+    public void run(ApplicationArguments args) {
+        int exitCode = 0;
+        try {
+            train();
+            logger.info("CDS training run finished");
+        } catch (RuntimeException e) {
+            logger.error("CDS training run failed", e);
+            exitCode = 1;
+        }
+        int code = exitCode;
+        System.exit(SpringApplication.exit(context, () -> code));
+    }
+    
+    private void train() {
+        if (!(context instanceof WebServerApplicationContext)) {
+            throw new IllegalStateException("The training run needs the embedded web server");
+        }
+        String base = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort() + "/api";
+        RestTemplate rest = new RestTemplate();
+        
+        Map<String, Object> user = new LinkedHashMap<>();
+        user.put("firstName", "Training");
+        user.put("lastName", "Run");
+        user.put("email", "training-run@example.com");
+        user.put("password", "training-run");
+        user.put("phone", "555-0100");
+        Number userId = (Number) rest.postForObject(base + "/users", user, Map.class).get("id");
+        
+        Map<String, Object> product = new LinkedHashMap<>();
+        product.put("name", "Training product");
+        product.put("price", "9.99");
+        product.put("stockQuantity", 10);
+        product.put("category", "Training");
+        Number productId = (Number) rest.postForObject(base + "/products", product, Map.class).get("id");
+        
+        Map<String, Object> order = new LinkedHashMap<>();
+        order.put("userId", userId);
+        order.put("items", Collections.singletonMap(productId.toString(), 1));
+        Number orderId = (Number) rest.postForObject(base + "/orders", order, Map.class).get("id");
+        rest.postForObject(base + "/orders/" + orderId + "/process",
+                Collections.singletonMap("userEmail", "training-run@example.com"), Map.class);
+        rest.getForObject(base + "/orders/" + orderId, Map.class);
+    }
+}
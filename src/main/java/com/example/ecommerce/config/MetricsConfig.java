@@ -0,0 +1,51 @@
+package com.example.ecommerce.config;
+
+import com.example.ecommerce.metrics.ServiceTimingInterceptor;
+import com.example.ecommerce.service.AuditService;
+import com.example.ecommerce.service.EmailService;
+import com.example.ecommerce.service.OrderService;
+import com.example.ecommerce.service.PaymentService;
+import com.example.ecommerce.service.ProductService;
+import com.example.ecommerce.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcutAdvisor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Set;
+
+/**
+ * Times every public method of the core services (see {@link ServiceTimingInterceptor}). The advisor is an
+ * infrastructure bean, so it is applied by the same auto-proxy creator as the transaction advice.
+ * Repository calls are timed by Spring Boot as {@code spring.data.repository.invocations}.
+ */
+@Configuration
+public class MetricsConfig {
+    
+    private static final Set<Class<?>> TIMED_SERVICES = Set.of(OrderService.class, PaymentService.class,
+            ProductService.class, UserService.class, EmailService.class, AuditService.class);
+    
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    @ConditionalOnProperty(name = "ecommerce.metrics.service-timing.enabled", havingValue = "true", matchIfMissing = true)
+    public static Advisor serviceTimingAdvisor(ObjectProvider<MeterRegistry> registry) {
+        StaticMethodMatcherPointcutAdvisor advisor = new StaticMethodMatcherPointcutAdvisor(new ServiceTimingInterceptor(registry)) {
+            @Override
+            public boolean matches(Method method, Class<?> targetClass) {
+                return Modifier.isPublic(method.getModifiers())
+                        && !Modifier.isStatic(method.getModifiers())
+                        && method.getDeclaringClass() != Object.class
+                        && TIMED_SERVICES.contains(ClassUtils.getUserClass(targetClass));
+            }
+        };
+        return advisor;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.ecommerce.config;
+
+import com.example.ecommerce.gateway.AsyncPaymentGatewayClient;
+import com.example.ecommerce.gateway.CircuitBreaker;
+import com.example.ecommerce.gateway.PaymentGateway;
+import com.example.ecommerce.gateway.StubPaymentGateway;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Payment gateway wiring - the stub gateway is used unless a real PaymentGateway bean is provided
+ */
+@Configuration
+public class PaymentGatewayConfig {
+    
+    @Bean(destroyMethod = "shutdownNow")
+    public ScheduledExecutorService paymentGatewayScheduler(
+            @Value("${ecommerce.payment.gateway.scheduler-threads:2}") int threads) {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("payment-gateway-");
+        threadFactory.setDaemon(true);
+        return Executors.newScheduledThreadPool(threads, threadFactory);
+    }
+    
+    @Bean
+    @ConditionalOnMissingBean(PaymentGateway.class)
+    public PaymentGateway stubPaymentGateway(
+            ScheduledExecutorService paymentGatewayScheduler,
+            @Value("${ecommerce.payment.gateway.stub.base-latency-ms:20}") long baseLatencyMillis,
+            @Value("${ecommerce.payment.gateway.stub.jitter-ms:10}") long jitterMillis,
+            @Value("${ecommerce.payment.gateway.stub.tail-latency-ms:500}") long tailLatencyMillis,
+            @Value("${ecommerce.payment.gateway.stub.tail-probability:0.01}") double tailProbability,
+            @Value("${ecommerce.payment.gateway.stub.failure-probability:0.0}") double failureProbability) {
+        return new StubPaymentGateway(paymentGatewayScheduler, new Random(), baseLatencyMillis, jitterMillis,
+                tailLatencyMillis, tailProbability, failureProbability);
+    }
+    
+    @Bean
+    public AsyncPaymentGatewayClient paymentGatewayClient(
+            PaymentGateway paymentGateway,
+            ScheduledExecutorService paymentGatewayScheduler,
+            @Value("${ecommerce.payment.gateway.max-in-flight:64}") int maxInFlight,
+            @Value("${ecommerce.payment.gateway.timeout-ms:2000}") long timeoutMillis,
+            @Value("${ecommerce.payment.gateway.hedge-delay-ms:300}") long hedgeDelayMillis,
+            @Value("${ecommerce.payment.gateway.breaker.window-size:50}") int windowSize,
+            @Value("${ecommerce.payment.gateway.breaker.minimum-calls:20}") int minimumCalls,
+            @Value("${ecommerce.payment.gateway.breaker.failure-rate-threshold:0.5}") double failureRateThreshold,
+            @Value("${ecommerce.payment.gateway.breaker.open-duration-ms:10000}") long openDurationMillis) {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(windowSize, minimumCalls, failureRateThreshold, openDurationMillis);
+        return new AsyncPaymentGatewayClient(paymentGateway, circuitBreaker, paymentGatewayScheduler,
+                maxInFlight, timeoutMillis, hedgeDelayMillis);
+    }
+}
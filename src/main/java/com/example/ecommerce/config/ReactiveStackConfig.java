@@ -0,0 +1,83 @@
+package com.example.ecommerce.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import io.r2dbc.h2.H2ConnectionConfiguration;
+import io.r2dbc.h2.H2ConnectionFactory;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+
+/**
+ * Wiring for the reactive order stack (com.example.ecommerce.reactive).
+ * R2DBC connects to the same H2 database as the JPA DataSource: its URL is derived from
+ * {@code spring.datasource.url}, so tests and benchmarks that move the datasource move both stacks.
+ * The R2DBC transaction manager is kept out of the context (R2dbcTransactionManagerAutoConfiguration is
+ * excluded), since a second TransactionManager bean would make {@code @Transactional} on the JPA services
+ * ambiguous; the reactive services use the TransactionalOperator instead.
+ */
+@Configuration
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class ReactiveStackConfig {
+    
+    private static final String H2_JDBC_PREFIX = "jdbc:h2:";
+    
+    /**
+     * The JDBC pool, built as DataSourceAutoConfiguration would build it. That auto-configuration backs off
+     * as soon as a ConnectionFactory bean exists, so the blocking stack declares its DataSource here.
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+    
+    @Bean(destroyMethod = "dispose")
+    public ConnectionFactory connectionFactory(DataSourceProperties dataSourceProperties,
+                                               @Value("${ecommerce.reactive.pool.max-size:16}") int maxSize) {
+        String url = dataSourceProperties.determineUrl();
+        if (url == null || !url.startsWith(H2_JDBC_PREFIX)) {
+            throw new IllegalStateException("The reactive stack shares the H2 datasource, but it is: " + url);
+        }
+        H2ConnectionConfiguration.Builder configuration = H2ConnectionConfiguration.builder()
+                .url(url.substring(H2_JDBC_PREFIX.length()))
+                .username(dataSourceProperties.determineUsername());
+        String password = dataSourceProperties.determinePassword();
+        if (password != null && !password.isEmpty()) {
+            configuration.password(password);
+        }
+        return new ConnectionPool(ConnectionPoolConfiguration.builder(new H2ConnectionFactory(configuration.build()))
+                .initialSize(0)
+                .maxSize(maxSize)
+                .build());
+    }
+    
+    @Bean
+    public TransactionalOperator reactiveTransactionalOperator(ConnectionFactory connectionFactory) {
+        return TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+    }
+    
+    /**
+     * Codecs for the functional routes, using the application's ObjectMapper (ISO dates, as on the servlet side).
+     */
+    @Bean
+    public HandlerStrategies reactiveHandlerStrategies(ObjectMapper objectMapper) {
+        return HandlerStrategies.builder()
+                .codecs(codecs -> {
+                    codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+                    codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+                })
+                .build();
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.ecommerce.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled housekeeping tasks
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,75 @@
+package com.example.ecommerce.config;
+
+import com.example.ecommerce.model.Payment.PaymentMethod;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Settings for the pending-payment settlement run (ecommerce.settlement.*)
+ */
+@Component
+@ConfigurationProperties(prefix = "ecommerce.settlement")
+public class SettlementProperties {
+    
+    private int workerThreads = 16;
+    
+    private int chunkSize = 200;
+    
+    private int defaultMethodConcurrency = 8;
+    
+    private Map<PaymentMethod, Integer> methodConcurrency = new EnumMap<>(PaymentMethod.class);
+    
+    /**
+     * How long a payment may stay claimed (PROCESSING) before a settlement run returns it to PENDING.
+     * Well above the gateway deadline, so only a claimant that crashed or lost its result is overtaken.
+     */
+    private Duration claimTimeout = Duration.ofMinutes(15);
+    
+    public int getWorkerThreads() {
+        return workerThreads;
+    }
+    
+    public void setWorkerThreads(int workerThreads) {
+        this.workerThreads = workerThreads;
+    }
+    
+    public int getChunkSize() {
+        return chunkSize;
+    }
+    
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+    
+    public int getDefaultMethodConcurrency() {
+        return defaultMethodConcurrency;
+    }
+    
+    public void setDefaultMethodConcurrency(int defaultMethodConcurrency) {
+        this.defaultMethodConcurrency = defaultMethodConcurrency;
+    }
+    
+    public Map<PaymentMethod, Integer> getMethodConcurrency() {
+        return methodConcurrency;
+    }
+    
+    public void setMethodConcurrency(Map<PaymentMethod, Integer> methodConcurrency) {
+        this.methodConcurrency = methodConcurrency;
+    }
+    
+    public Duration getClaimTimeout() {
+        return claimTimeout;
+    }
+    
+    public void setClaimTimeout(Duration claimTimeout) {
+        this.claimTimeout = claimTimeout;
+    }
+    
+    public int concurrencyFor(PaymentMethod paymentMethod) {
+        return methodConcurrency.getOrDefault(paymentMethod, defaultMethodConcurrency);
+    }
+}
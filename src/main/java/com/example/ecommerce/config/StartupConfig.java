@@ -0,0 +1,23 @@
+package com.example.ecommerce.config;
+
+import com.example.ecommerce.audit.AuditPipeline;
+import com.example.ecommerce.service.OrderService;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Beans kept eager when {@code spring.main.lazy-initialization} is on (the prod profile). OrderService brings
+ * up the whole order path (user, product, payment, email and audit services and their repositories), so the
+ * first order does not pay for building it; the audit pipeline starts its consumer thread. Everything else,
+ * such as import, export, reconciliation and settlement, is created on first use. Beans with @Scheduled
+ * methods are kept eager by Spring Boot itself.
+ */
+@Configuration
+public class StartupConfig {
+    
+    @Bean
+    public static LazyInitializationExcludeFilter eagerOrderPath() {
+        return LazyInitializationExcludeFilter.forBeanTypes(OrderService.class, AuditPipeline.class);
+    }
+}
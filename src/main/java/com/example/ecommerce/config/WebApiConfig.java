@@ -0,0 +1,44 @@
+package com.example.ecommerce.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Servlet API wiring. NDJSON listings are written by StreamingResponseBody on a bounded pool of their own,
+ * so a slow reader holds a stream thread rather than a request thread, and at most that many cursors are open.
+ * Boot's applicationTaskExecutor backs off because other Executor beans exist, hence the explicit pool.
+ */
+@Configuration
+public class WebApiConfig implements WebMvcConfigurer {
+    
+    @Value("${ecommerce.api.stream.threads:4}")
+    private int threads;
+    
+    @Value("${ecommerce.api.stream.queue-capacity:16}")
+    private int queueCapacity;
+    
+    @Value("${ecommerce.api.stream.timeout-ms:600000}")
+    private long streamTimeoutMillis;
+    
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolTaskExecutor apiStreamExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("api-stream-");
+        executor.setDaemon(true);
+        executor.initialize();
+        return executor;
+    }
+    
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(apiStreamExecutor());
+        configurer.setDefaultTimeout(streamTimeoutMillis);
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.ecommerce.email;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A template parsed once into alternating literal and parameter segments.
+ * Placeholders are written {@code {{name}}} and bound to argument positions at compile time,
+ * so rendering is a straight walk over the segments with no lookups or parsing.
+ */
+public final class CompiledTemplate {
+    
+    private static final int ESTIMATED_ARGUMENT_LENGTH = 16;
+    
+    private final String name;
+    private final String[] literals;
+    private final int[] slots;
+    private final int estimatedLength;
+    
+    private CompiledTemplate(String name, String[] literals, int[] slots, int estimatedLength) {
+        this.name = name;
+        this.literals = literals;
+        this.slots = slots;
+        this.estimatedLength = estimatedLength;
+    }
+    
+    /**
+     * Parses the source, binding each placeholder to its index in {@code parameterNames}.
+     * Throws IllegalArgumentException for unknown or unterminated placeholders.
+     */
+    public static CompiledTemplate compile(String name, String source, String... parameterNames) {
+        List<String> literals = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+        int literalLength = 0;
+        int position = 0;
+        while (position <= source.length()) {
+            int open = source.indexOf("{{", position);
+            if (open < 0) {
+                literals.add(source.substring(position));
+                slots.add(-1);
+                literalLength += source.length() - position;
+                break;
+            }
+            int close = source.indexOf("}}", open + 2);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unterminated placeholder in template " + name + " at " + open);
+            }
+            String parameter = source.substring(open + 2, close).trim();
+            int slot = indexOf(parameterNames, parameter);
+            if (slot < 0) {
+                throw new IllegalArgumentException("Unknown parameter '" + parameter + "' in template " + name);
+            }
+            literals.add(source.substring(position, open));
+            slots.add(slot);
+            literalLength += open - position;
+            position = close + 2;
+        }
+        int[] slotArray = new int[slots.size()];
+        int parameterCount = 0;
+        for (int i = 0; i < slotArray.length; i++) {
+            slotArray[i] = slots.get(i);
+            if (slotArray[i] >= 0) {
+                parameterCount++;
+            }
+        }
+        return new CompiledTemplate(name, literals.toArray(new String[0]), slotArray,
+                literalLength + parameterCount * ESTIMATED_ARGUMENT_LENGTH);
+    }
+    
+    /**
+     * Appends the rendered template to {@code out}; arguments are positional, in declared parameter order.
+     */
+    public void renderTo(StringBuilder out, Object[] args) {
+        out.ensureCapacity(out.length() + estimatedLength);
+        for (int i = 0; i < literals.length; i++) {
+            out.append(literals[i]);
+            int slot = slots[i];
+            if (slot >= 0) {
+                out.append(args[slot]);
+            }
+        }
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public int getSegmentCount() {
+        return literals.length;
+    }
+    
+    private static int indexOf(String[] names, String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.ecommerce.email;
+
+/**
+ * Outcome of handing one message to the mail server.
+ * RETRY covers 4xx replies and broken connections; REJECTED is a permanent 5xx refusal.
+ */
+public final class DeliveryResult {
+    
+    public enum Status {
+        SENT,
+        RETRY,
+        REJECTED
+    }
+    
+    private static final DeliveryResult SENT = new DeliveryResult(Status.SENT, null);
+    
+    private final Status status;
+    private final String detail;
+    
+    private DeliveryResult(Status status, String detail) {
+        this.status = status;
+        this.detail = detail;
+    }
+    
+    public static DeliveryResult sent() {
+        return SENT;
+    }
+    
+    public static DeliveryResult retry(String detail) {
+        return new DeliveryResult(Status.RETRY, detail);
+    }
+    
+    public static DeliveryResult rejected(String detail) {
+        return new DeliveryResult(Status.REJECTED, detail);
+    }
+    
+    /**
+     * Maps an SMTP reply: 2xx is delivered, 5xx is permanent, anything else is worth retrying.
+     */
+    public static DeliveryResult fromReplyCode(int code, String detail) {
+        if (code >= 200 && code < 300) {
+            return SENT;
+        }
+        return code >= 500 ? rejected(detail) : retry(detail);
+    }
+    
+    public Status getStatus() {
+        return status;
+    }
+    
+    public String getDetail() {
+        return detail;
+    }
+    
+    @Override
+    public String toString() {
+        return detail == null ? status.toString() : status + " (" + detail + ")";
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.ecommerce.email;
+
+import java.util.Locale;
+
+/**
+ * The compiled subject and body of one message type in one locale.
+ */
+public final class EmailTemplate {
+    
+    private final Locale locale;
+    private final CompiledTemplate subject;
+    private final CompiledTemplate body;
+    
+    EmailTemplate(Locale locale, CompiledTemplate subject, CompiledTemplate body) {
+        this.locale = locale;
+        this.subject = subject;
+        this.body = body;
+    }
+    
+    /**
+     * Renders through {@code buffer}, which is cleared first and may be reused by the caller.
+     */
+    public RenderedEmail render(StringBuilder buffer, Object[] args) {
+        buffer.setLength(0);
+        subject.renderTo(buffer, args);
+        String renderedSubject = buffer.toString();
+        buffer.setLength(0);
+        body.renderTo(buffer, args);
+        return new RenderedEmail(renderedSubject, buffer.toString());
+    }
+    
+    /**
+     * The locale of the variant that was actually found, which may be a fallback of the requested one.
+     */
+    public Locale getLocale() {
+        return locale;
+    }
+    
+    public CompiledTemplate getSubject() {
+        return subject;
+    }
+    
+    public CompiledTemplate getBody() {
+        return body;
+    }
+}
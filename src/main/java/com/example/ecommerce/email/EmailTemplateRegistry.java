@@ -0,0 +1,176 @@
+package com.example.ecommerce.email;
+
+import com.example.ecommerce.model.EmailOutboxMessage.EmailKind;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Loads, compiles and caches the email templates, one set per locale.
+ * Templates live on the classpath as {@code <base>/<kind>.txt} with localized variants in {@code <base>/<locale>/};
+ * a missing variant falls back from language_COUNTRY to language to the default set. The first line is
+ * {@code Subject: ...}, and the body follows a blank line. Each locale is resolved once, and every later lookup
+ * is a map read. Rendering goes through a per-thread StringBuilder.
+ */
+@Component
+public class EmailTemplateRegistry {
+    
+    private static final Map<EmailKind, String[]> PARAMETERS = new EnumMap<>(EmailKind.class);
+    
+    static {
+        PARAMETERS.put(EmailKind.WELCOME, new String[] {"firstName"});
+        PARAMETERS.put(EmailKind.ORDER_CONFIRMATION, new String[] {"orderNumber"});
+        PARAMETERS.put(EmailKind.PAYMENT_CONFIRMATION, new String[] {"orderNumber", "transactionId"});
+        PARAMETERS.put(EmailKind.ORDER_SHIPPED, new String[] {"orderNumber", "trackingNumber"});
+        PARAMETERS.put(EmailKind.PASSWORD_RESET, new String[] {"resetToken"});
+        PARAMETERS.put(EmailKind.LOW_STOCK_ALERT, new String[] {"productName", "currentStock"});
+        PARAMETERS.put(EmailKind.ORDER_DIGEST, new String[] {"orderNumber", "sections"});
+    }
+    
+    private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+    
+    private final String basePath;
+    private final Locale defaultLocale;
+    private final Map<EmailKind, EmailTemplate> defaults;
+    private final ConcurrentMap<Locale, Map<EmailKind, EmailTemplate>> byLocale = new ConcurrentHashMap<>();
+    private final ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(() -> new StringBuilder(1024));
+    
+    /**
+     * Compiles the default templates eagerly, so a broken template fails startup rather than the first send.
+     */
+    @Autowired
+    public EmailTemplateRegistry(@Value("${ecommerce.email.templates.path:email-templates}") String basePath,
+                                 @Value("${ecommerce.email.templates.default-locale:en}") String defaultLocale) {
+        this.basePath = basePath.endsWith("/") ? basePath.substring(0, basePath.length() - 1) : basePath;
+        this.defaultLocale = Locale.forLanguageTag(defaultLocale.replace('_', '-'));
+        Map<EmailKind, EmailTemplate> compiled = new EnumMap<>(EmailKind.class);
+        for (EmailKind kind : EmailKind.values()) {
+            String source = read(this.basePath + "/" + fileName(kind));
+            if (source == null) {
+                throw new IllegalStateException("Missing email template " + this.basePath + "/" + fileName(kind));
+            }
+            compiled.put(kind, compile(kind, Locale.ROOT, source));
+        }
+        this.defaults = Collections.unmodifiableMap(compiled);
+        byLocale.put(Locale.ROOT, defaults);
+    }
+    
+    public RenderedEmail render(EmailKind kind, Object... args) {
+        return render(kind, defaultLocale, args);
+    }
+    
+    public RenderedEmail render(EmailKind kind, Locale locale, Object... args) {
+        EmailTemplate template = get(kind, locale);
+        StringBuilder buffer = buffers.get();
+        RenderedEmail rendered = template.render(buffer, args);
+        if (buffer.capacity() > MAX_RETAINED_BUFFER) {
+            // one oversized message should not pin a large buffer on this thread
+            buffers.remove();
+        }
+        return rendered;
+    }
+    
+    public EmailTemplate get(EmailKind kind, Locale locale) {
+        Map<EmailKind, EmailTemplate> templates = byLocale.get(locale);
+        if (templates == null) {
+            templates = byLocale.computeIfAbsent(locale, this::load);
+        }
+        return templates.get(kind);
+    }
+    
+    /**
+     * The locale for a recipient's language tag; null or blank means the default locale.
+     */
+    public Locale localeFor(String languageTag) {
+        if (languageTag == null || languageTag.isBlank()) {
+            return defaultLocale;
+        }
+        return Locale.forLanguageTag(languageTag.replace('_', '-'));
+    }
+    
+    public Locale getDefaultLocale() {
+        return defaultLocale;
+    }
+    
+    public int getCachedLocaleCount() {
+        return byLocale.size();
+    }
+    
+    private Map<EmailKind, EmailTemplate> load(Locale locale) {
+        List<Locale> candidates = new ArrayList<>(2);
+        if (!locale.getCountry().isEmpty()) {
+            candidates.add(locale);
+        }
+        if (!locale.getLanguage().isEmpty()) {
+            candidates.add(new Locale(locale.getLanguage()));
+        }
+        Map<EmailKind, EmailTemplate> templates = new EnumMap<>(EmailKind.class);
+        for (EmailKind kind : EmailKind.values()) {
+            EmailTemplate template = null;
+            for (Locale candidate : candidates) {
+                Map<EmailKind, EmailTemplate> cached = byLocale.get(candidate);
+                if (cached != null) {
+                    template = cached.get(kind);
+                } else {
+                    String source = read(basePath + "/" + candidate + "/" + fileName(kind));
+                    template = source == null ? null : compile(kind, candidate, source);
+                }
+                if (template != null && template.getLocale().equals(candidate)) {
+                    break;
+                }
+                template = null;
+            }
+            templates.put(kind, template != null ? template : defaults.get(kind));
+        }
+        return Collections.unmodifiableMap(templates);
+    }
+    
+    private static EmailTemplate compile(EmailKind kind, Locale locale, String source) {
+        String name = fileName(kind) + (locale.equals(Locale.ROOT) ? "" : " (" + locale + ")");
+        String text = source.replace("\r\n", "\n");
+        int lineEnd = text.indexOf('\n');
+        String firstLine = lineEnd < 0 ? text : text.substring(0, lineEnd);
+        if (!firstLine.startsWith("Subject:")) {
+            throw new IllegalArgumentException("Email template " + name + " must start with a Subject: line");
+        }
+        String body = lineEnd < 0 ? "" : text.substring(lineEnd + 1);
+        if (body.startsWith("\n")) {
+            body = body.substring(1);
+        }
+        if (body.endsWith("\n")) {
+            body = body.substring(0, body.length() - 1);
+        }
+        String[] parameters = PARAMETERS.get(kind);
+        return new EmailTemplate(locale,
+                CompiledTemplate.compile(name + " subject", firstLine.substring("Subject:".length()).trim(), parameters),
+                CompiledTemplate.compile(name, body, parameters));
+    }
+    
+    private static String fileName(EmailKind kind) {
+        return kind.name().toLowerCase(Locale.ROOT) + ".txt";
+    }
+    
+    private static String read(String path) {
+        try (InputStream in = EmailTemplateRegistry.class.getClassLoader().getResourceAsStream(path)) {
+            if (in == null) {
+                return null;
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read email template " + path, e);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.ecommerce.email;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Default transport when no mail server is configured: logs each message and reports it as sent.
+ */
+@Component
+@ConditionalOnProperty(name = "ecommerce.email.transport", havingValue = "log", matchIfMissing = true)
+public class LoggingMailTransport implements MailTransport {
+    
+    private static final Logger logger = LoggerFactory.getLogger(LoggingMailTransport.class);
+    
+    @Override
+    public List<DeliveryResult> send(List<OutgoingEmail> batch) {
+        List<DeliveryResult> results = new ArrayList<>(batch.size());
+        for (OutgoingEmail email : batch) {
+            logger.info("Sending email {} to: {} ({})", email.getOutboxId(), email.getRecipient(), email.getSubject());
+            results.add(DeliveryResult.sent());
+        }
+        return results;
+    }
+}
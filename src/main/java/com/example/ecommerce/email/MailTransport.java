@@ -0,0 +1,13 @@
+package com.example.ecommerce.email;
+
+import java.util.List;
+
+/**
+ * Delivers a batch of messages over one connection.
+ * Implementations never throw for delivery problems: every message gets a result, index-aligned with the batch,
+ * and messages whose fate is unknown after a connection failure are reported as RETRY.
+ */
+public interface MailTransport {
+    
+    List<DeliveryResult> send(List<OutgoingEmail> batch);
+}
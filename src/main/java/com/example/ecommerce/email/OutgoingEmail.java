@@ -0,0 +1,35 @@
+package com.example.ecommerce.email;
+
+/**
+ * One rendered message handed to a {@link MailTransport}; the outbox id becomes its Message-ID.
+ */
+public final class OutgoingEmail {
+    
+    private final long outboxId;
+    private final String recipient;
+    private final String subject;
+    private final String body;
+    
+    public OutgoingEmail(long outboxId, String recipient, String subject, String body) {
+        this.outboxId = outboxId;
+        this.recipient = recipient;
+        this.subject = subject;
+        this.body = body;
+    }
+    
+    public long getOutboxId() {
+        return outboxId;
+    }
+    
+    public String getRecipient() {
+        return recipient;
+    }
+    
+    public String getSubject() {
+        return subject;
+    }
+    
+    public String getBody() {
+        return body;
+    }
+}
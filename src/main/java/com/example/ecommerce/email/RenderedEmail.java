@@ -0,0 +1,23 @@
+package com.example.ecommerce.email;
+
+/**
+ * Subject and body produced by rendering an {@link EmailTemplate}.
+ */
+public final class RenderedEmail {
+    
+    private final String subject;
+    private final String body;
+    
+    public RenderedEmail(String subject, String body) {
+        this.subject = subject;
+        this.body = body;
+    }
+    
+    public String getSubject() {
+        return subject;
+    }
+    
+    public String getBody() {
+        return body;
+    }
+}
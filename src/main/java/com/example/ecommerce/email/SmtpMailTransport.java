@@ -0,0 +1,268 @@
+package com.example.ecommerce.email;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Plain SMTP client that sends a whole batch over one connection.
+ * When the server advertises PIPELINING (RFC 2920), each message costs one round trip: MAIL, RCPT and DATA go out
+ * together, and the message content goes out together with the next message's envelope.
+ */
+@Component
+@ConditionalOnProperty(name = "ecommerce.email.transport", havingValue = "smtp")
+public class SmtpMailTransport implements MailTransport {
+    
+    private final String host;
+    private final int port;
+    private final String heloName;
+    private final String from;
+    private final int connectTimeoutMillis;
+    private final int readTimeoutMillis;
+    
+    @Autowired
+    public SmtpMailTransport(@Value("${ecommerce.email.smtp.host:localhost}") String host,
+                             @Value("${ecommerce.email.smtp.port:25}") int port,
+                             @Value("${ecommerce.email.smtp.helo-name:localhost}") String heloName,
+                             @Value("${ecommerce.email.from:no-reply@example.com}") String from,
+                             @Value("${ecommerce.email.smtp.connect-timeout-ms:5000}") int connectTimeoutMillis,
+                             @Value("${ecommerce.email.smtp.read-timeout-ms:30000}") int readTimeoutMillis) {
+        this.host = host;
+        this.port = port;
+        this.heloName = heloName;
+        this.from = from;
+        this.connectTimeoutMillis = connectTimeoutMillis;
+        this.readTimeoutMillis = readTimeoutMillis;
+    }
+    
+    @Override
+    public List<DeliveryResult> send(List<OutgoingEmail> batch) {
+        List<DeliveryResult> results = new ArrayList<>(batch.size());
+        if (batch.isEmpty()) {
+            return results;
+        }
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress(host, port), connectTimeoutMillis);
+            socket.setSoTimeout(readTimeoutMillis);
+            socket.setTcpNoDelay(true);
+            Session session = new Session(socket);
+            
+            Reply greeting = session.read();
+            if (!greeting.isPositive()) {
+                fillRemaining(results, batch.size(), DeliveryResult.fromReplyCode(greeting.code, greeting.text));
+                return results;
+            }
+            Reply ehlo = session.command("EHLO " + heloName);
+            if (!ehlo.isPositive()) {
+                ehlo = session.command("HELO " + heloName);
+                if (!ehlo.isPositive()) {
+                    fillRemaining(results, batch.size(), DeliveryResult.fromReplyCode(ehlo.code, ehlo.text));
+                    return results;
+                }
+            }
+            String mailFromSuffix = ehlo.hasExtension("8BITMIME") ? " BODY=8BITMIME" : "";
+            if (ehlo.hasExtension("PIPELINING")) {
+                sendPipelined(session, batch, mailFromSuffix, results);
+            } else {
+                sendLockStep(session, batch, mailFromSuffix, results);
+            }
+            session.quietly("QUIT");
+        } catch (IOException e) {
+            // Whatever has no reply yet may or may not have been delivered; retrying errs towards a duplicate
+            fillRemaining(results, batch.size(), DeliveryResult.retry("Connection to " + host + ":" + port
+                    + " failed: " + e.getMessage()));
+        }
+        return results;
+    }
+    
+    private void sendPipelined(Session session, List<OutgoingEmail> batch, String mailFromSuffix,
+                               List<DeliveryResult> results) throws IOException {
+        session.writeEnvelope(batch.get(0), mailFromSuffix);
+        session.flush();
+        for (int i = 0; i < batch.size(); i++) {
+            OutgoingEmail next = i + 1 < batch.size() ? batch.get(i + 1) : null;
+            Reply mail = session.read();
+            Reply rcpt = session.read();
+            Reply data = session.read();
+            if (data.code == 354) {
+                session.writeContent(batch.get(i));
+                if (next != null) {
+                    session.writeEnvelope(next, mailFromSuffix);
+                }
+                session.flush();
+                Reply accepted = session.read();
+                results.add(DeliveryResult.fromReplyCode(accepted.code, accepted.text));
+            } else {
+                Reply failed = !mail.isPositive() ? mail : !rcpt.isPositive() ? rcpt : data;
+                results.add(DeliveryResult.fromReplyCode(failed.code, failed.text));
+                session.writeLine("RSET");
+                if (next != null) {
+                    session.writeEnvelope(next, mailFromSuffix);
+                }
+                session.flush();
+                session.read();
+            }
+        }
+    }
+    
+    private void sendLockStep(Session session, List<OutgoingEmail> batch, String mailFromSuffix,
+                              List<DeliveryResult> results) throws IOException {
+        for (OutgoingEmail email : batch) {
+            Reply reply = session.command("MAIL FROM:<" + from + ">" + mailFromSuffix);
+            if (reply.isPositive()) {
+                reply = session.command("RCPT TO:<" + email.getRecipient() + ">");
+            }
+            if (reply.isPositive()) {
+                reply = session.command("DATA");
+                if (reply.code == 354) {
+                    session.writeContent(email);
+                    session.flush();
+                    reply = session.read();
+                }
+            }
+            results.add(DeliveryResult.fromReplyCode(reply.code, reply.text));
+            if (!reply.isPositive()) {
+                session.command("RSET");
+            }
+        }
+    }
+    
+    private static void fillRemaining(List<DeliveryResult> results, int size, DeliveryResult result) {
+        while (results.size() < size) {
+            results.add(result);
+        }
+    }
+    
+    private final class Session {
+        
+        private final BufferedReader in;
+        private final OutputStream out;
+        
+        private Session(Socket socket) throws IOException {
+            this.in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            this.out = new BufferedOutputStream(socket.getOutputStream(), 16 * 1024);
+        }
+        
+        private Reply command(String line) throws IOException {
+            writeLine(line);
+            flush();
+            return read();
+        }
+        
+        private void quietly(String line) {
+            try {
+                command(line);
+            } catch (IOException e) {
+                // The batch outcome is already known
+            }
+        }
+        
+        private void writeEnvelope(OutgoingEmail email, String mailFromSuffix) throws IOException {
+            writeLine("MAIL FROM:<" + from + ">" + mailFromSuffix);
+            writeLine("RCPT TO:<" + email.getRecipient() + ">");
+            writeLine("DATA");
+        }
+        
+        private void writeContent(OutgoingEmail email) throws IOException {
+            writeLine("From: " + from);
+            writeLine("To: " + email.getRecipient());
+            writeLine("Subject: " + encodeHeader(email.getSubject()));
+            writeLine("Date: " + DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now()));
+            writeLine("Message-ID: <outbox-" + email.getOutboxId() + "@" + heloName + ">");
+            writeLine("MIME-Version: 1.0");
+            writeLine("Content-Type: text/plain; charset=UTF-8");
+            writeLine("Content-Transfer-Encoding: 8bit");
+            writeLine("");
+            for (String line : email.getBody().split("\r?\n", -1)) {
+                // Dot-stuffing keeps a leading "." from ending the message early
+                writeLine(line.startsWith(".") ? "." + line : line);
+            }
+            writeLine(".");
+        }
+        
+        private void writeLine(String line) throws IOException {
+            out.write(line.getBytes(StandardCharsets.UTF_8));
+            out.write('\r');
+            out.write('\n');
+        }
+        
+        private void flush() throws IOException {
+            out.flush();
+        }
+        
+        private Reply read() throws IOException {
+            List<String> lines = new ArrayList<>(1);
+            String line;
+            do {
+                line = in.readLine();
+                if (line == null) {
+                    throw new IOException("Server closed the connection");
+                }
+                if (line.length() < 3) {
+                    throw new IOException("Malformed SMTP reply: " + line);
+                }
+                lines.add(line);
+            } while (line.length() > 3 && line.charAt(3) == '-');
+            try {
+                return new Reply(Integer.parseInt(line.substring(0, 3)), lines);
+            } catch (NumberFormatException e) {
+                throw new IOException("Malformed SMTP reply: " + line);
+            }
+        }
+    }
+    
+    private static String encodeHeader(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > 126 || value.charAt(i) < 32) {
+                return "=?UTF-8?B?" + Base64.getEncoder().encodeToString(value.getBytes(StandardCharsets.UTF_8)) + "?=";
+            }
+        }
+        return value;
+    }
+    
+    private static final class Reply {
+        
+        private final int code;
+        private final List<String> lines;
+        private final String text;
+        
+        private Reply(int code, List<String> lines) {
+            this.code = code;
+            this.lines = lines;
+            this.text = lines.get(lines.size() - 1);
+        }
+        
+        private boolean isPositive() {
+            return code >= 200 && code < 400;
+        }
+        
+        private boolean hasExtension(String keyword) {
+            for (int i = 1; i < lines.size(); i++) {
+                if (lines.get(i).length() <= 4) {
+                    continue;
+                }
+                String extension = lines.get(i).substring(4).toUpperCase(Locale.ROOT);
+                if (extension.equals(keyword) || extension.startsWith(keyword + " ")) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.ecommerce.export;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fixed number of equally sized direct buffers, allocated on first use and reused afterwards.
+ * Acquiring blocks while all buffers are in use, which caps the off-heap memory held by exports.
+ */
+public class DirectBufferPool {
+    
+    private final BlockingQueue<ByteBuffer> free;
+    private final int capacity;
+    private final int bufferSize;
+    private final AtomicInteger allocated = new AtomicInteger();
+    
+    public DirectBufferPool(int capacity, int bufferSize) {
+        if (capacity < 1 || bufferSize < 64) {
+            throw new IllegalArgumentException("Pool needs at least one buffer of 64 bytes or more");
+        }
+        this.free = new ArrayBlockingQueue<>(capacity);
+        this.capacity = capacity;
+        this.bufferSize = bufferSize;
+    }
+    
+    public ByteBuffer acquire() throws InterruptedException {
+        ByteBuffer buffer = free.poll();
+        if (buffer != null) {
+            return buffer;
+        }
+        if (allocated.getAndUpdate(count -> count < capacity ? count + 1 : count) < capacity) {
+            return ByteBuffer.allocateDirect(bufferSize);
+        }
+        return free.take();
+    }
+    
+    public void release(ByteBuffer buffer) {
+        buffer.clear();
+        if (!free.offer(buffer)) {
+            throw new IllegalStateException("Buffer released to a pool it does not belong to");
+        }
+    }
+    
+    public int getAllocatedCount() {
+        return allocated.get();
+    }
+    
+    public int getBufferSize() {
+        return bufferSize;
+    }
+}
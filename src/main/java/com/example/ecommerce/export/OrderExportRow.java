@@ -0,0 +1,58 @@
+package com.example.ecommerce.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Reusable order row holder filled by the listing cursor; its values are only valid during the callback that receives it
+ */
+public class OrderExportRow {
+    
+    private long id;
+    private String orderNumber;
+    private long userId;
+    private BigDecimal totalAmount;
+    private String status;
+    private LocalDateTime createdAt;
+    private LocalDateTime completedAt;
+    private String shippingAddress;
+    
+    public void set(long id, String orderNumber, long userId, BigDecimal totalAmount, String status,
+                    LocalDateTime createdAt, LocalDateTime completedAt, String shippingAddress) {
+        this.id = id;
+        this.orderNumber = orderNumber;
+        this.userId = userId;
+        this.totalAmount = totalAmount;
+        this.status = status;
+        this.createdAt = createdAt;
+        this.completedAt = completedAt;
+        this.shippingAddress = shippingAddress;
+    }
+    
+    public long getId() {
+        return id;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    /**
+     * Writes the row as one JSON object with the same field names as the Order resource.
+     */
+    public void writeJson(JsonGenerator json) throws IOException {
+        json.writeStartObject();
+        json.writeNumberField("id", id);
+        json.writeStringField("orderNumber", orderNumber);
+        json.writeNumberField("userId", userId);
+        json.writeNumberField("totalAmount", totalAmount);
+        json.writeStringField("status", status);
+        json.writeStringField("createdAt", createdAt == null ? null : createdAt.toString());
+        json.writeStringField("completedAt", completedAt == null ? null : completedAt.toString());
+        json.writeStringField("shippingAddress", shippingAddress);
+        json.writeEndObject();
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.ecommerce.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Reusable product row holder filled by the catalog cursor; its values are only valid during the callback that receives it
+ */
+public class ProductExportRow {
+    
+    private long id;
+    private String sku;
+    private String name;
+    private String description;
+    private BigDecimal price;
+    private int stockQuantity;
+    private String category;
+    private boolean active;
+    private LocalDateTime updatedAt;
+    
+    public void set(long id, String sku, String name, String description, BigDecimal price, int stockQuantity,
+                    String category, boolean active, LocalDateTime updatedAt) {
+        this.id = id;
+        this.sku = sku;
+        this.name = name;
+        this.description = description;
+        this.price = price;
+        this.stockQuantity = stockQuantity;
+        this.category = category;
+        this.active = active;
+        this.updatedAt = updatedAt;
+    }
+    
+    public long getId() {
+        return id;
+    }
+    
+    public String getCategory() {
+        return category;
+    }
+    
+    /**
+     * Writes the row as one JSON object with the same field names as the Product resource.
+     */
+    public void writeJson(JsonGenerator json) throws IOException {
+        json.writeStartObject();
+        json.writeNumberField("id", id);
+        json.writeStringField("sku", sku);
+        json.writeStringField("name", name);
+        json.writeStringField("description", description);
+        json.writeNumberField("price", price);
+        json.writeNumberField("stockQuantity", stockQuantity);
+        json.writeStringField("category", category);
+        json.writeBooleanField("active", active);
+        json.writeStringField("updatedAt", updatedAt == null ? null : updatedAt.toString());
+        json.writeEndObject();
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.ecommerce.export;
+
+import java.nio.file.Path;
+
+/**
+ * Outcome of exporting one user segment to a file
+ */
+public class SegmentExportResult {
+    
+    private final UserSegment segment;
+    private final Path file;
+    private final long rows;
+    private final long bytesWritten;
+    private final long uncompressedBytes;
+    private final long elapsedMillis;
+    
+    public SegmentExportResult(UserSegment segment, Path file, long rows, long bytesWritten,
+                               long uncompressedBytes, long elapsedNanos) {
+        this.segment = segment;
+        this.file = file;
+        this.rows = rows;
+        this.bytesWritten = bytesWritten;
+        this.uncompressedBytes = uncompressedBytes;
+        this.elapsedMillis = elapsedNanos / 1_000_000;
+    }
+    
+    public UserSegment getSegment() {
+        return segment;
+    }
+    
+    public Path getFile() {
+        return file;
+    }
+    
+    public long getRows() {
+        return rows;
+    }
+    
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+    
+    public long getUncompressedBytes() {
+        return uncompressedBytes;
+    }
+    
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("SegmentExportResult{segment=%s, file=%s, rows=%d, bytes=%d, uncompressed=%d, elapsed=%dms}",
+                segment, file, rows, bytesWritten, uncompressedBytes, elapsedMillis);
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.ecommerce.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Encodes text straight into a pooled direct buffer and drains it to a FileChannel, optionally as a gzip member.
+ * Gzip framing is written by hand so that compression also runs buffer-to-buffer without heap copies.
+ */
+public class SegmentFileWriter implements Closeable {
+    
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+    
+    private static final byte[] NO_INPUT = new byte[0];
+    
+    private final FileChannel channel;
+    private final DirectBufferPool bufferPool;
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+    private final ByteBuffer buffer;
+    private final ByteBuffer compressed;
+    private final Deflater deflater;
+    private final CRC32 crc;
+    private long uncompressedBytes;
+    private long bytesWritten;
+    private boolean closed;
+    
+    public SegmentFileWriter(FileChannel channel, DirectBufferPool bufferPool, boolean gzip, int gzipLevel)
+            throws IOException, InterruptedException {
+        this.channel = channel;
+        this.bufferPool = bufferPool;
+        this.buffer = bufferPool.acquire();
+        if (gzip) {
+            ByteBuffer out;
+            try {
+                out = bufferPool.acquire();
+            } catch (InterruptedException e) {
+                bufferPool.release(buffer);
+                throw e;
+            }
+            this.compressed = out;
+            this.deflater = new Deflater(gzipLevel, true);
+            this.crc = new CRC32();
+            writeFully(ByteBuffer.wrap(GZIP_HEADER));
+        } else {
+            this.compressed = null;
+            this.deflater = null;
+            this.crc = null;
+        }
+    }
+    
+    public void write(CharSequence text) throws IOException {
+        CharBuffer chars = CharBuffer.wrap(text);
+        while (true) {
+            CoderResult result = encoder.encode(chars, buffer, false);
+            if (result.isUnderflow()) {
+                return;
+            }
+            if (result.isOverflow()) {
+                drain();
+            } else {
+                result.throwException();
+            }
+        }
+    }
+    
+    /**
+     * Bytes written to the channel so far, i.e. the compressed size when gzip is on.
+     */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+    
+    public long getUncompressedBytes() {
+        return uncompressedBytes;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            encoder.encode(CharBuffer.allocate(0), buffer, true);
+            encoder.flush(buffer);
+            drain();
+            if (deflater != null) {
+                deflater.finish();
+                while (!deflater.finished()) {
+                    deflater.deflate(compressed);
+                    writeCompressed();
+                }
+                ByteBuffer trailer = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+                trailer.putInt((int) crc.getValue()).putInt((int) uncompressedBytes).flip();
+                writeFully(trailer);
+            }
+        } finally {
+            if (deflater != null) {
+                deflater.end();
+                bufferPool.release(compressed);
+            }
+            bufferPool.release(buffer);
+        }
+    }
+    
+    private void drain() throws IOException {
+        buffer.flip();
+        uncompressedBytes += buffer.remaining();
+        if (deflater == null) {
+            writeFully(buffer);
+        } else {
+            crc.update(buffer.duplicate());
+            deflater.setInput(buffer);
+            while (!deflater.needsInput()) {
+                deflater.deflate(compressed);
+                writeCompressed();
+            }
+            // The deflater keeps a reference to its input; detach it before the buffer is cleared and refilled
+            deflater.setInput(NO_INPUT);
+        }
+        buffer.clear();
+    }
+    
+    private void writeCompressed() throws IOException {
+        compressed.flip();
+        writeFully(compressed);
+        compressed.clear();
+    }
+    
+    private void writeFully(ByteBuffer source) throws IOException {
+        while (source.hasRemaining()) {
+            bytesWritten += channel.write(source);
+        }
+    }
+}
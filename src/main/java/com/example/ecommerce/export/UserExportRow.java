@@ -0,0 +1,103 @@
+package com.example.ecommerce.export;
+
+import java.time.LocalDateTime;
+
+/**
+ * Reusable row holder filled by the export cursor; its values are only valid during the callback that receives it
+ */
+public class UserExportRow {
+    
+    public static final String CSV_HEADER = "id,first_name,last_name,email,phone,city,zip_code,created_at,last_login_at,active\n";
+    
+    private long id;
+    private String firstName;
+    private String lastName;
+    private String email;
+    private String phone;
+    private String city;
+    private String zipCode;
+    private LocalDateTime createdAt;
+    private LocalDateTime lastLoginAt;
+    private boolean active;
+    
+    public void set(long id, String firstName, String lastName, String email, String phone, String city,
+                    String zipCode, LocalDateTime createdAt, LocalDateTime lastLoginAt, boolean active) {
+        this.id = id;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.email = email;
+        this.phone = phone;
+        this.city = city;
+        this.zipCode = zipCode;
+        this.createdAt = createdAt;
+        this.lastLoginAt = lastLoginAt;
+        this.active = active;
+    }
+    
+    public long getId() {
+        return id;
+    }
+    
+    public String getEmail() {
+        return email;
+    }
+    
+    public String getCity() {
+        return city;
+    }
+    
+    public boolean isActive() {
+        return active;
+    }
+    
+    /**
+     * Appends the row as one CSV line, quoting fields that contain separators or quotes.
+     */
+    public void appendCsv(StringBuilder out) {
+        out.append(id).append(',');
+        appendField(out, firstName);
+        out.append(',');
+        appendField(out, lastName);
+        out.append(',');
+        appendField(out, email);
+        out.append(',');
+        appendField(out, phone);
+        out.append(',');
+        appendField(out, city);
+        out.append(',');
+        appendField(out, zipCode);
+        out.append(',');
+        if (createdAt != null) {
+            out.append(createdAt);
+        }
+        out.append(',');
+        if (lastLoginAt != null) {
+            out.append(lastLoginAt);
+        }
+        out.append(',').append(active).append('\n');
+    }
+    
+    private static void appendField(StringBuilder out, String value) {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            out.append(value);
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.append('"');
+            }
+            out.append(c);
+        }
+        out.append('"');
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.ecommerce.export;
+
+import java.util.Arrays;
+
+/**
+ * A named slice of the users table. Segments are only built through the factories,
+ * so the WHERE clause is never assembled from caller input.
+ */
+public final class UserSegment {
+    
+    private final String name;
+    private final String whereClause;
+    private final Object[] parameters;
+    
+    private UserSegment(String name, String whereClause, Object... parameters) {
+        this.name = name;
+        this.whereClause = whereClause;
+        this.parameters = parameters;
+    }
+    
+    public static UserSegment all() {
+        return new UserSegment("all", null);
+    }
+    
+    public static UserSegment active() {
+        return new UserSegment("active", "active = ?", Boolean.TRUE);
+    }
+    
+    public static UserSegment city(String city) {
+        if (city == null) {
+            throw new IllegalArgumentException("City is required");
+        }
+        return new UserSegment("city-" + city, "city = ?", city);
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public String getWhereClause() {
+        return whereClause;
+    }
+    
+    public Object[] getParameters() {
+        return Arrays.copyOf(parameters, parameters.length);
+    }
+    
+    @Override
+    public String toString() {
+        return name;
+    }
+}
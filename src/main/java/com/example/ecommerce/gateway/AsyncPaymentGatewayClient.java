@@ -0,0 +1,203 @@
+package com.example.ecommerce.gateway;
+
+import com.example.ecommerce.gateway.PaymentGatewayException.Reason;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Non-blocking gateway client - bounds in-flight calls, enforces a per-call deadline,
+ * hedges (or retries once) idempotent requests and trips a circuit breaker on sustained failure.
+ */
+public class AsyncPaymentGatewayClient {
+    
+    private final PaymentGateway gateway;
+    private final CircuitBreaker circuitBreaker;
+    private final ScheduledExecutorService scheduler;
+    private final Semaphore inFlight;
+    private final long timeoutMillis;
+    private final long hedgeDelayMillis;
+    
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong rejections = new AtomicLong();
+    private final AtomicLong hedges = new AtomicLong();
+    
+    public AsyncPaymentGatewayClient(PaymentGateway gateway, CircuitBreaker circuitBreaker,
+                                     ScheduledExecutorService scheduler, int maxInFlight,
+                                     long timeoutMillis, long hedgeDelayMillis) {
+        if (maxInFlight <= 0 || timeoutMillis <= 0) {
+            throw new IllegalArgumentException("In-flight limit and timeout must be positive");
+        }
+        this.gateway = gateway;
+        this.circuitBreaker = circuitBreaker;
+        this.scheduler = scheduler;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.timeoutMillis = timeoutMillis;
+        this.hedgeDelayMillis = hedgeDelayMillis;
+    }
+    
+    public CompletableFuture<GatewayResponse> charge(GatewayRequest request) {
+        return execute(request.getTransactionId(), request.isIdempotent(), () -> gateway.charge(request));
+    }
+    
+    public CompletableFuture<GatewayResponse> refund(GatewayRequest request) {
+        return execute(request.getTransactionId(), request.isIdempotent(), () -> gateway.refund(request));
+    }
+    
+    /**
+     * Refunds a group of payments in one gateway round trip, counted as a single in-flight call.
+     * Responses are in request order.
+     */
+    public CompletableFuture<List<GatewayResponse>> refundAll(List<GatewayRequest> requests) {
+        boolean idempotent = requests.stream().allMatch(GatewayRequest::isIdempotent);
+        String label = requests.size() + " refunds starting " + requests.get(0).getTransactionId();
+        return execute(label, idempotent, () -> gateway.refundAll(requests));
+    }
+    
+    /**
+     * Waits for a gateway call, surfacing failures as PaymentGatewayException.
+     * The wait is bounded by the client deadline.
+     */
+    public static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw asGatewayException(e.getCause());
+        }
+    }
+    
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+    
+    public int getAvailablePermits() {
+        return inFlight.availablePermits();
+    }
+    
+    public long getTimeoutCount() {
+        return timeouts.get();
+    }
+    
+    public long getRejectionCount() {
+        return rejections.get();
+    }
+    
+    /**
+     * Extra attempts sent for idempotent requests, either as hedges or as retries after a fast failure.
+     */
+    public long getHedgeCount() {
+        return hedges.get();
+    }
+    
+    private <T> CompletableFuture<T> execute(String label, boolean idempotent,
+                                             Supplier<CompletableFuture<T>> operation) {
+        if (!inFlight.tryAcquire()) {
+            rejections.incrementAndGet();
+            return failed(new PaymentGatewayException(Reason.OVERLOADED,
+                    "Gateway in-flight limit reached for " + label));
+        }
+        if (!circuitBreaker.tryAcquirePermission()) {
+            inFlight.release();
+            rejections.incrementAndGet();
+            return failed(new PaymentGatewayException(Reason.CIRCUIT_OPEN,
+                    "Gateway circuit open for " + label));
+        }
+        
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Attempts attempts = new Attempts(idempotent ? 1 : 0);
+        attempt(operation, result, attempts);
+        
+        if (idempotent && hedgeDelayMillis > 0 && hedgeDelayMillis < timeoutMillis) {
+            ScheduledFuture<?> hedge = scheduler.schedule(() -> {
+                // Hedge only with spare capacity, never at the expense of other callers
+                if (!result.isDone() && attempts.claimExtra() && inFlight.tryAcquire()) {
+                    hedges.incrementAndGet();
+                    attempts.outstanding.incrementAndGet();
+                    attempt(operation, result, attempts);
+                }
+            }, hedgeDelayMillis, TimeUnit.MILLISECONDS);
+            result.whenComplete((response, error) -> hedge.cancel(false));
+        }
+        
+        ScheduledFuture<?> deadline = scheduler.schedule(() -> {
+            result.completeExceptionally(new PaymentGatewayException(Reason.TIMEOUT,
+                    "Gateway call timed out after " + timeoutMillis + "ms for " + label));
+        }, timeoutMillis, TimeUnit.MILLISECONDS);
+        
+        // Callers see the outcome only after the breaker and counters have recorded it
+        return result.whenComplete((response, error) -> {
+            deadline.cancel(false);
+            if (error == null) {
+                circuitBreaker.onSuccess();
+                return;
+            }
+            if (error instanceof PaymentGatewayException
+                    && ((PaymentGatewayException) error).getReason() == Reason.TIMEOUT) {
+                timeouts.incrementAndGet();
+            }
+            circuitBreaker.onFailure();
+        });
+    }
+    
+    private <T> void attempt(Supplier<CompletableFuture<T>> operation, CompletableFuture<T> result,
+                             Attempts attempts) {
+        CompletableFuture<T> call;
+        try {
+            call = operation.get();
+        } catch (RuntimeException e) {
+            call = failed(e);
+        }
+        
+        // The permit is held until the gateway actually answers, even past our deadline
+        call.whenComplete((response, error) -> {
+            inFlight.release();
+            if (error == null) {
+                result.complete(response);
+                return;
+            }
+            // An idempotent call that fails fast is retried once if the hedge has not been used
+            if (!result.isDone() && attempts.claimExtra() && inFlight.tryAcquire()) {
+                hedges.incrementAndGet();
+                attempt(operation, result, attempts);
+            } else if (attempts.outstanding.decrementAndGet() == 0) {
+                result.completeExceptionally(asGatewayException(error));
+            }
+        });
+    }
+    
+    private static PaymentGatewayException asGatewayException(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof PaymentGatewayException) {
+            return (PaymentGatewayException) cause;
+        }
+        return new PaymentGatewayException(Reason.ERROR, "Gateway call failed: " + cause.getMessage(), cause);
+    }
+    
+    private static final class Attempts {
+        
+        private final AtomicInteger outstanding = new AtomicInteger(1);
+        private final AtomicInteger extra;
+        
+        private Attempts(int extraAttempts) {
+            this.extra = new AtomicInteger(extraAttempts);
+        }
+        
+        private boolean claimExtra() {
+            return extra.getAndDecrement() > 0;
+        }
+    }
+    
+    private static <T> CompletableFuture<T> failed(Throwable error) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(error);
+        return future;
+    }
+}
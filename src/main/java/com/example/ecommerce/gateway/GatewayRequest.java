@@ -0,0 +1,42 @@
+package com.example.ecommerce.gateway;
+
+import com.example.ecommerce.model.Payment.PaymentMethod;
+
+import java.math.BigDecimal;
+
+/**
+ * A single charge or refund sent to the gateway, keyed by our transaction ID
+ */
+public class GatewayRequest {
+    
+    private final String transactionId;
+    private final BigDecimal amount;
+    private final PaymentMethod paymentMethod;
+    private final boolean idempotent;
+    
+    public GatewayRequest(String transactionId, BigDecimal amount, PaymentMethod paymentMethod, boolean idempotent) {
+        this.transactionId = transactionId;
+        this.amount = amount;
+        this.paymentMethod = paymentMethod;
+        this.idempotent = idempotent;
+    }
+    
+    public String getTransactionId() {
+        return transactionId;
+    }
+    
+    public BigDecimal getAmount() {
+        return amount;
+    }
+    
+    public PaymentMethod getPaymentMethod() {
+        return paymentMethod;
+    }
+    
+    /**
+     * Idempotent requests may be hedged: a duplicate is sent if the first is slow.
+     */
+    public boolean isIdempotent() {
+        return idempotent;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.ecommerce.gateway;
+
+/**
+ * Gateway verdict for a request. A decline is a valid response, not an error.
+ */
+public class GatewayResponse {
+    
+    private final boolean approved;
+    private final String responseCode;
+    
+    public GatewayResponse(boolean approved, String responseCode) {
+        this.approved = approved;
+        this.responseCode = responseCode;
+    }
+    
+    public static GatewayResponse approved() {
+        return new GatewayResponse(true, "SUCCESS");
+    }
+    
+    public static GatewayResponse declined() {
+        return new GatewayResponse(false, "DECLINED");
+    }
+    
+    public boolean isApproved() {
+        return approved;
+    }
+    
+    public String getResponseCode() {
+        return responseCode;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.ecommerce.gateway;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+/**
+ * Payment Gateway SPI - implementations must not block the calling thread
+ */
+public interface PaymentGateway {
+    
+    CompletableFuture<GatewayResponse> charge(GatewayRequest request);
+    
+    CompletableFuture<GatewayResponse> refund(GatewayRequest request);
+    
+    /**
+     * Refunds several payments at once. Gateways with a bulk endpoint should override this;
+     * the default fans out to individual refunds.
+     */
+    default CompletableFuture<List<GatewayResponse>> refundAll(List<GatewayRequest> requests) {
+        List<CompletableFuture<GatewayResponse>> refunds = requests.stream()
+                .map(this::refund)
+                .collect(Collectors.toList());
+        return CompletableFuture.allOf(refunds.toArray(new CompletableFuture[0]))
+                .thenApply(done -> refunds.stream().map(CompletableFuture::join).collect(Collectors.toList()));
+    }
+}
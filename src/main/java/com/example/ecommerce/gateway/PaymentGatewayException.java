@@ -0,0 +1,30 @@
+package com.example.ecommerce.gateway;
+
+/**
+ * Raised when the gateway could not give a verdict (timeout, overload, open circuit or error)
+ */
+public class PaymentGatewayException extends RuntimeException {
+    
+    public enum Reason {
+        TIMEOUT,
+        OVERLOADED,
+        CIRCUIT_OPEN,
+        ERROR
+    }
+    
+    private final Reason reason;
+    
+    public PaymentGatewayException(Reason reason, String message) {
+        super(message);
+        this.reason = reason;
+    }
+    
+    public PaymentGatewayException(Reason reason, String message, Throwable cause) {
+        super(message, cause);
+        this.reason = reason;
+    }
+    
+    public Reason getReason() {
+        return reason;
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.ecommerce.gateway;
+
+import com.example.ecommerce.gateway.PaymentGatewayException.Reason;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local stand-in for a real gateway with configurable latency and failure distributions.
+ * Latency is base + exponential jitter, plus a fixed tail penalty with the given probability.
+ * Charges of zero or negative amounts are declined, as the old inline simulation did.
+ * Bulk refunds cost a single sampled round trip.
+ */
+public class StubPaymentGateway implements PaymentGateway {
+    
+    private final ScheduledExecutorService scheduler;
+    private final Random random;
+    private final long baseLatencyMillis;
+    private final long jitterMillis;
+    private final long tailLatencyMillis;
+    private final double tailProbability;
+    private final double failureProbability;
+    
+    public StubPaymentGateway(ScheduledExecutorService scheduler, Random random,
+                              long baseLatencyMillis, long jitterMillis,
+                              long tailLatencyMillis, double tailProbability, double failureProbability) {
+        this.scheduler = scheduler;
+        this.random = random;
+        this.baseLatencyMillis = baseLatencyMillis;
+        this.jitterMillis = jitterMillis;
+        this.tailLatencyMillis = tailLatencyMillis;
+        this.tailProbability = tailProbability;
+        this.failureProbability = failureProbability;
+    }
+    
+    @Override
+    public CompletableFuture<GatewayResponse> charge(GatewayRequest request) {
+        boolean approved = request.getAmount().compareTo(BigDecimal.ZERO) > 0;
+        return respond(approved ? GatewayResponse.approved() : GatewayResponse.declined());
+    }
+    
+    @Override
+    public CompletableFuture<GatewayResponse> refund(GatewayRequest request) {
+        return respond(GatewayResponse.approved());
+    }
+    
+    @Override
+    public CompletableFuture<List<GatewayResponse>> refundAll(List<GatewayRequest> requests) {
+        return respond(Collections.nCopies(requests.size(), GatewayResponse.approved()));
+    }
+    
+    private <T> CompletableFuture<T> respond(T response) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        boolean fail = random.nextDouble() < failureProbability;
+        scheduler.schedule(() -> {
+            if (fail) {
+                future.completeExceptionally(new PaymentGatewayException(Reason.ERROR, "Stub gateway error"));
+            } else {
+                future.complete(response);
+            }
+        }, sampleLatencyMillis(), TimeUnit.MILLISECONDS);
+        return future;
+    }
+    
+    private long sampleLatencyMillis() {
+        long latency = baseLatencyMillis;
+        if (jitterMillis > 0) {
+            latency += (long) (-jitterMillis * Math.log(1.0 - random.nextDouble()));
+        }
+        if (random.nextDouble() < tailProbability) {
+            latency += tailLatencyMillis;
+        }
+        return latency;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.ecommerce.importer;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Fixed-size Bloom filter over strings, sized from the expected insertions and false-positive rate.
+ * Uses double hashing over one 128-bit murmur3-style hash per key.
+ */
+public class BloomFilter {
+    
+    private final long[] bits;
+    private final long bitCount;
+    private final int hashCount;
+    
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("False-positive rate must be between 0 and 1");
+        }
+        long n = Math.max(1, expectedInsertions);
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bitCount = Math.max(64, m);
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+        this.bits = new long[(int) ((bitCount + 63) >>> 6)];
+    }
+    
+    public void put(String key) {
+        long[] hash = hash(key);
+        long combined = hash[0];
+        for (int i = 0; i < hashCount; i++) {
+            long index = Math.floorMod(combined, bitCount);
+            bits[(int) (index >>> 6)] |= 1L << index;
+            combined += hash[1];
+        }
+    }
+    
+    public boolean mightContain(String key) {
+        long[] hash = hash(key);
+        long combined = hash[0];
+        for (int i = 0; i < hashCount; i++) {
+            long index = Math.floorMod(combined, bitCount);
+            if ((bits[(int) (index >>> 6)] & (1L << index)) == 0) {
+                return false;
+            }
+            combined += hash[1];
+        }
+        return true;
+    }
+    
+    public long getBitCount() {
+        return bitCount;
+    }
+    
+    public int getHashCount() {
+        return hashCount;
+    }
+    
+    private static long[] hash(String key) {
+        byte[] data = key.getBytes(StandardCharsets.UTF_8);
+        long h1 = 0x9368E53C2F6AF274L;
+        long h2 = 0x586DCD208F7CD3FDL;
+        for (int i = 0; i < data.length; i++) {
+            h1 = (h1 ^ (data[i] & 0xFF)) * 0x100000001B3L;
+            h2 = Long.rotateLeft(h2 ^ h1, 31) * 0x9E3779B97F4A7C15L;
+        }
+        h1 = fmix(h1 ^ data.length);
+        h2 = fmix(h2 + h1);
+        return new long[] {h1, h2 | 1};
+    }
+    
+    private static long fmix(long k) {
+        k ^= k >>> 33;
+        k *= 0xFF51AFD7ED558CCDL;
+        k ^= k >>> 33;
+        k *= 0xC4CEB9FE1A85EC53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.ecommerce.importer;
+
+/**
+ * One row of a bulk user import
+ */
+public class UserImportRecord {
+    
+    private final String firstName;
+    private final String lastName;
+    private final String email;
+    private final String password;
+    private final String phone;
+    
+    public UserImportRecord(String firstName, String lastName, String email, String password, String phone) {
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.email = email;
+        this.password = password;
+        this.phone = phone;
+    }
+    
+    public String getFirstName() {
+        return firstName;
+    }
+    
+    public String getLastName() {
+        return lastName;
+    }
+    
+    public String getEmail() {
+        return email;
+    }
+    
+    public String getPassword() {
+        return password;
+    }
+    
+    public String getPhone() {
+        return phone;
+    }
+    
+    public boolean isComplete() {
+        return notBlank(firstName) && notBlank(lastName) && notBlank(email)
+                && notBlank(password) && notBlank(phone);
+    }
+    
+    private static boolean notBlank(String value) {
+        return value != null && !value.trim().isEmpty();
+    }
+}
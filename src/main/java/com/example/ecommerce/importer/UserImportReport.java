@@ -0,0 +1,82 @@
+package com.example.ecommerce.importer;
+
+/**
+ * Outcome of a bulk user import: row counts, throughput and observed Bloom filter false-positive rate
+ */
+public class UserImportReport {
+    
+    private final long rowsRead;
+    private final long imported;
+    private final long duplicates;
+    private final long invalid;
+    private final long bloomHits;
+    private final long falsePositives;
+    private final long chunks;
+    private final long elapsedMillis;
+    private final double rowsPerSecond;
+    private final double falsePositiveRate;
+    
+    public UserImportReport(long rowsRead, long imported, long duplicates, long invalid,
+                            long bloomHits, long falsePositives, long chunks, long elapsedNanos) {
+        this.rowsRead = rowsRead;
+        this.imported = imported;
+        this.duplicates = duplicates;
+        this.invalid = invalid;
+        this.bloomHits = bloomHits;
+        this.falsePositives = falsePositives;
+        this.chunks = chunks;
+        this.elapsedMillis = elapsedNanos / 1_000_000;
+        this.rowsPerSecond = elapsedNanos == 0 ? 0 : rowsRead * 1_000_000_000.0 / elapsedNanos;
+        // Rows that were really new are the only ones that could have been false positives
+        long trulyNew = rowsRead - invalid - duplicates;
+        this.falsePositiveRate = trulyNew == 0 ? 0 : (double) falsePositives / trulyNew;
+    }
+    
+    public long getRowsRead() {
+        return rowsRead;
+    }
+    
+    public long getImported() {
+        return imported;
+    }
+    
+    public long getDuplicates() {
+        return duplicates;
+    }
+    
+    public long getInvalid() {
+        return invalid;
+    }
+    
+    public long getBloomHits() {
+        return bloomHits;
+    }
+    
+    public long getFalsePositives() {
+        return falsePositives;
+    }
+    
+    public long getChunks() {
+        return chunks;
+    }
+    
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+    
+    public double getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+    
+    public double getFalsePositiveRate() {
+        return falsePositiveRate;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("UserImportReport{rows=%d, imported=%d, duplicates=%d, invalid=%d, chunks=%d, "
+                + "elapsed=%dms, rows/s=%.0f, bloomHits=%d, falsePositives=%d, fpRate=%.4f}",
+                rowsRead, imported, duplicates, invalid, chunks, elapsedMillis, rowsPerSecond,
+                bloomHits, falsePositives, falsePositiveRate);
+    }
+}
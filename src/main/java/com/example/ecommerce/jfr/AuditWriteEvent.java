@@ -0,0 +1,11 @@
+package com.example.ecommerce.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.example.ecommerce.AuditWrite")
+@Label("Audit Write")
+@Description("Publishing the order's audit record to the audit pipeline")
+public class AuditWriteEvent extends OrderStageEvent {
+}
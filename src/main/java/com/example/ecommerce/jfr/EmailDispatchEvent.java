@@ -0,0 +1,11 @@
+package com.example.ecommerce.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.example.ecommerce.EmailDispatch")
+@Label("Email Dispatch")
+@Description("Queueing the order's email in the outbox; delivery happens later on the dispatcher thread")
+public class EmailDispatchEvent extends OrderStageEvent {
+}
@@ -0,0 +1,82 @@
+package com.example.ecommerce.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * Base for the order lifecycle Flight Recorder events: one event per stage, carrying the order, its line count
+ * and how the stage ended. Without a recording, begin/end/commit are empty and escape analysis removes the
+ * allocation, so a stage costs next to nothing; fields are only filled in when a recording will keep the event.
+ *
+ * <pre>
+ * StockDecrementEvent event = OrderStageEvent.start(new StockDecrementEvent());
+ * try {
+ *     ...
+ * } catch (RuntimeException e) {
+ *     event.failed(orderId, lineCount, e);
+ *     throw e;
+ * }
+ * event.succeeded(orderId, lineCount);
+ * </pre>
+ */
+@Category({"E-commerce", "Order Lifecycle"})
+@StackTrace(false)
+public abstract class OrderStageEvent extends Event {
+    
+    public static final String SUCCESS = "success";
+    
+    /**
+     * Line count for stages that run without the order's lines loaded.
+     */
+    public static final int LINES_UNKNOWN = -1;
+    
+    @Label("Order Id")
+    @Description("0 when the stage failed before the order was saved")
+    long orderId;
+    
+    @Label("Line Count")
+    @Description("Order lines handled, -1 where the stage does not load them")
+    int lineCount;
+    
+    @Label("Outcome")
+    @Description("success, or the simple name of the exception that ended the stage")
+    String outcome;
+    
+    private transient boolean stopped;
+    
+    public static <E extends OrderStageEvent> E start(E event) {
+        event.begin();
+        return event;
+    }
+    
+    /**
+     * Ends the stage's timing without committing, for stages that finish before the order has an id.
+     */
+    public void stop() {
+        end();
+        stopped = true;
+    }
+    
+    public void succeeded(long orderId, int lineCount) {
+        complete(orderId, lineCount, SUCCESS);
+    }
+    
+    public void failed(long orderId, int lineCount, Throwable cause) {
+        complete(orderId, lineCount, cause.getClass().getSimpleName());
+    }
+    
+    private void complete(long orderId, int lineCount, String outcome) {
+        if (!stopped) {
+            end();
+        }
+        if (shouldCommit()) {
+            this.orderId = orderId;
+            this.lineCount = lineCount;
+            this.outcome = outcome;
+            commit();
+        }
+    }
+}
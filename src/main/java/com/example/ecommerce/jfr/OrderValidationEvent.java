@@ -0,0 +1,11 @@
+package com.example.ecommerce.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.example.ecommerce.OrderValidation")
+@Label("Order Validation")
+@Description("Customer lookup, availability check and pricing of each line before the order is saved")
+public class OrderValidationEvent extends OrderStageEvent {
+}
@@ -0,0 +1,11 @@
+package com.example.ecommerce.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.example.ecommerce.PaymentCreation")
+@Label("Payment Creation")
+@Description("Creating the pending payment for a new order")
+public class PaymentCreationEvent extends OrderStageEvent {
+}
@@ -0,0 +1,11 @@
+package com.example.ecommerce.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.example.ecommerce.PaymentProcessing")
+@Label("Payment Processing")
+@Description("Charging the order's payment through the gateway")
+public class PaymentProcessingEvent extends OrderStageEvent {
+}
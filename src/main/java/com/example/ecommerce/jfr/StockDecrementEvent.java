@@ -0,0 +1,11 @@
+package com.example.ecommerce.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.example.ecommerce.StockDecrement")
+@Label("Stock Decrement")
+@Description("Reducing product stock for every line of a new order")
+public class StockDecrementEvent extends OrderStageEvent {
+}
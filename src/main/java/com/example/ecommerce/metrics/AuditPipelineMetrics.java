@@ -0,0 +1,55 @@
+package com.example.ecommerce.metrics;
+
+import com.example.ecommerce.audit.AuditEventType;
+import com.example.ecommerce.audit.AuditPipeline;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exposes the audit pipeline's own counters: events published, consumed and dropped (per event type),
+ * sink errors, stock events folded into aggregates, and the ring backlog. The meters read the pipeline's
+ * counters when scraped, so nothing is added to the publishing path. As a MeterBinder it is bound when
+ * the registry is created, even with lazy initialization.
+ */
+@Component
+public class AuditPipelineMetrics implements MeterBinder {
+    
+    private final AuditPipeline pipeline;
+    
+    @Autowired
+    public AuditPipelineMetrics(AuditPipeline pipeline) {
+        this.pipeline = pipeline;
+    }
+    
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("ecommerce.audit.events.published", pipeline, AuditPipeline::getPublishedCount)
+                .description("Audit events accepted into the ring")
+                .register(registry);
+        FunctionCounter.builder("ecommerce.audit.events.consumed", pipeline, AuditPipeline::getConsumedCount)
+                .description("Audit events handed to the sinks")
+                .register(registry);
+        for (AuditEventType type : AuditEventType.values()) {
+            FunctionCounter.builder("ecommerce.audit.events.dropped", pipeline, audit -> audit.getDroppedCount(type))
+                    .description("Audit events dropped because the ring was full")
+                    .tag("type", type.name())
+                    .register(registry);
+        }
+        FunctionCounter.builder("ecommerce.audit.sink.errors", pipeline, AuditPipeline::getSinkErrorCount)
+                .description("Audit events a sink failed to write")
+                .register(registry);
+        FunctionCounter.builder("ecommerce.audit.stock.folded", pipeline, AuditPipeline::getStockEventsFolded)
+                .description("STOCK_UPDATED events folded into aggregates")
+                .register(registry);
+        FunctionCounter.builder("ecommerce.audit.stock.aggregates", pipeline, AuditPipeline::getStockAggregatesEmitted)
+                .description("Stock aggregate events emitted")
+                .register(registry);
+        Gauge.builder("ecommerce.audit.backlog", pipeline, AuditPipeline::getBacklog)
+                .description("Audit events published but not yet consumed")
+                .register(registry);
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.ecommerce.metrics;
+
+import com.example.ecommerce.service.NotificationDigestCoalescer;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exposes how much the notification digest coalescer merges: notifications queued, messages sent, digests
+ * built, and the merge ratio between the first two.
+ */
+@Component
+public class EmailDigestMetrics implements MeterBinder {
+    
+    private final NotificationDigestCoalescer coalescer;
+    
+    @Autowired
+    public EmailDigestMetrics(NotificationDigestCoalescer coalescer) {
+        this.coalescer = coalescer;
+    }
+    
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("ecommerce.email.digest.messages.in", coalescer, NotificationDigestCoalescer::getMessagesIn)
+                .description("Queued notifications seen by the coalescer")
+                .register(registry);
+        FunctionCounter.builder("ecommerce.email.digest.messages.out", coalescer, NotificationDigestCoalescer::getMessagesOut)
+                .description("Messages left to send after merging")
+                .register(registry);
+        FunctionCounter.builder("ecommerce.email.digests.built", coalescer, NotificationDigestCoalescer::getDigestsBuilt)
+                .description("Digest messages built from several notifications")
+                .register(registry);
+        Gauge.builder("ecommerce.email.digest.merge.ratio", coalescer, NotificationDigestCoalescer::getMergeRatio)
+                .description("Notifications queued per message sent; 1.0 means nothing was merged")
+                .register(registry);
+    }
+}
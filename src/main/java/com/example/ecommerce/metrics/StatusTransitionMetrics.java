@@ -0,0 +1,73 @@
+package com.example.ecommerce.metrics;
+
+import com.example.ecommerce.model.Order.OrderStatus;
+import com.example.ecommerce.model.Payment.PaymentStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Counts order and payment status transitions as {@code ecommerce.order.transitions} and
+ * {@code ecommerce.payment.transitions}, tagged from/to. Counters are registered on a pair's first
+ * transition, so only transitions that actually happen are exported, and cached by ordinal after that.
+ */
+@Component
+public class StatusTransitionMetrics {
+    
+    private final TransitionCounters<OrderStatus> orderTransitions;
+    private final TransitionCounters<PaymentStatus> paymentTransitions;
+    
+    @Autowired
+    public StatusTransitionMetrics(MeterRegistry registry) {
+        this.orderTransitions = new TransitionCounters<>(registry, "ecommerce.order.transitions", OrderStatus.values().length);
+        this.paymentTransitions = new TransitionCounters<>(registry, "ecommerce.payment.transitions", PaymentStatus.values().length);
+    }
+    
+    public void orderTransition(OrderStatus from, OrderStatus to) {
+        orderTransitions.increment(from, to, 1);
+    }
+    
+    public void orderTransitions(OrderStatus from, OrderStatus to, long count) {
+        orderTransitions.increment(from, to, count);
+    }
+    
+    public void paymentTransition(PaymentStatus from, PaymentStatus to) {
+        paymentTransitions.increment(from, to, 1);
+    }
+    
+    public void paymentTransitions(PaymentStatus from, PaymentStatus to, long count) {
+        paymentTransitions.increment(from, to, count);
+    }
+    
+    private static final class TransitionCounters<S extends Enum<S>> {
+        
+        private final MeterRegistry registry;
+        private final String name;
+        private final int states;
+        private final AtomicReferenceArray<Counter> counters;
+        
+        private TransitionCounters(MeterRegistry registry, String name, int states) {
+            this.registry = registry;
+            this.name = name;
+            this.states = states;
+            this.counters = new AtomicReferenceArray<>(states * states);
+        }
+        
+        private void increment(S from, S to, long count) {
+            if (count <= 0 || from == to) {
+                return;
+            }
+            int index = from.ordinal() * states + to.ordinal();
+            Counter counter = counters.get(index);
+            if (counter == null) {
+                // registering twice returns the same counter, so a lost race is harmless
+                counter = Counter.builder(name).tag("from", from.name()).tag("to", to.name()).register(registry);
+                counters.set(index, counter);
+            }
+            counter.increment(count);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.ecommerce.metrics;
+
+import com.example.ecommerce.model.Product;
+import com.example.ecommerce.repository.ProductRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Exposes {@code ecommerce.product.stock} for the SKUs listed in {@code ecommerce.metrics.watched-skus}.
+ * One query reads all watched SKUs, at most once per refresh interval however many gauges are scraped; a SKU
+ * that does not exist (yet) reports NaN. Reading the table also picks up stock changed by bulk updates.
+ */
+@Component
+public class StockLevelGauges {
+    
+    private final ProductRepository productRepository;
+    private final Set<String> watchedSkus;
+    private final long refreshMillis;
+    
+    private volatile Map<String, Integer> snapshot = Collections.emptyMap();
+    private volatile long snapshotTakenAt;
+    
+    @Autowired
+    public StockLevelGauges(ProductRepository productRepository, MeterRegistry registry,
+                            @Value("${ecommerce.metrics.watched-skus:}") List<String> watchedSkus,
+                            @Value("${ecommerce.metrics.stock-refresh-ms:5000}") long refreshMillis) {
+        this.productRepository = productRepository;
+        this.watchedSkus = new LinkedHashSet<>();
+        for (String sku : watchedSkus) {
+            if (!sku.isBlank()) {
+                this.watchedSkus.add(sku.trim());
+            }
+        }
+        this.refreshMillis = refreshMillis;
+        for (String sku : this.watchedSkus) {
+            Gauge.builder("ecommerce.product.stock", this, gauges -> gauges.stockOf(sku))
+                    .description("Stock on hand for a watched SKU")
+                    .tag("sku", sku)
+                    .register(registry);
+        }
+    }
+    
+    public Set<String> getWatchedSkus() {
+        return Collections.unmodifiableSet(watchedSkus);
+    }
+    
+    double stockOf(String sku) {
+        Integer stock = currentSnapshot().get(sku);
+        return stock != null ? stock : Double.NaN;
+    }
+    
+    private Map<String, Integer> currentSnapshot() {
+        long now = System.currentTimeMillis();
+        if (now - snapshotTakenAt >= refreshMillis) {
+            synchronized (this) {
+                if (now - snapshotTakenAt >= refreshMillis) {
+                    Map<String, Integer> refreshed = new HashMap<>();
+                    for (Product product : productRepository.findBySkuIn(watchedSkus)) {
+                        refreshed.put(product.getSku(), product.getStockQuantity());
+                    }
+                    snapshot = refreshed;
+                    snapshotTakenAt = now;
+                }
+            }
+        }
+        return snapshot;
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.ecommerce.model;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * An email written in the same transaction as the business change that caused it.
+ * The outbox dispatcher delivers PENDING rows once their next attempt time is due; rows sharing a digest key
+ * and recipient may first be folded into one of them and marked MERGED.
+ */
+@Entity
+@Table(name = "email_outbox", indexes = {
+        @Index(name = "idx_email_outbox_due", columnList = "status, nextAttemptAt, id"),
+        @Index(name = "idx_email_outbox_digest", columnList = "digestKey, status")
+})
+public class EmailOutboxMessage {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private EmailKind kind;
+    
+    @Column(nullable = false)
+    private String recipient;
+    
+    @Column(nullable = false)
+    private String subject;
+    
+    @Column(nullable = false, length = 8000)
+    private String body;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OutboxStatus status;
+    
+    @Column(nullable = false)
+    private int attempts;
+    
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+    
+    private LocalDateTime sentAt;
+    
+    @Column(length = 500)
+    private String lastError;
+    
+    private String digestKey;
+    
+    private Long mergedIntoId;
+    
+    @Column(length = 35)
+    private String locale;
+    
+    // Constructors
+    public EmailOutboxMessage() {
+        this.createdAt = LocalDateTime.now();
+        this.nextAttemptAt = this.createdAt;
+        this.status = OutboxStatus.PENDING;
+    }
+    
+    public EmailOutboxMessage(EmailKind kind, String recipient, String subject, String body) {
+        this();
+        this.kind = kind;
+        this.recipient = recipient;
+        this.subject = subject;
+        this.body = body;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public EmailKind getKind() {
+        return kind;
+    }
+    
+    public void setKind(EmailKind kind) {
+        this.kind = kind;
+    }
+    
+    public String getRecipient() {
+        return recipient;
+    }
+    
+    public void setRecipient(String recipient) {
+        this.recipient = recipient;
+    }
+    
+    public String getSubject() {
+        return subject;
+    }
+    
+    public void setSubject(String subject) {
+        this.subject = subject;
+    }
+    
+    public String getBody() {
+        return body;
+    }
+    
+    public void setBody(String body) {
+        this.body = body;
+    }
+    
+    public OutboxStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(OutboxStatus status) {
+        this.status = status;
+    }
+    
+    public int getAttempts() {
+        return attempts;
+    }
+    
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+    
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+    
+    public LocalDateTime getSentAt() {
+        return sentAt;
+    }
+    
+    public void setSentAt(LocalDateTime sentAt) {
+        this.sentAt = sentAt;
+    }
+    
+    public String getLastError() {
+        return lastError;
+    }
+    
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+    
+    public String getDigestKey() {
+        return digestKey;
+    }
+    
+    public void setDigestKey(String digestKey) {
+        this.digestKey = digestKey;
+    }
+    
+    public Long getMergedIntoId() {
+        return mergedIntoId;
+    }
+    
+    public void setMergedIntoId(Long mergedIntoId) {
+        this.mergedIntoId = mergedIntoId;
+    }
+    
+    public String getLocale() {
+        return locale;
+    }
+    
+    public void setLocale(String locale) {
+        this.locale = locale;
+    }
+    
+    public enum EmailKind {
+        WELCOME,
+        ORDER_CONFIRMATION,
+        PAYMENT_CONFIRMATION,
+        ORDER_SHIPPED,
+        PASSWORD_RESET,
+        LOW_STOCK_ALERT,
+        ORDER_DIGEST
+    }
+    
+    public enum OutboxStatus {
+        PENDING,
+        SENT,
+        MERGED,
+        DEAD
+    }
+}
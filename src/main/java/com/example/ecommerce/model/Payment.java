@@ -36,6 +36,8 @@ public class Payment {
     
     private String paymentGatewayResponse;
     
+    private LocalDateTime claimedAt;
+    
     // Constructors
     public Payment() {
         this.createdAt = LocalDateTime.now();
@@ -124,6 +126,14 @@ public class Payment {
         this.paymentGatewayResponse = paymentGatewayResponse;
     }
     
+    public LocalDateTime getClaimedAt() {
+        return claimedAt;
+    }
+    
+    public void setClaimedAt(LocalDateTime claimedAt) {
+        this.claimedAt = claimedAt;
+    }
+    
     public enum PaymentMethod {
         CREDIT_CARD,
         DEBIT_CARD,
@@ -1,5 +1,7 @@
 package com.example.ecommerce.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import javax.persistence.*;
 import java.time.LocalDateTime;
 
@@ -20,6 +22,7 @@ public class User {
     @Column(nullable = false, unique = true)
     private String email;
     
+    @JsonIgnore
     @Column(nullable = false)
     private String password;
     
@@ -37,6 +40,9 @@ public class User {
     
     private LocalDateTime lastLoginAt;
     
+    @Column(length = 35)
+    private String locale;
+    
     @Column(nullable = false)
     private Boolean active = true;
     
@@ -152,6 +158,17 @@ public class User {
         this.active = active;
     }
     
+    /**
+     * Language tag the user's emails are rendered in; null means the default template locale.
+     */
+    public String getLocale() {
+        return locale;
+    }
+    
+    public void setLocale(String locale) {
+        this.locale = locale;
+    }
+    
     public String getFullName() {
         return firstName + " " + lastName;
     }
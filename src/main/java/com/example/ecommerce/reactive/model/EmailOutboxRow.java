@@ -0,0 +1,109 @@
+package com.example.ecommerce.reactive.model;
+
+import com.example.ecommerce.model.EmailOutboxMessage;
+import com.example.ecommerce.model.EmailOutboxMessage.EmailKind;
+import com.example.ecommerce.model.EmailOutboxMessage.OutboxStatus;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * R2DBC mapping of the {@code email_outbox} table written by the JPA {@link EmailOutboxMessage}; only the
+ * columns set on enqueue are mapped, delivery state stays with {@link com.example.ecommerce.service.EmailOutboxDispatcher}.
+ */
+@Table("email_outbox")
+public class EmailOutboxRow {
+    
+    @Id
+    private Long id;
+    
+    private EmailKind kind;
+    
+    private String recipient;
+    
+    private String subject;
+    
+    private String body;
+    
+    private OutboxStatus status;
+    
+    private int attempts;
+    
+    private LocalDateTime createdAt;
+    
+    private LocalDateTime nextAttemptAt;
+    
+    private String digestKey;
+    
+    private String locale;
+    
+    public EmailOutboxRow() {
+    }
+    
+    /**
+     * Copies a message rendered by {@link com.example.ecommerce.service.EmailService}, digest hold included.
+     */
+    public static EmailOutboxRow of(EmailOutboxMessage message) {
+        EmailOutboxRow row = new EmailOutboxRow();
+        row.kind = message.getKind();
+        row.recipient = message.getRecipient();
+        row.subject = message.getSubject();
+        row.body = message.getBody();
+        row.status = message.getStatus();
+        row.attempts = message.getAttempts();
+        row.createdAt = message.getCreatedAt();
+        row.nextAttemptAt = message.getNextAttemptAt();
+        row.digestKey = message.getDigestKey();
+        row.locale = message.getLocale();
+        return row;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public EmailKind getKind() {
+        return kind;
+    }
+    
+    public String getRecipient() {
+        return recipient;
+    }
+    
+    public String getSubject() {
+        return subject;
+    }
+    
+    public String getBody() {
+        return body;
+    }
+    
+    public OutboxStatus getStatus() {
+        return status;
+    }
+    
+    public int getAttempts() {
+        return attempts;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public LocalDateTime getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+    
+    public String getDigestKey() {
+        return digestKey;
+    }
+    
+    public String getLocale() {
+        return locale;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.ecommerce.reactive.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.math.BigDecimal;
+
+/**
+ * R2DBC mapping of the {@code order_items} table written by the JPA {@link com.example.ecommerce.model.OrderItem}.
+ */
+@Table("order_items")
+public class OrderItemRow {
+    
+    @Id
+    private Long id;
+    
+    private Long orderId;
+    
+    private Long productId;
+    
+    private String productName;
+    
+    private BigDecimal unitPrice;
+    
+    private Integer quantity;
+    
+    private BigDecimal subtotal;
+    
+    public OrderItemRow() {
+    }
+    
+    public OrderItemRow(Long orderId, Long productId, String productName, BigDecimal unitPrice, Integer quantity) {
+        this.orderId = orderId;
+        this.productId = productId;
+        this.productName = productName;
+        this.unitPrice = unitPrice;
+        this.quantity = quantity;
+        this.subtotal = unitPrice.multiply(new BigDecimal(quantity));
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getOrderId() {
+        return orderId;
+    }
+    
+    public Long getProductId() {
+        return productId;
+    }
+    
+    public String getProductName() {
+        return productName;
+    }
+    
+    public BigDecimal getUnitPrice() {
+        return unitPrice;
+    }
+    
+    public Integer getQuantity() {
+        return quantity;
+    }
+    
+    public BigDecimal getSubtotal() {
+        return subtotal;
+    }
+}
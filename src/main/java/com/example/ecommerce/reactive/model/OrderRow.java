@@ -0,0 +1,119 @@
+package com.example.ecommerce.reactive.model;
+
+import com.example.ecommerce.model.Order.OrderStatus;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * R2DBC mapping of the {@code orders} table written by the JPA {@link com.example.ecommerce.model.Order};
+ * lines are not mapped, R2DBC has no associations.
+ */
+@Table("orders")
+public class OrderRow {
+    
+    @Id
+    private Long id;
+    
+    private String orderNumber;
+    
+    private Long userId;
+    
+    private BigDecimal totalAmount;
+    
+    private OrderStatus status;
+    
+    private LocalDateTime createdAt;
+    
+    private LocalDateTime completedAt;
+    
+    private String shippingAddress;
+    
+    private String billingAddress;
+    
+    public OrderRow() {
+        this.createdAt = LocalDateTime.now();
+        this.status = OrderStatus.PENDING;
+    }
+    
+    public OrderRow(String orderNumber, Long userId, BigDecimal totalAmount) {
+        this();
+        this.orderNumber = orderNumber;
+        this.userId = userId;
+        this.totalAmount = totalAmount;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getOrderNumber() {
+        return orderNumber;
+    }
+    
+    public void setOrderNumber(String orderNumber) {
+        this.orderNumber = orderNumber;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+    
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+    
+    public OrderStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(OrderStatus status) {
+        this.status = status;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+    
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+    
+    public String getShippingAddress() {
+        return shippingAddress;
+    }
+    
+    public void setShippingAddress(String shippingAddress) {
+        this.shippingAddress = shippingAddress;
+    }
+    
+    public String getBillingAddress() {
+        return billingAddress;
+    }
+    
+    public void setBillingAddress(String billingAddress) {
+        this.billingAddress = billingAddress;
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.ecommerce.reactive.model;
+
+import com.example.ecommerce.model.Payment.PaymentMethod;
+import com.example.ecommerce.model.Payment.PaymentStatus;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * R2DBC mapping of the {@code payments} table written by the JPA {@link com.example.ecommerce.model.Payment}.
+ */
+@Table("payments")
+public class PaymentRow {
+    
+    @Id
+    private Long id;
+    
+    private Long orderId;
+    
+    private String transactionId;
+    
+    private BigDecimal amount;
+    
+    private PaymentMethod paymentMethod;
+    
+    private PaymentStatus status;
+    
+    private LocalDateTime createdAt;
+    
+    private LocalDateTime processedAt;
+    
+    private String paymentGatewayResponse;
+    
+    public PaymentRow() {
+        this.createdAt = LocalDateTime.now();
+        this.status = PaymentStatus.PENDING;
+    }
+    
+    public PaymentRow(Long orderId, String transactionId, BigDecimal amount, PaymentMethod paymentMethod) {
+        this();
+        this.orderId = orderId;
+        this.transactionId = transactionId;
+        this.amount = amount;
+        this.paymentMethod = paymentMethod;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getOrderId() {
+        return orderId;
+    }
+    
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+    
+    public String getTransactionId() {
+        return transactionId;
+    }
+    
+    public void setTransactionId(String transactionId) {
+        this.transactionId = transactionId;
+    }
+    
+    public BigDecimal getAmount() {
+        return amount;
+    }
+    
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+    
+    public PaymentMethod getPaymentMethod() {
+        return paymentMethod;
+    }
+    
+    public void setPaymentMethod(PaymentMethod paymentMethod) {
+        this.paymentMethod = paymentMethod;
+    }
+    
+    public PaymentStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(PaymentStatus status) {
+        this.status = status;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getProcessedAt() {
+        return processedAt;
+    }
+    
+    public void setProcessedAt(LocalDateTime processedAt) {
+        this.processedAt = processedAt;
+    }
+    
+    public String getPaymentGatewayResponse() {
+        return paymentGatewayResponse;
+    }
+    
+    public void setPaymentGatewayResponse(String paymentGatewayResponse) {
+        this.paymentGatewayResponse = paymentGatewayResponse;
+    }
+}
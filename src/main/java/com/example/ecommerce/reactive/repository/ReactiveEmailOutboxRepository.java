@@ -0,0 +1,13 @@
+package com.example.ecommerce.reactive.repository;
+
+import com.example.ecommerce.reactive.model.EmailOutboxRow;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Reactive counterpart of {@link com.example.ecommerce.repository.EmailOutboxRepository}, for enqueueing
+ * inside an R2DBC transaction; delivery still goes through the JPA dispatcher.
+ */
+@Repository
+public interface ReactiveEmailOutboxRepository extends R2dbcRepository<EmailOutboxRow, Long> {
+}
@@ -0,0 +1,15 @@
+package com.example.ecommerce.reactive.repository;
+
+import com.example.ecommerce.reactive.model.OrderItemRow;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+/**
+ * Reactive counterpart of {@link com.example.ecommerce.repository.OrderItemRepository}.
+ */
+@Repository
+public interface ReactiveOrderItemRepository extends R2dbcRepository<OrderItemRow, Long> {
+    
+    Flux<OrderItemRow> findByOrderId(Long orderId);
+}
@@ -0,0 +1,39 @@
+package com.example.ecommerce.reactive.repository;
+
+import com.example.ecommerce.model.Order.OrderStatus;
+import com.example.ecommerce.reactive.model.OrderRow;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+/**
+ * Reactive counterpart of {@link com.example.ecommerce.repository.OrderRepository}.
+ */
+@Repository
+public interface ReactiveOrderRepository extends R2dbcRepository<OrderRow, Long> {
+    
+    Mono<OrderRow> findByOrderNumber(String orderNumber);
+    
+    Flux<OrderRow> findByUserId(Long userId);
+    
+    Flux<OrderRow> findByStatus(OrderStatus status);
+    
+    Flux<OrderRow> findByUserIdAndStatus(Long userId, OrderStatus status);
+    
+    @Modifying
+    @Query("update orders set status = :status where id in (:ids)")
+    Mono<Integer> updateStatusByIdIn(@Param("ids") Collection<Long> ids, @Param("status") String status);
+    
+    /**
+     * Sets the status unless the order already has it; returns 0 when another call got there first.
+     */
+    @Modifying
+    @Query("update orders set status = :status where id = :id and status <> :status")
+    Mono<Integer> updateStatusIfChanged(@Param("id") Long id, @Param("status") String status);
+}
@@ -0,0 +1,43 @@
+package com.example.ecommerce.reactive.repository;
+
+import com.example.ecommerce.model.Payment.PaymentStatus;
+import com.example.ecommerce.reactive.model.PaymentRow;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Reactive counterpart of {@link com.example.ecommerce.repository.PaymentRepository}.
+ */
+@Repository
+public interface ReactivePaymentRepository extends R2dbcRepository<PaymentRow, Long> {
+    
+    Mono<PaymentRow> findByTransactionId(String transactionId);
+    
+    Flux<PaymentRow> findByOrderId(Long orderId);
+    
+    Flux<PaymentRow> findByOrderIdIn(Collection<Long> orderIds);
+    
+    Flux<PaymentRow> findByStatus(PaymentStatus status);
+    
+    @Modifying
+    @Query("update payments set status = :newStatus where id in (:ids) and status = :expectedStatus")
+    Mono<Integer> updateStatusByIdIn(@Param("ids") Collection<Long> ids,
+                                     @Param("expectedStatus") String expectedStatus,
+                                     @Param("newStatus") String newStatus);
+    
+    /**
+     * Moves a PENDING payment to PROCESSING and stamps claimed_at, as PaymentRepository.claimPending does;
+     * returns 0 when the payment was not pending.
+     */
+    @Modifying
+    @Query("update payments set status = 'PROCESSING', claimed_at = :claimedAt where id = :id and status = 'PENDING'")
+    Mono<Integer> claimPending(@Param("id") Long id, @Param("claimedAt") LocalDateTime claimedAt);
+}
@@ -0,0 +1,48 @@
+package com.example.ecommerce.reactive.repository;
+
+import com.example.ecommerce.reactive.model.ProductRow;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Reactive counterpart of {@link com.example.ecommerce.repository.ProductRepository}.
+ */
+@Repository
+public interface ReactiveProductRepository extends R2dbcRepository<ProductRow, Long> {
+    
+    Flux<ProductRow> findByCategory(String category);
+    
+    Flux<ProductRow> findByActive(Boolean active);
+    
+    Flux<ProductRow> findByStockQuantityGreaterThan(Integer quantity);
+    
+    Flux<ProductRow> findByNameContaining(String name);
+    
+    Flux<ProductRow> findBySkuIn(Collection<String> skus);
+    
+    @Modifying
+    @Query("update products set stock_quantity = stock_quantity + :quantity, updated_at = :updatedAt where id = :id")
+    Mono<Integer> increaseStock(@Param("id") Long id, @Param("quantity") int quantity,
+                                @Param("updatedAt") LocalDateTime updatedAt);
+    
+    /**
+     * Takes stock only if the product is active and has enough of it; returns 0 when it does not, so the
+     * availability check and the decrement cannot be interleaved with another order.
+     */
+    @Modifying
+    @Query("update products set stock_quantity = stock_quantity - :quantity, updated_at = :updatedAt "
+            + "where id = :id and active = true and stock_quantity >= :quantity")
+    Mono<Integer> reduceStockIfAvailable(@Param("id") Long id, @Param("quantity") int quantity,
+                                         @Param("updatedAt") LocalDateTime updatedAt);
+    
+    @Query("select stock_quantity from products where id = :id")
+    Mono<Integer> findStockQuantityById(@Param("id") Long id);
+}
@@ -0,0 +1,22 @@
+package com.example.ecommerce.reactive.repository;
+
+import com.example.ecommerce.reactive.model.UserRow;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive counterpart of {@link com.example.ecommerce.repository.UserRepository}, read side only.
+ */
+@Repository
+public interface ReactiveUserRepository extends R2dbcRepository<UserRow, Long> {
+    
+    Mono<UserRow> findByEmail(String email);
+    
+    Mono<Boolean> existsByEmail(String email);
+    
+    Flux<UserRow> findByActive(Boolean active);
+    
+    Flux<UserRow> findByCity(String city);
+}
@@ -0,0 +1,402 @@
+package com.example.ecommerce.reactive.service;
+
+import com.example.ecommerce.gateway.AsyncPaymentGatewayClient;
+import com.example.ecommerce.gateway.GatewayRequest;
+import com.example.ecommerce.gateway.GatewayResponse;
+import com.example.ecommerce.gateway.PaymentGatewayException;
+import com.example.ecommerce.metrics.StatusTransitionMetrics;
+import com.example.ecommerce.model.EmailOutboxMessage;
+import com.example.ecommerce.model.Order.OrderStatus;
+import com.example.ecommerce.model.Payment.PaymentMethod;
+import com.example.ecommerce.model.Payment.PaymentStatus;
+import com.example.ecommerce.reactive.model.EmailOutboxRow;
+import com.example.ecommerce.reactive.model.OrderItemRow;
+import com.example.ecommerce.reactive.model.OrderRow;
+import com.example.ecommerce.reactive.model.PaymentRow;
+import com.example.ecommerce.reactive.model.ProductRow;
+import com.example.ecommerce.reactive.model.UserRow;
+import com.example.ecommerce.reactive.repository.ReactiveEmailOutboxRepository;
+import com.example.ecommerce.reactive.repository.ReactiveOrderItemRepository;
+import com.example.ecommerce.reactive.repository.ReactiveOrderRepository;
+import com.example.ecommerce.reactive.repository.ReactivePaymentRepository;
+import com.example.ecommerce.reactive.repository.ReactiveProductRepository;
+import com.example.ecommerce.reactive.repository.ReactiveUserRepository;
+import com.example.ecommerce.service.AuditService;
+import com.example.ecommerce.service.EmailService;
+import com.example.ecommerce.service.PaymentVelocityService;
+import com.example.ecommerce.service.TrendingProductsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Non-blocking counterpart of the OrderService lifecycle, over R2DBC on the same tables. It shares the audit
+ * pipeline, payment gateway client, velocity limits, trending analytics and metrics with the blocking stack.
+ * The database writes of each step commit in one R2DBC transaction, and gateway calls are awaited as futures
+ * rather than on a parked thread. Emails are rendered by {@link EmailService} and written to the outbox in the
+ * same R2DBC transaction as the change they announce, so they commit or roll back with it.
+ */
+@Service
+public class ReactiveOrderService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveOrderService.class);
+
+    private static final int LOW_STOCK_THRESHOLD = 10;
+
+    @Autowired
+    private ReactiveOrderRepository orderRepository;
+
+    @Autowired
+    private ReactiveOrderItemRepository orderItemRepository;
+
+    @Autowired
+    private ReactiveProductRepository productRepository;
+
+    @Autowired
+    private ReactivePaymentRepository paymentRepository;
+
+    @Autowired
+    private ReactiveUserRepository userRepository;
+
+    @Autowired
+    private ReactiveEmailOutboxRepository outboxRepository;
+
+    @Autowired
+    private TransactionalOperator transactionalOperator;
+
+    @Autowired
+    private AsyncPaymentGatewayClient paymentGatewayClient;
+
+    @Autowired
+    private PaymentVelocityService paymentVelocityService;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private AuditService auditService;
+
+    @Autowired
+    private TrendingProductsService trendingProductsService;
+
+    @Autowired
+    private StatusTransitionMetrics transitionMetrics;
+
+    public Mono<OrderRow> createOrder(Long userId, Map<Long, Integer> productQuantities, PaymentMethod paymentMethod) {
+        return userRepository.findById(userId)
+                .switchIfEmpty(Mono.error(() -> new IllegalArgumentException("User not found with ID: " + userId)))
+                .flatMap(user -> productRepository.findAllById(productQuantities.keySet())
+                        .collectMap(ProductRow::getId)
+                        .flatMap(products -> placeOrder(user, products, productQuantities, paymentMethod)))
+                .as(transactionalOperator::transactional)
+                .map(placed -> {
+                    placed.log(auditService, trendingProductsService);
+                    return placed.order;
+                });
+    }
+
+    public Mono<OrderRow> confirmOrder(Long orderId) {
+        return updateStatus(orderId, OrderStatus.CONFIRMED, order -> Mono.empty());
+    }
+
+    public Mono<OrderRow> processOrder(Long orderId, String userEmail) {
+        return findOrder(orderId).flatMap(order -> paymentRepository.findByOrderId(orderId).next()
+                .switchIfEmpty(Mono.error(() -> new IllegalStateException("No payment found for order: " + orderId)))
+                .flatMap(payment -> claim(payment).thenReturn(payment))
+                .flatMap(payment -> {
+                    PaymentStatus oldPaymentStatus = payment.getStatus();
+                    OrderStatus oldStatus = order.getStatus();
+                    // The gateway call stays outside the transaction
+                    return charge(payment, userEmail)
+                            .flatMap(charged -> {
+                                order.setStatus(OrderStatus.PROCESSING);
+                                Mono<Void> email = charged.getStatus() != PaymentStatus.COMPLETED ? Mono.empty()
+                                        : userRepository.findById(order.getUserId()).flatMap(user -> enqueue(List.of(
+                                                emailService.paymentConfirmation(userEmail, order.getOrderNumber(),
+                                                        charged.getTransactionId(), user.getLocale()))));
+                                return paymentRepository.save(charged).then(email).then(orderRepository.save(order))
+                                        .as(transactionalOperator::transactional);
+                            })
+                            // Anything that fails before the save would otherwise strand the claim
+                            .onErrorResume(e -> release(payment).then(Mono.error(e)))
+                            .map(saved -> {
+                                auditService.logPaymentProcessed(payment.getId(), payment.getTransactionId(),
+                                        payment.getStatus().toString());
+                                transitionMetrics.paymentTransition(oldPaymentStatus, payment.getStatus());
+                                auditService.logOrderStatusChanged(orderId, oldStatus.toString(),
+                                        OrderStatus.PROCESSING.toString());
+                                transitionMetrics.orderTransition(oldStatus, OrderStatus.PROCESSING);
+                                return saved;
+                            });
+                }));
+    }
+
+    public Mono<OrderRow> shipOrder(Long orderId, String trackingNumber) {
+        return updateStatus(orderId, OrderStatus.SHIPPED, order -> userRepository.findById(order.getUserId())
+                .flatMap(user -> enqueue(List.of(emailService.orderShipped(user.getEmail(), order.getOrderNumber(),
+                        trackingNumber, user.getLocale())))));
+    }
+
+    public Mono<OrderRow> completeOrder(Long orderId) {
+        return updateStatus(orderId, OrderStatus.DELIVERED, order -> {
+            order.setCompletedAt(LocalDateTime.now());
+            return Mono.empty();
+        });
+    }
+
+    /**
+     * Refunds the order's completed payments, returns its stock and cancels it, all in one transaction.
+     */
+    public Mono<OrderRow> cancelOrder(Long orderId) {
+        return updateStatus(orderId, OrderStatus.CANCELLED, order -> paymentRepository.findByOrderId(orderId)
+                .filter(payment -> payment.getStatus() == PaymentStatus.COMPLETED)
+                .concatMap(this::refund)
+                .thenMany(orderItemRepository.findByOrderId(orderId))
+                .concatMap(item -> productRepository.increaseStock(item.getProductId(), item.getQuantity(),
+                                                                   LocalDateTime.now()))
+                .then());
+    }
+
+    public Mono<OrderRow> getOrderById(Long id) {
+        return orderRepository.findById(id);
+    }
+
+    public Mono<OrderRow> getOrderByOrderNumber(String orderNumber) {
+        return orderRepository.findByOrderNumber(orderNumber);
+    }
+
+    public Flux<OrderRow> getOrdersByUserId(Long userId) {
+        return orderRepository.findByUserId(userId);
+    }
+
+    public Flux<OrderRow> getOrdersByStatus(OrderStatus status) {
+        return orderRepository.findByStatus(status);
+    }
+
+    public Flux<OrderRow> getUserOrdersByStatus(Long userId, OrderStatus status) {
+        return orderRepository.findByUserIdAndStatus(userId, status);
+    }
+
+    private Mono<PlacedOrder> placeOrder(UserRow user, Map<Long, ProductRow> products,
+                                         Map<Long, Integer> productQuantities, PaymentMethod paymentMethod) {
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        for (Map.Entry<Long, Integer> entry : productQuantities.entrySet()) {
+            ProductRow product = products.get(entry.getKey());
+            if (product == null || !product.isAvailable(entry.getValue())) {
+                return Mono.error(new IllegalStateException("Product not available: " + entry.getKey()));
+            }
+            totalAmount = totalAmount.add(product.getPrice().multiply(new BigDecimal(entry.getValue())));
+        }
+        // Fail fast before anything is written; the payment is counted when it is charged
+        if (!paymentVelocityService.wouldAllow(user.getEmail(), paymentMethod, totalAmount)) {
+            return Mono.error(new IllegalStateException("Payment velocity limit exceeded for: " + user.getEmail()));
+        }
+
+        OrderRow order = new OrderRow(generateOrderNumber(), user.getId(), totalAmount);
+        order.setShippingAddress(user.getAddress());
+        order.setBillingAddress(user.getAddress());
+        BigDecimal amount = totalAmount;
+        LocalDateTime now = LocalDateTime.now();
+
+        return orderRepository.save(order).flatMap(saved -> Flux.fromIterable(productQuantities.entrySet())
+                .concatMap(line -> takeStock(line.getKey(), line.getValue(), now)
+                        .map(stock -> Map.entry(line.getKey(), stock)))
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                // Lines are stored as the blocking stack stores them, so either stack can restock the order
+                .flatMap(stockAfter -> orderItemRepository.saveAll(Flux.fromIterable(productQuantities.entrySet())
+                                .map(line -> orderItem(saved.getId(), products.get(line.getKey()), line.getValue())))
+                        .then(Mono.just(stockAfter)))
+                .flatMap(stockAfter -> paymentRepository
+                        .save(new PaymentRow(saved.getId(), generateTransactionId(), amount, paymentMethod))
+                        .map(payment -> new PlacedOrder(saved, user, products, productQuantities, stockAfter, payment)))
+                .flatMap(placed -> enqueue(placed.emails(emailService)).thenReturn(placed)));
+    }
+
+    /**
+     * Takes stock for one line and returns what is left. The update re-checks stock, so an order placed since
+     * the product was read cannot oversell; the row stays locked until commit, so the re-read sees this
+     * order's decrement and not a concurrent one.
+     */
+    private Mono<Integer> takeStock(Long productId, int quantity, LocalDateTime now) {
+        return productRepository.reduceStockIfAvailable(productId, quantity, now)
+                .flatMap(updated -> updated == 0
+                        ? Mono.error(new IllegalStateException("Product not available: " + productId))
+                        : productRepository.findStockQuantityById(productId));
+    }
+
+    private static OrderItemRow orderItem(Long orderId, ProductRow product, int quantity) {
+        return new OrderItemRow(orderId, product.getId(), product.getName(), product.getPrice(), quantity);
+    }
+
+    /**
+     * Writes outbox rows in the caller's transaction, as EmailService does on the blocking stack.
+     */
+    private Mono<Void> enqueue(List<EmailOutboxMessage> messages) {
+        return outboxRepository.saveAll(Flux.fromIterable(messages).map(EmailOutboxRow::of)).then();
+    }
+
+    private Mono<OrderRow> findOrder(Long orderId) {
+        return orderRepository.findById(orderId)
+                .switchIfEmpty(Mono.error(() -> new IllegalArgumentException("Order not found with ID: " + orderId)));
+    }
+
+    /**
+     * Applies the status change and {@code work} in one transaction; audit and metrics follow the commit.
+     * Only the call that actually flips the status runs {@code work}, so a repeated or concurrent call
+     * cannot refund, restock or notify twice.
+     */
+    private Mono<OrderRow> updateStatus(Long orderId, OrderStatus newStatus, Function<OrderRow, Mono<Void>> work) {
+        return findOrder(orderId).flatMap(order -> {
+            OrderStatus oldStatus = order.getStatus();
+            if (oldStatus == newStatus) {
+                return Mono.just(order);
+            }
+            order.setStatus(newStatus);
+            return orderRepository.updateStatusIfChanged(orderId, newStatus.name())
+                    .flatMap(updated -> updated == 0 ? Mono.just(false)
+                            : Mono.defer(() -> work.apply(order)).then(orderRepository.save(order)).thenReturn(true))
+                    .as(transactionalOperator::transactional)
+                    .map(changed -> {
+                        if (changed) {
+                            auditService.logOrderStatusChanged(orderId, oldStatus.toString(), newStatus.toString());
+                            transitionMetrics.orderTransition(oldStatus, newStatus);
+                        }
+                        return order;
+                    });
+        });
+    }
+
+    /**
+     * Claims a PENDING payment (PENDING to PROCESSING), so a second call or a settlement run cannot charge it twice.
+     */
+    private Mono<Void> claim(PaymentRow payment) {
+        return paymentRepository.claimPending(payment.getId(), LocalDateTime.now())
+                .flatMap(claimed -> claimed == 0
+                        ? Mono.error(new IllegalStateException("Payment is not pending: " + payment.getId()))
+                        : Mono.empty());
+    }
+
+    private Mono<Void> release(PaymentRow payment) {
+        return paymentRepository.updateStatusByIdIn(List.of(payment.getId()), PaymentStatus.PROCESSING.name(),
+                                                    PaymentStatus.PENDING.name())
+                .doOnError(e -> logger.warn("Claim on payment {} not released: {}", payment.getId(), e.getMessage()))
+                .onErrorResume(e -> Mono.empty())
+                .then();
+    }
+
+    private Mono<PaymentRow> charge(PaymentRow payment, String userEmail) {
+        return Mono.defer(() -> {
+            // Velocity limits are checked before the gateway is contacted
+            if (!paymentVelocityService.tryRecord(userEmail, payment.getPaymentMethod(), payment.getAmount())) {
+                payment.setStatus(PaymentStatus.FAILED);
+                payment.setPaymentGatewayResponse("VELOCITY_LIMIT");
+                return Mono.just(payment);
+            }
+            GatewayRequest request = new GatewayRequest(payment.getTransactionId(), payment.getAmount(),
+                                                        payment.getPaymentMethod(), false);
+            return Mono.fromFuture(paymentGatewayClient.charge(request))
+                    .map(response -> {
+                        if (response.isApproved()) {
+                            payment.setStatus(PaymentStatus.COMPLETED);
+                            payment.setProcessedAt(LocalDateTime.now());
+                        } else {
+                            payment.setStatus(PaymentStatus.FAILED);
+                        }
+                        payment.setPaymentGatewayResponse(response.getResponseCode());
+                        return payment;
+                    })
+                    .onErrorResume(PaymentGatewayException.class, e -> {
+                        // No verdict from the gateway: leave the payment PENDING so it can be settled later
+                        logger.warn("Payment {} left pending: {}", payment.getId(), e.getMessage());
+                        payment.setPaymentGatewayResponse(e.getReason().toString());
+                        return Mono.just(payment);
+                    });
+        });
+    }
+
+    private Mono<PaymentRow> refund(PaymentRow payment) {
+        // Refunds are keyed by transaction ID at the gateway, so they are safe to hedge
+        GatewayRequest request = new GatewayRequest(payment.getTransactionId(), payment.getAmount(),
+                                                    payment.getPaymentMethod(), true);
+        return Mono.defer(() -> Mono.fromFuture(paymentGatewayClient.refund(request)))
+                .onErrorMap(PaymentGatewayException.class, e -> new IllegalStateException(
+                        "Refund failed for payment " + payment.getId() + ": " + e.getMessage(), e))
+                .flatMap(response -> {
+                    if (!response.isApproved()) {
+                        return Mono.error(new IllegalStateException("Refund declined for payment " + payment.getId()
+                                + ": " + response.getResponseCode()));
+                    }
+                    payment.setStatus(PaymentStatus.REFUNDED);
+                    return paymentRepository.save(payment);
+                })
+                .doOnNext(refunded -> {
+                    auditService.logPaymentRefunded(refunded.getId(), refunded.getTransactionId());
+                    transitionMetrics.paymentTransition(PaymentStatus.COMPLETED, PaymentStatus.REFUNDED);
+                });
+    }
+
+    private static String generateOrderNumber() {
+        return "ORD-" + System.currentTimeMillis() + "-" + UUID.randomUUID().toString().substring(0, 4).toUpperCase();
+    }
+
+    private static String generateTransactionId() {
+        return "TXN-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    }
+
+    /**
+     * An order placed by createOrder, with the stock each line left and what its audit records and emails need.
+     */
+    private static final class PlacedOrder {
+
+        private final OrderRow order;
+        private final UserRow user;
+        private final Map<Long, ProductRow> products;
+        private final Map<Long, Integer> quantities;
+        private final Map<Long, Integer> stockAfter;
+        private final PaymentRow payment;
+
+        private PlacedOrder(OrderRow order, UserRow user, Map<Long, ProductRow> products,
+                            Map<Long, Integer> quantities, Map<Long, Integer> stockAfter, PaymentRow payment) {
+            this.order = order;
+            this.user = user;
+            this.products = products;
+            this.quantities = quantities;
+            this.stockAfter = stockAfter;
+            this.payment = payment;
+        }
+
+        private void log(AuditService auditService, TrendingProductsService trendingProductsService) {
+            quantities.forEach((productId, quantity) -> {
+                int newStock = stockAfter.get(productId);
+                auditService.logStockUpdated(productId, newStock + quantity, newStock);
+            });
+            auditService.logPaymentProcessed(payment.getId(), payment.getTransactionId(), "CREATED");
+            auditService.logOrderCreated(order.getId(), order.getOrderNumber(), user.getId());
+            quantities.forEach((productId, quantity) ->
+                    trendingProductsService.recordSale(productId, products.get(productId).getCategory(), quantity));
+        }
+
+        private List<EmailOutboxMessage> emails(EmailService emailService) {
+            List<EmailOutboxMessage> emails = new ArrayList<>();
+            stockAfter.forEach((productId, newStock) -> {
+                if (newStock <= LOW_STOCK_THRESHOLD) {
+                    emails.add(emailService.lowStockAlert(products.get(productId).getName(), newStock));
+                }
+            });
+            emails.add(emailService.orderConfirmation(user.getEmail(), order.getOrderNumber(), user.getLocale()));
+            return emails;
+        }
+    }
+}
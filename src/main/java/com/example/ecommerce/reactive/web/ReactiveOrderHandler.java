@@ -0,0 +1,188 @@
+package com.example.ecommerce.reactive.web;
+
+import com.example.ecommerce.model.Order.OrderStatus;
+import com.example.ecommerce.model.Payment.PaymentMethod;
+import com.example.ecommerce.reactive.model.OrderRow;
+import com.example.ecommerce.reactive.service.ReactiveOrderService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Handlers for the reactive order routes. Failures map as in the service contracts:
+ * IllegalArgumentException to 400 and IllegalStateException to 409; unknown ids on reads are 404.
+ */
+@Component
+public class ReactiveOrderHandler {
+    
+    @Autowired
+    private ReactiveOrderService orderService;
+    
+    public Mono<ServerResponse> create(ServerRequest request) {
+        return request.bodyToMono(CreateOrderRequest.class)
+                .switchIfEmpty(Mono.error(() -> new IllegalArgumentException("Request body is required")))
+                .flatMap(body -> {
+                    if (body.getUserId() == null || body.getItems() == null || body.getItems().isEmpty()) {
+                        return Mono.error(new IllegalArgumentException("userId and items are required"));
+                    }
+                    PaymentMethod method = body.getPaymentMethod() != null ? body.getPaymentMethod() : PaymentMethod.CREDIT_CARD;
+                    return orderService.createOrder(body.getUserId(), body.getItems(), method);
+                })
+                .flatMap(order -> ServerResponse.created(URI.create("/reactive/orders/" + order.getId()))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(order))
+                .onErrorResume(ReactiveOrderHandler::error);
+    }
+    
+    public Mono<ServerResponse> get(ServerRequest request) {
+        return Mono.defer(() -> orderService.getOrderById(id(request)))
+                .flatMap(ReactiveOrderHandler::ok)
+                .switchIfEmpty(ServerResponse.notFound().build())
+                .onErrorResume(ReactiveOrderHandler::error);
+    }
+    
+    public Mono<ServerResponse> list(ServerRequest request) {
+        Optional<Long> userId;
+        Optional<OrderStatus> status;
+        try {
+            userId = request.queryParam("userId").map(Long::valueOf);
+            status = request.queryParam("status").map(OrderStatus::valueOf);
+        } catch (IllegalArgumentException e) {
+            return error(e);
+        }
+        Flux<OrderRow> orders;
+        if (userId.isPresent() && status.isPresent()) {
+            orders = orderService.getUserOrdersByStatus(userId.get(), status.get());
+        } else if (userId.isPresent()) {
+            orders = orderService.getOrdersByUserId(userId.get());
+        } else if (status.isPresent()) {
+            orders = orderService.getOrdersByStatus(status.get());
+        } else {
+            return error(new IllegalArgumentException("userId or status is required"));
+        }
+        return ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).body(orders, OrderRow.class);
+    }
+    
+    public Mono<ServerResponse> confirm(ServerRequest request) {
+        return respond(Mono.defer(() -> orderService.confirmOrder(id(request))));
+    }
+    
+    public Mono<ServerResponse> process(ServerRequest request) {
+        return respond(request.bodyToMono(ProcessOrderRequest.class)
+                .filter(body -> body.getUserEmail() != null)
+                .switchIfEmpty(Mono.error(() -> new IllegalArgumentException("userEmail is required")))
+                .flatMap(body -> orderService.processOrder(id(request), body.getUserEmail())));
+    }
+    
+    public Mono<ServerResponse> ship(ServerRequest request) {
+        return respond(request.bodyToMono(ShipOrderRequest.class)
+                .filter(body -> body.getTrackingNumber() != null)
+                .switchIfEmpty(Mono.error(() -> new IllegalArgumentException("trackingNumber is required")))
+                .flatMap(body -> orderService.shipOrder(id(request), body.getTrackingNumber())));
+    }
+    
+    public Mono<ServerResponse> complete(ServerRequest request) {
+        return respond(Mono.defer(() -> orderService.completeOrder(id(request))));
+    }
+    
+    public Mono<ServerResponse> cancel(ServerRequest request) {
+        return respond(Mono.defer(() -> orderService.cancelOrder(id(request))));
+    }
+    
+    private static Mono<ServerResponse> respond(Mono<OrderRow> order) {
+        return order.flatMap(ReactiveOrderHandler::ok).onErrorResume(ReactiveOrderHandler::error);
+    }
+    
+    private static Mono<ServerResponse> ok(OrderRow order) {
+        return ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(order);
+    }
+    
+    private static Mono<ServerResponse> error(Throwable e) {
+        HttpStatus status;
+        if (e instanceof IllegalArgumentException) {
+            status = HttpStatus.BAD_REQUEST;
+        } else if (e instanceof IllegalStateException) {
+            status = HttpStatus.CONFLICT;
+        } else {
+            return Mono.error(e);
+        }
+        String message = e.getMessage() != null ? e.getMessage() : status.getReasonPhrase();
+        return ServerResponse.status(status).contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Collections.singletonMap("error", message));
+    }
+    
+    private static Long id(ServerRequest request) {
+        try {
+            return Long.valueOf(request.pathVariable("id"));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid order ID: " + request.pathVariable("id"));
+        }
+    }
+    
+    public static class CreateOrderRequest {
+        
+        private Long userId;
+        private Map<Long, Integer> items;
+        private PaymentMethod paymentMethod;
+        
+        public Long getUserId() {
+            return userId;
+        }
+        
+        public void setUserId(Long userId) {
+            this.userId = userId;
+        }
+        
+        public Map<Long, Integer> getItems() {
+            return items;
+        }
+        
+        public void setItems(Map<Long, Integer> items) {
+            this.items = items;
+        }
+        
+        public PaymentMethod getPaymentMethod() {
+            return paymentMethod;
+        }
+        
+        public void setPaymentMethod(PaymentMethod paymentMethod) {
+            this.paymentMethod = paymentMethod;
+        }
+    }
+    
+    public static class ProcessOrderRequest {
+        
+        private String userEmail;
+        
+        public String getUserEmail() {
+            return userEmail;
+        }
+        
+        public void setUserEmail(String userEmail) {
+            this.userEmail = userEmail;
+        }
+    }
+    
+    public static class ShipOrderRequest {
+        
+        private String trackingNumber;
+        
+        public String getTrackingNumber() {
+            return trackingNumber;
+        }
+        
+        public void setTrackingNumber(String trackingNumber) {
+            this.trackingNumber = trackingNumber;
+        }
+    }
+}
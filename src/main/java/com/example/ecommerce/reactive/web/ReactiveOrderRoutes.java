@@ -0,0 +1,30 @@
+package com.example.ecommerce.reactive.web;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+/**
+ * WebFlux functional routes for the order lifecycle, served by {@link ReactiveOrderServer}.
+ */
+@Configuration
+public class ReactiveOrderRoutes {
+    
+    public static final String BASE_PATH = "/reactive/orders";
+    
+    @Bean
+    public RouterFunction<ServerResponse> reactiveOrderRouter(ReactiveOrderHandler handler) {
+        return RouterFunctions.route()
+                .POST(BASE_PATH, handler::create)
+                .GET(BASE_PATH, handler::list)
+                .GET(BASE_PATH + "/{id}", handler::get)
+                .POST(BASE_PATH + "/{id}/confirm", handler::confirm)
+                .POST(BASE_PATH + "/{id}/process", handler::process)
+                .POST(BASE_PATH + "/{id}/ship", handler::ship)
+                .POST(BASE_PATH + "/{id}/complete", handler::complete)
+                .POST(BASE_PATH + "/{id}/cancel", handler::cancel)
+                .build();
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.ecommerce.reactive.web;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+/**
+ * Serves the reactive routes from Reactor Netty on their own port, next to the servlet container.
+ * Spring Boot runs a single web server type per application, so this one is started here. It only starts
+ * when the application runs its own server, not in mock-web tests or contexts without a web server;
+ * {@code ecommerce.reactive.port=-1} turns it off.
+ */
+@Component
+public class ReactiveOrderServer implements SmartLifecycle {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveOrderServer.class);
+    
+    private final ApplicationContext applicationContext;
+    private final RouterFunction<ServerResponse> router;
+    private final HandlerStrategies strategies;
+    private final String host;
+    private final int port;
+    private volatile DisposableServer server;
+    
+    @Autowired
+    public ReactiveOrderServer(ApplicationContext applicationContext,
+                               RouterFunction<ServerResponse> reactiveOrderRouter,
+                               HandlerStrategies reactiveHandlerStrategies,
+                               @Value("${ecommerce.reactive.host:0.0.0.0}") String host,
+                               @Value("${ecommerce.reactive.port:8081}") int port) {
+        this.applicationContext = applicationContext;
+        this.router = reactiveOrderRouter;
+        this.strategies = reactiveHandlerStrategies;
+        this.host = host;
+        this.port = port;
+    }
+    
+    @Override
+    public void start() {
+        if (port < 0 || !(applicationContext instanceof WebServerApplicationContext)) {
+            return;
+        }
+        ReactorHttpHandlerAdapter adapter = new ReactorHttpHandlerAdapter(RouterFunctions.toHttpHandler(router, strategies));
+        server = HttpServer.create().host(host).port(port).handle(adapter).bindNow();
+        logger.info("Reactive order API listening on port {}", server.port());
+    }
+    
+    @Override
+    public void stop() {
+        DisposableServer current = server;
+        if (current != null) {
+            current.disposeNow();
+            server = null;
+        }
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+    
+    /**
+     * The bound port, or -1 when the server is not running.
+     */
+    public int getPort() {
+        DisposableServer current = server;
+        return current != null ? current.port() : -1;
+    }
+}
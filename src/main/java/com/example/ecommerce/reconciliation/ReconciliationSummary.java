@@ -0,0 +1,64 @@
+package com.example.ecommerce.reconciliation;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Counts from one reconciliation run; the mismatches themselves go to the report file
+ */
+public class ReconciliationSummary {
+    
+    public enum MismatchType {
+        MISSING_IN_LEDGER,
+        MISSING_IN_SETTLEMENT,
+        AMOUNT_DIFFERS,
+        STATUS_DIFFERS
+    }
+    
+    private final Map<MismatchType, Long> mismatches = new EnumMap<>(MismatchType.class);
+    private long settlementRecords;
+    private long ledgerPayments;
+    private long matched;
+    
+    public void recordSettlementRecord() {
+        settlementRecords++;
+    }
+    
+    public void recordLedgerPayment() {
+        ledgerPayments++;
+    }
+    
+    public void recordMatch() {
+        matched++;
+    }
+    
+    public void recordMismatch(MismatchType type) {
+        mismatches.merge(type, 1L, Long::sum);
+    }
+    
+    public long getSettlementRecords() {
+        return settlementRecords;
+    }
+    
+    public long getLedgerPayments() {
+        return ledgerPayments;
+    }
+    
+    public long getMatched() {
+        return matched;
+    }
+    
+    public long getMismatchCount(MismatchType type) {
+        return mismatches.getOrDefault(type, 0L);
+    }
+    
+    public long getTotalMismatches() {
+        return mismatches.values().stream().mapToLong(Long::longValue).sum();
+    }
+    
+    @Override
+    public String toString() {
+        return "settlementRecords=" + settlementRecords + " ledgerPayments=" + ledgerPayments
+                + " matched=" + matched + " mismatches=" + mismatches;
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.ecommerce.reconciliation;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads a settlement file through a sliding memory-mapped region, so memory use is bounded
+ * by the region size no matter how large the file is. Lines are ASCII
+ * "transactionId,amount,status"; blank lines and lines starting with '#' are skipped.
+ * The file must be sorted by transaction ID, which is checked as it is read.
+ */
+public class SettlementFileReader implements Closeable {
+    
+    public static final int DEFAULT_REGION_BYTES = 64 * 1024 * 1024;
+    
+    private final FileChannel channel;
+    private final long fileSize;
+    private final int regionBytes;
+    
+    private MappedByteBuffer region;
+    private long regionStart;
+    private int position;
+    private long lineNumber;
+    private String previousTransactionId;
+    
+    public SettlementFileReader(Path file) throws IOException {
+        this(file, DEFAULT_REGION_BYTES);
+    }
+    
+    public SettlementFileReader(Path file, int regionBytes) throws IOException {
+        if (regionBytes <= 0) {
+            throw new IllegalArgumentException("Region size must be positive");
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.fileSize = channel.size();
+        this.regionBytes = regionBytes;
+        map(0);
+    }
+    
+    /**
+     * Returns the next record, or null at end of file.
+     */
+    public SettlementRecord next() throws IOException {
+        while (true) {
+            int end = findLineEnd();
+            if (end < 0) {
+                return null;
+            }
+            int start = position;
+            position = Math.min(end + 1, region.limit());
+            lineNumber++;
+            
+            int length = end - start;
+            if (length > 0 && region.get(start + length - 1) == '\r') {
+                length--;
+            }
+            if (length == 0 || region.get(start) == '#') {
+                continue;
+            }
+            return parse(start, length);
+        }
+    }
+    
+    public long getLineNumber() {
+        return lineNumber;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+    
+    // Index of the '\n' ending the current line (or end of file), remapping when the line crosses the region
+    private int findLineEnd() throws IOException {
+        if (regionStart + position >= fileSize) {
+            return -1;
+        }
+        while (true) {
+            for (int i = position; i < region.limit(); i++) {
+                if (region.get(i) == '\n') {
+                    return i;
+                }
+            }
+            if (regionStart + region.limit() >= fileSize) {
+                return region.limit();
+            }
+            if (position == 0) {
+                throw new IllegalStateException("Settlement line " + (lineNumber + 1) + " exceeds " + regionBytes + " bytes");
+            }
+            map(regionStart + position);
+        }
+    }
+    
+    private void map(long start) throws IOException {
+        long size = Math.min(regionBytes, fileSize - start);
+        region = channel.map(FileChannel.MapMode.READ_ONLY, start, size);
+        regionStart = start;
+        position = 0;
+    }
+    
+    private SettlementRecord parse(int start, int length) {
+        byte[] line = new byte[length];
+        for (int i = 0; i < length; i++) {
+            line[i] = region.get(start + i);
+        }
+        String text = new String(line, StandardCharsets.US_ASCII);
+        
+        String[] fields = text.split(",", -1);
+        if (fields.length != 3) {
+            throw new IllegalStateException("Malformed settlement line " + lineNumber + ": " + text);
+        }
+        String transactionId = fields[0].trim();
+        if (previousTransactionId != null && transactionId.compareTo(previousTransactionId) <= 0) {
+            throw new IllegalStateException("Settlement file not sorted by transaction ID at line " + lineNumber);
+        }
+        previousTransactionId = transactionId;
+        
+        try {
+            return new SettlementRecord(transactionId, new BigDecimal(fields[1].trim()), fields[2].trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("Invalid amount on settlement line " + lineNumber + ": " + text, e);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.ecommerce.reconciliation;
+
+import java.math.BigDecimal;
+
+/**
+ * One line of a gateway settlement file: transactionId,amount,status
+ */
+public class SettlementRecord {
+    
+    private final String transactionId;
+    private final BigDecimal amount;
+    private final String status;
+    
+    public SettlementRecord(String transactionId, BigDecimal amount, String status) {
+        this.transactionId = transactionId;
+        this.amount = amount;
+        this.status = status;
+    }
+    
+    public String getTransactionId() {
+        return transactionId;
+    }
+    
+    public BigDecimal getAmount() {
+        return amount;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.ecommerce.repository;
+
+import com.example.ecommerce.model.EmailOutboxMessage;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC-level bulk operations on the email outbox, mixed into {@link EmailOutboxRepository}
+ */
+public interface EmailOutboxBulkOperations {
+    
+    /**
+     * Inserts the messages in JDBC batches within the caller's transaction and returns the number of rows written.
+     */
+    int batchInsert(List<EmailOutboxMessage> messages);
+    
+    /**
+     * Writes status, attempt count, next attempt time and last error of each message in one JDBC batch.
+     */
+    void batchUpdateDeliveryState(List<EmailOutboxMessage> messages);
+    
+    /**
+     * Rewrites kind, subject and body of digest carriers in one JDBC batch.
+     */
+    void batchUpdateContent(List<EmailOutboxMessage> messages);
+    
+    /**
+     * Marks each still-PENDING message as MERGED into its carrier in one JDBC batch.
+     */
+    void batchMarkMerged(Map<Long, Long> carrierIdByMergedId);
+}
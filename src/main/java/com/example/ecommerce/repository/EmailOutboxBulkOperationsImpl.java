@@ -0,0 +1,89 @@
+package com.example.ecommerce.repository;
+
+import com.example.ecommerce.model.EmailOutboxMessage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JdbcTemplate implementation of {@link EmailOutboxBulkOperations}.
+ * Outbox rows have IDENTITY keys, so bulk enqueues go through JDBC batches like user imports do.
+ */
+public class EmailOutboxBulkOperationsImpl implements EmailOutboxBulkOperations {
+    
+    private static final String INSERT_SQL = "insert into email_outbox "
+            + "(kind, recipient, subject, body, status, attempts, created_at, next_attempt_at, digest_key, locale) "
+            + "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    private static final String UPDATE_DELIVERY_STATE_SQL = "update email_outbox "
+            + "set status = ?, attempts = ?, next_attempt_at = ?, last_error = ? where id = ?";
+    
+    private static final String UPDATE_CONTENT_SQL = "update email_outbox set kind = ?, subject = ?, body = ? where id = ?";
+    
+    private static final String MARK_MERGED_SQL = "update email_outbox set status = 'MERGED', merged_into_id = ? "
+            + "where id = ? and status = 'PENDING'";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Value("${ecommerce.email.outbox.jdbc-batch-size:500}")
+    private int jdbcBatchSize;
+    
+    @Override
+    public int batchInsert(List<EmailOutboxMessage> messages) {
+        int[][] counts = jdbcTemplate.batchUpdate(INSERT_SQL, messages, jdbcBatchSize, (ps, message) -> {
+            ps.setString(1, message.getKind().name());
+            ps.setString(2, message.getRecipient());
+            ps.setString(3, message.getSubject());
+            ps.setString(4, message.getBody());
+            ps.setString(5, message.getStatus().name());
+            ps.setInt(6, message.getAttempts());
+            ps.setTimestamp(7, Timestamp.valueOf(message.getCreatedAt()));
+            ps.setTimestamp(8, Timestamp.valueOf(message.getNextAttemptAt()));
+            ps.setString(9, message.getDigestKey());
+            ps.setString(10, message.getLocale());
+        });
+        int inserted = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                inserted += count < 0 ? 1 : count;
+            }
+        }
+        return inserted;
+    }
+    
+    @Override
+    public void batchUpdateDeliveryState(List<EmailOutboxMessage> messages) {
+        jdbcTemplate.batchUpdate(UPDATE_DELIVERY_STATE_SQL, messages, jdbcBatchSize, (ps, message) -> {
+            ps.setString(1, message.getStatus().name());
+            ps.setInt(2, message.getAttempts());
+            ps.setTimestamp(3, Timestamp.valueOf(message.getNextAttemptAt()));
+            ps.setString(4, message.getLastError());
+            ps.setLong(5, message.getId());
+        });
+    }
+    
+    @Override
+    public void batchUpdateContent(List<EmailOutboxMessage> messages) {
+        jdbcTemplate.batchUpdate(UPDATE_CONTENT_SQL, messages, jdbcBatchSize, (ps, message) -> {
+            ps.setString(1, message.getKind().name());
+            ps.setString(2, message.getSubject());
+            ps.setString(3, message.getBody());
+            ps.setLong(4, message.getId());
+        });
+    }
+    
+    @Override
+    public void batchMarkMerged(Map<Long, Long> carrierIdByMergedId) {
+        List<Map.Entry<Long, Long>> merges = new ArrayList<>(carrierIdByMergedId.entrySet());
+        jdbcTemplate.batchUpdate(MARK_MERGED_SQL, merges, jdbcBatchSize, (ps, merge) -> {
+            ps.setLong(1, merge.getValue());
+            ps.setLong(2, merge.getKey());
+        });
+    }
+}
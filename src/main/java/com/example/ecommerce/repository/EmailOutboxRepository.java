@@ -0,0 +1,41 @@
+package com.example.ecommerce.repository;
+
+import com.example.ecommerce.model.EmailOutboxMessage;
+import com.example.ecommerce.model.EmailOutboxMessage.OutboxStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutboxMessage, Long>, EmailOutboxBulkOperations {
+    
+    @Query("select m from EmailOutboxMessage m where m.status = :status and m.nextAttemptAt <= :now order by m.id")
+    List<EmailOutboxMessage> findDue(@Param("status") OutboxStatus status,
+                                     @Param("now") LocalDateTime now,
+                                     Pageable pageable);
+    
+    List<EmailOutboxMessage> findByStatusOrderByIdAsc(OutboxStatus status);
+    
+    List<EmailOutboxMessage> findByStatusAndDigestKeyInOrderByIdAsc(OutboxStatus status, Collection<String> digestKeys);
+    
+    long countByStatus(OutboxStatus status);
+    
+    @Transactional
+    @Modifying
+    @Query("update EmailOutboxMessage m set m.status = 'SENT', m.sentAt = :sentAt, m.attempts = m.attempts + 1, "
+            + "m.lastError = null where m.id in :ids and m.status = 'PENDING'")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("sentAt") LocalDateTime sentAt);
+    
+    @Transactional
+    @Modifying
+    @Query("delete from EmailOutboxMessage m where m.status = 'SENT' and m.sentAt < :before")
+    int deleteSentBefore(@Param("before") LocalDateTime before);
+}
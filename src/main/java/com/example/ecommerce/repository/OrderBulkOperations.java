@@ -0,0 +1,26 @@
+package com.example.ecommerce.repository;
+
+import com.example.ecommerce.export.OrderExportRow;
+import com.example.ecommerce.model.Order.OrderStatus;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * JDBC-level bulk reads and status updates of orders, mixed into {@link OrderRepository}
+ */
+public interface OrderBulkOperations {
+    
+    /**
+     * Streams the orders with the given status (all orders if null) in id order through a forward-only cursor,
+     * reusing one row holder for every row.
+     */
+    void forEachByStatus(OrderStatus status, int fetchSize, Consumer<OrderExportRow> consumer);
+    
+    /**
+     * Sets the status of each order that does not have it yet, with one conditional update per id sent as a
+     * single batch. Returns the ids this caller changed; an order changed elsewhere in the meantime is left out.
+     */
+    Set<Long> batchUpdateStatusIfChanged(Collection<Long> orderIds, OrderStatus status);
+}
@@ -0,0 +1,66 @@
+package com.example.ecommerce.repository;
+
+import com.example.ecommerce.export.OrderExportRow;
+import com.example.ecommerce.model.Order.OrderStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * JdbcTemplate implementation of {@link OrderBulkOperations}.
+ */
+public class OrderBulkOperationsImpl implements OrderBulkOperations {
+    
+    private static final String SELECT_SQL = "select id, order_number, user_id, total_amount, status, created_at, "
+            + "completed_at, shipping_address from orders";
+    
+    private static final String UPDATE_STATUS_IF_CHANGED_SQL = "update orders set status = ? where id = ? and status <> ?";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Override
+    public void forEachByStatus(OrderStatus status, int fetchSize, Consumer<OrderExportRow> consumer) {
+        JdbcTemplate cursor = new JdbcTemplate(jdbcTemplate.getDataSource());
+        cursor.setFetchSize(fetchSize);
+        OrderExportRow row = new OrderExportRow();
+        String sql = SELECT_SQL + (status == null ? "" : " where status = ?") + " order by id";
+        Object[] parameters = status == null ? new Object[0] : new Object[] {status.name()};
+        cursor.query(sql, rs -> {
+            Timestamp createdAt = rs.getTimestamp(6);
+            Timestamp completedAt = rs.getTimestamp(7);
+            row.set(rs.getLong(1), rs.getString(2), rs.getLong(3), rs.getBigDecimal(4), rs.getString(5),
+                    createdAt == null ? null : createdAt.toLocalDateTime(),
+                    completedAt == null ? null : completedAt.toLocalDateTime(), rs.getString(8));
+            consumer.accept(row);
+        }, parameters);
+    }
+    
+    @Override
+    public Set<Long> batchUpdateStatusIfChanged(Collection<Long> orderIds, OrderStatus status) {
+        List<Long> ids = new ArrayList<>(orderIds);
+        Set<Long> changed = new LinkedHashSet<>();
+        if (ids.isEmpty()) {
+            return changed;
+        }
+        int[][] counts = jdbcTemplate.batchUpdate(UPDATE_STATUS_IF_CHANGED_SQL, ids, ids.size(), (ps, id) -> {
+            ps.setString(1, status.name());
+            ps.setLong(2, id);
+            ps.setString(3, status.name());
+        });
+        // Only a reported row count proves the change; a driver answering SUCCESS_NO_INFO changes nothing
+        for (int i = 0; i < ids.size(); i++) {
+            if (counts[0][i] > 0) {
+                changed.add(ids.get(i));
+            }
+        }
+        return changed;
+    }
+}
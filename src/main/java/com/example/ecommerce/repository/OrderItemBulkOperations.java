@@ -0,0 +1,16 @@
+package com.example.ecommerce.repository;
+
+import com.example.ecommerce.model.OrderItem;
+
+import java.util.List;
+
+/**
+ * JDBC-level bulk operations on order items, mixed into {@link OrderItemRepository}
+ */
+public interface OrderItemBulkOperations {
+    
+    /**
+     * Inserts the items in one JDBC batch and returns the number of rows written.
+     */
+    int batchInsert(List<OrderItem> items);
+}
@@ -0,0 +1,40 @@
+package com.example.ecommerce.repository;
+
+import com.example.ecommerce.model.OrderItem;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+/**
+ * JdbcTemplate implementation of {@link OrderItemBulkOperations}.
+ * Order items have IDENTITY keys, which disables Hibernate insert batching, so they are inserted through JDBC.
+ */
+public class OrderItemBulkOperationsImpl implements OrderItemBulkOperations {
+    
+    private static final String INSERT_SQL = "insert into order_items "
+            + "(order_id, product_id, product_name, unit_price, quantity, subtotal) values (?, ?, ?, ?, ?, ?)";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Override
+    public int batchInsert(List<OrderItem> items) {
+        if (items.isEmpty()) {
+            return 0;
+        }
+        int[][] counts = jdbcTemplate.batchUpdate(INSERT_SQL, items, items.size(), (ps, item) -> {
+            ps.setLong(1, item.getOrderId());
+            ps.setLong(2, item.getProductId());
+            ps.setString(3, item.getProductName());
+            ps.setBigDecimal(4, item.getUnitPrice());
+            ps.setInt(5, item.getQuantity());
+            ps.setBigDecimal(6, item.getSubtotal());
+        });
+        int inserted = 0;
+        for (int count : counts[0]) {
+            inserted += count < 0 ? 1 : count;
+        }
+        return inserted;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.ecommerce.repository;
+
+import com.example.ecommerce.model.OrderItem;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OrderItemRepository extends JpaRepository<OrderItem, Long>, OrderItemBulkOperations {
+    
+    List<OrderItem> findByOrderId(Long orderId);
+    
+    @Query("select i.productId as productId, sum(i.quantity) as quantity from OrderItem i "
+            + "where i.orderId in :orderIds group by i.productId")
+    List<ProductQuantity> sumQuantityByProductForOrders(@Param("orderIds") Collection<Long> orderIds);
+    
+    interface ProductQuantity {
+        
+        Long getProductId();
+        
+        Long getQuantity();
+    }
+}
@@ -3,13 +3,16 @@ package com.example.ecommerce.repository;
 import com.example.ecommerce.model.Order;
 import com.example.ecommerce.model.Order.OrderStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>, OrderBulkOperations {
     
     Optional<Order> findByOrderNumber(String orderNumber);
     
@@ -18,4 +21,8 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findByStatus(OrderStatus status);
     
     List<Order> findByUserIdAndStatus(Long userId, OrderStatus status);
+    
+    @Modifying
+    @Query("update Order o set o.status = :status where o.id = :id and o.status <> :status")
+    int updateStatusIfChanged(@Param("id") Long id, @Param("status") OrderStatus status);
 }
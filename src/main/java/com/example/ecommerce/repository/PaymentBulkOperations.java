@@ -0,0 +1,38 @@
+package com.example.ecommerce.repository;
+
+import com.example.ecommerce.model.Payment;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * JDBC-level bulk operations on payments, mixed into {@link PaymentRepository}
+ */
+public interface PaymentBulkOperations {
+    
+    /**
+     * Claims PENDING payments by moving them to PROCESSING, with one conditional update per id sent as a
+     * single batch, stamping claimed_at. Returns the ids this caller claimed; a payment claimed elsewhere is
+     * left out.
+     */
+    Set<Long> claimPending(Collection<Long> paymentIds);
+    
+    /**
+     * Returns claimed payments that are still PROCESSING to PENDING, after a failure that left no result to write.
+     */
+    int releaseClaims(Collection<Long> paymentIds);
+    
+    /**
+     * Returns payments claimed before {@code claimedBefore} and still PROCESSING to PENDING; their claimant
+     * crashed or lost its result.
+     */
+    int releaseClaimsOlderThan(LocalDateTime claimedBefore);
+    
+    /**
+     * Writes status, processed_at and gateway response for claimed payments in one batch. A payment whose
+     * status is still PENDING releases its claim.
+     */
+    void batchUpdateClaimed(List<Payment> payments);
+}
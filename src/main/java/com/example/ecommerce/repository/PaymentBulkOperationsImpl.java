@@ -0,0 +1,93 @@
+package com.example.ecommerce.repository;
+
+import com.example.ecommerce.model.Payment;
+import com.example.ecommerce.model.Payment.PaymentStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * JdbcTemplate implementation of {@link PaymentBulkOperations}.
+ */
+public class PaymentBulkOperationsImpl implements PaymentBulkOperations {
+    
+    private static final String CLAIM_SQL = "update payments set status = '" + PaymentStatus.PROCESSING
+            + "', claimed_at = ? where id = ? and status = '" + PaymentStatus.PENDING + "'";
+    
+    private static final String RELEASE_SQL = "update payments set status = '" + PaymentStatus.PENDING
+            + "' where id = ? and status = '" + PaymentStatus.PROCESSING + "'";
+    
+    private static final String RELEASE_OLDER_THAN_SQL = "update payments set status = '" + PaymentStatus.PENDING
+            + "' where status = '" + PaymentStatus.PROCESSING + "' and claimed_at < ?";
+    
+    private static final String UPDATE_CLAIMED_SQL = "update payments set status = ?, processed_at = ?, "
+            + "payment_gateway_response = ? where id = ? and status = '" + PaymentStatus.PROCESSING + "'";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Override
+    public Set<Long> claimPending(Collection<Long> paymentIds) {
+        List<Long> ids = new ArrayList<>(paymentIds);
+        Set<Long> claimed = new LinkedHashSet<>();
+        if (ids.isEmpty()) {
+            return claimed;
+        }
+        Timestamp claimedAt = Timestamp.valueOf(LocalDateTime.now());
+        int[][] counts = jdbcTemplate.batchUpdate(CLAIM_SQL, ids, ids.size(), (ps, id) -> {
+            ps.setTimestamp(1, claimedAt);
+            ps.setLong(2, id);
+        });
+        // Only a reported row count proves the claim; a driver answering SUCCESS_NO_INFO claims nothing
+        for (int i = 0; i < ids.size(); i++) {
+            if (counts[0][i] > 0) {
+                claimed.add(ids.get(i));
+            }
+        }
+        return claimed;
+    }
+    
+    @Override
+    public int releaseClaims(Collection<Long> paymentIds) {
+        List<Long> ids = new ArrayList<>(paymentIds);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        int[][] counts = jdbcTemplate.batchUpdate(RELEASE_SQL, ids, ids.size(), (ps, id) -> ps.setLong(1, id));
+        int released = 0;
+        for (int count : counts[0]) {
+            released += Math.max(count, 0);
+        }
+        return released;
+    }
+    
+    @Override
+    public int releaseClaimsOlderThan(LocalDateTime claimedBefore) {
+        return jdbcTemplate.update(RELEASE_OLDER_THAN_SQL, Timestamp.valueOf(claimedBefore));
+    }
+    
+    @Override
+    public void batchUpdateClaimed(List<Payment> payments) {
+        if (payments.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPDATE_CLAIMED_SQL, payments, payments.size(), (ps, payment) -> {
+            ps.setString(1, payment.getStatus().name());
+            if (payment.getProcessedAt() == null) {
+                ps.setNull(2, Types.TIMESTAMP);
+            } else {
+                ps.setTimestamp(2, Timestamp.valueOf(payment.getProcessedAt()));
+            }
+            ps.setString(3, payment.getPaymentGatewayResponse());
+            ps.setLong(4, payment.getId());
+        });
+    }
+}
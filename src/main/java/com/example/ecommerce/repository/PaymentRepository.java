@@ -2,18 +2,41 @@ package com.example.ecommerce.repository;
 
 import com.example.ecommerce.model.Payment;
 import com.example.ecommerce.model.Payment.PaymentStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface PaymentRepository extends JpaRepository<Payment, Long> {
+public interface PaymentRepository extends JpaRepository<Payment, Long>, PaymentBulkOperations {
     
     Optional<Payment> findByTransactionId(String transactionId);
     
     List<Payment> findByOrderId(Long orderId);
     
+    List<Payment> findByOrderIdIn(Collection<Long> orderIds);
+    
     List<Payment> findByStatus(PaymentStatus status);
+    
+    List<Payment> findByStatusAndIdGreaterThanOrderByIdAsc(PaymentStatus status, Long id, Pageable pageable);
+    
+    @Query("select p from Payment p where p.createdAt >= :from and p.createdAt < :to "
+            + "and p.transactionId > :after order by p.transactionId")
+    List<Payment> findCreatedBetweenAfterTransactionId(@Param("from") LocalDateTime from,
+                                                       @Param("to") LocalDateTime to,
+                                                       @Param("after") String afterTransactionId,
+                                                       Pageable pageable);
+    
+    @Modifying
+    @Query("update Payment p set p.status = :newStatus where p.id in :ids and p.status = :expectedStatus")
+    int updateStatusByIdIn(@Param("ids") Collection<Long> ids,
+                           @Param("expectedStatus") PaymentStatus expectedStatus,
+                           @Param("newStatus") PaymentStatus newStatus);
 }
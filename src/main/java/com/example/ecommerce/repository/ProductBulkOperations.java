@@ -0,0 +1,17 @@
+package com.example.ecommerce.repository;
+
+import com.example.ecommerce.export.ProductExportRow;
+
+import java.util.function.Consumer;
+
+/**
+ * JDBC-level bulk reads of the catalog, mixed into {@link ProductRepository}
+ */
+public interface ProductBulkOperations {
+    
+    /**
+     * Streams the products in the given category (the whole catalog if null) in id order through a
+     * forward-only cursor, reusing one row holder for every row.
+     */
+    void forEachInCategory(String category, int fetchSize, Consumer<ProductExportRow> consumer);
+}
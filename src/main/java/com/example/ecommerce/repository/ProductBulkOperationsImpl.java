@@ -0,0 +1,36 @@
+package com.example.ecommerce.repository;
+
+import com.example.ecommerce.export.ProductExportRow;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.function.Consumer;
+
+/**
+ * JdbcTemplate implementation of {@link ProductBulkOperations}.
+ */
+public class ProductBulkOperationsImpl implements ProductBulkOperations {
+    
+    private static final String SELECT_SQL = "select id, sku, name, description, price, stock_quantity, category, "
+            + "active, updated_at from products";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Override
+    public void forEachInCategory(String category, int fetchSize, Consumer<ProductExportRow> consumer) {
+        JdbcTemplate cursor = new JdbcTemplate(jdbcTemplate.getDataSource());
+        cursor.setFetchSize(fetchSize);
+        ProductExportRow row = new ProductExportRow();
+        String sql = SELECT_SQL + (category == null ? "" : " where category = ?") + " order by id";
+        Object[] parameters = category == null ? new Object[0] : new Object[] {category};
+        cursor.query(sql, rs -> {
+            Timestamp updatedAt = rs.getTimestamp(9);
+            row.set(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4), rs.getBigDecimal(5),
+                    rs.getInt(6), rs.getString(7), rs.getBoolean(8),
+                    updatedAt == null ? null : updatedAt.toLocalDateTime());
+            consumer.accept(row);
+        }, parameters);
+    }
+}
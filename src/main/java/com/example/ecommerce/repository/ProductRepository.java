@@ -2,12 +2,17 @@ package com.example.ecommerce.repository;
 
 import com.example.ecommerce.model.Product;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductBulkOperations {
     
     List<Product> findByCategory(String category);
     
@@ -16,4 +21,10 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     List<Product> findByStockQuantityGreaterThan(Integer quantity);
     
     List<Product> findByNameContaining(String name);
+    
+    List<Product> findBySkuIn(Collection<String> skus);
+    
+    @Modifying(clearAutomatically = true)
+    @Query("update Product p set p.stockQuantity = p.stockQuantity + :quantity, p.updatedAt = :updatedAt where p.id = :id")
+    int increaseStock(@Param("id") Long id, @Param("quantity") int quantity, @Param("updatedAt") LocalDateTime updatedAt);
 }
@@ -0,0 +1,36 @@
+package com.example.ecommerce.repository;
+
+import com.example.ecommerce.export.UserExportRow;
+import com.example.ecommerce.export.UserSegment;
+import com.example.ecommerce.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * JDBC-level bulk operations on users, mixed into {@link UserRepository}
+ */
+public interface UserBulkOperations {
+    
+    /**
+     * Streams every stored email through a forward-only cursor without materialising entities.
+     */
+    void forEachEmail(Consumer<String> consumer);
+    
+    /**
+     * Streams the segment in id order through a forward-only cursor, reusing one row holder for every row.
+     */
+    void forEachInSegment(UserSegment segment, int fetchSize, Consumer<UserExportRow> consumer);
+    
+    /**
+     * Inserts the users in JDBC batches and returns the number of rows written.
+     */
+    int batchInsert(List<User> users);
+    
+    /**
+     * Sets last_login_at for each user with a single batched UPDATE statement.
+     */
+    void batchUpdateLastLogin(Map<Long, LocalDateTime> lastLoginByUserId);
+}
@@ -0,0 +1,98 @@
+package com.example.ecommerce.repository;
+
+import com.example.ecommerce.export.UserExportRow;
+import com.example.ecommerce.export.UserSegment;
+import com.example.ecommerce.model.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * JdbcTemplate implementation of {@link UserBulkOperations}.
+ * Users have IDENTITY keys, which disables Hibernate insert batching, so bulk inserts go through JDBC.
+ */
+public class UserBulkOperationsImpl implements UserBulkOperations {
+    
+    private static final String INSERT_SQL = "insert into users "
+            + "(first_name, last_name, email, password, phone, address, city, zip_code, created_at, active) "
+            + "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    private static final String SEGMENT_SQL = "select id, first_name, last_name, email, phone, city, zip_code, "
+            + "created_at, last_login_at, active from users";
+    
+    private static final String UPDATE_LAST_LOGIN_SQL = "update users set last_login_at = ? where id = ?";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Value("${ecommerce.user-import.jdbc-batch-size:500}")
+    private int jdbcBatchSize;
+    
+    @Value("${ecommerce.user-import.fetch-size:5000}")
+    private int fetchSize;
+    
+    @Override
+    public void forEachEmail(Consumer<String> consumer) {
+        JdbcTemplate cursor = new JdbcTemplate(jdbcTemplate.getDataSource());
+        cursor.setFetchSize(fetchSize);
+        cursor.query("select email from users", rs -> {
+            consumer.accept(rs.getString(1));
+        });
+    }
+    
+    @Override
+    public void forEachInSegment(UserSegment segment, int fetchSize, Consumer<UserExportRow> consumer) {
+        String sql = SEGMENT_SQL + (segment.getWhereClause() == null ? "" : " where " + segment.getWhereClause())
+                + " order by id";
+        JdbcTemplate cursor = new JdbcTemplate(jdbcTemplate.getDataSource());
+        cursor.setFetchSize(fetchSize);
+        UserExportRow row = new UserExportRow();
+        cursor.query(sql, rs -> {
+            Timestamp createdAt = rs.getTimestamp(8);
+            Timestamp lastLoginAt = rs.getTimestamp(9);
+            row.set(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4), rs.getString(5),
+                    rs.getString(6), rs.getString(7), createdAt == null ? null : createdAt.toLocalDateTime(),
+                    lastLoginAt == null ? null : lastLoginAt.toLocalDateTime(), rs.getBoolean(10));
+            consumer.accept(row);
+        }, segment.getParameters());
+    }
+    
+    @Override
+    public int batchInsert(List<User> users) {
+        int[][] counts = jdbcTemplate.batchUpdate(INSERT_SQL, users, jdbcBatchSize, (ps, user) -> {
+            ps.setString(1, user.getFirstName());
+            ps.setString(2, user.getLastName());
+            ps.setString(3, user.getEmail());
+            ps.setString(4, user.getPassword());
+            ps.setString(5, user.getPhone());
+            ps.setString(6, user.getAddress());
+            ps.setString(7, user.getCity());
+            ps.setString(8, user.getZipCode());
+            ps.setTimestamp(9, Timestamp.valueOf(user.getCreatedAt()));
+            ps.setBoolean(10, Boolean.TRUE.equals(user.getActive()));
+        });
+        int inserted = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                inserted += count < 0 ? 1 : count;
+            }
+        }
+        return inserted;
+    }
+    
+    @Override
+    public void batchUpdateLastLogin(Map<Long, LocalDateTime> lastLoginByUserId) {
+        List<Map.Entry<Long, LocalDateTime>> updates = new ArrayList<>(lastLoginByUserId.entrySet());
+        jdbcTemplate.batchUpdate(UPDATE_LAST_LOGIN_SQL, updates, jdbcBatchSize, (ps, update) -> {
+            ps.setTimestamp(1, Timestamp.valueOf(update.getValue()));
+            ps.setLong(2, update.getKey());
+        });
+    }
+}
@@ -2,19 +2,46 @@ package com.example.ecommerce.repository;
 
 import com.example.ecommerce.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserBulkOperations {
     
     Optional<User> findByEmail(String email);
     
     boolean existsByEmail(String email);
     
+    @Query("select u.email from User u where u.email in :emails")
+    List<String> findEmailsByEmailIn(@Param("emails") Collection<String> emails);
+    
+    /**
+     * The recipient's language tag for emails, without loading the user; empty when none is set.
+     */
+    @Query("select u.locale from User u where u.email = :email")
+    Optional<String> findLocaleByEmail(@Param("email") String email);
+    
     List<User> findByActive(Boolean active);
     
     List<User> findByCity(String city);
+    
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update User u set u.password = :password where u.id = :id")
+    int updatePassword(@Param("id") Long id, @Param("password") String password);
+    
+    /**
+     * Replaces the password only if it still equals {@code stored}, so a concurrent change is never overwritten.
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update User u set u.password = :password where u.id = :id and u.password = :stored")
+    int updatePasswordIfUnchanged(@Param("id") Long id, @Param("stored") String stored, @Param("password") String password);
 }
@@ -0,0 +1,126 @@
+package com.example.ecommerce.security;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Dedicated, size-limited executor for CPU-heavy password hashing.
+ * Sheds load when the queue is full, and drops tasks that waited in the queue longer than the caller would.
+ */
+@Component
+public class PasswordHashingPool {
+    
+    private final ThreadPoolExecutor executor;
+    private final long maxQueueNanos;
+    
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder queueNanosTotal = new LongAdder();
+    private final LongAdder dequeued = new LongAdder();
+    private final AtomicLong queueNanosMax = new AtomicLong();
+    
+    @Autowired
+    public PasswordHashingPool(@Value("${ecommerce.auth.hashing.threads:2}") int threads,
+                               @Value("${ecommerce.auth.hashing.queue-capacity:64}") int queueCapacity,
+                               @Value("${ecommerce.auth.hashing.max-queue-ms:500}") long maxQueueMillis) {
+        if (threads < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("Hashing pool needs at least one thread and one queue slot");
+        }
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("password-hashing-");
+        threadFactory.setDaemon(true);
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+        this.maxQueueNanos = TimeUnit.MILLISECONDS.toNanos(maxQueueMillis);
+    }
+    
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        long enqueuedAt = System.nanoTime();
+        try {
+            executor.execute(() -> run(task, enqueuedAt, result));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            result.completeExceptionally(new PasswordHashingRejectedException(
+                    PasswordHashingRejectedException.Reason.QUEUE_FULL, "Password hashing queue is full"));
+        }
+        return result;
+    }
+    
+    /**
+     * Waits for a pool result, rethrowing the task's own exception rather than the CompletionException wrapper.
+     */
+    public static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+    
+    private <T> void run(Supplier<T> task, long enqueuedAt, CompletableFuture<T> result) {
+        long waited = System.nanoTime() - enqueuedAt;
+        dequeued.increment();
+        queueNanosTotal.add(waited);
+        queueNanosMax.accumulateAndGet(waited, Math::max);
+        if (waited > maxQueueNanos) {
+            expired.increment();
+            result.completeExceptionally(new PasswordHashingRejectedException(
+                    PasswordHashingRejectedException.Reason.QUEUE_TIMEOUT,
+                    "Password hashing task waited " + TimeUnit.NANOSECONDS.toMillis(waited) + "ms in queue"));
+            return;
+        }
+        try {
+            result.complete(task.get());
+            completed.increment();
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+        }
+    }
+    
+    public long getCompletedCount() {
+        return completed.sum();
+    }
+    
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+    
+    public long getExpiredCount() {
+        return expired.sum();
+    }
+    
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+    
+    public double getAverageQueueMillis() {
+        long count = dequeued.sum();
+        return count == 0 ? 0 : queueNanosTotal.sum() / 1_000_000.0 / count;
+    }
+    
+    public double getMaxQueueMillis() {
+        return queueNanosMax.get() / 1_000_000.0;
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.ecommerce.security;
+
+/**
+ * Raised when the password hashing pool sheds a task instead of running it
+ */
+public class PasswordHashingRejectedException extends RuntimeException {
+    
+    public enum Reason {
+        QUEUE_FULL,
+        QUEUE_TIMEOUT
+    }
+    
+    private final Reason reason;
+    
+    public PasswordHashingRejectedException(Reason reason, String message) {
+        super(message);
+        this.reason = reason;
+    }
+    
+    public Reason getReason() {
+        return reason;
+    }
+}
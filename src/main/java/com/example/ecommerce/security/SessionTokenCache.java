@@ -0,0 +1,106 @@
+package com.example.ecommerce.security;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Short-lived cache of session tokens issued after a successful password check,
+ * so repeat requests can be authenticated without hashing
+ */
+@Component
+public class SessionTokenCache {
+    
+    private final SecureRandom random = new SecureRandom();
+    private final ConcurrentMap<String, Session> sessions = new ConcurrentHashMap<>();
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final LongSupplier clock;
+    
+    @Autowired
+    public SessionTokenCache(@Value("${ecommerce.auth.token-ttl-seconds:900}") long ttlSeconds,
+                             @Value("${ecommerce.auth.token-cache-max-entries:100000}") int maxEntries) {
+        this(ttlSeconds * 1000, maxEntries, System::currentTimeMillis);
+    }
+    
+    SessionTokenCache(long ttlMillis, int maxEntries, LongSupplier clock) {
+        if (ttlMillis <= 0 || maxEntries < 1) {
+            throw new IllegalArgumentException("Token TTL and cache size must be positive");
+        }
+        this.ttlMillis = ttlMillis;
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+    }
+    
+    public String issue(Long userId) {
+        if (sessions.size() >= maxEntries) {
+            evictExpired();
+            // Still full: drop arbitrary sessions, whose users fall back to a password check
+            Iterator<String> victims = sessions.keySet().iterator();
+            while (sessions.size() >= maxEntries && victims.hasNext()) {
+                victims.next();
+                victims.remove();
+            }
+        }
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        sessions.put(token, new Session(userId, clock.getAsLong() + ttlMillis));
+        return token;
+    }
+    
+    public Optional<Long> resolve(String token) {
+        if (token == null) {
+            return Optional.empty();
+        }
+        Session session = sessions.get(token);
+        if (session == null) {
+            return Optional.empty();
+        }
+        if (session.expiresAt <= clock.getAsLong()) {
+            sessions.remove(token, session);
+            return Optional.empty();
+        }
+        return Optional.of(session.userId);
+    }
+    
+    public void invalidate(String token) {
+        sessions.remove(token);
+    }
+    
+    public void invalidateUser(Long userId) {
+        sessions.values().removeIf(session -> session.userId.equals(userId));
+    }
+    
+    @Scheduled(fixedDelayString = "${ecommerce.auth.token-eviction-interval-ms:60000}")
+    public int evictExpired() {
+        long now = clock.getAsLong();
+        int before = sessions.size();
+        sessions.values().removeIf(session -> session.expiresAt <= now);
+        return before - sessions.size();
+    }
+    
+    public int size() {
+        return sessions.size();
+    }
+    
+    private static final class Session {
+        
+        private final Long userId;
+        private final long expiresAt;
+        
+        private Session(Long userId, long expiresAt) {
+            this.userId = userId;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
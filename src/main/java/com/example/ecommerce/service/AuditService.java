@@ -1,61 +1,125 @@
 package com.example.ecommerce.service;
 
+import com.example.ecommerce.audit.AuditEvent;
+import com.example.ecommerce.audit.AuditEventType;
+import com.example.ecommerce.audit.AuditPipeline;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
-import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
 
 /**
- * Audit Service - Logs all important system activities
+ * Audit Service - Logs all important system activities.
+ * Events are captured into preallocated AuditPipeline slots on the caller's thread and formatted
+ * by the pipeline's consumer.
+ * Collections passed in are referenced, not copied, and must not be modified afterwards.
  */
 @Service
 public class AuditService {
     
-    private static final Logger logger = LoggerFactory.getLogger(AuditService.class);
+    @Autowired
+    private AuditPipeline auditPipeline;
     
     public void logUserCreated(Long userId, String email) {
-        logger.info("[AUDIT] User created: ID={}, Email={}, Time={}", 
-                   userId, email, LocalDateTime.now());
+        AuditEvent event = begin(AuditEventType.USER_CREATED);
+        if (event != null) {
+            commit(event.entityId(userId).text(email));
+        }
     }
     
     public void logUserUpdated(Long userId, String email) {
-        logger.info("[AUDIT] User updated: ID={}, Email={}, Time={}", 
-                   userId, email, LocalDateTime.now());
+        AuditEvent event = begin(AuditEventType.USER_UPDATED);
+        if (event != null) {
+            commit(event.entityId(userId).text(email));
+        }
+    }
+    
+    public void logUserBatchImported(Collection<String> emails) {
+        AuditEvent event = begin(AuditEventType.USER_BATCH_IMPORTED);
+        if (event != null) {
+            commit(event.payload(emails));
+        }
     }
     
     public void logProductCreated(Long productId, String productName) {
-        logger.info("[AUDIT] Product created: ID={}, Name={}, Time={}", 
-                   productId, productName, LocalDateTime.now());
+        AuditEvent event = begin(AuditEventType.PRODUCT_CREATED);
+        if (event != null) {
+            commit(event.entityId(productId).text(productName));
+        }
     }
     
     public void logProductUpdated(Long productId, String productName) {
-        logger.info("[AUDIT] Product updated: ID={}, Name={}, Time={}", 
-                   productId, productName, LocalDateTime.now());
+        AuditEvent event = begin(AuditEventType.PRODUCT_UPDATED);
+        if (event != null) {
+            commit(event.entityId(productId).text(productName));
+        }
     }
     
     public void logStockUpdated(Long productId, int oldStock, int newStock) {
-        logger.info("[AUDIT] Stock updated: ProductID={}, OldStock={}, NewStock={}, Time={}", 
-                   productId, oldStock, newStock, LocalDateTime.now());
+        AuditEvent event = begin(AuditEventType.STOCK_UPDATED);
+        if (event != null) {
+            commit(event.entityId(productId).quantities(oldStock, newStock));
+        }
     }
     
     public void logOrderCreated(Long orderId, String orderNumber, Long userId) {
-        logger.info("[AUDIT] Order created: ID={}, OrderNumber={}, UserID={}, Time={}", 
-                   orderId, orderNumber, userId, LocalDateTime.now());
+        AuditEvent event = begin(AuditEventType.ORDER_CREATED);
+        if (event != null) {
+            commit(event.entityId(orderId).text(orderNumber).relatedId(userId));
+        }
     }
     
     public void logOrderStatusChanged(Long orderId, String oldStatus, String newStatus) {
-        logger.info("[AUDIT] Order status changed: ID={}, From={}, To={}, Time={}", 
-                   orderId, oldStatus, newStatus, LocalDateTime.now());
+        AuditEvent event = begin(AuditEventType.ORDER_STATUS_CHANGED);
+        if (event != null) {
+            commit(event.entityId(orderId).text(oldStatus, newStatus));
+        }
+    }
+    
+    public void logOrderBatchStatusChanged(Collection<Long> orderIds, String newStatus) {
+        AuditEvent event = begin(AuditEventType.ORDER_BATCH_STATUS_CHANGED);
+        if (event != null) {
+            commit(event.payload(orderIds).text(newStatus));
+        }
     }
     
     public void logPaymentProcessed(Long paymentId, String transactionId, String status) {
-        logger.info("[AUDIT] Payment processed: ID={}, TransactionID={}, Status={}, Time={}", 
-                   paymentId, transactionId, status, LocalDateTime.now());
+        AuditEvent event = begin(AuditEventType.PAYMENT_PROCESSED);
+        if (event != null) {
+            commit(event.entityId(paymentId).text(transactionId, status));
+        }
+    }
+    
+    public void logPaymentBatchProcessed(Map<String, String> statusByTransactionId) {
+        AuditEvent event = begin(AuditEventType.PAYMENT_BATCH_PROCESSED);
+        if (event != null) {
+            commit(event.payload(statusByTransactionId));
+        }
     }
     
     public void logPaymentRefunded(Long paymentId, String transactionId) {
-        logger.info("[AUDIT] Payment refunded: ID={}, TransactionID={}, Time={}", 
-                   paymentId, transactionId, LocalDateTime.now());
+        AuditEvent event = begin(AuditEventType.PAYMENT_REFUNDED);
+        if (event != null) {
+            commit(event.entityId(paymentId).text(transactionId));
+        }
+    }
+    
+    public void logPaymentBatchRefunded(Collection<String> transactionIds) {
+        AuditEvent event = begin(AuditEventType.PAYMENT_BATCH_REFUNDED);
+        if (event != null) {
+            commit(event.payload(transactionIds));
+        }
+    }
+    
+    /**
+     * Returns the slot to fill, or null when the pipeline's backpressure policy dropped the event.
+     */
+    private AuditEvent begin(AuditEventType type) {
+        return auditPipeline.begin(type);
+    }
+    
+    private void commit(AuditEvent event) {
+        auditPipeline.commit(event);
     }
 }
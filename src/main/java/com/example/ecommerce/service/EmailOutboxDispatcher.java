@@ -0,0 +1,227 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.email.DeliveryResult;
+import com.example.ecommerce.email.MailTransport;
+import com.example.ecommerce.email.OutgoingEmail;
+import com.example.ecommerce.model.EmailOutboxMessage;
+import com.example.ecommerce.model.EmailOutboxMessage.OutboxStatus;
+import com.example.ecommerce.repository.EmailOutboxRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Drains the email outbox: due messages are read in batches, split across parallel SMTP connections,
+ * and their outcome is written back with one bulk update per batch.
+ * Failed deliveries are retried with exponential backoff; permanent rejections and messages that run out of
+ * attempts are dead-lettered. Delivery is at-least-once, and the outbox id doubles as the Message-ID.
+ */
+@Component
+public class EmailOutboxDispatcher {
+    
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxDispatcher.class);
+    
+    private static final int MAX_ERROR_LENGTH = 500;
+    
+    private final EmailOutboxRepository outboxRepository;
+    private final MailTransport mailTransport;
+    private final NotificationDigestCoalescer digestCoalescer;
+    private final ExecutorService connections;
+    private final int batchSize;
+    private final int connectionCount;
+    private final int maxAttempts;
+    private final long retryBaseMillis;
+    private final long retryMaxMillis;
+    private final long sentRetentionHours;
+    
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder deadLettered = new LongAdder();
+    
+    @Autowired
+    public EmailOutboxDispatcher(EmailOutboxRepository outboxRepository, MailTransport mailTransport,
+                                 NotificationDigestCoalescer digestCoalescer,
+                                 @Value("${ecommerce.email.dispatch.batch-size:200}") int batchSize,
+                                 @Value("${ecommerce.email.dispatch.connections:4}") int connectionCount,
+                                 @Value("${ecommerce.email.dispatch.max-attempts:8}") int maxAttempts,
+                                 @Value("${ecommerce.email.dispatch.retry-base-ms:2000}") long retryBaseMillis,
+                                 @Value("${ecommerce.email.dispatch.retry-max-ms:3600000}") long retryMaxMillis,
+                                 @Value("${ecommerce.email.outbox.sent-retention-hours:24}") long sentRetentionHours) {
+        if (batchSize < 1 || connectionCount < 1 || maxAttempts < 1) {
+            throw new IllegalArgumentException("Batch size, connections and max attempts must be positive");
+        }
+        this.outboxRepository = outboxRepository;
+        this.mailTransport = mailTransport;
+        this.digestCoalescer = digestCoalescer;
+        this.batchSize = batchSize;
+        this.connectionCount = connectionCount;
+        this.maxAttempts = maxAttempts;
+        this.retryBaseMillis = retryBaseMillis;
+        this.retryMaxMillis = retryMaxMillis;
+        this.sentRetentionHours = sentRetentionHours;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("email-dispatch-");
+        threadFactory.setDaemon(true);
+        this.connections = Executors.newFixedThreadPool(connectionCount, threadFactory);
+    }
+    
+    /**
+     * Keeps dispatching while full batches come back, so a backlog drains within one run.
+     */
+    @Scheduled(fixedDelayString = "${ecommerce.email.dispatch.interval-ms:1000}")
+    public void dispatch() {
+        try {
+            while (dispatchDue(LocalDateTime.now()) == batchSize) {
+                // more may be due
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Email outbox dispatch failed, will retry", e);
+        }
+    }
+    
+    /**
+     * Delivers one batch of messages due at {@code now}, after digest coalescing, and returns how many were fetched.
+     */
+    public int dispatchDue(LocalDateTime now) {
+        List<EmailOutboxMessage> fetched = outboxRepository.findDue(OutboxStatus.PENDING, now, PageRequest.of(0, batchSize));
+        if (fetched.isEmpty()) {
+            return 0;
+        }
+        List<EmailOutboxMessage> due = digestCoalescer.coalesce(fetched);
+        
+        List<List<EmailOutboxMessage>> parts = partition(due);
+        List<CompletableFuture<List<DeliveryResult>>> deliveries = new ArrayList<>(parts.size());
+        for (List<EmailOutboxMessage> part : parts) {
+            deliveries.add(CompletableFuture.supplyAsync(() -> deliver(part), connections));
+        }
+        
+        List<Long> sentIds = new ArrayList<>();
+        List<EmailOutboxMessage> failed = new ArrayList<>();
+        for (int p = 0; p < parts.size(); p++) {
+            List<EmailOutboxMessage> part = parts.get(p);
+            List<DeliveryResult> results = deliveries.get(p).join();
+            for (int i = 0; i < part.size(); i++) {
+                EmailOutboxMessage message = part.get(i);
+                DeliveryResult result = results.get(i);
+                if (result.getStatus() == DeliveryResult.Status.SENT) {
+                    sentIds.add(message.getId());
+                } else {
+                    recordFailure(message, result, now);
+                    failed.add(message);
+                }
+            }
+        }
+        
+        if (!sentIds.isEmpty()) {
+            outboxRepository.markSent(sentIds, now);
+            sent.add(sentIds.size());
+        }
+        if (!failed.isEmpty()) {
+            outboxRepository.batchUpdateDeliveryState(failed);
+        }
+        logger.debug("Dispatched {} emails: {} sent, {} failed", due.size(), sentIds.size(), failed.size());
+        return fetched.size();
+    }
+    
+    @Scheduled(fixedDelayString = "${ecommerce.email.outbox.purge-interval-ms:3600000}")
+    public int purgeSent() {
+        int purged = outboxRepository.deleteSentBefore(LocalDateTime.now().minusHours(sentRetentionHours));
+        if (purged > 0) {
+            logger.info("Purged {} sent emails from the outbox", purged);
+        }
+        return purged;
+    }
+    
+    public long getSentCount() {
+        return sent.sum();
+    }
+    
+    public long getRetriedCount() {
+        return retried.sum();
+    }
+    
+    public long getDeadLetteredCount() {
+        return deadLettered.sum();
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        connections.shutdown();
+    }
+    
+    private List<DeliveryResult> deliver(List<EmailOutboxMessage> part) {
+        List<OutgoingEmail> batch = new ArrayList<>(part.size());
+        for (EmailOutboxMessage message : part) {
+            batch.add(new OutgoingEmail(message.getId(), message.getRecipient(), message.getSubject(), message.getBody()));
+        }
+        try {
+            List<DeliveryResult> results = mailTransport.send(batch);
+            if (results.size() == batch.size()) {
+                return results;
+            }
+            logger.warn("Mail transport returned {} results for {} messages", results.size(), batch.size());
+        } catch (RuntimeException e) {
+            logger.warn("Mail transport failed on {} messages", batch.size(), e);
+        }
+        return Collections.nCopies(batch.size(), DeliveryResult.retry("Mail transport failed"));
+    }
+    
+    private void recordFailure(EmailOutboxMessage message, DeliveryResult result, LocalDateTime now) {
+        int attempts = message.getAttempts() + 1;
+        message.setAttempts(attempts);
+        message.setLastError(truncate(result.getDetail()));
+        if (result.getStatus() == DeliveryResult.Status.REJECTED || attempts >= maxAttempts) {
+            message.setStatus(OutboxStatus.DEAD);
+            deadLettered.increment();
+            logger.warn("Email {} to {} dead-lettered after {} attempts: {}", message.getId(),
+                    message.getRecipient(), attempts, result.getDetail());
+        } else {
+            message.setNextAttemptAt(now.plus(backoffMillis(attempts), ChronoUnit.MILLIS));
+            retried.increment();
+        }
+    }
+    
+    /**
+     * Exponential backoff with up to 10% jitter so that messages failing together do not retry together.
+     */
+    long backoffMillis(int attempts) {
+        long delay = retryBaseMillis << Math.min(attempts - 1, 30);
+        if (delay <= 0 || delay > retryMaxMillis) {
+            delay = retryMaxMillis;
+        }
+        return delay + ThreadLocalRandom.current().nextLong(delay / 10 + 1);
+    }
+    
+    private List<List<EmailOutboxMessage>> partition(List<EmailOutboxMessage> due) {
+        int parts = Math.min(connectionCount, due.size());
+        int partSize = (due.size() + parts - 1) / parts;
+        List<List<EmailOutboxMessage>> partitions = new ArrayList<>(parts);
+        for (int from = 0; from < due.size(); from += partSize) {
+            partitions.add(due.subList(from, Math.min(from + partSize, due.size())));
+        }
+        return partitions;
+    }
+    
+    private static String truncate(String error) {
+        if (error == null || error.length() <= MAX_ERROR_LENGTH) {
+            return error;
+        }
+        return error.substring(0, MAX_ERROR_LENGTH);
+    }
+}
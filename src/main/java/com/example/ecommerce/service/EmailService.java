@@ -1,46 +1,151 @@
 package com.example.ecommerce.service;
 
+import com.example.ecommerce.email.EmailTemplateRegistry;
+import com.example.ecommerce.email.RenderedEmail;
+import com.example.ecommerce.model.EmailOutboxMessage;
+import com.example.ecommerce.model.EmailOutboxMessage.EmailKind;
+import com.example.ecommerce.repository.EmailOutboxRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Email Service - Handles all email notifications
+ * Messages are rendered from precompiled templates ({@link EmailTemplateRegistry}) in the recipient's locale, when
+ * the caller passes one, and written to the email
+ * outbox in the caller's transaction, so a rollback discards them too; {@link EmailOutboxDispatcher} delivers
+ * them after commit. Order notifications are held for the digest window so that
+ * {@link NotificationDigestCoalescer} can merge them per recipient and order.
  */
 @Service
 public class EmailService {
     
     private static final Logger logger = LoggerFactory.getLogger(EmailService.class);
     
+    @Autowired
+    private EmailOutboxRepository outboxRepository;
+    
+    @Autowired
+    private EmailTemplateRegistry templateRegistry;
+    
+    @Value("${ecommerce.email.admin-address:inventory@example.com}")
+    private String adminAddress;
+    
+    @Value("${ecommerce.email.digest.window-seconds:30}")
+    private long digestWindowSeconds;
+    
     public void sendWelcomeEmail(String email, String firstName) {
-        logger.info("Sending welcome email to: {} ({})", email, firstName);
-        // Simulate email sending
+        sendWelcomeEmail(email, firstName, null);
+    }
+    
+    public void sendWelcomeEmail(String email, String firstName, String locale) {
+        logger.info("Queueing welcome email to: {} ({})", email, firstName);
+        enqueue(message(EmailKind.WELCOME, email, locale, firstName));
+    }
+    
+    /**
+     * Welcome emails for a bulk import, in the default locale; imported users have none set.
+     */
+    public void sendWelcomeEmails(Map<String, String> firstNameByEmail) {
+        logger.info("Queueing {} welcome emails", firstNameByEmail.size());
+        List<EmailOutboxMessage> messages = new ArrayList<>(firstNameByEmail.size());
+        firstNameByEmail.forEach((email, firstName) -> messages.add(message(EmailKind.WELCOME, email, null, firstName)));
+        if (!messages.isEmpty()) {
+            outboxRepository.batchInsert(messages);
+        }
     }
     
     public void sendOrderConfirmation(String email, String orderNumber) {
-        logger.info("Sending order confirmation email to: {} for order: {}", email, orderNumber);
-        // Simulate email sending
+        sendOrderConfirmation(email, orderNumber, null);
+    }
+    
+    public void sendOrderConfirmation(String email, String orderNumber, String locale) {
+        logger.info("Queueing order confirmation email to: {} for order: {}", email, orderNumber);
+        enqueue(orderConfirmation(email, orderNumber, locale));
     }
     
     public void sendPaymentConfirmation(String email, String orderNumber, String transactionId) {
-        logger.info("Sending payment confirmation email to: {} for order: {} (transaction: {})", 
+        sendPaymentConfirmation(email, orderNumber, transactionId, null);
+    }
+    
+    public void sendPaymentConfirmation(String email, String orderNumber, String transactionId, String locale) {
+        logger.info("Queueing payment confirmation email to: {} for order: {} (transaction: {})",
                    email, orderNumber, transactionId);
-        // Simulate email sending
+        enqueue(paymentConfirmation(email, orderNumber, transactionId, locale));
     }
     
     public void sendOrderShipped(String email, String orderNumber, String trackingNumber) {
-        logger.info("Sending order shipped email to: {} for order: {} (tracking: {})", 
+        sendOrderShipped(email, orderNumber, trackingNumber, null);
+    }
+    
+    public void sendOrderShipped(String email, String orderNumber, String trackingNumber, String locale) {
+        logger.info("Queueing order shipped email to: {} for order: {} (tracking: {})",
                    email, orderNumber, trackingNumber);
-        // Simulate email sending
+        enqueue(orderShipped(email, orderNumber, trackingNumber, locale));
     }
     
     public void sendPasswordReset(String email, String resetToken) {
-        logger.info("Sending password reset email to: {}", email);
-        // Simulate email sending
+        sendPasswordReset(email, resetToken, null);
+    }
+    
+    public void sendPasswordReset(String email, String resetToken, String locale) {
+        logger.info("Queueing password reset email to: {}", email);
+        enqueue(message(EmailKind.PASSWORD_RESET, email, locale, resetToken));
     }
     
     public void sendLowStockAlert(String productName, int currentStock) {
         logger.warn("Low stock alert for product: {} (stock: {})", productName, currentStock);
-        // Simulate email sending to admin
+        enqueue(lowStockAlert(productName, currentStock));
+    }
+    
+    /**
+     * The rendered order confirmation, held for the digest window, without enqueueing it. The builders below
+     * are for callers that write the outbox in their own transaction, such as the R2DBC order stack.
+     */
+    public EmailOutboxMessage orderConfirmation(String email, String orderNumber, String locale) {
+        return heldForDigest(message(EmailKind.ORDER_CONFIRMATION, email, locale, orderNumber), orderNumber);
+    }
+    
+    public EmailOutboxMessage paymentConfirmation(String email, String orderNumber, String transactionId,
+                                                  String locale) {
+        return heldForDigest(message(EmailKind.PAYMENT_CONFIRMATION, email, locale, orderNumber, transactionId),
+                orderNumber);
+    }
+    
+    public EmailOutboxMessage orderShipped(String email, String orderNumber, String trackingNumber, String locale) {
+        return heldForDigest(message(EmailKind.ORDER_SHIPPED, email, locale, orderNumber, trackingNumber), orderNumber);
+    }
+    
+    public EmailOutboxMessage lowStockAlert(String productName, int currentStock) {
+        return message(EmailKind.LOW_STOCK_ALERT, adminAddress, null, productName, currentStock);
+    }
+    
+    /**
+     * Renders in the recipient's locale (a language tag, null for the default) and keeps it on the message,
+     * so a digest built from it later is rendered in the same one.
+     */
+    private EmailOutboxMessage message(EmailKind kind, String recipient, String locale, Object... args) {
+        RenderedEmail rendered = templateRegistry.render(kind, templateRegistry.localeFor(locale), args);
+        EmailOutboxMessage message = new EmailOutboxMessage(kind, recipient, rendered.getSubject(), rendered.getBody());
+        message.setLocale(locale);
+        return message;
+    }
+    
+    private EmailOutboxMessage heldForDigest(EmailOutboxMessage message, String orderNumber) {
+        if (digestWindowSeconds > 0) {
+            message.setDigestKey(orderNumber);
+            message.setNextAttemptAt(message.getCreatedAt().plusSeconds(digestWindowSeconds));
+        }
+        return message;
+    }
+    
+    private void enqueue(EmailOutboxMessage message) {
+        outboxRepository.save(message);
     }
 }
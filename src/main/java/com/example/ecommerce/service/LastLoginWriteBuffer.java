@@ -0,0 +1,69 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Coalesces last-login timestamps per user and writes them as one batched UPDATE per flush.
+ * The latest timestamp wins; entries are removed only once written, and only if no newer login arrived meanwhile.
+ */
+@Component
+public class LastLoginWriteBuffer {
+    
+    private static final Logger logger = LoggerFactory.getLogger(LastLoginWriteBuffer.class);
+    
+    private final ConcurrentMap<Long, LocalDateTime> pending = new ConcurrentHashMap<>();
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    public void record(Long userId, LocalDateTime loginAt) {
+        pending.merge(userId, loginAt, (current, next) -> next.isAfter(current) ? next : current);
+    }
+    
+    public LocalDateTime getPending(Long userId) {
+        return pending.get(userId);
+    }
+    
+    public int getPendingCount() {
+        return pending.size();
+    }
+    
+    @Scheduled(fixedDelayString = "${ecommerce.last-login.flush-interval-ms:5000}")
+    public synchronized int flush() {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        Map<Long, LocalDateTime> batch = new HashMap<>(pending);
+        try {
+            userRepository.batchUpdateLastLogin(batch);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to flush {} last-login updates, will retry", batch.size(), e);
+            return 0;
+        }
+        batch.forEach(pending::remove);
+        logger.debug("Flushed {} last-login updates", batch.size());
+        return batch.size();
+    }
+    
+    @PreDestroy
+    public void flushOnShutdown() {
+        int flushed = flush();
+        if (!pending.isEmpty()) {
+            logger.warn("{} last-login updates were not written before shutdown", pending.size());
+        } else if (flushed > 0) {
+            logger.info("Flushed {} last-login updates on shutdown", flushed);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.model.Order.OrderStatus;
+import com.example.ecommerce.repository.OrderRepository;
+import com.example.ecommerce.repository.ProductRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Listing Stream Service - Writes large listings as NDJSON (one JSON object per line) straight from a
+ * forward-only JDBC cursor inside a read-only transaction. Each row is encoded into the generator's buffer
+ * and the row holder is reused, so memory stays constant however many rows the listing has.
+ * Dependencies: OrderRepository, ProductRepository
+ */
+@Service
+public class ListingStreamService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ListingStreamService.class);
+    
+    @Autowired
+    private OrderRepository orderRepository;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Value("${ecommerce.api.stream.fetch-size:1000}")
+    private int fetchSize = 1000;
+    
+    /**
+     * Writes the orders with the given status, or all orders if null, in id order and returns the row count.
+     */
+    public long streamOrders(OrderStatus status, OutputStream out) {
+        return stream("orders", out, json -> {
+            long[] rows = new long[1];
+            orderRepository.forEachByStatus(status, fetchSize, row -> {
+                writeLine(json, () -> row.writeJson(json));
+                rows[0]++;
+            });
+            return rows[0];
+        });
+    }
+    
+    /**
+     * Writes the products in the given category, or the whole catalog if null, in id order and returns the row count.
+     */
+    public long streamProducts(String category, OutputStream out) {
+        return stream("products", out, json -> {
+            long[] rows = new long[1];
+            productRepository.forEachInCategory(category, fetchSize, row -> {
+                writeLine(json, () -> row.writeJson(json));
+                rows[0]++;
+            });
+            return rows[0];
+        });
+    }
+    
+    private long stream(String listing, OutputStream out, CursorWriter writer) {
+        long start = System.nanoTime();
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        
+        Long rows = readOnly.execute(status -> {
+            try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+                // The servlet container owns the response stream; closing the generator only flushes it
+                json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                // Lines are separated by the newline after each row, not Jackson's default space
+                json.setRootValueSeparator(null);
+                return writer.write(json);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to stream " + listing, e);
+            }
+        });
+        logger.debug("Streamed {} {} in {} ms", rows, listing, (System.nanoTime() - start) / 1_000_000);
+        return rows;
+    }
+    
+    private static void writeLine(JsonGenerator json, JsonWrite row) {
+        try {
+            row.write();
+            json.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    @FunctionalInterface
+    private interface CursorWriter {
+        long write(JsonGenerator json) throws IOException;
+    }
+    
+    @FunctionalInterface
+    private interface JsonWrite {
+        void write() throws IOException;
+    }
+}
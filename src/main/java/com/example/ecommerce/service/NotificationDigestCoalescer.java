@@ -0,0 +1,178 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.email.EmailTemplateRegistry;
+import com.example.ecommerce.email.RenderedEmail;
+import com.example.ecommerce.model.EmailOutboxMessage;
+import com.example.ecommerce.model.EmailOutboxMessage.EmailKind;
+import com.example.ecommerce.model.EmailOutboxMessage.OutboxStatus;
+import com.example.ecommerce.repository.EmailOutboxRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Folds pending outbox messages that share a recipient and digest key (the order number) into one digest.
+ * EmailService holds order notifications in the outbox for the digest window; when the first of them falls due,
+ * every pending sibling is merged into it, whether or not the sibling is due yet. Working state is limited to the
+ * dispatcher's current batch and its siblings, capped per digest.
+ */
+@Component
+public class NotificationDigestCoalescer {
+    
+    private static final String SECTION_SEPARATOR = "\n\n----\n\n";
+    private static final String SECTIONS_MARKER = "\u0000sections\u0000";
+    
+    @Autowired
+    private EmailOutboxRepository outboxRepository;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private EmailTemplateRegistry templateRegistry;
+    
+    @Value("${ecommerce.email.digest.max-messages:20}")
+    private int maxMessagesPerDigest = 20;
+    
+    private final LongAdder messagesIn = new LongAdder();
+    private final LongAdder messagesOut = new LongAdder();
+    private final LongAdder digestsBuilt = new LongAdder();
+    
+    /**
+     * Returns the batch to deliver: unrelated messages unchanged, and one carrier per digest group with the
+     * merged content. Carrier rewrites and MERGED markers are committed before the carriers are delivered.
+     */
+    public List<EmailOutboxMessage> coalesce(List<EmailOutboxMessage> due) {
+        Set<String> digestKeys = new HashSet<>();
+        for (EmailOutboxMessage message : due) {
+            if (message.getDigestKey() != null) {
+                digestKeys.add(message.getDigestKey());
+            }
+        }
+        if (digestKeys.isEmpty()) {
+            messagesIn.add(due.size());
+            messagesOut.add(due.size());
+            return due;
+        }
+        
+        Map<String, List<EmailOutboxMessage>> groups = new LinkedHashMap<>();
+        for (EmailOutboxMessage sibling : outboxRepository.findByStatusAndDigestKeyInOrderByIdAsc(OutboxStatus.PENDING, digestKeys)) {
+            groups.computeIfAbsent(groupKey(sibling), key -> new ArrayList<>()).add(sibling);
+        }
+        
+        List<EmailOutboxMessage> batch = new ArrayList<>(due.size());
+        List<EmailOutboxMessage> carriers = new ArrayList<>();
+        Map<Long, Long> carrierIdByMergedId = new LinkedHashMap<>();
+        Set<String> handled = new HashSet<>();
+        long queued = 0;
+        for (EmailOutboxMessage message : due) {
+            if (message.getDigestKey() == null) {
+                batch.add(message);
+                queued++;
+                continue;
+            }
+            String key = groupKey(message);
+            if (!handled.add(key)) {
+                // already folded into this group's carrier
+                continue;
+            }
+            List<EmailOutboxMessage> merged = new ArrayList<>();
+            for (EmailOutboxMessage sibling : groups.getOrDefault(key, Collections.emptyList())) {
+                if (!sibling.getId().equals(message.getId()) && merged.size() < maxMessagesPerDigest - 1) {
+                    merged.add(sibling);
+                }
+            }
+            batch.add(message);
+            queued += 1 + merged.size();
+            if (merged.isEmpty()) {
+                continue;
+            }
+            fold(message, merged);
+            carriers.add(message);
+            for (EmailOutboxMessage sibling : merged) {
+                carrierIdByMergedId.put(sibling.getId(), message.getId());
+            }
+        }
+        
+        if (!carriers.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> {
+                outboxRepository.batchUpdateContent(carriers);
+                outboxRepository.batchMarkMerged(carrierIdByMergedId);
+            });
+            digestsBuilt.add(carriers.size());
+        }
+        messagesIn.add(queued);
+        messagesOut.add(batch.size());
+        return batch;
+    }
+    
+    public long getMessagesIn() {
+        return messagesIn.sum();
+    }
+    
+    public long getMessagesOut() {
+        return messagesOut.sum();
+    }
+    
+    public long getDigestsBuilt() {
+        return digestsBuilt.sum();
+    }
+    
+    /**
+     * Notifications queued per message actually sent; 1.0 means nothing was merged.
+     */
+    public double getMergeRatio() {
+        long out = messagesOut.sum();
+        return out == 0 ? 1.0 : (double) messagesIn.sum() / out;
+    }
+    
+    private void fold(EmailOutboxMessage carrier, List<EmailOutboxMessage> merged) {
+        Locale locale = templateRegistry.localeFor(carrier.getLocale());
+        // A carrier that is already a digest (its delivery is being retried) only gains the new sections
+        StringBuilder sections = new StringBuilder(carrier.getKind() == EmailKind.ORDER_DIGEST
+                ? digestSections(carrier, locale) : carrier.getBody());
+        for (EmailOutboxMessage sibling : merged) {
+            sections.append(SECTION_SEPARATOR).append(sibling.getBody());
+        }
+        RenderedEmail digest = templateRegistry.render(EmailKind.ORDER_DIGEST, locale, carrier.getDigestKey(),
+                sections);
+        carrier.setKind(EmailKind.ORDER_DIGEST);
+        carrier.setSubject(digest.getSubject());
+        carrier.setBody(digest.getBody());
+    }
+    
+    /**
+     * The sections of a rendered digest: its body without the text the digest template puts around them.
+     * Falls back to the whole body if the template no longer matches it.
+     */
+    private String digestSections(EmailOutboxMessage digest, Locale locale) {
+        String frame = templateRegistry.render(EmailKind.ORDER_DIGEST, locale, digest.getDigestKey(), SECTIONS_MARKER)
+                .getBody();
+        int marker = frame.indexOf(SECTIONS_MARKER);
+        String body = digest.getBody();
+        if (marker < 0) {
+            return body;
+        }
+        String prefix = frame.substring(0, marker);
+        String suffix = frame.substring(marker + SECTIONS_MARKER.length());
+        if (body.length() < prefix.length() + suffix.length() || !body.startsWith(prefix) || !body.endsWith(suffix)) {
+            return body;
+        }
+        return body.substring(prefix.length(), body.length() - suffix.length());
+    }
+    
+    private static String groupKey(EmailOutboxMessage message) {
+        return message.getRecipient() + '\n' + message.getDigestKey();
+    }
+}
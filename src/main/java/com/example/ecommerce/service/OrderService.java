@@ -1,5 +1,13 @@
 package com.example.ecommerce.service;
 
+import com.example.ecommerce.jfr.AuditWriteEvent;
+import com.example.ecommerce.jfr.EmailDispatchEvent;
+import com.example.ecommerce.jfr.OrderStageEvent;
+import com.example.ecommerce.jfr.OrderValidationEvent;
+import com.example.ecommerce.jfr.PaymentCreationEvent;
+import com.example.ecommerce.jfr.PaymentProcessingEvent;
+import com.example.ecommerce.jfr.StockDecrementEvent;
+import com.example.ecommerce.metrics.StatusTransitionMetrics;
 import com.example.ecommerce.model.Order;
 import com.example.ecommerce.model.Order.OrderStatus;
 import com.example.ecommerce.model.OrderItem;
@@ -7,17 +15,29 @@ import com.example.ecommerce.model.Product;
 import com.example.ecommerce.model.User;
 import com.example.ecommerce.model.Payment;
 import com.example.ecommerce.model.Payment.PaymentMethod;
+import com.example.ecommerce.repository.OrderItemRepository;
+import com.example.ecommerce.repository.OrderItemRepository.ProductQuantity;
 import com.example.ecommerce.repository.OrderRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 
 @Service
@@ -26,6 +46,9 @@ public class OrderService {
     @Autowired
     private OrderRepository orderRepository;
     
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+    
     @Autowired
     private UserService userService;
     
@@ -41,56 +64,113 @@ public class OrderService {
     @Autowired
     private AuditService auditService;
     
+    @Autowired
+    private TrendingProductsService trendingProductsService;
+    
+    @Autowired
+    private StatusTransitionMetrics transitionMetrics;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
     @Transactional
     public Order createOrder(Long userId, Map<Long, Integer> productQuantities, PaymentMethod paymentMethod) {
-        // Validate user exists
-        Optional<User> optionalUser = userService.getUserById(userId);
-        if (!optionalUser.isPresent()) {
-            throw new IllegalArgumentException("User not found with ID: " + userId);
-        }
-        
-        User user = optionalUser.get();
-        
-        // Validate all products are available
-        BigDecimal totalAmount = BigDecimal.ZERO;
-        for (Map.Entry<Long, Integer> entry : productQuantities.entrySet()) {
-            Long productId = entry.getKey();
-            Integer quantity = entry.getValue();
+        int lineCount = productQuantities.size();
+        long orderId = 0;
+        OrderStageEvent stage = OrderStageEvent.start(new OrderValidationEvent());
+        try {
+            // Validate user exists
+            Optional<User> optionalUser = userService.getUserById(userId);
+            if (!optionalUser.isPresent()) {
+                throw new IllegalArgumentException("User not found with ID: " + userId);
+            }
             
-            if (!productService.isProductAvailable(productId, quantity)) {
-                throw new IllegalStateException("Product not available: " + productId);
+            User user = optionalUser.get();
+            
+            // Validate all products are available
+            BigDecimal totalAmount = BigDecimal.ZERO;
+            Map<Long, String> productCategories = new HashMap<>();
+            List<OrderItem> items = new ArrayList<>(lineCount);
+            for (Map.Entry<Long, Integer> entry : productQuantities.entrySet()) {
+                Long productId = entry.getKey();
+                Integer quantity = entry.getValue();
+                
+                if (!productService.isProductAvailable(productId, quantity)) {
+                    throw new IllegalStateException("Product not available: " + productId);
+                }
+                
+                Optional<Product> product = productService.getProductById(productId);
+                if (product.isPresent()) {
+                    BigDecimal itemTotal = product.get().getPrice().multiply(new BigDecimal(quantity));
+                    totalAmount = totalAmount.add(itemTotal);
+                    productCategories.put(productId, product.get().getCategory());
+                    items.add(new OrderItem(null, productId, product.get().getName(), product.get().getPrice(), quantity));
+                }
             }
             
-            Optional<Product> product = productService.getProductById(productId);
-            if (product.isPresent()) {
-                BigDecimal itemTotal = product.get().getPrice().multiply(new BigDecimal(quantity));
-                totalAmount = totalAmount.add(itemTotal);
+            // Validation is committed once the order has an id; the insert itself belongs to no stage
+            OrderStageEvent validation = stage;
+            validation.stop();
+            stage = null;
+            
+            // Create order
+            String orderNumber = generateOrderNumber();
+            Order order = new Order(orderNumber, userId, totalAmount);
+            order.setShippingAddress(user.getAddress());
+            order.setBillingAddress(user.getAddress());
+            
+            // A failed insert is charged to validation, which would otherwise never be committed
+            Order savedOrder;
+            try {
+                savedOrder = orderRepository.save(order);
+            } catch (RuntimeException e) {
+                validation.failed(0, lineCount, e);
+                throw e;
             }
+            orderId = savedOrder.getId();
+            validation.succeeded(orderId, lineCount);
+            
+            // Lines are kept so a cancellation can return exactly what was taken from stock
+            for (OrderItem item : items) {
+                item.setOrderId(orderId);
+            }
+            orderItemRepository.batchInsert(items);
+            
+            // Reduce product stock
+            stage = OrderStageEvent.start(new StockDecrementEvent());
+            for (Map.Entry<Long, Integer> entry : productQuantities.entrySet()) {
+                productService.reduceStock(entry.getKey(), entry.getValue());
+            }
+            stage.succeeded(orderId, lineCount);
+            
+            // Create payment
+            stage = OrderStageEvent.start(new PaymentCreationEvent());
+            Payment payment = paymentService.createPayment(savedOrder.getId(), totalAmount, paymentMethod, user.getEmail());
+            stage.succeeded(orderId, lineCount);
+            
+            // Send order confirmation email
+            stage = OrderStageEvent.start(new EmailDispatchEvent());
+            emailService.sendOrderConfirmation(user.getEmail(), orderNumber, user.getLocale());
+            stage.succeeded(orderId, lineCount);
+            
+            // Log audit
+            stage = OrderStageEvent.start(new AuditWriteEvent());
+            auditService.logOrderCreated(savedOrder.getId(), orderNumber, userId);
+            stage.succeeded(orderId, lineCount);
+            stage = null;
+            
+            // Feed trending analytics once the order commits; a rolled-back order is not a sale
+            Map<Long, Integer> sold = new HashMap<>(productQuantities);
+            afterCommit(() -> sold.forEach((productId, quantity) ->
+                    trendingProductsService.recordSale(productId, productCategories.get(productId), quantity)));
+            
+            return savedOrder;
+        } catch (RuntimeException e) {
+            if (stage != null) {
+                stage.failed(orderId, lineCount, e);
+            }
+            throw e;
         }
-        
-        // Create order
-        String orderNumber = generateOrderNumber();
-        Order order = new Order(orderNumber, userId, totalAmount);
-        order.setShippingAddress(user.getAddress());
-        order.setBillingAddress(user.getAddress());
-        
-        Order savedOrder = orderRepository.save(order);
-        
-        // Reduce product stock
-        for (Map.Entry<Long, Integer> entry : productQuantities.entrySet()) {
-            productService.reduceStock(entry.getKey(), entry.getValue());
-        }
-        
-        // Create payment
-        Payment payment = paymentService.createPayment(savedOrder.getId(), totalAmount, paymentMethod);
-        
-        // Send order confirmation email
-        emailService.sendOrderConfirmation(user.getEmail(), orderNumber);
-        
-        // Log audit
-        auditService.logOrderCreated(savedOrder.getId(), orderNumber, userId);
-        
-        return savedOrder;
     }
     
     public Order confirmOrder(Long orderId) {
@@ -108,6 +188,7 @@ public class OrderService {
         
         // Log audit
         auditService.logOrderStatusChanged(orderId, oldStatus.toString(), OrderStatus.CONFIRMED.toString());
+        transitionMetrics.orderTransition(oldStatus, OrderStatus.CONFIRMED);
         
         return updatedOrder;
     }
@@ -128,17 +209,31 @@ public class OrderService {
         }
         
         Payment payment = payments.get(0);
-        paymentService.processPayment(payment.getId(), userEmail, order.getOrderNumber());
-        
-        // Update order status
-        OrderStatus oldStatus = order.getStatus();
-        order.setStatus(OrderStatus.PROCESSING);
-        Order updatedOrder = orderRepository.save(order);
-        
-        // Log audit
-        auditService.logOrderStatusChanged(orderId, oldStatus.toString(), OrderStatus.PROCESSING.toString());
-        
-        return updatedOrder;
+        OrderStageEvent stage = OrderStageEvent.start(new PaymentProcessingEvent());
+        try {
+            paymentService.processPayment(payment.getId(), userEmail, order.getOrderNumber());
+            stage.succeeded(orderId, OrderStageEvent.LINES_UNKNOWN);
+            stage = null;
+            
+            // Update order status
+            OrderStatus oldStatus = order.getStatus();
+            order.setStatus(OrderStatus.PROCESSING);
+            Order updatedOrder = orderRepository.save(order);
+            
+            // Log audit
+            stage = OrderStageEvent.start(new AuditWriteEvent());
+            auditService.logOrderStatusChanged(orderId, oldStatus.toString(), OrderStatus.PROCESSING.toString());
+            stage.succeeded(orderId, OrderStageEvent.LINES_UNKNOWN);
+            stage = null;
+            transitionMetrics.orderTransition(oldStatus, OrderStatus.PROCESSING);
+            
+            return updatedOrder;
+        } catch (RuntimeException e) {
+            if (stage != null) {
+                stage.failed(orderId, OrderStageEvent.LINES_UNKNOWN, e);
+            }
+            throw e;
+        }
     }
     
     public Order shipOrder(Long orderId, String trackingNumber) {
@@ -151,18 +246,23 @@ public class OrderService {
         Order order = optionalOrder.get();
         OrderStatus oldStatus = order.getStatus();
         
-        order.setStatus(OrderStatus.SHIPPED);
-        Order updatedOrder = orderRepository.save(order);
-        
-        // Get user and send shipping notification
-        Optional<User> optionalUser = userService.getUserById(order.getUserId());
-        if (optionalUser.isPresent()) {
-            User user = optionalUser.get();
-            emailService.sendOrderShipped(user.getEmail(), order.getOrderNumber(), trackingNumber);
-        }
+        // The shipping notification is queued in the same transaction as the status change
+        Order updatedOrder = transactionTemplate.execute(status -> {
+            order.setStatus(OrderStatus.SHIPPED);
+            Order saved = orderRepository.save(order);
+            
+            // Get user and send shipping notification
+            Optional<User> optionalUser = userService.getUserById(order.getUserId());
+            if (optionalUser.isPresent()) {
+                User user = optionalUser.get();
+                emailService.sendOrderShipped(user.getEmail(), order.getOrderNumber(), trackingNumber, user.getLocale());
+            }
+            return saved;
+        });
         
         // Log audit
         auditService.logOrderStatusChanged(orderId, oldStatus.toString(), OrderStatus.SHIPPED.toString());
+        transitionMetrics.orderTransition(oldStatus, OrderStatus.SHIPPED);
         
         return updatedOrder;
     }
@@ -183,11 +283,16 @@ public class OrderService {
         
         // Log audit
         auditService.logOrderStatusChanged(orderId, oldStatus.toString(), OrderStatus.DELIVERED.toString());
+        transitionMetrics.orderTransition(oldStatus, OrderStatus.DELIVERED);
         
         return updatedOrder;
     }
     
-    @Transactional
+    /**
+     * Cancels an order: refunds a completed payment, then marks the order CANCELLED and returns its lines to
+     * stock in one transaction. The gateway call stays outside the transaction. Cancelling an order that is
+     * already cancelled changes nothing.
+     */
     public Order cancelOrder(Long orderId) {
         Optional<Order> optionalOrder = orderRepository.findById(orderId);
         
@@ -197,6 +302,9 @@ public class OrderService {
         
         Order order = optionalOrder.get();
         OrderStatus oldStatus = order.getStatus();
+        if (oldStatus == OrderStatus.CANCELLED) {
+            return order;
+        }
         
         // Refund payment if order was already paid
         List<Payment> payments = paymentService.getPaymentsByOrderId(orderId);
@@ -206,13 +314,81 @@ public class OrderService {
             }
         }
         
+        // Only the call that actually flips the status returns the stock
+        boolean cancelled = transactionTemplate.execute(status -> {
+            if (orderRepository.updateStatusIfChanged(orderId, OrderStatus.CANCELLED) == 0) {
+                return false;
+            }
+            productService.increaseStock(quantitiesByProduct(Collections.singletonList(orderId)));
+            return true;
+        });
         order.setStatus(OrderStatus.CANCELLED);
-        Order updatedOrder = orderRepository.save(order);
+        if (!cancelled) {
+            return order;
+        }
         
         // Log audit
         auditService.logOrderStatusChanged(orderId, oldStatus.toString(), OrderStatus.CANCELLED.toString());
+        transitionMetrics.orderTransition(oldStatus, OrderStatus.CANCELLED);
         
-        return updatedOrder;
+        return order;
+    }
+    
+    /**
+     * Cancels many orders at once (e.g. a product recall). Payments are loaded in one query and
+     * refunded in grouped gateway calls before any transaction starts; the orders are then updated with
+     * a set-based statement and stock is returned with one update per product, in one transaction.
+     * Orders already cancelled are skipped.
+     *
+     * @return the number of orders cancelled
+     */
+    public int cancelOrders(Collection<Long> orderIds) {
+        Set<Long> requestedIds = new LinkedHashSet<>(orderIds);
+        if (requestedIds.isEmpty()) {
+            return 0;
+        }
+        
+        List<Order> orders = orderRepository.findAllById(requestedIds);
+        if (orders.size() != requestedIds.size()) {
+            Set<Long> missing = new LinkedHashSet<>(requestedIds);
+            orders.forEach(order -> missing.remove(order.getId()));
+            throw new IllegalArgumentException("Orders not found with IDs: " + missing);
+        }
+        
+        List<Long> cancelIds = orders.stream()
+                .filter(order -> order.getStatus() != OrderStatus.CANCELLED)
+                .map(Order::getId)
+                .collect(Collectors.toList());
+        if (cancelIds.isEmpty()) {
+            return 0;
+        }
+        
+        // Refund every completed payment in the batch
+        List<Payment> completedPayments = paymentService.getPaymentsByOrderIds(cancelIds).stream()
+                .filter(payment -> payment.getStatus() == Payment.PaymentStatus.COMPLETED)
+                .collect(Collectors.toList());
+        paymentService.refundPayments(completedPayments);
+        
+        // Cancel and return stock, aggregated per product, only for orders not cancelled concurrently since the read
+        Set<Long> cancelled = transactionTemplate.execute(status -> {
+            Set<Long> changed = orderRepository.batchUpdateStatusIfChanged(cancelIds, OrderStatus.CANCELLED);
+            if (!changed.isEmpty()) {
+                productService.increaseStock(quantitiesByProduct(changed));
+            }
+            return changed;
+        });
+        if (cancelled.isEmpty()) {
+            return 0;
+        }
+        
+        // Log audit
+        auditService.logOrderBatchStatusChanged(cancelled, OrderStatus.CANCELLED.toString());
+        orders.stream()
+                .filter(order -> cancelled.contains(order.getId()))
+                .collect(Collectors.groupingBy(Order::getStatus, Collectors.counting()))
+                .forEach((from, count) -> transitionMetrics.orderTransitions(from, OrderStatus.CANCELLED, count));
+        
+        return cancelled.size();
     }
     
     public Optional<Order> getOrderById(Long id) {
@@ -235,6 +411,30 @@ public class OrderService {
         return orderRepository.findByUserIdAndStatus(userId, status);
     }
     
+    private Map<Long, Integer> quantitiesByProduct(Collection<Long> orderIds) {
+        Map<Long, Integer> quantities = new HashMap<>();
+        for (ProductQuantity line : orderItemRepository.sumQuantityByProductForOrders(orderIds)) {
+            quantities.put(line.getProductId(), Math.toIntExact(line.getQuantity()));
+        }
+        return quantities;
+    }
+    
+    /**
+     * Runs the action after the surrounding transaction commits, or right away when there is none.
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+    
     private String generateOrderNumber() {
         return "ORD-" + System.currentTimeMillis() + "-" + UUID.randomUUID().toString().substring(0, 4).toUpperCase();
     }
@@ -0,0 +1,170 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.model.Payment;
+import com.example.ecommerce.model.Payment.PaymentStatus;
+import com.example.ecommerce.reconciliation.ReconciliationSummary;
+import com.example.ecommerce.reconciliation.ReconciliationSummary.MismatchType;
+import com.example.ecommerce.reconciliation.SettlementFileReader;
+import com.example.ecommerce.reconciliation.SettlementRecord;
+import com.example.ecommerce.repository.PaymentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Payment Reconciliation Service - Matches a day's payments against the gateway settlement file
+ * Sort-merge join on transaction ID: the file is read through memory-mapped regions and the
+ * ledger is paged by keyset, so memory stays bounded regardless of file size.
+ */
+@Service
+public class PaymentReconciliationService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(PaymentReconciliationService.class);
+    
+    private static final String REPORT_HEADER = "type,transactionId,ledgerAmount,settlementAmount,ledgerStatus,settlementStatus";
+    
+    @Autowired
+    private PaymentRepository paymentRepository;
+    
+    @Value("${ecommerce.reconciliation.page-size:1000}")
+    private int pageSize = 1000;
+    
+    @Value("${ecommerce.reconciliation.map-region-bytes:67108864}")
+    private int mapRegionBytes = SettlementFileReader.DEFAULT_REGION_BYTES;
+    
+    /**
+     * Reconciles payments created on the business date with a settlement file sorted by transaction ID,
+     * writing one CSV line per mismatch to the report file.
+     * Payments still PENDING are not expected in the settlement file.
+     */
+    public ReconciliationSummary reconcile(Path settlementFile, LocalDate businessDate, Path reportFile) {
+        ReconciliationSummary summary = new ReconciliationSummary();
+        LedgerCursor ledger = new LedgerCursor(businessDate.atStartOfDay(), businessDate.plusDays(1).atStartOfDay());
+        
+        try (SettlementFileReader settlement = new SettlementFileReader(settlementFile, mapRegionBytes);
+             BufferedWriter report = Files.newBufferedWriter(reportFile, StandardCharsets.UTF_8)) {
+            report.write(REPORT_HEADER);
+            report.newLine();
+            
+            SettlementRecord record = settlement.next();
+            Payment payment = ledger.next();
+            while (record != null || payment != null) {
+                int comparison;
+                if (record == null) {
+                    comparison = 1;
+                } else if (payment == null) {
+                    comparison = -1;
+                } else {
+                    comparison = record.getTransactionId().compareTo(payment.getTransactionId());
+                }
+                
+                if (comparison < 0) {
+                    summary.recordSettlementRecord();
+                    writeMismatch(report, summary, MismatchType.MISSING_IN_LEDGER, null, record);
+                    record = settlement.next();
+                } else if (comparison > 0) {
+                    summary.recordLedgerPayment();
+                    if (payment.getStatus() != PaymentStatus.PENDING) {
+                        writeMismatch(report, summary, MismatchType.MISSING_IN_SETTLEMENT, payment, null);
+                    }
+                    payment = ledger.next();
+                } else {
+                    summary.recordSettlementRecord();
+                    summary.recordLedgerPayment();
+                    compare(report, summary, payment, record);
+                    record = settlement.next();
+                    payment = ledger.next();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Reconciliation failed for " + settlementFile, e);
+        }
+        
+        logger.info("Reconciliation for {} finished: {}", businessDate, summary);
+        return summary;
+    }
+    
+    private void compare(BufferedWriter report, ReconciliationSummary summary, Payment payment,
+                         SettlementRecord record) throws IOException {
+        boolean matched = true;
+        if (payment.getAmount().compareTo(record.getAmount()) != 0) {
+            writeMismatch(report, summary, MismatchType.AMOUNT_DIFFERS, payment, record);
+            matched = false;
+        }
+        if (!payment.getStatus().toString().equalsIgnoreCase(record.getStatus())) {
+            writeMismatch(report, summary, MismatchType.STATUS_DIFFERS, payment, record);
+            matched = false;
+        }
+        if (matched) {
+            summary.recordMatch();
+        }
+    }
+    
+    private void writeMismatch(BufferedWriter report, ReconciliationSummary summary, MismatchType type,
+                               Payment payment, SettlementRecord record) throws IOException {
+        summary.recordMismatch(type);
+        String transactionId = payment != null ? payment.getTransactionId() : record.getTransactionId();
+        report.write(type.toString());
+        report.write(',');
+        report.write(transactionId);
+        report.write(',');
+        report.write(payment != null ? plain(payment.getAmount()) : "");
+        report.write(',');
+        report.write(record != null ? plain(record.getAmount()) : "");
+        report.write(',');
+        report.write(payment != null ? payment.getStatus().toString() : "");
+        report.write(',');
+        report.write(record != null ? record.getStatus() : "");
+        report.newLine();
+    }
+    
+    private static String plain(BigDecimal amount) {
+        return amount.toPlainString();
+    }
+    
+    // Pages through the ledger by transaction ID; each page is its own short read, so nothing accumulates
+    private final class LedgerCursor {
+        
+        private final LocalDateTime from;
+        private final LocalDateTime to;
+        private Iterator<Payment> page = Collections.emptyIterator();
+        private String lastTransactionId = "";
+        private boolean exhausted;
+        
+        private LedgerCursor(LocalDateTime from, LocalDateTime to) {
+            this.from = from;
+            this.to = to;
+        }
+        
+        private Payment next() {
+            if (!page.hasNext() && !exhausted) {
+                List<Payment> payments = paymentRepository.findCreatedBetweenAfterTransactionId(
+                        from, to, lastTransactionId, PageRequest.of(0, pageSize));
+                exhausted = payments.size() < pageSize;
+                page = payments.iterator();
+            }
+            if (!page.hasNext()) {
+                return null;
+            }
+            Payment payment = page.next();
+            lastTransactionId = payment.getTransactionId();
+            return payment;
+        }
+    }
+}
@@ -1,31 +1,71 @@
 package com.example.ecommerce.service;
 
+import com.example.ecommerce.gateway.AsyncPaymentGatewayClient;
+import com.example.ecommerce.gateway.GatewayRequest;
+import com.example.ecommerce.gateway.GatewayResponse;
+import com.example.ecommerce.gateway.PaymentGatewayException;
+import com.example.ecommerce.metrics.StatusTransitionMetrics;
 import com.example.ecommerce.model.Payment;
 import com.example.ecommerce.model.Payment.PaymentMethod;
 import com.example.ecommerce.model.Payment.PaymentStatus;
 import com.example.ecommerce.repository.PaymentRepository;
+import com.example.ecommerce.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 
 @Service
 public class PaymentService {
     
+    private static final Logger logger = LoggerFactory.getLogger(PaymentService.class);
+    
     @Autowired
     private PaymentRepository paymentRepository;
     
+    @Autowired
+    private UserRepository userRepository;
+    
     @Autowired
     private EmailService emailService;
     
     @Autowired
     private AuditService auditService;
     
+    @Autowired
+    private AsyncPaymentGatewayClient paymentGatewayClient;
+    
+    @Autowired
+    private PaymentVelocityService paymentVelocityService;
+    
+    @Autowired
+    private StatusTransitionMetrics transitionMetrics;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Value("${ecommerce.payment.refund-batch-size:50}")
+    private int refundBatchSize = 50;
+    
+    @Value("${ecommerce.payment.refund-groups-in-flight:32}")
+    private int refundGroupsInFlight = 32;
+    
     public Payment createPayment(Long orderId, BigDecimal amount, PaymentMethod paymentMethod) {
         String transactionId = generateTransactionId();
         
@@ -38,6 +78,14 @@ public class PaymentService {
         return savedPayment;
     }
     
+    public Payment createPayment(Long orderId, BigDecimal amount, PaymentMethod paymentMethod, String userEmail) {
+        // Fail fast before the order goes any further; the payment is counted when it is charged
+        if (!paymentVelocityService.wouldAllow(userEmail, paymentMethod, amount)) {
+            throw new IllegalStateException("Payment velocity limit exceeded for: " + userEmail);
+        }
+        return createPayment(orderId, amount, paymentMethod);
+    }
+    
     public Payment processPayment(Long paymentId, String userEmail, String orderNumber) {
         Optional<Payment> optionalPayment = paymentRepository.findById(paymentId);
         
@@ -46,26 +94,41 @@ public class PaymentService {
         }
         
         Payment payment = optionalPayment.get();
+        PaymentStatus oldStatus = payment.getStatus();
         
-        // Simulate payment processing
-        boolean paymentSuccessful = simulatePaymentGateway(payment);
+        // Claim the payment first, so a concurrent call or settlement run cannot charge it twice
+        if (paymentRepository.claimPending(Collections.singletonList(paymentId)).isEmpty()) {
+            throw new IllegalStateException("Payment is not pending: " + paymentId);
+        }
         
-        if (paymentSuccessful) {
-            payment.setStatus(PaymentStatus.COMPLETED);
-            payment.setProcessedAt(LocalDateTime.now());
-            payment.setPaymentGatewayResponse("SUCCESS");
+        Payment updatedPayment;
+        try {
+            // Velocity limits are checked before the gateway is contacted
+            if (paymentVelocityService.tryRecord(userEmail, payment.getPaymentMethod(), payment.getAmount())) {
+                chargeThroughGateway(payment);
+            } else {
+                payment.setStatus(PaymentStatus.FAILED);
+                payment.setPaymentGatewayResponse("VELOCITY_LIMIT");
+            }
             
-            // Send payment confirmation email
-            emailService.sendPaymentConfirmation(userEmail, orderNumber, payment.getTransactionId());
-        } else {
-            payment.setStatus(PaymentStatus.FAILED);
-            payment.setPaymentGatewayResponse("DECLINED");
+            // The gateway call stays outside the transaction; the confirmation email commits with the status change
+            updatedPayment = transactionTemplate.execute(status -> {
+                Payment saved = paymentRepository.save(payment);
+                if (saved.getStatus() == PaymentStatus.COMPLETED) {
+                    emailService.sendPaymentConfirmation(userEmail, orderNumber, saved.getTransactionId(),
+                            userRepository.findLocaleByEmail(userEmail).orElse(null));
+                }
+                return saved;
+            });
+        } catch (RuntimeException e) {
+            // No result was written, so the claim goes back rather than stranding the payment in PROCESSING
+            releaseClaims(Collections.singletonList(paymentId), e);
+            throw e;
         }
         
-        Payment updatedPayment = paymentRepository.save(payment);
-        
         // Log audit
         auditService.logPaymentProcessed(paymentId, payment.getTransactionId(), payment.getStatus().toString());
+        transitionMetrics.paymentTransition(oldStatus, payment.getStatus());
         
         return updatedPayment;
     }
@@ -83,15 +146,94 @@ public class PaymentService {
             throw new IllegalStateException("Can only refund completed payments");
         }
         
+        // Refunds are keyed by transaction ID at the gateway, so they are safe to hedge
+        GatewayRequest request = new GatewayRequest(payment.getTransactionId(), payment.getAmount(),
+                                                    payment.getPaymentMethod(), true);
+        GatewayResponse response;
+        try {
+            response = AsyncPaymentGatewayClient.await(paymentGatewayClient.refund(request));
+        } catch (PaymentGatewayException e) {
+            throw new IllegalStateException("Refund failed for payment " + paymentId + ": " + e.getMessage(), e);
+        }
+        if (!response.isApproved()) {
+            throw new IllegalStateException("Refund declined for payment " + paymentId + ": " + response.getResponseCode());
+        }
+        
         payment.setStatus(PaymentStatus.REFUNDED);
         Payment refundedPayment = paymentRepository.save(payment);
         
         // Log audit
         auditService.logPaymentRefunded(paymentId, payment.getTransactionId());
+        transitionMetrics.paymentTransition(PaymentStatus.COMPLETED, PaymentStatus.REFUNDED);
         
         return refundedPayment;
     }
     
+    /**
+     * Refunds completed payments in grouped gateway calls, then marks them REFUNDED with one update.
+     * At most {@code refundGroupsInFlight} groups are outstanding at once, so a large batch never
+     * overloads the gateway client, and no transaction is held while waiting on the gateway.
+     * Refunds are keyed by transaction ID, so re-running after a partial failure is safe.
+     */
+    public int refundPayments(Collection<Payment> payments) {
+        if (payments.isEmpty()) {
+            return 0;
+        }
+        for (Payment payment : payments) {
+            if (payment.getStatus() != PaymentStatus.COMPLETED) {
+                throw new IllegalStateException("Can only refund completed payments: " + payment.getId());
+            }
+        }
+        
+        List<Payment> ordered = new ArrayList<>(payments);
+        Deque<CompletableFuture<List<GatewayResponse>>> window = new ArrayDeque<>();
+        int index = 0;
+        for (int from = 0; from < ordered.size(); from += refundBatchSize) {
+            if (window.size() >= refundGroupsInFlight) {
+                index = checkRefunds(window.removeFirst(), ordered, index);
+            }
+            List<GatewayRequest> requests = ordered.subList(from, Math.min(from + refundBatchSize, ordered.size()))
+                    .stream()
+                    .map(payment -> new GatewayRequest(payment.getTransactionId(), payment.getAmount(),
+                                                       payment.getPaymentMethod(), true))
+                    .collect(Collectors.toList());
+            window.addLast(paymentGatewayClient.refundAll(requests));
+        }
+        while (!window.isEmpty()) {
+            index = checkRefunds(window.removeFirst(), ordered, index);
+        }
+        
+        List<Long> paymentIds = ordered.stream().map(Payment::getId).collect(Collectors.toList());
+        int refunded = transactionTemplate.execute(status ->
+                paymentRepository.updateStatusByIdIn(paymentIds, PaymentStatus.COMPLETED, PaymentStatus.REFUNDED));
+        
+        // Log audit
+        auditService.logPaymentBatchRefunded(ordered.stream().map(Payment::getTransactionId).collect(Collectors.toList()));
+        transitionMetrics.paymentTransitions(PaymentStatus.COMPLETED, PaymentStatus.REFUNDED, refunded);
+        
+        return refunded;
+    }
+    
+    /**
+     * Waits for one refund group and checks every response in it, returning the index of the next payment.
+     */
+    private int checkRefunds(CompletableFuture<List<GatewayResponse>> group, List<Payment> ordered, int index) {
+        List<GatewayResponse> responses;
+        try {
+            responses = AsyncPaymentGatewayClient.await(group);
+        } catch (PaymentGatewayException e) {
+            throw new IllegalStateException("Bulk refund failed: " + e.getMessage(), e);
+        }
+        for (GatewayResponse response : responses) {
+            Payment payment = ordered.get(index++);
+            if (!response.isApproved()) {
+                throw new IllegalStateException("Refund declined for payment " + payment.getId() + ": "
+                        + response.getResponseCode());
+            }
+        }
+        return index;
+    }
+    
     public Optional<Payment> getPaymentById(Long id) {
         return paymentRepository.findById(id);
     }
@@ -104,17 +246,46 @@ public class PaymentService {
         return paymentRepository.findByOrderId(orderId);
     }
     
+    public List<Payment> getPaymentsByOrderIds(Collection<Long> orderIds) {
+        return paymentRepository.findByOrderIdIn(orderIds);
+    }
+    
     public List<Payment> getPendingPayments() {
         return paymentRepository.findByStatus(PaymentStatus.PENDING);
     }
     
-    private String generateTransactionId() {
-        return "TXN-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    private void releaseClaims(Collection<Long> paymentIds, RuntimeException cause) {
+        try {
+            paymentRepository.releaseClaims(paymentIds);
+        } catch (RuntimeException e) {
+            // The settlement run releases it once the claim times out
+            cause.addSuppressed(e);
+        }
     }
     
-    private boolean simulatePaymentGateway(Payment payment) {
-        // Simulate payment gateway processing
-        // In reality, this would call actual payment gateway API
-        return payment.getAmount().compareTo(BigDecimal.ZERO) > 0;
+    private void chargeThroughGateway(Payment payment) {
+        // The wait is bounded by the client deadline
+        GatewayRequest request = new GatewayRequest(payment.getTransactionId(), payment.getAmount(),
+                                                    payment.getPaymentMethod(), false);
+        try {
+            GatewayResponse response = AsyncPaymentGatewayClient.await(paymentGatewayClient.charge(request));
+            
+            if (response.isApproved()) {
+                payment.setStatus(PaymentStatus.COMPLETED);
+                payment.setProcessedAt(LocalDateTime.now());
+                payment.setPaymentGatewayResponse(response.getResponseCode());
+            } else {
+                payment.setStatus(PaymentStatus.FAILED);
+                payment.setPaymentGatewayResponse(response.getResponseCode());
+            }
+        } catch (PaymentGatewayException e) {
+            // No verdict from the gateway: leave the payment PENDING so it can be settled later
+            logger.warn("Payment {} left pending: {}", payment.getId(), e.getMessage());
+            payment.setPaymentGatewayResponse(e.getReason().toString());
+        }
+    }
+    
+    private String generateTransactionId() {
+        return "TXN-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
     }
 }
@@ -0,0 +1,248 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.config.SettlementProperties;
+import com.example.ecommerce.gateway.AsyncPaymentGatewayClient;
+import com.example.ecommerce.gateway.GatewayRequest;
+import com.example.ecommerce.gateway.GatewayResponse;
+import com.example.ecommerce.gateway.PaymentGatewayException;
+import com.example.ecommerce.metrics.StatusTransitionMetrics;
+import com.example.ecommerce.model.Order;
+import com.example.ecommerce.model.Payment;
+import com.example.ecommerce.model.Payment.PaymentMethod;
+import com.example.ecommerce.model.Payment.PaymentStatus;
+import com.example.ecommerce.model.User;
+import com.example.ecommerce.repository.OrderRepository;
+import com.example.ecommerce.repository.PaymentRepository;
+import com.example.ecommerce.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Payment Settlement Service - Bulk processing of PENDING payments, e.g. after a gateway outage
+ * Dependencies: PaymentRepository, OrderRepository, UserRepository, EmailService, AuditService
+ */
+@Service
+public class PaymentSettlementService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(PaymentSettlementService.class);
+    
+    @Autowired
+    private PaymentRepository paymentRepository;
+    
+    @Autowired
+    private OrderRepository orderRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private EmailService emailService;
+    
+    @Autowired
+    private AuditService auditService;
+    
+    @Autowired
+    private AsyncPaymentGatewayClient paymentGatewayClient;
+    
+    @Autowired
+    private SettlementProperties settlementProperties;
+    
+    @Autowired
+    private StatusTransitionMetrics transitionMetrics;
+    
+    /**
+     * Walks PENDING payments in id order, one chunk at a time, charging each chunk in parallel.
+     * Each chunk is claimed first (PENDING to PROCESSING), so a payment being charged elsewhere, or by a
+     * concurrent run, is skipped rather than charged twice. Results are written back in one JDBC batch.
+     * Payments the gateway gives no verdict for return to PENDING and are not revisited in the same run.
+     * Claims older than the configured claim timeout are released first, so a payment stranded in
+     * PROCESSING by a crashed claimant is settled by the next run.
+     */
+    public SettlementReport settlePendingPayments() {
+        int released = paymentRepository.releaseClaimsOlderThan(
+                LocalDateTime.now().minus(settlementProperties.getClaimTimeout()));
+        if (released > 0) {
+            logger.warn("Settlement released {} payments claimed for longer than {}", released,
+                    settlementProperties.getClaimTimeout());
+        }
+        
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("settlement-");
+        threadFactory.setDaemon(true);
+        ExecutorService workers = Executors.newFixedThreadPool(settlementProperties.getWorkerThreads(), threadFactory);
+        
+        Map<PaymentMethod, Semaphore> methodLimits = new EnumMap<>(PaymentMethod.class);
+        for (PaymentMethod method : PaymentMethod.values()) {
+            methodLimits.put(method, new Semaphore(settlementProperties.concurrencyFor(method)));
+        }
+        
+        RunStats stats = new RunStats();
+        long start = System.nanoTime();
+        try {
+            Long lastId = 0L;
+            PageRequest firstPage = PageRequest.of(0, settlementProperties.getChunkSize());
+            List<Payment> chunk;
+            while (!(chunk = paymentRepository.findByStatusAndIdGreaterThanOrderByIdAsc(
+                    PaymentStatus.PENDING, lastId, firstPage)).isEmpty()) {
+                lastId = chunk.get(chunk.size() - 1).getId();
+                settleChunk(chunk, workers, methodLimits, stats);
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+        
+        SettlementReport report = new SettlementReport(stats.completed, stats.failed, stats.leftPending,
+                stats.chunks, System.nanoTime() - start, stats.latencies, stats.latencyCount);
+        logger.info("Settlement run finished: {}", report);
+        return report;
+    }
+    
+    private void settleChunk(List<Payment> chunk, ExecutorService workers,
+                             Map<PaymentMethod, Semaphore> methodLimits, RunStats stats) {
+        Set<Long> claimed = paymentRepository.claimPending(
+                chunk.stream().map(Payment::getId).collect(Collectors.toList()));
+        stats.chunks++;
+        if (claimed.size() < chunk.size()) {
+            logger.info("Settlement skipped {} payments claimed elsewhere", chunk.size() - claimed.size());
+        }
+        
+        List<CompletableFuture<Outcome>> outcomes = new ArrayList<>(claimed.size());
+        for (Payment payment : chunk) {
+            if (!claimed.contains(payment.getId())) {
+                continue;
+            }
+            Semaphore limit = methodLimits.get(payment.getPaymentMethod());
+            outcomes.add(CompletableFuture.supplyAsync(() -> charge(payment, limit), workers));
+        }
+        
+        List<Payment> updated = new ArrayList<>(chunk.size());
+        List<Payment> completed = new ArrayList<>();
+        Map<String, String> statusByTransactionId = new LinkedHashMap<>();
+        try {
+            for (CompletableFuture<Outcome> future : outcomes) {
+                Outcome outcome = future.join();
+                Payment payment = outcome.payment;
+                stats.recordLatency(outcome.latencyNanos);
+                
+                updated.add(payment);
+                if (outcome.response == null) {
+                    stats.leftPending++;
+                    continue;
+                }
+                if (outcome.response.isApproved()) {
+                    payment.setStatus(PaymentStatus.COMPLETED);
+                    payment.setProcessedAt(LocalDateTime.now());
+                    completed.add(payment);
+                    stats.completed++;
+                } else {
+                    payment.setStatus(PaymentStatus.FAILED);
+                    stats.failed++;
+                }
+                payment.setPaymentGatewayResponse(outcome.response.getResponseCode());
+                statusByTransactionId.put(payment.getTransactionId(), payment.getStatus().toString());
+            }
+            
+            // One batch for the whole chunk, releasing the claims on payments still PENDING
+            paymentRepository.batchUpdateClaimed(updated);
+        } catch (RuntimeException e) {
+            // No result was written for the chunk, so its claims go back rather than stranding it in PROCESSING
+            try {
+                paymentRepository.releaseClaims(claimed);
+            } catch (RuntimeException releaseFailure) {
+                e.addSuppressed(releaseFailure);
+            }
+            throw e;
+        }
+        if (!statusByTransactionId.isEmpty()) {
+            auditService.logPaymentBatchProcessed(statusByTransactionId);
+            transitionMetrics.paymentTransitions(PaymentStatus.PENDING, PaymentStatus.COMPLETED, completed.size());
+            transitionMetrics.paymentTransitions(PaymentStatus.PENDING, PaymentStatus.FAILED,
+                    statusByTransactionId.size() - completed.size());
+        }
+        sendConfirmations(completed);
+    }
+    
+    private Outcome charge(Payment payment, Semaphore limit) {
+        GatewayRequest request = new GatewayRequest(payment.getTransactionId(), payment.getAmount(),
+                                                    payment.getPaymentMethod(), false);
+        limit.acquireUninterruptibly();
+        long start = System.nanoTime();
+        try {
+            GatewayResponse response = AsyncPaymentGatewayClient.await(paymentGatewayClient.charge(request));
+            return new Outcome(payment, response, System.nanoTime() - start);
+        } catch (PaymentGatewayException e) {
+            logger.warn("Settlement left payment {} pending: {}", payment.getId(), e.getMessage());
+            payment.setPaymentGatewayResponse(e.getReason().toString());
+            return new Outcome(payment, null, System.nanoTime() - start);
+        } finally {
+            limit.release();
+        }
+    }
+    
+    private void sendConfirmations(List<Payment> completed) {
+        if (completed.isEmpty()) {
+            return;
+        }
+        Set<Long> orderIds = completed.stream().map(Payment::getOrderId).collect(Collectors.toSet());
+        Map<Long, Order> orders = orderRepository.findAllById(orderIds).stream()
+                .collect(Collectors.toMap(Order::getId, Function.identity()));
+        Set<Long> userIds = orders.values().stream().map(Order::getUserId).collect(Collectors.toSet());
+        Map<Long, User> users = userRepository.findAllById(userIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        
+        for (Payment payment : completed) {
+            Order order = orders.get(payment.getOrderId());
+            User user = order == null ? null : users.get(order.getUserId());
+            if (user != null) {
+                emailService.sendPaymentConfirmation(user.getEmail(), order.getOrderNumber(), payment.getTransactionId(),
+                        user.getLocale());
+            }
+        }
+    }
+    
+    private static final class Outcome {
+        private final Payment payment;
+        private final GatewayResponse response;
+        private final long latencyNanos;
+        
+        private Outcome(Payment payment, GatewayResponse response, long latencyNanos) {
+            this.payment = payment;
+            this.response = response;
+            this.latencyNanos = latencyNanos;
+        }
+    }
+    
+    private static final class RunStats {
+        private int completed;
+        private int failed;
+        private int leftPending;
+        private int chunks;
+        private long[] latencies = new long[256];
+        private int latencyCount;
+        
+        private void recordLatency(long nanos) {
+            if (latencyCount == latencies.length) {
+                latencies = Arrays.copyOf(latencies, latencies.length * 2);
+            }
+            latencies[latencyCount++] = nanos;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.model.Payment.PaymentMethod;
+import com.example.ecommerce.velocity.VelocityCounter;
+import com.example.ecommerce.velocity.VelocityKey;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Payment Velocity Service - In-memory fraud limits on payments per customer and payment method
+ * Counters are lock-free rings in a concurrent map; keys idle for longer than the window are evicted.
+ */
+@Service
+public class PaymentVelocityService {
+    
+    private static final int SLOTS = 60;
+    
+    private final ConcurrentMap<VelocityKey, VelocityCounter> counters = new ConcurrentHashMap<>();
+    
+    private final boolean enabled;
+    private final long slotMillis;
+    private final long maxPayments;
+    private final long maxAmountCents;
+    private final LongSupplier clock;
+    
+    @Autowired
+    public PaymentVelocityService(@Value("${ecommerce.velocity.enabled:true}") boolean enabled,
+                                  @Value("${ecommerce.velocity.window-seconds:60}") long windowSeconds,
+                                  @Value("${ecommerce.velocity.max-payments:10}") long maxPayments,
+                                  @Value("${ecommerce.velocity.max-amount:10000.00}") BigDecimal maxAmount) {
+        this(enabled, TimeUnit.SECONDS.toMillis(windowSeconds), maxPayments, maxAmount, System::currentTimeMillis);
+    }
+    
+    PaymentVelocityService(boolean enabled, long windowMillis, long maxPayments, BigDecimal maxAmount,
+                           LongSupplier clock) {
+        if (windowMillis < SLOTS) {
+            throw new IllegalArgumentException("Velocity window must be at least " + SLOTS + "ms");
+        }
+        this.enabled = enabled;
+        this.slotMillis = windowMillis / SLOTS;
+        this.maxPayments = maxPayments;
+        this.maxAmountCents = toCents(maxAmount);
+        this.clock = clock;
+    }
+    
+    /**
+     * Counts a payment against the limits. Returns false, and counts nothing, if it would exceed them.
+     */
+    public boolean tryRecord(String subject, PaymentMethod paymentMethod, BigDecimal amount) {
+        if (!enabled || subject == null) {
+            return true;
+        }
+        long epoch = clock.getAsLong() / slotMillis;
+        long cents = toCents(amount);
+        VelocityCounter counter = counters.computeIfAbsent(new VelocityKey(subject, paymentMethod),
+                key -> new VelocityCounter(SLOTS));
+        
+        // Add first, then check: concurrent callers can never jointly overshoot the limit
+        counter.add(epoch, 1, cents);
+        if (counter.exceeds(epoch, maxPayments, maxAmountCents)) {
+            counter.add(epoch, -1, -cents);
+            return false;
+        }
+        return true;
+    }
+    
+    /**
+     * Checks whether one more payment of the given amount would be allowed, without counting it.
+     */
+    public boolean wouldAllow(String subject, PaymentMethod paymentMethod, BigDecimal amount) {
+        if (!enabled || subject == null) {
+            return true;
+        }
+        VelocityCounter counter = counters.get(new VelocityKey(subject, paymentMethod));
+        if (counter == null) {
+            return toCents(amount) <= maxAmountCents && maxPayments > 0;
+        }
+        long epoch = clock.getAsLong() / slotMillis;
+        return !counter.exceeds(epoch, maxPayments - 1, maxAmountCents - toCents(amount));
+    }
+    
+    @Scheduled(fixedDelayString = "${ecommerce.velocity.eviction-interval-ms:60000}")
+    public void evictIdleKeys() {
+        // A counter idle for a full window holds nothing, so racing with a late add loses at most that add
+        long epoch = clock.getAsLong() / slotMillis;
+        counters.values().removeIf(counter -> epoch - counter.getLastTouchedEpoch() >= SLOTS);
+    }
+    
+    public int getTrackedKeyCount() {
+        return counters.size();
+    }
+    
+    private static long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValue();
+    }
+}
@@ -1,13 +1,16 @@
 package com.example.ecommerce.service;
 
+import com.example.ecommerce.analytics.TrendingProduct;
 import com.example.ecommerce.model.Product;
 import com.example.ecommerce.repository.ProductRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -22,6 +25,9 @@ public class ProductService {
     @Autowired
     private AuditService auditService;
     
+    @Autowired
+    private TrendingProductsService trendingProductsService;
+    
     private static final int LOW_STOCK_THRESHOLD = 10;
     
     public Product createProduct(String name, String description, BigDecimal price, Integer stockQuantity, String category) {
@@ -58,6 +64,10 @@ public class ProductService {
         return productRepository.findByNameContaining(keyword);
     }
     
+    public List<TrendingProduct> getTrendingProducts(String category, int limit) {
+        return trendingProductsService.getTopProducts(category, limit);
+    }
+    
     public Product updateProduct(Long id, String name, String description, BigDecimal price, String category) {
         Optional<Product> optionalProduct = productRepository.findById(id);
         
@@ -80,6 +90,10 @@ public class ProductService {
         return updatedProduct;
     }
     
+    /**
+     * Reduces stock; a low-stock alert is queued in the same transaction as the update.
+     */
+    @Transactional
     public void reduceStock(Long productId, int quantity) {
         Optional<Product> optionalProduct = productRepository.findById(productId);
         
@@ -119,6 +133,31 @@ public class ProductService {
         auditService.logStockUpdated(productId, oldStock, product.getStockQuantity());
     }
     
+    /**
+     * Returns stock for several products, with one read and one update statement per product.
+     */
+    @Transactional
+    public void increaseStock(Map<Long, Integer> quantitiesByProduct) {
+        if (quantitiesByProduct.isEmpty()) {
+            return;
+        }
+        
+        List<Product> products = productRepository.findAllById(quantitiesByProduct.keySet());
+        if (products.size() != quantitiesByProduct.size()) {
+            throw new IllegalArgumentException("Products not found among IDs: " + quantitiesByProduct.keySet());
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        for (Product product : products) {
+            int oldStock = product.getStockQuantity();
+            int quantity = quantitiesByProduct.get(product.getId());
+            productRepository.increaseStock(product.getId(), quantity, now);
+            
+            // Log audit
+            auditService.logStockUpdated(product.getId(), oldStock, oldStock + quantity);
+        }
+    }
+    
     public boolean isProductAvailable(Long productId, int requestedQuantity) {
         Optional<Product> optionalProduct = productRepository.findById(productId);
         if (!optionalProduct.isPresent()) {
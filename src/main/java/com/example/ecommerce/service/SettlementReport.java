@@ -0,0 +1,97 @@
+package com.example.ecommerce.service;
+
+import java.util.Arrays;
+
+/**
+ * Outcome of a single settlement run: counts, throughput and gateway latency percentiles
+ */
+public class SettlementReport {
+    
+    private final int processed;
+    private final int completed;
+    private final int failed;
+    private final int leftPending;
+    private final int chunks;
+    private final long elapsedMillis;
+    private final double p50Millis;
+    private final double p95Millis;
+    private final double p99Millis;
+    private final double maxMillis;
+    
+    SettlementReport(int completed, int failed, int leftPending, int chunks, long elapsedNanos,
+                     long[] latencyNanos, int latencyCount) {
+        this.processed = completed + failed + leftPending;
+        this.completed = completed;
+        this.failed = failed;
+        this.leftPending = leftPending;
+        this.chunks = chunks;
+        this.elapsedMillis = elapsedNanos / 1_000_000;
+        
+        long[] sorted = Arrays.copyOf(latencyNanos, latencyCount);
+        Arrays.sort(sorted);
+        this.p50Millis = percentileMillis(sorted, 0.50);
+        this.p95Millis = percentileMillis(sorted, 0.95);
+        this.p99Millis = percentileMillis(sorted, 0.99);
+        this.maxMillis = sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1_000_000.0;
+    }
+    
+    public int getProcessed() {
+        return processed;
+    }
+    
+    public int getCompleted() {
+        return completed;
+    }
+    
+    public int getFailed() {
+        return failed;
+    }
+    
+    public int getLeftPending() {
+        return leftPending;
+    }
+    
+    public int getChunks() {
+        return chunks;
+    }
+    
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+    
+    public double getThroughputPerSecond() {
+        return elapsedMillis == 0 ? processed : processed * 1000.0 / elapsedMillis;
+    }
+    
+    public double getP50Millis() {
+        return p50Millis;
+    }
+    
+    public double getP95Millis() {
+        return p95Millis;
+    }
+    
+    public double getP99Millis() {
+        return p99Millis;
+    }
+    
+    public double getMaxMillis() {
+        return maxMillis;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("processed=%d completed=%d failed=%d pending=%d chunks=%d elapsed=%dms "
+                + "throughput=%.1f/s p50=%.1fms p95=%.1fms p99=%.1fms max=%.1fms",
+                processed, completed, failed, leftPending, chunks, elapsedMillis,
+                getThroughputPerSecond(), p50Millis, p95Millis, p99Millis, maxMillis);
+    }
+    
+    private static double percentileMillis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.analytics.SlidingWindowCountMinSketch;
+import com.example.ecommerce.analytics.SpaceSavingTopK;
+import com.example.ecommerce.analytics.TrendingProduct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Trending Products Service - Live best-sellers per category over a sliding window
+ * Fed by OrderService once an order commits; memory per category is fixed by configuration, and the number
+ * of categories tracked is capped, evicting the one idle longest when a new category arrives at the cap.
+ */
+@Service
+public class TrendingProductsService {
+    
+    static final String ALL_CATEGORIES = "*";
+    
+    private final ConcurrentMap<String, CategoryTrend> trends = new ConcurrentHashMap<>();
+    
+    private final long windowMillis;
+    private final int bucketCount;
+    private final int sketchWidth;
+    private final int sketchDepth;
+    private final int topKCapacity;
+    private final int maxCategories;
+    private final LongSupplier clock;
+    
+    @Autowired
+    public TrendingProductsService(@Value("${ecommerce.trending.window-minutes:60}") long windowMinutes,
+                                   @Value("${ecommerce.trending.buckets:12}") int bucketCount,
+                                   @Value("${ecommerce.trending.sketch-width:512}") int sketchWidth,
+                                   @Value("${ecommerce.trending.sketch-depth:4}") int sketchDepth,
+                                   @Value("${ecommerce.trending.top-k-capacity:64}") int topKCapacity,
+                                   @Value("${ecommerce.trending.max-categories:1000}") int maxCategories) {
+        this(TimeUnit.MINUTES.toMillis(windowMinutes), bucketCount, sketchWidth, sketchDepth, topKCapacity,
+             maxCategories, System::currentTimeMillis);
+    }
+    
+    TrendingProductsService(long windowMillis, int bucketCount, int sketchWidth, int sketchDepth,
+                            int topKCapacity, int maxCategories, LongSupplier clock) {
+        if (maxCategories < 1) {
+            throw new IllegalArgumentException("At least one category must be tracked");
+        }
+        this.windowMillis = windowMillis;
+        this.bucketCount = bucketCount;
+        this.sketchWidth = sketchWidth;
+        this.sketchDepth = sketchDepth;
+        this.topKCapacity = topKCapacity;
+        this.maxCategories = maxCategories;
+        this.clock = clock;
+    }
+    
+    public void recordSale(Long productId, String category, int quantity) {
+        if (productId == null || quantity <= 0) {
+            return;
+        }
+        long now = clock.getAsLong();
+        trendFor(ALL_CATEGORIES, now).record(productId, quantity, now);
+        if (category != null) {
+            trendFor(category, now).record(productId, quantity, now);
+        }
+    }
+    
+    /**
+     * Returns the current top-N products for a category, or across all categories when category is null.
+     */
+    public List<TrendingProduct> getTopProducts(String category, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        CategoryTrend trend = trends.get(category == null ? ALL_CATEGORIES : category);
+        if (trend == null) {
+            return Collections.emptyList();
+        }
+        return trend.top(limit, clock.getAsLong());
+    }
+    
+    private CategoryTrend trendFor(String category, long now) {
+        CategoryTrend trend = trends.get(category);
+        if (trend != null) {
+            return trend;
+        }
+        // The all-categories trend does not count against the cap
+        if (trends.size() > maxCategories) {
+            evictIdlest();
+        }
+        return trends.computeIfAbsent(category, key -> new CategoryTrend(now));
+    }
+    
+    private void evictIdlest() {
+        trends.entrySet().stream()
+                .filter(entry -> !entry.getKey().equals(ALL_CATEGORIES))
+                .min(Comparator.comparingLong(entry -> entry.getValue().lastRecorded))
+                .ifPresent(entry -> trends.remove(entry.getKey(), entry.getValue()));
+    }
+    
+    int trackedCategories() {
+        return trends.size() - (trends.containsKey(ALL_CATEGORIES) ? 1 : 0);
+    }
+    
+    private final class CategoryTrend {
+        
+        private final SlidingWindowCountMinSketch sketch =
+                new SlidingWindowCountMinSketch(windowMillis, bucketCount, sketchWidth, sketchDepth);
+        private final SpaceSavingTopK topK = new SpaceSavingTopK(topKCapacity);
+        private long lastEpoch = -1;
+        private volatile long lastRecorded;
+        
+        CategoryTrend(long now) {
+            this.lastRecorded = now;
+        }
+        
+        synchronized void record(long productId, int quantity, long now) {
+            lastRecorded = now;
+            rescoreOnRollover(now);
+            sketch.add(productId, quantity, now);
+            topK.add(productId, quantity);
+        }
+        
+        synchronized List<TrendingProduct> top(int limit, long now) {
+            rescoreOnRollover(now);
+            List<TrendingProduct> ranked = new ArrayList<>(topK.size());
+            for (Long productId : topK.keys()) {
+                long estimate = sketch.estimate(productId, now);
+                if (estimate > 0) {
+                    ranked.add(new TrendingProduct(productId, estimate));
+                }
+            }
+            ranked.sort(Comparator.comparingLong(TrendingProduct::getEstimatedQuantity).reversed());
+            return ranked.size() > limit ? new ArrayList<>(ranked.subList(0, limit)) : ranked;
+        }
+        
+        // Candidate counts are re-based on the window whenever a bucket expires,
+        // so products that stopped selling sink to the bottom and get replaced
+        private void rescoreOnRollover(long now) {
+            long epoch = sketch.epochOf(now);
+            if (epoch != lastEpoch) {
+                if (lastEpoch >= 0) {
+                    topK.rescore(key -> sketch.estimate(key, now));
+                }
+                lastEpoch = epoch;
+            }
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.importer.BloomFilter;
+import com.example.ecommerce.importer.UserImportRecord;
+import com.example.ecommerce.importer.UserImportReport;
+import com.example.ecommerce.model.User;
+import com.example.ecommerce.repository.UserRepository;
+import com.example.ecommerce.security.PasswordHasher;
+import com.example.ecommerce.security.PasswordHashingPool;
+import com.example.ecommerce.security.PasswordHashingRejectedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * User Import Service - Bulk-loads users in chunks.
+ * Emails are pre-filtered against a Bloom filter of stored emails so that only possible
+ * duplicates are confirmed against the database, with one IN query per chunk. Plain-text passwords are
+ * hashed on the shared {@link PasswordHashingPool} before they are stored, a few at a time so logins keep
+ * their queue slots.
+ * Dependencies: UserRepository, EmailService, AuditService, PasswordHasher, PasswordHashingPool
+ */
+@Service
+public class UserImportService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(UserImportService.class);
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private EmailService emailService;
+    
+    @Autowired
+    private AuditService auditService;
+    
+    @Autowired
+    private PasswordHasher passwordHasher;
+    
+    @Autowired
+    private PasswordHashingPool passwordHashingPool;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Value("${ecommerce.user-import.chunk-size:1000}")
+    private int chunkSize = 1000;
+    
+    @Value("${ecommerce.user-import.hashes-in-flight:4}")
+    private int hashesInFlight = 4;
+    
+    @Value("${ecommerce.user-import.expected-rows:1000000}")
+    private long defaultExpectedRows = 1_000_000;
+    
+    @Value("${ecommerce.user-import.bloom-false-positive-rate:0.01}")
+    private double bloomFalsePositiveRate = 0.01;
+    
+    public UserImportReport importUsers(Iterable<UserImportRecord> rows) {
+        long expectedRows = rows instanceof Collection ? ((Collection<?>) rows).size() : defaultExpectedRows;
+        return importUsers(rows, expectedRows);
+    }
+    
+    /**
+     * Imports the rows chunk by chunk, each chunk in its own transaction.
+     * Rows with missing fields or an email that already exists (in the database or earlier in the input) are skipped.
+     */
+    public UserImportReport importUsers(Iterable<UserImportRecord> rows, long expectedRows) {
+        long start = System.nanoTime();
+        
+        BloomFilter knownEmails = new BloomFilter(userRepository.count() + expectedRows, bloomFalsePositiveRate);
+        userRepository.forEachEmail(knownEmails::put);
+        
+        ImportTally tally = new ImportTally();
+        List<UserImportRecord> chunk = new ArrayList<>(chunkSize);
+        for (UserImportRecord row : rows) {
+            chunk.add(row);
+            if (chunk.size() == chunkSize) {
+                importChunk(chunk, knownEmails, tally);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, knownEmails, tally);
+        }
+        
+        UserImportReport report = new UserImportReport(tally.rowsRead, tally.imported, tally.duplicates,
+                tally.invalid, tally.bloomHits, tally.falsePositives, tally.chunks, System.nanoTime() - start);
+        logger.info("User import finished: {}", report);
+        return report;
+    }
+    
+    private void importChunk(List<UserImportRecord> chunk, BloomFilter knownEmails, ImportTally tally) {
+        tally.rowsRead += chunk.size();
+        tally.chunks++;
+        
+        Map<String, UserImportRecord> candidates = new LinkedHashMap<>();
+        Set<String> possibleDuplicates = new HashSet<>();
+        for (UserImportRecord row : chunk) {
+            if (!row.isComplete()) {
+                tally.invalid++;
+                continue;
+            }
+            String email = row.getEmail().trim();
+            if (candidates.putIfAbsent(email, row) != null) {
+                tally.duplicates++;
+                continue;
+            }
+            if (knownEmails.mightContain(email)) {
+                possibleDuplicates.add(email);
+            }
+        }
+        
+        if (!possibleDuplicates.isEmpty()) {
+            tally.bloomHits += possibleDuplicates.size();
+            List<String> existing = userRepository.findEmailsByEmailIn(possibleDuplicates);
+            candidates.keySet().removeAll(existing);
+            tally.duplicates += existing.size();
+            tally.falsePositives += possibleDuplicates.size() - existing.size();
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+        
+        List<String> passwords = hashPasswords(candidates.values());
+        List<User> users = new ArrayList<>(candidates.size());
+        int index = 0;
+        for (Map.Entry<String, UserImportRecord> entry : candidates.entrySet()) {
+            UserImportRecord row = entry.getValue();
+            users.add(new User(row.getFirstName(), row.getLastName(), entry.getKey(), passwords.get(index++),
+                    row.getPhone()));
+        }
+        Map<String, String> welcomeRecipients = new LinkedHashMap<>();
+        candidates.forEach((email, row) -> welcomeRecipients.put(email, row.getFirstName()));
+        
+        Integer inserted = transactionTemplate.execute(status -> {
+            int count = userRepository.batchInsert(users);
+            emailService.sendWelcomeEmails(welcomeRecipients);
+            auditService.logUserBatchImported(welcomeRecipients.keySet());
+            return count;
+        });
+        tally.imported += inserted == null ? 0 : inserted;
+        welcomeRecipients.keySet().forEach(knownEmails::put);
+    }
+    
+    /**
+     * Hashes dominate the chunk, so they run on the hashing pool with at most {@code hashesInFlight} submitted
+     * at once. A hash the pool sheds is computed on the importing thread instead, which also slows the import
+     * down while logins are busy. Values that are already hashes are kept.
+     */
+    private List<String> hashPasswords(Collection<UserImportRecord> rows) {
+        List<String> raw = new ArrayList<>(rows.size());
+        rows.forEach(row -> raw.add(row.getPassword()));
+        List<CompletableFuture<String>> hashes = new ArrayList<>(raw.size());
+        List<String> passwords = new ArrayList<>(raw.size());
+        for (int i = 0; i < raw.size(); i++) {
+            if (i >= hashesInFlight) {
+                passwords.add(awaitHash(hashes.get(i - hashesInFlight), raw.get(i - hashesInFlight)));
+            }
+            String password = raw.get(i);
+            hashes.add(PasswordHasher.isHashed(password) ? CompletableFuture.completedFuture(password)
+                    : passwordHashingPool.submit(() -> passwordHasher.hash(password)));
+        }
+        for (int i = passwords.size(); i < raw.size(); i++) {
+            passwords.add(awaitHash(hashes.get(i), raw.get(i)));
+        }
+        return passwords;
+    }
+    
+    private String awaitHash(CompletableFuture<String> hash, String password) {
+        try {
+            return PasswordHashingPool.await(hash);
+        } catch (PasswordHashingRejectedException e) {
+            return passwordHasher.hash(password);
+        }
+    }
+    
+    private static class ImportTally {
+        
+        long rowsRead;
+        long imported;
+        long duplicates;
+        long invalid;
+        long bloomHits;
+        long falsePositives;
+        long chunks;
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.export.DirectBufferPool;
+import com.example.ecommerce.export.SegmentExportResult;
+import com.example.ecommerce.export.SegmentFileWriter;
+import com.example.ecommerce.export.UserExportRow;
+import com.example.ecommerce.export.UserSegment;
+import com.example.ecommerce.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * User Segment Export Service - Streams user segments to CSV files for marketing.
+ * Rows come through a forward-only JDBC cursor inside a read-only transaction, so no entities are
+ * materialised or dirty-checked, and are encoded straight into pooled direct buffers.
+ * Dependencies: UserRepository
+ */
+@Service
+public class UserSegmentExportService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(UserSegmentExportService.class);
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${ecommerce.export.fetch-size:1000}")
+    private int fetchSize = 1000;
+    
+    @Value("${ecommerce.export.parallelism:4}")
+    private int parallelism = 4;
+    
+    @Value("${ecommerce.export.buffer-size-bytes:65536}")
+    private int bufferSize = 65536;
+    
+    @Value("${ecommerce.export.gzip-level:6}")
+    private int gzipLevel = 6;
+    
+    public SegmentExportResult exportSegment(UserSegment segment, Path file, boolean gzip) {
+        return exportSegments(Collections.singletonMap(segment, file), gzip).get(0);
+    }
+    
+    /**
+     * Exports each segment to its file, running up to the configured number of segments in parallel.
+     * Off-heap memory is bounded by the buffer pool: one buffer per running export, two with gzip.
+     */
+    public List<SegmentExportResult> exportSegments(Map<UserSegment, Path> files, boolean gzip) {
+        if (files.isEmpty()) {
+            return new ArrayList<>();
+        }
+        int threads = Math.min(parallelism, files.size());
+        DirectBufferPool bufferPool = new DirectBufferPool(threads * (gzip ? 2 : 1), bufferSize);
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("segment-export-");
+        threadFactory.setDaemon(true);
+        ExecutorService workers = Executors.newFixedThreadPool(threads, threadFactory);
+        
+        try {
+            Map<UserSegment, CompletableFuture<SegmentExportResult>> running = new LinkedHashMap<>();
+            files.forEach((segment, file) -> running.put(segment,
+                    CompletableFuture.supplyAsync(() -> export(segment, file, gzip, bufferPool), workers)));
+            
+            List<SegmentExportResult> results = new ArrayList<>(running.size());
+            for (CompletableFuture<SegmentExportResult> future : running.values()) {
+                try {
+                    results.add(future.join());
+                } catch (CompletionException e) {
+                    running.values().forEach(other -> other.cancel(true));
+                    if (e.getCause() instanceof RuntimeException) {
+                        throw (RuntimeException) e.getCause();
+                    }
+                    throw e;
+                }
+            }
+            return results;
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+    
+    private SegmentExportResult export(UserSegment segment, Path file, boolean gzip, DirectBufferPool bufferPool) {
+        long start = System.nanoTime();
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        
+        SegmentExportResult result = readOnly.execute(status -> {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+                 SegmentFileWriter writer = new SegmentFileWriter(channel, bufferPool, gzip, gzipLevel)) {
+                StringBuilder line = new StringBuilder(256);
+                long[] rows = new long[1];
+                writer.write(UserExportRow.CSV_HEADER);
+                userRepository.forEachInSegment(segment, fetchSize, row -> {
+                    line.setLength(0);
+                    row.appendCsv(line);
+                    try {
+                        writer.write(line);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    rows[0]++;
+                });
+                writer.close();
+                return new SegmentExportResult(segment, file, rows[0], writer.getBytesWritten(),
+                        writer.getUncompressedBytes(), System.nanoTime() - start);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to export segment " + segment + " to " + file, e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while exporting segment " + segment, e);
+            }
+        });
+        logger.info("Segment export finished: {}", result);
+        return result;
+    }
+}
@@ -2,16 +2,22 @@ package com.example.ecommerce.service;
 
 import com.example.ecommerce.model.User;
 import com.example.ecommerce.repository.UserRepository;
+import com.example.ecommerce.security.PasswordHasher;
+import com.example.ecommerce.security.PasswordHashingPool;
+import com.example.ecommerce.security.SessionTokenCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * User Service - Manages user operations
- * Dependencies: UserRepository, EmailService, AuditService
+ * Dependencies: UserRepository, EmailService, AuditService, LastLoginWriteBuffer,
+ * PasswordHasher, PasswordHashingPool, SessionTokenCache, TransactionTemplate
  */
 @Service
 public class UserService {
@@ -25,16 +31,44 @@ public class UserService {
     @Autowired
     private AuditService auditService;
     
+    @Autowired
+    private LastLoginWriteBuffer lastLoginWriteBuffer;
+    
+    @Autowired
+    private PasswordHasher passwordHasher;
+    
+    @Autowired
+    private PasswordHashingPool passwordHashingPool;
+    
+    @Autowired
+    private SessionTokenCache sessionTokenCache;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
     public User createUser(String firstName, String lastName, String email, String password, String phone) {
+        return createUser(firstName, lastName, email, password, phone, null);
+    }
+    
+    /**
+     * Creates the user with the language tag their emails are rendered in; null keeps the default locale.
+     */
+    public User createUser(String firstName, String lastName, String email, String password, String phone,
+                           String locale) {
         if (userRepository.existsByEmail(email)) {
             throw new IllegalArgumentException("Email already exists: " + email);
         }
         
-        User user = new User(firstName, lastName, email, password, phone);
-        User savedUser = userRepository.save(user);
+        String passwordHash = PasswordHashingPool.await(passwordHashingPool.submit(() -> passwordHasher.hash(password)));
+        User user = new User(firstName, lastName, email, passwordHash, phone);
+        user.setLocale(locale);
         
-        // Send welcome email
-        emailService.sendWelcomeEmail(email, firstName);
+        // Hashing stays outside the transaction; the welcome email commits or rolls back with the user
+        User savedUser = transactionTemplate.execute(status -> {
+            User saved = userRepository.save(user);
+            emailService.sendWelcomeEmail(email, firstName, locale);
+            return saved;
+        });
         
         // Log audit
         auditService.logUserCreated(savedUser.getId(), email);
@@ -42,12 +76,68 @@ public class UserService {
         return savedUser;
     }
     
+    /**
+     * Verifies the password and returns a session token that {@link #authenticateToken} accepts without hashing.
+     * Throws PasswordHashingRejectedException when the hashing pool sheds the attempt.
+     */
+    public Optional<String> authenticate(String email, String rawPassword) {
+        return PasswordHashingPool.await(authenticateAsync(email, rawPassword));
+    }
+    
+    /**
+     * Runs the password check on the hashing pool, upgrading legacy or weak hashes after a successful match.
+     */
+    public CompletableFuture<Optional<String>> authenticateAsync(String email, String rawPassword) {
+        Optional<User> optionalUser = userRepository.findByEmail(email);
+        if (!optionalUser.isPresent() || !Boolean.TRUE.equals(optionalUser.get().getActive())) {
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+        
+        Long userId = optionalUser.get().getId();
+        String storedPassword = optionalUser.get().getPassword();
+        return passwordHashingPool.submit(() -> {
+            if (!passwordHasher.matches(rawPassword, storedPassword)) {
+                return false;
+            }
+            // Conditional, so a password changed since it was read here is left alone
+            if (passwordHasher.needsRehash(storedPassword)) {
+                userRepository.updatePasswordIfUnchanged(userId, storedPassword, passwordHasher.hash(rawPassword));
+            }
+            return true;
+        }).thenApply(matched -> {
+            if (!matched) {
+                return Optional.empty();
+            }
+            updateLastLogin(userId);
+            return Optional.of(sessionTokenCache.issue(userId));
+        });
+    }
+    
+    public Optional<Long> authenticateToken(String token) {
+        return sessionTokenCache.resolve(token);
+    }
+    
+    public void logout(String token) {
+        sessionTokenCache.invalidate(token);
+    }
+    
+    /**
+     * Stores a freshly hashed password and drops the user's cached sessions.
+     */
+    public void changePassword(Long id, String rawPassword) {
+        String passwordHash = PasswordHashingPool.await(passwordHashingPool.submit(() -> passwordHasher.hash(rawPassword)));
+        if (userRepository.updatePassword(id, passwordHash) == 0) {
+            throw new IllegalArgumentException("User not found with ID: " + id);
+        }
+        sessionTokenCache.invalidateUser(id);
+    }
+    
     public Optional<User> getUserById(Long id) {
-        return userRepository.findById(id);
+        return userRepository.findById(id).map(this::withPendingLastLogin);
     }
     
     public Optional<User> getUserByEmail(String email) {
-        return userRepository.findByEmail(email);
+        return userRepository.findByEmail(email).map(this::withPendingLastLogin);
     }
     
     public List<User> getAllUsers() {
@@ -65,7 +155,7 @@ public class UserService {
             throw new IllegalArgumentException("User not found with ID: " + id);
         }
         
-        User user = optionalUser.get();
+        User user = applyPendingLastLogin(optionalUser.get());
         user.setFirstName(firstName);
         user.setLastName(lastName);
         user.setPhone(phone);
@@ -81,21 +171,20 @@ public class UserService {
         return updatedUser;
     }
     
+    /**
+     * Buffers the login timestamp; it is written with the next batched flush of {@link LastLoginWriteBuffer}.
+     */
     public void updateLastLogin(Long userId) {
-        Optional<User> optionalUser = userRepository.findById(userId);
-        if (optionalUser.isPresent()) {
-            User user = optionalUser.get();
-            user.setLastLoginAt(LocalDateTime.now());
-            userRepository.save(user);
-        }
+        lastLoginWriteBuffer.record(userId, LocalDateTime.now());
     }
     
     public void deactivateUser(Long id) {
         Optional<User> optionalUser = userRepository.findById(id);
         if (optionalUser.isPresent()) {
-            User user = optionalUser.get();
+            User user = applyPendingLastLogin(optionalUser.get());
             user.setActive(false);
             userRepository.save(user);
+            sessionTokenCache.invalidateUser(id);
             
             auditService.logUserUpdated(id, user.getEmail());
         }
@@ -103,5 +192,46 @@ public class UserService {
     
     public void deleteUser(Long id) {
         userRepository.deleteById(id);
+        sessionTokenCache.invalidateUser(id);
+    }
+    
+    /**
+     * Shows a buffered login newer than the stored one on a copy of {@code user}. The entity may be managed
+     * by the caller's transaction, which would flush the overlay as a full-row update and undo the batching.
+     */
+    private User withPendingLastLogin(User user) {
+        LocalDateTime pending = pendingLastLogin(user);
+        if (pending == null) {
+            return user;
+        }
+        User copy = new User(user.getFirstName(), user.getLastName(), user.getEmail(), user.getPassword(), user.getPhone());
+        copy.setId(user.getId());
+        copy.setAddress(user.getAddress());
+        copy.setCity(user.getCity());
+        copy.setZipCode(user.getZipCode());
+        copy.setCreatedAt(user.getCreatedAt());
+        copy.setActive(user.getActive());
+        copy.setLocale(user.getLocale());
+        copy.setLastLoginAt(pending);
+        return copy;
+    }
+    
+    /**
+     * Carries a buffered login into an entity that is about to be saved as a whole.
+     */
+    private User applyPendingLastLogin(User user) {
+        LocalDateTime pending = pendingLastLogin(user);
+        if (pending != null) {
+            user.setLastLoginAt(pending);
+        }
+        return user;
+    }
+    
+    private LocalDateTime pendingLastLogin(User user) {
+        LocalDateTime pending = lastLoginWriteBuffer.getPending(user.getId());
+        if (pending != null && (user.getLastLoginAt() == null || pending.isAfter(user.getLastLoginAt()))) {
+            return pending;
+        }
+        return null;
     }
 }
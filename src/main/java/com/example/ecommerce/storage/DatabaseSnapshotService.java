@@ -0,0 +1,124 @@
+package com.example.ecommerce.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Online snapshots of the file-backed database (the file profile).
+ * A snapshot is H2's {@code BACKUP TO}: a zip of the MVStore file taken while the application keeps writing,
+ * consistent as of one point in time. It is written under a temporary name and renamed when complete, so a
+ * crash mid-backup never leaves a truncated snapshot behind. Only the newest {@code keep} snapshots are kept.
+ * Restoring one is a startup option, see {@link SnapshotRestorer}.
+ */
+@Service
+@ConditionalOnProperty(name = "ecommerce.storage.mode", havingValue = "file")
+public class DatabaseSnapshotService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseSnapshotService.class);
+    
+    /** Database name in {@code spring.datasource.url}; also the prefix of the files inside a snapshot. */
+    public static final String DATABASE_NAME = "ecommerce";
+    
+    private static final String SNAPSHOT_SUFFIX = ".zip";
+    private static final String PARTIAL_SUFFIX = ".part";
+    private static final DateTimeFormatter SNAPSHOT_NAME = DateTimeFormatter
+            .ofPattern("'" + DATABASE_NAME + "-'yyyyMMdd-HHmmss-SSS'" + SNAPSHOT_SUFFIX + "'")
+            .withZone(ZoneOffset.UTC);
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Value("${ecommerce.storage.snapshot.directory:./data/snapshots}")
+    private String snapshotDirectory;
+    
+    @Value("${ecommerce.storage.snapshot.keep:7}")
+    private int keep;
+    
+    /**
+     * Takes a snapshot and prunes the oldest beyond the retention count. Snapshots are serialized; readers and
+     * writers carry on while one is taken.
+     */
+    public synchronized Path snapshot() {
+        Path directory = Paths.get(snapshotDirectory);
+        Path target = directory.resolve(SNAPSHOT_NAME.format(Instant.now()));
+        Path partial = target.resolveSibling(target.getFileName() + PARTIAL_SUFFIX);
+        long start = System.nanoTime();
+        try {
+            Files.createDirectories(directory);
+            jdbcTemplate.execute("BACKUP TO '" + partial.toAbsolutePath().toString().replace("'", "''") + "'");
+            Files.move(partial, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write snapshot " + target, e);
+        } finally {
+            deleteQuietly(partial);
+        }
+        logger.info("Database snapshot {} written in {} ms ({} bytes)", target,
+                (System.nanoTime() - start) / 1_000_000, sizeOf(target));
+        prune();
+        return target;
+    }
+    
+    /**
+     * Complete snapshots, newest first.
+     */
+    public List<Path> listSnapshots() {
+        Path directory = Paths.get(snapshotDirectory);
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(DATABASE_NAME + "-") && name.endsWith(SNAPSHOT_SUFFIX);
+                    })
+                    .sorted(Comparator.comparing((Path path) -> path.getFileName().toString()).reversed())
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not list snapshots in " + directory, e);
+        }
+    }
+    
+    private void prune() {
+        List<Path> snapshots = listSnapshots();
+        for (Path expired : snapshots.subList(Math.min(Math.max(keep, 1), snapshots.size()), snapshots.size())) {
+            deleteQuietly(expired);
+            logger.info("Deleted expired database snapshot {}", expired);
+        }
+    }
+    
+    static long sizeOf(Path path) {
+        try {
+            return Files.size(path);
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+    
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warn("Could not delete {}", path, e);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.ecommerce.storage;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * {@code /actuator/snapshots}: GET lists the database snapshots, newest first; POST takes one.
+ */
+@Component
+@Endpoint(id = "snapshots")
+@ConditionalOnProperty(name = "ecommerce.storage.mode", havingValue = "file")
+public class SnapshotEndpoint {
+    
+    @Autowired
+    private DatabaseSnapshotService snapshotService;
+    
+    @ReadOperation
+    public List<Map<String, Object>> snapshots() {
+        return snapshotService.listSnapshots().stream().map(SnapshotEndpoint::describe).collect(Collectors.toList());
+    }
+    
+    @WriteOperation
+    public Map<String, Object> snapshot() {
+        return describe(snapshotService.snapshot());
+    }
+    
+    private static Map<String, Object> describe(Path snapshot) {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("name", snapshot.getFileName().toString());
+        description.put("path", snapshot.toAbsolutePath().normalize().toString());
+        description.put("bytes", DatabaseSnapshotService.sizeOf(snapshot));
+        return description;
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.ecommerce.storage;
+
+import org.apache.commons.logging.Log;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.boot.logging.DeferredLogFactory;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Restores the file-backed database from a snapshot before anything connects to it, when started with
+ * {@code --ecommerce.storage.restore-from=<snapshot.zip>}. The MVStore file is unpacked as is, so a restart
+ * after a restore opens the database directly instead of replaying its contents. The snapshot is unpacked into a
+ * staging directory first, so a snapshot without the database leaves the live files untouched; only then is a
+ * database file already in {@code ecommerce.storage.directory} kept next to it with a {@code .replaced-<millis>}
+ * suffix and the unpacked files moved into place.
+ * Runs as an EnvironmentPostProcessor (registered in META-INF/spring.factories) because the DataSource,
+ * Flyway and the R2DBC pool may all open the database during context refresh.
+ */
+public class SnapshotRestorer implements EnvironmentPostProcessor {
+    
+    private static final String MV_STORE_SUFFIX = ".mv.db";
+    
+    private final Log logger;
+    
+    public SnapshotRestorer(DeferredLogFactory logFactory) {
+        this.logger = logFactory.getLog(SnapshotRestorer.class);
+    }
+    
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        String snapshot = environment.getProperty("ecommerce.storage.restore-from", "");
+        if (snapshot.isEmpty()) {
+            return;
+        }
+        if (!"file".equals(environment.getProperty("ecommerce.storage.mode"))) {
+            throw new IllegalStateException("ecommerce.storage.restore-from needs the file storage mode (file profile)");
+        }
+        restore(Paths.get(snapshot), Paths.get(environment.getProperty("ecommerce.storage.directory", "./data/db")));
+    }
+    
+    void restore(Path snapshot, Path directory) {
+        if (!Files.isRegularFile(snapshot)) {
+            throw new IllegalArgumentException("Snapshot not found: " + snapshot);
+        }
+        long start = System.nanoTime();
+        Path staging = null;
+        try {
+            Files.createDirectories(directory);
+            // Staged in the same directory, so the files can be moved into place atomically
+            staging = Files.createTempDirectory(directory, ".restore-");
+            if (!unpack(snapshot, staging)) {
+                throw new IllegalArgumentException("No " + DatabaseSnapshotService.DATABASE_NAME + MV_STORE_SUFFIX
+                        + " in snapshot " + snapshot);
+            }
+            Path current = directory.resolve(DatabaseSnapshotService.DATABASE_NAME + MV_STORE_SUFFIX);
+            if (Files.exists(current)) {
+                Path replaced = current.resolveSibling(current.getFileName() + ".replaced-" + System.currentTimeMillis());
+                Files.move(current, replaced, StandardCopyOption.ATOMIC_MOVE);
+                logger.info("Kept the replaced database as " + replaced);
+            }
+            List<Path> unpacked;
+            try (Stream<Path> files = Files.list(staging)) {
+                unpacked = files.collect(Collectors.toList());
+            }
+            for (Path file : unpacked) {
+                Files.move(file, directory.resolve(file.getFileName()), StandardCopyOption.ATOMIC_MOVE,
+                        StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not restore " + snapshot + " into " + directory, e);
+        } finally {
+            deleteStaging(staging);
+        }
+        logger.info("Restored database from " + snapshot + " into " + directory + " in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+    
+    private void deleteStaging(Path staging) {
+        if (staging == null) {
+            return;
+        }
+        try {
+            FileSystemUtils.deleteRecursively(staging);
+        } catch (IOException e) {
+            logger.warn("Could not delete restore staging directory " + staging, e);
+        }
+    }
+    
+    /**
+     * Extracts the database's files (entries named after it, at the top level of the zip) into the directory.
+     * Returns whether the MVStore file was among them.
+     */
+    private static boolean unpack(Path snapshot, Path directory) throws IOException {
+        boolean found = false;
+        try (InputStream file = Files.newInputStream(snapshot); ZipInputStream zip = new ZipInputStream(new BufferedInputStream(file))) {
+            for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+                String name = entry.getName();
+                if (entry.isDirectory() || !name.startsWith(DatabaseSnapshotService.DATABASE_NAME + ".")
+                        || name.contains("/") || name.contains("\\")) {
+                    continue;
+                }
+                Files.copy(zip, directory.resolve(name), StandardCopyOption.REPLACE_EXISTING);
+                found |= name.equals(DatabaseSnapshotService.DATABASE_NAME + MV_STORE_SUFFIX);
+            }
+        }
+        return found;
+    }
+}
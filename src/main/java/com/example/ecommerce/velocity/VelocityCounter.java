@@ -0,0 +1,107 @@
+package com.example.ecommerce.velocity;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free sliding-window counter of payment count and amount (in cents).
+ * Each ring slot packs a 24-bit epoch tag with a 40-bit value in one long, so a slot
+ * is reset and incremented by a single CAS with no separate clearing step.
+ * Count and amount cells are interleaved so a window scan reads one contiguous array.
+ */
+public class VelocityCounter {
+    
+    private static final int VALUE_BITS = 40;
+    private static final long VALUE_MASK = (1L << VALUE_BITS) - 1;
+    private static final long TAG_MASK = (1L << (Long.SIZE - VALUE_BITS)) - 1;
+    private static final long NEWER_TAG_LIMIT = TAG_MASK >>> 1;
+    
+    private final AtomicLongArray cells;
+    private final int slots;
+    private volatile long lastTouchedEpoch;
+    
+    public VelocityCounter(int slots) {
+        if (slots <= 0 || slots > NEWER_TAG_LIMIT) {
+            throw new IllegalArgumentException("Slot count out of range: " + slots);
+        }
+        this.slots = slots;
+        this.cells = new AtomicLongArray(slots * 2);
+    }
+    
+    /**
+     * Adds to the slot for the given epoch; negative deltas undo an earlier add.
+     */
+    public void add(long epoch, long count, long amountCents) {
+        int slot = (int) (epoch % slots);
+        long tag = epoch & TAG_MASK;
+        add(slot * 2, tag, count);
+        add(slot * 2 + 1, tag, amountCents);
+        lastTouchedEpoch = epoch;
+    }
+    
+    /**
+     * True if the window ending at the given epoch holds more than either limit.
+     */
+    public boolean exceeds(long epoch, long maxCount, long maxAmountCents) {
+        long tag = epoch & TAG_MASK;
+        long count = 0;
+        long amount = 0;
+        for (int i = 0; i < slots * 2; i += 2) {
+            long countCell = cells.get(i);
+            if (isLive(countCell, tag)) {
+                count += countCell & VALUE_MASK;
+            }
+            long amountCell = cells.get(i + 1);
+            if (isLive(amountCell, tag)) {
+                amount += amountCell & VALUE_MASK;
+            }
+        }
+        return count > maxCount || amount > maxAmountCents;
+    }
+    
+    public long count(long epoch) {
+        return sum(0, epoch & TAG_MASK);
+    }
+    
+    public long amountCents(long epoch) {
+        return sum(1, epoch & TAG_MASK);
+    }
+    
+    public long getLastTouchedEpoch() {
+        return lastTouchedEpoch;
+    }
+    
+    private void add(int index, long tag, long delta) {
+        while (true) {
+            long current = cells.get(index);
+            long currentTag = current >>> VALUE_BITS;
+            long value;
+            if (currentTag == tag) {
+                value = current & VALUE_MASK;
+            } else if (current != 0 && ((currentTag - tag) & TAG_MASK) < NEWER_TAG_LIMIT) {
+                // The slot has already moved on to a newer epoch; a late undo has nothing to undo
+                return;
+            } else {
+                value = 0;
+            }
+            long updated = Math.max(0, Math.min(VALUE_MASK, value + delta));
+            if (cells.compareAndSet(index, current, (tag << VALUE_BITS) | updated)) {
+                return;
+            }
+        }
+    }
+    
+    private long sum(int offset, long tag) {
+        long total = 0;
+        for (int i = offset; i < slots * 2; i += 2) {
+            long cell = cells.get(i);
+            if (isLive(cell, tag)) {
+                total += cell & VALUE_MASK;
+            }
+        }
+        return total;
+    }
+    
+    private boolean isLive(long cell, long tag) {
+        return ((tag - (cell >>> VALUE_BITS)) & TAG_MASK) < slots;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.ecommerce.velocity;
+
+import com.example.ecommerce.model.Payment.PaymentMethod;
+
+import java.util.Objects;
+
+/**
+ * Identifies whose payments are being counted: a customer and the payment method they use
+ */
+public final class VelocityKey {
+    
+    private final String subject;
+    private final PaymentMethod paymentMethod;
+    private final int hash;
+    
+    public VelocityKey(String subject, PaymentMethod paymentMethod) {
+        this.subject = subject;
+        this.paymentMethod = paymentMethod;
+        this.hash = 31 * subject.hashCode() + paymentMethod.hashCode();
+    }
+    
+    public String getSubject() {
+        return subject;
+    }
+    
+    public PaymentMethod getPaymentMethod() {
+        return paymentMethod;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof VelocityKey)) {
+            return false;
+        }
+        VelocityKey other = (VelocityKey) o;
+        return paymentMethod == other.paymentMethod && Objects.equals(subject, other.subject);
+    }
+    
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+    
+    @Override
+    public String toString() {
+        return subject + "/" + paymentMethod;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.ecommerce.web;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Maps service failures to responses as the service contracts define them:
+ * IllegalArgumentException to 400 and IllegalStateException to 409, with body {@code {"error": message}}.
+ */
+@RestControllerAdvice(basePackageClasses = ApiExceptionHandler.class)
+public class ApiExceptionHandler {
+    
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> badRequest(IllegalArgumentException e) {
+        return error(HttpStatus.BAD_REQUEST, e);
+    }
+    
+    @ExceptionHandler(IllegalStateException.class)
+    public ResponseEntity<Map<String, String>> conflict(IllegalStateException e) {
+        return error(HttpStatus.CONFLICT, e);
+    }
+    
+    private static ResponseEntity<Map<String, String>> error(HttpStatus status, RuntimeException e) {
+        String message = e.getMessage() != null ? e.getMessage() : status.getReasonPhrase();
+        return ResponseEntity.status(status).body(Collections.singletonMap("error", message));
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.ecommerce.web;
+
+import com.example.ecommerce.model.Order;
+import com.example.ecommerce.model.Order.OrderStatus;
+import com.example.ecommerce.model.Payment.PaymentMethod;
+import com.example.ecommerce.service.ListingStreamService;
+import com.example.ecommerce.service.OrderService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Order lifecycle endpoints over {@link OrderService}. {@code GET /api/orders/stream} writes every order, or those
+ * with {@code ?status=}, as NDJSON from a database cursor.
+ */
+@RestController
+@RequestMapping(OrderController.BASE_PATH)
+public class OrderController {
+    
+    public static final String BASE_PATH = "/api/orders";
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private ListingStreamService listingStreamService;
+    
+    @PostMapping
+    public ResponseEntity<Order> create(@RequestBody CreateOrderRequest request) {
+        if (request.getUserId() == null || request.getItems() == null || request.getItems().isEmpty()) {
+            throw new IllegalArgumentException("userId and items are required");
+        }
+        PaymentMethod method = request.getPaymentMethod() != null ? request.getPaymentMethod() : PaymentMethod.CREDIT_CARD;
+        Order order = orderService.createOrder(request.getUserId(), request.getItems(), method);
+        return ResponseEntity.created(URI.create(BASE_PATH + "/" + order.getId())).body(order);
+    }
+    
+    @GetMapping("/{id}")
+    public ResponseEntity<Order> get(@PathVariable Long id) {
+        return ResponseEntity.of(orderService.getOrderById(id));
+    }
+    
+    @GetMapping
+    public List<Order> list(@RequestParam(required = false) Long userId,
+                            @RequestParam(required = false) OrderStatus status) {
+        if (userId != null && status != null) {
+            return orderService.getUserOrdersByStatus(userId, status);
+        } else if (userId != null) {
+            return orderService.getOrdersByUserId(userId);
+        } else if (status != null) {
+            return orderService.getOrdersByStatus(status);
+        }
+        throw new IllegalArgumentException("userId or status is required; use " + BASE_PATH + "/stream for all orders");
+    }
+    
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> stream(@RequestParam(required = false) OrderStatus status) {
+        StreamingResponseBody body = out -> listingStreamService.streamOrders(status, out);
+        // No Content-Length, so the container sends it chunked as the cursor advances
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+    
+    @PostMapping("/{id}/confirm")
+    public Order confirm(@PathVariable Long id) {
+        return orderService.confirmOrder(id);
+    }
+    
+    @PostMapping("/{id}/process")
+    public Order process(@PathVariable Long id, @RequestBody ProcessOrderRequest request) {
+        if (request.getUserEmail() == null) {
+            throw new IllegalArgumentException("userEmail is required");
+        }
+        return orderService.processOrder(id, request.getUserEmail());
+    }
+    
+    @PostMapping("/{id}/ship")
+    public Order ship(@PathVariable Long id, @RequestBody ShipOrderRequest request) {
+        if (request.getTrackingNumber() == null) {
+            throw new IllegalArgumentException("trackingNumber is required");
+        }
+        return orderService.shipOrder(id, request.getTrackingNumber());
+    }
+    
+    @PostMapping("/{id}/complete")
+    public Order complete(@PathVariable Long id) {
+        return orderService.completeOrder(id);
+    }
+    
+    @PostMapping("/{id}/cancel")
+    public Order cancel(@PathVariable Long id) {
+        return orderService.cancelOrder(id);
+    }
+    
+    public static class CreateOrderRequest {
+        
+        private Long userId;
+        private Map<Long, Integer> items;
+        private PaymentMethod paymentMethod;
+        
+        public Long getUserId() {
+            return userId;
+        }
+        
+        public void setUserId(Long userId) {
+            this.userId = userId;
+        }
+        
+        public Map<Long, Integer> getItems() {
+            return items;
+        }
+        
+        public void setItems(Map<Long, Integer> items) {
+            this.items = items;
+        }
+        
+        public PaymentMethod getPaymentMethod() {
+            return paymentMethod;
+        }
+        
+        public void setPaymentMethod(PaymentMethod paymentMethod) {
+            this.paymentMethod = paymentMethod;
+        }
+    }
+    
+    public static class ProcessOrderRequest {
+        
+        private String userEmail;
+        
+        public String getUserEmail() {
+            return userEmail;
+        }
+        
+        public void setUserEmail(String userEmail) {
+            this.userEmail = userEmail;
+        }
+    }
+    
+    public static class ShipOrderRequest {
+        
+        private String trackingNumber;
+        
+        public String getTrackingNumber() {
+            return trackingNumber;
+        }
+        
+        public void setTrackingNumber(String trackingNumber) {
+            this.trackingNumber = trackingNumber;
+        }
+    }
+}
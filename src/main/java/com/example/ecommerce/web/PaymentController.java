@@ -0,0 +1,47 @@
+package com.example.ecommerce.web;
+
+import com.example.ecommerce.model.Payment;
+import com.example.ecommerce.service.PaymentService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Payment endpoints over {@link PaymentService}. Payments are created and charged through the order lifecycle.
+ */
+@RestController
+@RequestMapping(PaymentController.BASE_PATH)
+public class PaymentController {
+    
+    public static final String BASE_PATH = "/api/payments";
+    
+    @Autowired
+    private PaymentService paymentService;
+    
+    @GetMapping("/{id}")
+    public ResponseEntity<Payment> get(@PathVariable Long id) {
+        return ResponseEntity.of(paymentService.getPaymentById(id));
+    }
+    
+    @GetMapping(params = "orderId")
+    public List<Payment> forOrder(@RequestParam Long orderId) {
+        return paymentService.getPaymentsByOrderId(orderId);
+    }
+    
+    @GetMapping("/pending")
+    public List<Payment> pending() {
+        return paymentService.getPendingPayments();
+    }
+    
+    @PostMapping("/{id}/refund")
+    public Payment refund(@PathVariable Long id) {
+        return paymentService.refundPayment(id);
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.ecommerce.web;
+
+import com.example.ecommerce.analytics.TrendingProduct;
+import com.example.ecommerce.model.Product;
+import com.example.ecommerce.service.ListingStreamService;
+import com.example.ecommerce.service.ProductService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.util.List;
+
+/**
+ * Catalog endpoints over {@link ProductService}. {@code GET /api/products/stream} writes the whole catalog, or one
+ * {@code ?category=}, as NDJSON from a database cursor.
+ */
+@RestController
+@RequestMapping(ProductController.BASE_PATH)
+public class ProductController {
+    
+    public static final String BASE_PATH = "/api/products";
+    
+    @Autowired
+    private ProductService productService;
+    
+    @Autowired
+    private ListingStreamService listingStreamService;
+    
+    @PostMapping
+    public ResponseEntity<Product> create(@RequestBody ProductRequest request) {
+        if (request.getName() == null || request.getPrice() == null || request.getStockQuantity() == null) {
+            throw new IllegalArgumentException("name, price and stockQuantity are required");
+        }
+        Product product = productService.createProduct(request.getName(), request.getDescription(), request.getPrice(),
+                request.getStockQuantity(), request.getCategory());
+        return ResponseEntity.created(URI.create(BASE_PATH + "/" + product.getId())).body(product);
+    }
+    
+    @GetMapping("/{id}")
+    public ResponseEntity<Product> get(@PathVariable Long id) {
+        return ResponseEntity.of(productService.getProductById(id));
+    }
+    
+    @PutMapping("/{id}")
+    public Product update(@PathVariable Long id, @RequestBody ProductRequest request) {
+        return productService.updateProduct(id, request.getName(), request.getDescription(), request.getPrice(),
+                request.getCategory());
+    }
+    
+    /**
+     * Products matching {@code ?q=}, {@code ?category=} or {@code ?inStock=true}, in that order of precedence;
+     * active products without a filter.
+     */
+    @GetMapping
+    public List<Product> list(@RequestParam(required = false) String q,
+                              @RequestParam(required = false) String category,
+                              @RequestParam(defaultValue = "false") boolean inStock) {
+        if (q != null) {
+            return productService.searchProducts(q);
+        } else if (category != null) {
+            return productService.getProductsByCategory(category);
+        } else if (inStock) {
+            return productService.getInStockProducts();
+        }
+        return productService.getActiveProducts();
+    }
+    
+    @GetMapping("/trending")
+    public List<TrendingProduct> trending(@RequestParam(required = false) String category,
+                                          @RequestParam(defaultValue = "10") int limit) {
+        return productService.getTrendingProducts(category, limit);
+    }
+    
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> stream(@RequestParam(required = false) String category) {
+        StreamingResponseBody body = out -> listingStreamService.streamProducts(category, out);
+        // No Content-Length, so the container sends it chunked as the cursor advances
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+    
+    /**
+     * Adds {@code change} units to stock, or removes them when negative.
+     */
+    @PostMapping("/{id}/stock")
+    public ResponseEntity<Product> adjustStock(@PathVariable Long id, @RequestBody StockChangeRequest request) {
+        if (request.getChange() == null || request.getChange() == 0) {
+            throw new IllegalArgumentException("A non-zero change is required");
+        }
+        if (request.getChange() > 0) {
+            productService.increaseStock(id, request.getChange());
+        } else {
+            productService.reduceStock(id, -request.getChange());
+        }
+        return ResponseEntity.of(productService.getProductById(id));
+    }
+    
+    public static class ProductRequest {
+        
+        private String name;
+        private String description;
+        private BigDecimal price;
+        private Integer stockQuantity;
+        private String category;
+        
+        public String getName() {
+            return name;
+        }
+        
+        public void setName(String name) {
+            this.name = name;
+        }
+        
+        public String getDescription() {
+            return description;
+        }
+        
+        public void setDescription(String description) {
+            this.description = description;
+        }
+        
+        public BigDecimal getPrice() {
+            return price;
+        }
+        
+        public void setPrice(BigDecimal price) {
+            this.price = price;
+        }
+        
+        public Integer getStockQuantity() {
+            return stockQuantity;
+        }
+        
+        public void setStockQuantity(Integer stockQuantity) {
+            this.stockQuantity = stockQuantity;
+        }
+        
+        public String getCategory() {
+            return category;
+        }
+        
+        public void setCategory(String category) {
+            this.category = category;
+        }
+    }
+    
+    public static class StockChangeRequest {
+        
+        private Integer change;
+        
+        public Integer getChange() {
+            return change;
+        }
+        
+        public void setChange(Integer change) {
+            this.change = change;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.ecommerce.web;
+
+import com.example.ecommerce.model.User;
+import com.example.ecommerce.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.net.URI;
+import java.util.List;
+
+/**
+ * User endpoints over {@link UserService}. Passwords are accepted on create but never returned.
+ */
+@RestController
+@RequestMapping(UserController.BASE_PATH)
+public class UserController {
+    
+    public static final String BASE_PATH = "/api/users";
+    
+    @Autowired
+    private UserService userService;
+    
+    @PostMapping
+    public ResponseEntity<User> create(@RequestBody UserRequest request) {
+        if (request.getEmail() == null || request.getPassword() == null) {
+            throw new IllegalArgumentException("email and password are required");
+        }
+        User user = userService.createUser(request.getFirstName(), request.getLastName(), request.getEmail(),
+                request.getPassword(), request.getPhone(), request.getLocale());
+        return ResponseEntity.created(URI.create(BASE_PATH + "/" + user.getId())).body(user);
+    }
+    
+    @GetMapping("/{id}")
+    public ResponseEntity<User> get(@PathVariable Long id) {
+        return ResponseEntity.of(userService.getUserById(id));
+    }
+    
+    @GetMapping(params = "email")
+    public ResponseEntity<User> getByEmail(@RequestParam String email) {
+        return ResponseEntity.of(userService.getUserByEmail(email));
+    }
+    
+    @GetMapping
+    public List<User> active() {
+        return userService.getActiveUsers();
+    }
+    
+    @PutMapping("/{id}")
+    public User update(@PathVariable Long id, @RequestBody UserRequest request) {
+        return userService.updateUser(id, request.getFirstName(), request.getLastName(), request.getPhone(),
+                request.getAddress(), request.getCity(), request.getZipCode());
+    }
+    
+    @PostMapping("/{id}/deactivate")
+    public ResponseEntity<Void> deactivate(@PathVariable Long id) {
+        userService.deactivateUser(id);
+        return ResponseEntity.noContent().build();
+    }
+    
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> delete(@PathVariable Long id) {
+        userService.deleteUser(id);
+        return ResponseEntity.noContent().build();
+    }
+    
+    public static class UserRequest {
+        
+        private String firstName;
+        private String lastName;
+        private String email;
+        private String password;
+        private String phone;
+        private String address;
+        private String city;
+        private String zipCode;
+        private String locale;
+        
+        public String getFirstName() {
+            return firstName;
+        }
+        
+        public void setFirstName(String firstName) {
+            this.firstName = firstName;
+        }
+        
+        public String getLastName() {
+            return lastName;
+        }
+        
+        public void setLastName(String lastName) {
+            this.lastName = lastName;
+        }
+        
+        public String getEmail() {
+            return email;
+        }
+        
+        public void setEmail(String email) {
+            this.email = email;
+        }
+        
+        public String getPassword() {
+            return password;
+        }
+        
+        public void setPassword(String password) {
+            this.password = password;
+        }
+        
+        public String getPhone() {
+            return phone;
+        }
+        
+        public void setPhone(String phone) {
+            this.phone = phone;
+        }
+        
+        public String getAddress() {
+            return address;
+        }
+        
+        public void setAddress(String address) {
+            this.address = address;
+        }
+        
+        public String getCity() {
+            return city;
+        }
+        
+        public void setCity(String city) {
+            this.city = city;
+        }
+        
+        public String getZipCode() {
+            return zipCode;
+        }
+        
+        public void setZipCode(String zipCode) {
+            this.zipCode = zipCode;
+        }
+        
+        public String getLocale() {
+            return locale;
+        }
+        
+        public void setLocale(String locale) {
+            this.locale = locale;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+-- Baseline: the schema Hibernate generated for the entities at the time migrations were introduced.
+-- Later schema changes go in new V<n>__<description>.sql files; never edit an applied migration.
+
+create table users (
+    id bigint generated by default as identity,
+    first_name varchar(255) not null,
+    last_name varchar(255) not null,
+    email varchar(255) not null,
+    password varchar(255) not null,
+    phone varchar(255) not null,
+    address varchar(255),
+    city varchar(255),
+    zip_code varchar(255),
+    created_at timestamp not null,
+    last_login_at timestamp,
+    active boolean not null,
+    primary key (id),
+    constraint uk_users_email unique (email)
+);
+
+create table products (
+    id bigint generated by default as identity,
+    name varchar(255) not null,
+    description varchar(1000),
+    price numeric(19,2) not null,
+    stock_quantity integer not null,
+    category varchar(255),
+    sku varchar(255),
+    image_url varchar(255),
+    active boolean not null,
+    created_at timestamp not null,
+    updated_at timestamp,
+    primary key (id)
+);
+
+create table orders (
+    id bigint generated by default as identity,
+    order_number varchar(255) not null,
+    user_id bigint not null,
+    total_amount numeric(19,2) not null,
+    status varchar(255) not null,
+    created_at timestamp not null,
+    completed_at timestamp,
+    shipping_address varchar(255),
+    billing_address varchar(255),
+    primary key (id),
+    constraint uk_orders_order_number unique (order_number)
+);
+
+create table order_items (
+    id bigint generated by default as identity,
+    order_id bigint not null,
+    product_id bigint not null,
+    product_name varchar(255) not null,
+    unit_price numeric(19,2) not null,
+    quantity integer not null,
+    subtotal numeric(19,2) not null,
+    primary key (id)
+);
+
+create table payments (
+    id bigint generated by default as identity,
+    order_id bigint not null,
+    transaction_id varchar(255) not null,
+    amount numeric(19,2) not null,
+    payment_method varchar(255) not null,
+    status varchar(255) not null,
+    created_at timestamp not null,
+    processed_at timestamp,
+    payment_gateway_response varchar(255),
+    primary key (id),
+    constraint uk_payments_transaction_id unique (transaction_id)
+);
+
+create table email_outbox (
+    id bigint generated by default as identity,
+    recipient varchar(255) not null,
+    subject varchar(255) not null,
+    body varchar(8000) not null,
+    kind varchar(255) not null,
+    status varchar(255) not null,
+    attempts integer not null,
+    next_attempt_at timestamp not null,
+    created_at timestamp not null,
+    sent_at timestamp,
+    last_error varchar(500),
+    digest_key varchar(255),
+    merged_into_id bigint,
+    primary key (id)
+);
+
+create index idx_email_outbox_due on email_outbox (status, next_attempt_at, id);
+create index idx_email_outbox_digest on email_outbox (digest_key, status);
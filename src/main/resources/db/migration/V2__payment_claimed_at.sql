@@ -0,0 +1,5 @@
+-- When a payment was claimed (PENDING to PROCESSING), so a claim stranded by a crash can be released.
+alter table payments add column claimed_at timestamp;
+
+-- Claims taken before this column existed are timed from now
+update payments set claimed_at = current_timestamp where status = 'PROCESSING';
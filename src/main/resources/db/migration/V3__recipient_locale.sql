@@ -0,0 +1,5 @@
+-- Language tag (e.g. de, de-AT) emails to the user are rendered in; null uses the default template locale.
+alter table users add column locale varchar(35);
+
+-- The locale a queued email was rendered in, so a digest built from it is rendered in the same one.
+alter table email_outbox add column locale varchar(35);
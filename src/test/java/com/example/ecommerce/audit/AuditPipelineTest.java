@@ -0,0 +1,156 @@
+package com.example.ecommerce.audit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for AuditPipeline and AuditRingBuffer
+ */
+public class AuditPipelineTest {
+    
+    private final RecordingSink sink = new RecordingSink();
+    
+    @Test
+    public void testEventsReachSinkInOrderAndSlotsAreReused() {
+        AuditPipeline pipeline = pipeline(4, BackpressurePolicy.DROP);
+        
+        for (long id = 1; id <= 10; id++) {
+            publish(pipeline, id);
+            pipeline.drainBatch();
+        }
+        
+        assertEquals(10, sink.lines.size());
+        assertEquals("USER_CREATED 1 user1@example.com", sink.lines.get(0));
+        assertEquals("USER_CREATED 10 user10@example.com", sink.lines.get(9));
+        assertEquals(0, pipeline.getDroppedCount());
+        assertEquals(10, sink.flushes);
+    }
+    
+    @Test
+    public void testDropPolicyCountsEventsWhenRingIsFull() {
+        AuditPipeline pipeline = pipeline(4, BackpressurePolicy.DROP);
+        
+        for (long id = 1; id <= 6; id++) {
+            publish(pipeline, id);
+        }
+        
+        assertEquals(4, pipeline.getPublishedCount());
+        assertEquals(2, pipeline.getDroppedCount());
+        assertEquals(2, pipeline.getDroppedCount(AuditEventType.USER_CREATED));
+        assertEquals(0, pipeline.getDroppedCount(AuditEventType.ORDER_CREATED));
+        pipeline.drainBatch();
+        assertEquals(4, sink.lines.size());
+    }
+    
+    @Test
+    public void testTimeoutPolicyGivesUpAfterWaiting() {
+        AuditPipeline pipeline = pipeline(2, BackpressurePolicy.TIMEOUT);
+        publish(pipeline, 1);
+        publish(pipeline, 2);
+        
+        long start = System.nanoTime();
+        assertNull(pipeline.begin(AuditEventType.USER_CREATED));
+        
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(5));
+        assertEquals(1, pipeline.getDroppedCount());
+    }
+    
+    @Test
+    public void testBlockingProducersLoseNothing() throws Exception {
+        AuditPipeline pipeline = pipeline(8, BackpressurePolicy.BLOCK);
+        pipeline.start();
+        ExecutorService producers = Executors.newFixedThreadPool(4);
+        CountDownLatch done = new CountDownLatch(4);
+        for (int p = 0; p < 4; p++) {
+            producers.execute(() -> {
+                for (long id = 0; id < 1000; id++) {
+                    publish(pipeline, id);
+                }
+                done.countDown();
+            });
+        }
+        
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        producers.shutdown();
+        pipeline.stop();
+        
+        assertEquals(4000, sink.lines.size());
+        assertEquals(4000, pipeline.getConsumedCount());
+        assertEquals(0, pipeline.getDroppedCount());
+        assertEquals(0, pipeline.getBacklog());
+    }
+    
+    @Test
+    public void testFailingSinkDoesNotStopOtherSinks() {
+        AuditSink failing = event -> {
+            throw new IllegalStateException("disk full");
+        };
+        AuditPipeline pipeline = new AuditPipeline(List.of(failing, sink), 4, 16, BackpressurePolicy.DROP, 5, 100);
+        
+        publish(pipeline, 1);
+        pipeline.drainBatch();
+        
+        assertEquals(1, sink.lines.size());
+        assertEquals(1, pipeline.getSinkErrorCount());
+    }
+    
+    @Test
+    public void testStockAggregationFoldsOnlyStockEvents() {
+        AuditPipeline pipeline = new AuditPipeline(Collections.singletonList(sink), 16, 16, BackpressurePolicy.DROP,
+                5, 100, true, 3600);
+        for (int i = 0; i < 5; i++) {
+            pipeline.commit(pipeline.begin(AuditEventType.STOCK_UPDATED).entityId(42L).quantities(100 - i, 99 - i));
+        }
+        publish(pipeline, 1);
+        pipeline.drainBatch();
+        
+        assertEquals(List.of("USER_CREATED 1 user1@example.com"), sink.lines);
+        assertEquals(5, pipeline.getStockEventsFolded());
+        
+        pipeline.flushOpenWindows();
+        
+        assertEquals("STOCK_AGGREGATED 42 null", sink.lines.get(1));
+        assertEquals(1, pipeline.getStockAggregatesEmitted());
+    }
+    
+    @Test
+    public void testRingCapacityMustBePowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new AuditRingBuffer(6));
+    }
+    
+    private AuditPipeline pipeline(int ringSize, BackpressurePolicy policy) {
+        return new AuditPipeline(Collections.singletonList(sink), ringSize, 16, policy, 5, 100);
+    }
+    
+    private static void publish(AuditPipeline pipeline, long id) {
+        AuditEvent event = pipeline.begin(AuditEventType.USER_CREATED);
+        if (event != null) {
+            pipeline.commit(event.entityId(id).text("user" + id + "@example.com"));
+        }
+    }
+    
+    private static class RecordingSink implements AuditSink {
+        
+        private final List<String> lines = Collections.synchronizedList(new ArrayList<>());
+        private int flushes;
+        
+        @Override
+        public void write(AuditEvent event) {
+            lines.add(event.getType() + " " + event.getEntityId() + " " + event.getPrimaryText());
+        }
+        
+        @Override
+        public void flush() {
+            flushes++;
+        }
+    }
+}
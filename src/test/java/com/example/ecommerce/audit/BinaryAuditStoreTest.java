@@ -0,0 +1,235 @@
+package com.example.ecommerce.audit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for BinaryAuditStore - segmented binary audit records with entity and time indexes
+ */
+public class BinaryAuditStoreTest {
+    
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+    
+    @TempDir
+    Path tempDir;
+    
+    private final AtomicLong now = new AtomicLong(1_700_000_000_000L);
+    private BinaryAuditStore store;
+    
+    @AfterEach
+    public void tearDown() {
+        if (store != null) {
+            store.close();
+        }
+    }
+    
+    @Test
+    public void testTimelineReturnsEveryEventForEntity() throws IOException {
+        store = open(1 << 20);
+        
+        write(event(AuditEventType.ORDER_CREATED).entityId(123L).text("ORD-123").relatedId(7L));
+        write(event(AuditEventType.ORDER_CREATED).entityId(124L).text("ORD-124").relatedId(8L));
+        write(event(AuditEventType.ORDER_STATUS_CHANGED).entityId(123L).text("PENDING", "CONFIRMED"));
+        write(event(AuditEventType.ORDER_BATCH_STATUS_CHANGED).payload(Arrays.asList(123L, 124L)).text("CANCELLED"));
+        write(event(AuditEventType.PAYMENT_BATCH_REFUNDED).payload(Arrays.asList("TXN-1", "TXN-2")));
+        
+        List<AuditRecord> timeline = store.timeline(AuditEntityKind.ORDER, 123L);
+        
+        assertEquals(3, timeline.size());
+        assertEquals(AuditEventType.ORDER_CREATED, timeline.get(0).getType());
+        assertEquals("ORD-123", timeline.get(0).getPrimaryText());
+        assertEquals(Long.valueOf(7L), timeline.get(0).getRelatedId());
+        assertEquals("CONFIRMED", timeline.get(1).getSecondaryText());
+        assertEquals(Arrays.asList(123L, 124L), timeline.get(2).getPayloadIds());
+        assertEquals(1, store.timeline(AuditEntityKind.USER, 7L).size());
+        assertTrue(store.timeline(AuditEntityKind.PRODUCT, 123L).isEmpty());
+    }
+    
+    @Test
+    public void testSegmentsRollOverAndIndexesSurviveReopen() throws IOException {
+        store = open(4096);
+        for (int i = 0; i < 500; i++) {
+            write(event(AuditEventType.STOCK_UPDATED).entityId((long) (i % 5)).quantities(1000 - i, 999 - i));
+        }
+        assertTrue(store.getSegmentCount() > 1);
+        store.close();
+        
+        store = open(4096);
+        
+        List<AuditRecord> timeline = store.timeline(AuditEntityKind.PRODUCT, 3L);
+        assertEquals(100, timeline.size());
+        assertEquals(997, timeline.get(0).getOldQuantity());
+        assertEquals(501, timeline.get(99).getNewQuantity());
+        write(event(AuditEventType.STOCK_UPDATED).entityId(3L).quantities(5, 4));
+        assertEquals(101, store.timeline(AuditEntityKind.PRODUCT, 3L).size());
+    }
+    
+    @Test
+    public void testSealedSegmentsAreReopenedFromTheirIndexFiles() throws IOException {
+        store = open(4096);
+        for (int i = 0; i < 500; i++) {
+            write(event(AuditEventType.STOCK_UPDATED).entityId((long) (i % 5)).quantities(1000 - i, 999 - i));
+        }
+        int sealed = store.getSegmentCount() - 1;
+        assertEquals(sealed, store.getSealedIndexCount());
+        store.close();
+        List<Path> segments = segmentFiles();
+        assertFalse(Files.exists(AuditSegmentIndex.fileFor(segments.get(segments.size() - 1))));
+        // A damaged index is rebuilt from its segment; a missing one is written again
+        Files.write(AuditSegmentIndex.fileFor(segments.get(0)), new byte[] {1, 2, 3});
+        Files.delete(AuditSegmentIndex.fileFor(segments.get(1)));
+        
+        store = open(4096);
+        
+        assertEquals(sealed, store.getSealedIndexCount());
+        assertTrue(Files.exists(AuditSegmentIndex.fileFor(segments.get(1))));
+        List<AuditRecord> timeline = store.timeline(AuditEntityKind.PRODUCT, 3L);
+        assertEquals(100, timeline.size());
+        assertEquals(997, timeline.get(0).getOldQuantity());
+        assertEquals(501, timeline.get(99).getNewQuantity());
+        assertEquals(10, store.findBetween(now.get(), now.get(), 10).size());
+    }
+    
+    @Test
+    public void testTornRecordIsDiscardedOnRecovery() throws IOException {
+        store = open(1 << 16);
+        write(event(AuditEventType.USER_CREATED).entityId(1L).text("a@example.com"));
+        write(event(AuditEventType.USER_UPDATED).entityId(1L).text("b@example.com"));
+        store.close();
+        Path segment = segmentFiles().get(0);
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            // Flip a byte inside the second record's body so its checksum no longer matches
+            file.seek(16 + 40 + 30);
+            file.write(0x5A);
+        }
+        
+        store = open(1 << 16);
+        
+        List<AuditRecord> timeline = store.timeline(AuditEntityKind.USER, 1L);
+        assertEquals(1, timeline.size());
+        assertEquals("a@example.com", timeline.get(0).getPrimaryText());
+    }
+    
+    @Test
+    public void testRetentionDeletesExpiredSegments() throws IOException {
+        store = open(4096);
+        for (int i = 0; i < 200; i++) {
+            write(event(AuditEventType.PRODUCT_UPDATED).entityId(9L).text("Old name " + i));
+        }
+        int segmentsBefore = store.getSegmentCount();
+        now.addAndGet(3 * HOUR);
+        
+        for (int i = 0; i < 200; i++) {
+            write(event(AuditEventType.PRODUCT_UPDATED).entityId(9L).text("New name " + i));
+        }
+        
+        // Segments written entirely before the cutoff are gone; the one that was active at the cutoff stays
+        assertTrue(segmentsBefore > 1);
+        assertFalse(Files.exists(tempDir.resolve("0000000001.audit")));
+        assertEquals(store.getSegmentCount(), segmentFiles().size());
+        assertFalse(Files.exists(tempDir.resolve("0000000001" + AuditSegmentIndex.SUFFIX)));
+        List<AuditRecord> timeline = store.timeline(AuditEntityKind.PRODUCT, 9L);
+        assertTrue(timeline.size() < 400);
+        assertEquals("New name 199", timeline.get(timeline.size() - 1).getPrimaryText());
+    }
+    
+    @Test
+    public void testFindBetweenUsesTimeRange() throws IOException {
+        store = open(4096);
+        long start = now.get();
+        for (int i = 0; i < 300; i++) {
+            now.addAndGet(1000);
+            write(event(AuditEventType.PAYMENT_PROCESSED).entityId((long) i).text("TXN-" + i, "COMPLETED"));
+        }
+        
+        List<AuditRecord> records = store.findBetween(start + 100_000, start + 109_000, 100);
+        
+        assertEquals(10, records.size());
+        assertEquals(Long.valueOf(99L), records.get(0).getEntityId());
+        assertEquals(Long.valueOf(108L), records.get(9).getEntityId());
+        assertEquals(3, store.findBetween(start, Long.MAX_VALUE, 3).size());
+    }
+    
+    @Test
+    public void testStockAggregateRoundTripsThroughProductTimeline() throws IOException {
+        store = open(1 << 20);
+        long first = now.get();
+        write(event(AuditEventType.STOCK_AGGREGATED).entityId(9L).quantities(40, 25)
+                .aggregate(6, -15, first + 45_000));
+        
+        List<AuditRecord> timeline = store.timeline(AuditEntityKind.PRODUCT, 9L);
+        
+        assertEquals(1, timeline.size());
+        AuditRecord record = timeline.get(0);
+        assertEquals(40, record.getOldQuantity());
+        assertEquals(25, record.getNewQuantity());
+        assertEquals(6, record.getChangeCount());
+        assertEquals(-15, record.getNetDelta());
+        assertEquals(first, record.getTimestampMillis());
+        assertEquals(first + 45_000, record.getLastTimestampMillis());
+    }
+    
+    @Test
+    public void testSecondStoreCannotOpenALockedDirectory() throws IOException {
+        store = open(1 << 16);
+        
+        assertThrows(IllegalStateException.class, () -> open(1 << 16));
+        
+        store.close();
+        store = open(1 << 16);
+        write(event(AuditEventType.USER_CREATED).entityId(1L).text("a@example.com"));
+        assertEquals(1, store.timeline(AuditEntityKind.USER, 1L).size());
+    }
+    
+    @Test
+    public void testOverlongTextIsCutOnACharacterBoundary() throws IOException {
+        store = open(1 << 20);
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 20_000; i++) {
+            text.append('\u00e9');
+        }
+        
+        write(event(AuditEventType.USER_CREATED).entityId(1L).text(text.toString()));
+        
+        String stored = store.timeline(AuditEntityKind.USER, 1L).get(0).getPrimaryText();
+        assertEquals(Short.MAX_VALUE / 2, stored.length());
+        assertTrue(text.toString().startsWith(stored));
+    }
+    
+    private BinaryAuditStore open(int segmentBytes) throws IOException {
+        BinaryAuditStore opened = new BinaryAuditStore(tempDir, segmentBytes, 16, 2 * HOUR, 0, now::get);
+        opened.open();
+        return opened;
+    }
+    
+    private AuditEvent event(AuditEventType type) {
+        AuditEvent event = AuditEvent.detached(type);
+        event.reset(type, now.get(), -1);
+        return event;
+    }
+    
+    private void write(AuditEvent event) {
+        store.write(event);
+        store.flush();
+    }
+    
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(tempDir)) {
+            return files.filter(AuditSegment::isSegmentFile).sorted().collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.ecommerce.audit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for StockWindowAggregator - per-product tumbling windows over stock audit events
+ */
+public class StockWindowAggregatorTest {
+    
+    private static final long WINDOW = 60_000;
+    private static final long T0 = 1_700_000_040_000L; // a window boundary
+    
+    private final StockWindowAggregator aggregator = new StockWindowAggregator(WINDOW);
+    private final List<String> emitted = new ArrayList<>();
+    
+    @Test
+    public void testChangesInOneWindowFoldIntoSingleAggregate() {
+        add(10L, T0 + 1_000, 100, 95);
+        add(10L, T0 + 2_000, 95, 90);
+        add(10L, T0 + 3_000, 90, 120);
+        
+        aggregator.emitDue(T0 + WINDOW - 1, this::record);
+        assertTrue(emitted.isEmpty());
+        
+        aggregator.emitDue(T0 + WINDOW, this::record);
+        
+        assertEquals(List.of("10 100->120 changes=3 net=20 " + (T0 + 1_000) + ".." + (T0 + 3_000)), emitted);
+        assertEquals(3, aggregator.getFoldedCount());
+        assertEquals(1, aggregator.getEmittedCount());
+        assertEquals(0, aggregator.getOpenWindowCount());
+    }
+    
+    @Test
+    public void testProductsAreAggregatedIndependently() {
+        add(1L, T0 + 1_000, 10, 9);
+        add(2L, T0 + 1_500, 50, 40);
+        add(1L, T0 + 2_000, 9, 7);
+        
+        aggregator.emitAll(this::record);
+        emitted.sort(Comparator.naturalOrder());
+        
+        assertEquals(2, emitted.size());
+        assertTrue(emitted.get(0).startsWith("1 10->7 changes=2 net=-3"));
+        assertTrue(emitted.get(1).startsWith("2 50->40 changes=1 net=-10"));
+    }
+    
+    @Test
+    public void testEventInLaterWindowClosesPreviousWindow() {
+        add(5L, T0 + 1_000, 20, 15);
+        add(5L, T0 + WINDOW + 500, 15, 30);
+        
+        assertEquals(1, emitted.size());
+        assertTrue(emitted.get(0).startsWith("5 20->15 changes=1 net=-5"));
+        assertEquals(1, aggregator.getOpenWindowCount());
+        
+        aggregator.emitAll(this::record);
+        assertTrue(emitted.get(1).startsWith("5 15->30 changes=1 net=15"));
+    }
+    
+    @Test
+    public void testWindowMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> new StockWindowAggregator(0));
+    }
+    
+    private void add(Long productId, long timestamp, int oldStock, int newStock) {
+        AuditEvent event = AuditEvent.detached(AuditEventType.STOCK_UPDATED);
+        event.reset(AuditEventType.STOCK_UPDATED, timestamp, -1);
+        aggregator.add(event.entityId(productId).quantities(oldStock, newStock), this::record);
+    }
+    
+    private void record(AuditEvent event) {
+        assertEquals(AuditEventType.STOCK_AGGREGATED, event.getType());
+        emitted.add(event.getEntityId() + " " + event.getOldQuantity() + "->" + event.getNewQuantity()
+                + " changes=" + event.getChangeCount() + " net=" + event.getNetDelta()
+                + " " + event.getTimestampMillis() + ".." + event.getLastTimestampMillis());
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.ecommerce.config;
+
+import com.example.ecommerce.EcommerceApplication;
+import com.example.ecommerce.model.Order;
+import com.example.ecommerce.model.Payment.PaymentMethod;
+import com.example.ecommerce.model.Product;
+import com.example.ecommerce.model.User;
+import com.example.ecommerce.service.OrderService;
+import com.example.ecommerce.service.ProductService;
+import com.example.ecommerce.service.UserSegmentExportService;
+import com.example.ecommerce.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The prod profile: schema from Flyway, validated by Hibernate, and lazy initialization with the order path
+ * kept eager.
+ */
+@SpringBootTest(classes = EcommerceApplication.class, properties = {
+    "spring.datasource.url=jdbc:h2:mem:prod-profile",
+    "ecommerce.reactive.port=-1",
+    "ecommerce.audit.store.enabled=false",
+    "ecommerce.email.dispatch.interval-ms=3600000",
+    "ecommerce.auth.pbkdf2-iterations=1000",
+    "ecommerce.payment.gateway.stub.base-latency-ms=0",
+    "ecommerce.payment.gateway.stub.jitter-ms=0",
+    "ecommerce.payment.gateway.stub.tail-probability=0"
+})
+@ActiveProfiles("prod")
+public class ProdProfileTest {
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private ConfigurableListableBeanFactory beanFactory;
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private ProductService productService;
+    
+    @Autowired
+    private UserService userService;
+    
+    @Test
+    public void testSchemaComesFromMigrations() {
+        Integer applied = jdbcTemplate.queryForObject(
+                "select count(*) from \"flyway_schema_history\" where \"version\" = '1' and \"success\"", Integer.class);
+        
+        assertEquals(1, applied);
+    }
+    
+    @Test
+    public void testOrderPathIsEagerAndTheRestIsLazy() {
+        assertTrue(beanFactory.containsSingleton("orderService"));
+        assertFalse(beanFactory.containsSingleton("userSegmentExportService"));
+        assertTrue(beanFactory.containsBeanDefinition("userSegmentExportService"));
+        assertNotNull(beanFactory.getBean(UserSegmentExportService.class));
+    }
+    
+    @Test
+    public void testCreateOrderAgainstMigratedSchema() {
+        User user = userService.createUser("Prod", "Profile", "prod-profile@example.com", "secret", "555-0100");
+        Product product = productService.createProduct("Lamp", "Desk lamp", new BigDecimal("24.50"), 10, "Office");
+        
+        Order order = orderService.createOrder(user.getId(), Collections.singletonMap(product.getId(), 2),
+                PaymentMethod.CREDIT_CARD);
+        
+        assertEquals(new BigDecimal("49.00"), order.getTotalAmount());
+        assertEquals(8, productService.getProductById(product.getId()).get().getStockQuantity());
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.ecommerce.email;
+
+import com.example.ecommerce.model.EmailOutboxMessage.EmailKind;
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for EmailTemplateRegistry and CompiledTemplate - precompiled, locale-cached email templates
+ */
+public class EmailTemplateRegistryTest {
+    
+    private final EmailTemplateRegistry registry = new EmailTemplateRegistry("email-templates", "en");
+    
+    @Test
+    public void testTemplateIsCompiledIntoLiteralAndParameterSegments() {
+        CompiledTemplate template = CompiledTemplate.compile("t", "Hi {{ name }}, order {{order}}!", "order", "name");
+        StringBuilder out = new StringBuilder("> ");
+        
+        template.renderTo(out, new Object[] {"ORD-1", "Ann"});
+        
+        assertEquals("> Hi Ann, order ORD-1!", out.toString());
+        assertEquals(3, template.getSegmentCount());
+    }
+    
+    @Test
+    public void testUnknownOrUnterminatedPlaceholdersAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> CompiledTemplate.compile("t", "Hi {{nme}}", "name"));
+        assertThrows(IllegalArgumentException.class, () -> CompiledTemplate.compile("t", "Hi {{name", "name"));
+    }
+    
+    @Test
+    public void testRendersDefaultTemplates() {
+        RenderedEmail shipped = registry.render(EmailKind.ORDER_SHIPPED, "ORD-7", "TRACK-9");
+        
+        assertEquals("Order ORD-7 has shipped", shipped.getSubject());
+        assertEquals("Your order ORD-7 is on its way.\nTracking number: TRACK-9", shipped.getBody());
+        assertEquals("Only 3 units of Mug are left in stock.", registry.render(EmailKind.LOW_STOCK_ALERT, "Mug", 3).getBody());
+    }
+    
+    @Test
+    public void testLocalizedVariantsFallBackAndAreCached() {
+        Locale swissGerman = new Locale("de", "CH");
+        
+        EmailTemplate welcome = registry.get(EmailKind.WELCOME, swissGerman);
+        
+        assertEquals(new Locale("de"), welcome.getLocale());
+        assertEquals("Willkommen in unserem Shop", registry.render(EmailKind.WELCOME, swissGerman, "Jo").getSubject());
+        assertEquals(Locale.ROOT, registry.get(EmailKind.LOW_STOCK_ALERT, swissGerman).getLocale());
+        assertSame(welcome, registry.get(EmailKind.WELCOME, swissGerman));
+        assertSame(registry.get(EmailKind.WELCOME, Locale.ROOT), registry.get(EmailKind.WELCOME, Locale.FRENCH));
+    }
+    
+    @Test
+    public void testMissingTemplateDirectoryFailsAtStartup() {
+        assertThrows(IllegalStateException.class, () -> new EmailTemplateRegistry("no-such-templates", "en"));
+    }
+}
@@ -0,0 +1,221 @@
+package com.example.ecommerce.email;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Minimal SMTP server for tests: accepts EHLO/HELO, MAIL, RCPT, DATA, RSET and QUIT on a loopback port.
+ * Recipients starting with "reject" get a permanent 550 and "busy" a transient 451. Because it reads one
+ * command line at a time, pipelined commands are answered in order just like on a real server.
+ */
+public class InProcessSmtpServer implements AutoCloseable {
+    
+    private final ServerSocket serverSocket;
+    private final ExecutorService sessions = Executors.newCachedThreadPool();
+    private final boolean pipelining;
+    private final List<Received> received = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger connections = new AtomicInteger();
+    private final AtomicInteger maxLinesPerRead = new AtomicInteger();
+    
+    public InProcessSmtpServer(boolean pipelining) throws IOException {
+        this.pipelining = pipelining;
+        this.serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(this::acceptLoop, "smtp-stand-in");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+    
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+    
+    public List<Received> getReceived() {
+        synchronized (received) {
+            return new ArrayList<>(received);
+        }
+    }
+    
+    public int getConnectionCount() {
+        return connections.get();
+    }
+    
+    /**
+     * Largest number of complete command lines that were already buffered when the server went to read one;
+     * more than one means the client pipelined.
+     */
+    public int getMaxLinesPerRead() {
+        return maxLinesPerRead.get();
+    }
+    
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        sessions.shutdownNow();
+        try {
+            sessions.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.incrementAndGet();
+                sessions.execute(() -> serve(socket));
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+    
+    private void serve(Socket socket) {
+        try (Socket s = socket) {
+            BufferedReader in = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8));
+            OutputStream out = s.getOutputStream();
+            reply(out, "220 stand-in ESMTP");
+            String mailFrom = null;
+            String recipient = null;
+            String line;
+            while ((line = readCommand(in)) != null) {
+                String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase() : line.toUpperCase();
+                switch (command) {
+                    case "EHLO":
+                        reply(out, pipelining ? "250-stand-in\r\n250-8BITMIME\r\n250 PIPELINING" : "250-stand-in\r\n250 8BITMIME");
+                        break;
+                    case "HELO":
+                    case "NOOP":
+                        reply(out, "250 OK");
+                        break;
+                    case "MAIL":
+                        mailFrom = address(line);
+                        recipient = null;
+                        reply(out, "250 OK");
+                        break;
+                    case "RCPT":
+                        String address = address(line);
+                        if (mailFrom == null) {
+                            reply(out, "503 Need MAIL first");
+                        } else if (address.startsWith("reject")) {
+                            reply(out, "550 No such user " + address);
+                        } else if (address.startsWith("busy")) {
+                            reply(out, "451 Mailbox busy, try later");
+                        } else {
+                            recipient = address;
+                            reply(out, "250 OK");
+                        }
+                        break;
+                    case "DATA":
+                        if (recipient == null) {
+                            reply(out, "554 No valid recipients");
+                            break;
+                        }
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        received.add(new Received(mailFrom, recipient, readData(in)));
+                        mailFrom = null;
+                        recipient = null;
+                        reply(out, "250 Queued");
+                        break;
+                    case "RSET":
+                        mailFrom = null;
+                        recipient = null;
+                        reply(out, "250 OK");
+                        break;
+                    case "QUIT":
+                        reply(out, "221 Bye");
+                        return;
+                    default:
+                        reply(out, "500 Unknown command");
+                }
+            }
+        } catch (IOException e) {
+            // client went away
+        }
+    }
+    
+    private String readCommand(BufferedReader in) throws IOException {
+        int buffered = 0;
+        // Count how many whole lines the client sent before waiting for this reply
+        in.mark(64 * 1024);
+        StringBuilder pending = new StringBuilder();
+        while (in.ready()) {
+            int c = in.read();
+            if (c < 0) {
+                break;
+            }
+            pending.append((char) c);
+            if (c == '\n') {
+                buffered++;
+            }
+            if (pending.length() >= 60 * 1024) {
+                break;
+            }
+        }
+        in.reset();
+        maxLinesPerRead.accumulateAndGet(buffered, Math::max);
+        return in.readLine();
+    }
+    
+    private static String readData(BufferedReader in) throws IOException {
+        StringBuilder content = new StringBuilder();
+        String line;
+        while ((line = in.readLine()) != null && !line.equals(".")) {
+            content.append(line.startsWith("..") ? line.substring(1) : line).append("\r\n");
+        }
+        return content.toString();
+    }
+    
+    private static String address(String line) {
+        int start = line.indexOf('<');
+        int end = line.indexOf('>', start + 1);
+        return start < 0 || end < 0 ? "" : line.substring(start + 1, end);
+    }
+    
+    private static void reply(OutputStream out, String reply) throws IOException {
+        out.write((reply + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+    
+    public static final class Received {
+        
+        private final String from;
+        private final String recipient;
+        private final String content;
+        
+        private Received(String from, String recipient, String content) {
+            this.from = from;
+            this.recipient = recipient;
+            this.content = content;
+        }
+        
+        public String getFrom() {
+            return from;
+        }
+        
+        public String getRecipient() {
+            return recipient;
+        }
+        
+        public String getContent() {
+            return content;
+        }
+        
+        public String getBody() {
+            return content.substring(content.indexOf("\r\n\r\n") + 4);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.ecommerce.email;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for SmtpMailTransport against the in-process SMTP stand-in
+ */
+public class SmtpMailTransportTest {
+    
+    private InProcessSmtpServer server;
+    
+    @AfterEach
+    public void tearDown() throws IOException {
+        if (server != null) {
+            server.close();
+        }
+    }
+    
+    @Test
+    public void testBatchIsPipelinedOverOneConnection() throws IOException {
+        server = new InProcessSmtpServer(true);
+        
+        List<DeliveryResult> results = transport(server.getPort()).send(Arrays.asList(
+                email(1, "alice@example.com"), email(2, "bob@example.com"), email(3, "carol@example.com")));
+        
+        assertEquals(3, results.size());
+        results.forEach(result -> assertEquals(DeliveryResult.Status.SENT, result.getStatus()));
+        assertEquals(1, server.getConnectionCount());
+        assertTrue(server.getMaxLinesPerRead() > 1, "envelope commands should arrive pipelined");
+        List<InProcessSmtpServer.Received> received = server.getReceived();
+        assertEquals("bob@example.com", received.get(1).getRecipient());
+        assertEquals("no-reply@example.com", received.get(1).getFrom());
+        assertTrue(received.get(1).getContent().contains("Message-ID: <outbox-2@test.local>"));
+    }
+    
+    @Test
+    public void testRejectedAndBusyRecipientsDoNotAffectOthers() throws IOException {
+        server = new InProcessSmtpServer(true);
+        
+        List<DeliveryResult> results = transport(server.getPort()).send(Arrays.asList(
+                email(1, "reject@example.com"), email(2, "busy@example.com"), email(3, "dave@example.com")));
+        
+        assertEquals(DeliveryResult.Status.REJECTED, results.get(0).getStatus());
+        assertTrue(results.get(0).getDetail().startsWith("550"));
+        assertEquals(DeliveryResult.Status.RETRY, results.get(1).getStatus());
+        assertEquals(DeliveryResult.Status.SENT, results.get(2).getStatus());
+        assertEquals(1, server.getReceived().size());
+        assertEquals("dave@example.com", server.getReceived().get(0).getRecipient());
+    }
+    
+    @Test
+    public void testLockStepWhenServerDoesNotPipelineAndBodyIsDotStuffed() throws IOException {
+        server = new InProcessSmtpServer(false);
+        OutgoingEmail email = new OutgoingEmail(7, "erin@example.com", "Dots", "first\n.\n..two\nlast");
+        
+        List<DeliveryResult> results = transport(server.getPort()).send(Arrays.asList(email, email(8, "reject@example.com")));
+        
+        assertEquals(DeliveryResult.Status.SENT, results.get(0).getStatus());
+        assertEquals(DeliveryResult.Status.REJECTED, results.get(1).getStatus());
+        assertTrue(server.getMaxLinesPerRead() <= 1, "commands should wait for each reply");
+        assertEquals("first\r\n.\r\n..two\r\nlast\r\n", server.getReceived().get(0).getBody());
+    }
+    
+    @Test
+    public void testUnreachableServerMarksWholeBatchForRetry() throws IOException {
+        int closedPort;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            closedPort = socket.getLocalPort();
+        }
+        
+        List<DeliveryResult> results = transport(closedPort).send(Arrays.asList(email(1, "a@example.com"), email(2, "b@example.com")));
+        
+        assertEquals(2, results.size());
+        results.forEach(result -> assertEquals(DeliveryResult.Status.RETRY, result.getStatus()));
+    }
+    
+    private static SmtpMailTransport transport(int port) {
+        return new SmtpMailTransport("127.0.0.1", port, "test.local", "no-reply@example.com", 1000, 5000);
+    }
+    
+    private static OutgoingEmail email(long id, String recipient) {
+        return new OutgoingEmail(id, recipient, "Subject " + id, "Body " + id);
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.ecommerce.export;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for SegmentFileWriter and UserExportRow CSV encoding
+ */
+public class SegmentFileWriterTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    @Test
+    public void testPlainOutputSpansManyBufferDrains() throws Exception {
+        String content = sampleContent();
+        Path file = tempDir.resolve("plain.csv");
+        DirectBufferPool pool = new DirectBufferPool(1, 64);
+        
+        long written = write(file, pool, false, content);
+        
+        assertEquals(content, new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+        assertEquals(Files.size(file), written);
+        assertEquals(1, pool.getAllocatedCount());
+    }
+    
+    @Test
+    public void testGzipOutputIsReadableByJdk() throws Exception {
+        String content = sampleContent();
+        Path file = tempDir.resolve("segment.csv.gz");
+        DirectBufferPool pool = new DirectBufferPool(2, 64);
+        
+        long written = write(file, pool, true, content);
+        
+        assertEquals(content, gunzip(file));
+        assertEquals(Files.size(file), written);
+        assertTrue(written < content.getBytes(StandardCharsets.UTF_8).length);
+    }
+    
+    @Test
+    public void testBuffersAreReturnedToPoolAfterClose() throws Exception {
+        DirectBufferPool pool = new DirectBufferPool(2, 64);
+        
+        write(tempDir.resolve("a.gz"), pool, true, "a\n");
+        write(tempDir.resolve("b.gz"), pool, true, "b\n");
+        
+        assertEquals(2, pool.getAllocatedCount());
+    }
+    
+    @Test
+    public void testCsvQuotesFieldsWithSeparators() {
+        UserExportRow row = new UserExportRow();
+        row.set(7L, "Ann", "O\"Neil, Jr", "ann@example.com", "555", null, "12345",
+                LocalDateTime.of(2024, 1, 2, 3, 4), null, true);
+        StringBuilder out = new StringBuilder();
+        
+        row.appendCsv(out);
+        
+        assertEquals("7,Ann,\"O\"\"Neil, Jr\",ann@example.com,555,,12345,2024-01-02T03:04,,true\n", out.toString());
+    }
+    
+    private static long write(Path file, DirectBufferPool pool, boolean gzip, String content) throws Exception {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            SegmentFileWriter writer = new SegmentFileWriter(channel, pool, gzip, 6);
+            for (String line : content.split("(?<=\n)")) {
+                writer.write(line);
+            }
+            writer.close();
+            return writer.getBytesWritten();
+        }
+    }
+    
+    private static String sampleContent() {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 300; i++) {
+            content.append(i).append(",Zoë,Müller,user").append(i).append("@example.com,München\n");
+        }
+        return content.toString();
+    }
+    
+    private static String gunzip(Path file) throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] chunk = new byte[4096];
+            int read;
+            while ((read = in.read(chunk)) != -1) {
+                out.write(chunk, 0, read);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+}
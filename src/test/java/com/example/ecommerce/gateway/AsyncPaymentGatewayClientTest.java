@@ -0,0 +1,192 @@
+package com.example.ecommerce.gateway;
+
+import com.example.ecommerce.gateway.PaymentGatewayException.Reason;
+import com.example.ecommerce.model.Payment.PaymentMethod;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for AsyncPaymentGatewayClient against the local stub gateway
+ */
+public class AsyncPaymentGatewayClientTest {
+    
+    private ScheduledExecutorService scheduler;
+    
+    @BeforeEach
+    public void setUp() {
+        scheduler = Executors.newScheduledThreadPool(4);
+    }
+    
+    @AfterEach
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+    
+    @Test
+    public void testChargeApprovedAndDeclined() {
+        AsyncPaymentGatewayClient client = client(stub(5, 0, 0.0, 0.0), 8, 1000, 0);
+        
+        assertTrue(AsyncPaymentGatewayClient.await(client.charge(request("99.99", false))).isApproved());
+        assertFalse(AsyncPaymentGatewayClient.await(client.charge(request("0", false))).isApproved());
+        assertEquals(8, client.getAvailablePermits());
+    }
+    
+    @Test
+    public void testDeadlineBoundsSlowCall() {
+        AsyncPaymentGatewayClient client = client(stub(5, 5_000, 1.0, 0.0), 8, 100, 0);
+        
+        long start = System.nanoTime();
+        PaymentGatewayException e = assertThrows(PaymentGatewayException.class, () -> {
+            AsyncPaymentGatewayClient.await(client.charge(request("10.00", false)));
+        });
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        
+        assertEquals(Reason.TIMEOUT, e.getReason());
+        assertTrue(elapsedMillis < 1_000, "deadline not enforced: " + elapsedMillis + "ms");
+        assertEquals(1, client.getTimeoutCount());
+    }
+    
+    @Test
+    public void testHedgeRescuesTailLatencyForIdempotentRequests() {
+        // Every other call hits the 5s tail; the hedge after 50ms should answer quickly
+        AtomicInteger calls = new AtomicInteger();
+        StubPaymentGateway slow = stub(5, 5_000, 1.0, 0.0);
+        StubPaymentGateway fast = stub(5, 0, 0.0, 0.0);
+        PaymentGateway alternating = new PaymentGateway() {
+            @Override
+            public CompletableFuture<GatewayResponse> charge(GatewayRequest request) {
+                return refund(request);
+            }
+            
+            @Override
+            public CompletableFuture<GatewayResponse> refund(GatewayRequest request) {
+                return calls.getAndIncrement() % 2 == 0 ? slow.refund(request) : fast.refund(request);
+            }
+        };
+        AsyncPaymentGatewayClient client = client(alternating, 8, 1000, 50);
+        
+        assertTrue(AsyncPaymentGatewayClient.await(client.refund(request("10.00", true))).isApproved());
+        assertEquals(1, client.getHedgeCount());
+        
+        calls.set(0);
+        assertThrows(PaymentGatewayException.class, () -> {
+            AsyncPaymentGatewayClient.await(client.charge(request("10.00", false)));
+        });
+    }
+    
+    @Test
+    public void testIdempotentRequestRetriedAfterFastFailure() {
+        AtomicInteger calls = new AtomicInteger();
+        PaymentGateway flaky = new PaymentGateway() {
+            @Override
+            public CompletableFuture<GatewayResponse> charge(GatewayRequest request) {
+                return refund(request);
+            }
+            
+            @Override
+            public CompletableFuture<GatewayResponse> refund(GatewayRequest request) {
+                CompletableFuture<GatewayResponse> future = new CompletableFuture<>();
+                if (calls.getAndIncrement() == 0) {
+                    future.completeExceptionally(new PaymentGatewayException(Reason.ERROR, "boom"));
+                } else {
+                    future.complete(GatewayResponse.approved());
+                }
+                return future;
+            }
+        };
+        AsyncPaymentGatewayClient client = client(flaky, 8, 1000, 500);
+        
+        assertTrue(AsyncPaymentGatewayClient.await(client.refund(request("10.00", true))).isApproved());
+        assertEquals(2, calls.get());
+    }
+    
+    @Test
+    public void testInFlightLimitRejectsExcessCalls() {
+        AsyncPaymentGatewayClient client = client(stub(5, 5_000, 1.0, 0.0), 2, 10_000, 0);
+        
+        client.charge(request("10.00", false));
+        client.charge(request("10.00", false));
+        PaymentGatewayException e = assertThrows(PaymentGatewayException.class, () -> {
+            AsyncPaymentGatewayClient.await(client.charge(request("10.00", false)));
+        });
+        
+        assertEquals(Reason.OVERLOADED, e.getReason());
+        assertEquals(1, client.getRejectionCount());
+    }
+    
+    @Test
+    public void testCircuitOpensAfterFailuresAndRecovers() throws InterruptedException {
+        CircuitBreaker breaker = new CircuitBreaker(10, 5, 0.5, 100);
+        AsyncPaymentGatewayClient failing = new AsyncPaymentGatewayClient(stub(1, 0, 0.0, 1.0), breaker,
+                scheduler, 8, 1000, 0);
+        
+        for (int i = 0; i < 5; i++) {
+            assertThrows(PaymentGatewayException.class, () -> {
+                AsyncPaymentGatewayClient.await(failing.charge(request("10.00", false)));
+            });
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        PaymentGatewayException e = assertThrows(PaymentGatewayException.class, () -> {
+            AsyncPaymentGatewayClient.await(failing.charge(request("10.00", false)));
+        });
+        assertEquals(Reason.CIRCUIT_OPEN, e.getReason());
+        
+        Thread.sleep(150);
+        AsyncPaymentGatewayClient healthy = new AsyncPaymentGatewayClient(stub(1, 0, 0.0, 0.0), breaker,
+                scheduler, 8, 1000, 0);
+        assertTrue(AsyncPaymentGatewayClient.await(healthy.charge(request("10.00", false))).isApproved());
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+    
+    @Test
+    public void testTailLatencyBoundedUnderLoad() {
+        // 5% of calls take 2s; with hedging at 50ms and a 500ms deadline the worst case stays bounded
+        AsyncPaymentGatewayClient client = client(stub(5, 2_000, 0.05, 0.0), 256, 500, 50);
+        List<CompletableFuture<GatewayResponse>> futures = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int i = 0; i < 200; i++) {
+            futures.add(client.refund(request("10.00", true)));
+        }
+        int approved = 0;
+        for (CompletableFuture<GatewayResponse> future : futures) {
+            try {
+                if (AsyncPaymentGatewayClient.await(future).isApproved()) {
+                    approved++;
+                }
+            } catch (PaymentGatewayException e) {
+                assertEquals(Reason.TIMEOUT, e.getReason());
+            }
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        
+        assertTrue(approved >= 195, "too few approvals: " + approved);
+        assertTrue(elapsedMillis < 1_500, "tail not bounded: " + elapsedMillis + "ms");
+    }
+    
+    private StubPaymentGateway stub(long baseMillis, long tailMillis, double tailProbability, double failureProbability) {
+        return new StubPaymentGateway(scheduler, new Random(42), baseMillis, 0, tailMillis, tailProbability,
+                failureProbability);
+    }
+    
+    private AsyncPaymentGatewayClient client(PaymentGateway gateway, int maxInFlight, long timeoutMillis,
+                                             long hedgeDelayMillis) {
+        CircuitBreaker breaker = new CircuitBreaker(100, 100, 1.0, 1000);
+        return new AsyncPaymentGatewayClient(gateway, breaker, scheduler, maxInFlight, timeoutMillis, hedgeDelayMillis);
+    }
+    
+    private static GatewayRequest request(String amount, boolean idempotent) {
+        return new GatewayRequest("TXN-TEST", new BigDecimal(amount), PaymentMethod.CREDIT_CARD, idempotent);
+    }
+}
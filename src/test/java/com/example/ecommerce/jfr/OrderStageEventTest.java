@@ -0,0 +1,203 @@
+package com.example.ecommerce.jfr;
+
+import com.example.ecommerce.metrics.StatusTransitionMetrics;
+import com.example.ecommerce.model.Order;
+import com.example.ecommerce.model.Payment.PaymentMethod;
+import com.example.ecommerce.model.Product;
+import com.example.ecommerce.model.User;
+import com.example.ecommerce.repository.OrderItemRepository;
+import com.example.ecommerce.repository.OrderRepository;
+import com.example.ecommerce.service.AuditService;
+import com.example.ecommerce.service.EmailService;
+import com.example.ecommerce.service.OrderService;
+import com.example.ecommerce.service.PaymentService;
+import com.example.ecommerce.service.ProductService;
+import com.example.ecommerce.service.TrendingProductsService;
+import com.example.ecommerce.service.UserService;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class OrderStageEventTest {
+    
+    private static final List<String> CREATE_STAGES = Arrays.asList(
+            "com.example.ecommerce.OrderValidation",
+            "com.example.ecommerce.StockDecrement",
+            "com.example.ecommerce.PaymentCreation",
+            "com.example.ecommerce.EmailDispatch",
+            "com.example.ecommerce.AuditWrite");
+    
+    @Mock
+    private OrderRepository orderRepository;
+    
+    @Mock
+    private OrderItemRepository orderItemRepository;
+    
+    @Mock
+    private UserService userService;
+    
+    @Mock
+    private ProductService productService;
+    
+    @Mock
+    private PaymentService paymentService;
+    
+    @Mock
+    private EmailService emailService;
+    
+    @Mock
+    private AuditService auditService;
+    
+    @Mock
+    private TrendingProductsService trendingProductsService;
+    
+    @Mock
+    private StatusTransitionMetrics transitionMetrics;
+    
+    @InjectMocks
+    private OrderService orderService;
+    
+    @TempDir
+    Path tempDir;
+    
+    @Test
+    public void testBundledProfileEnablesEveryStage() throws Exception {
+        Map<String, String> settings = bundledProfile().getSettings();
+        
+        for (String stage : CREATE_STAGES) {
+            assertEquals("true", settings.get(stage + "#enabled"), stage);
+            assertEquals("0 ms", settings.get(stage + "#threshold"), stage);
+        }
+        assertEquals("true", settings.get("com.example.ecommerce.PaymentProcessing#enabled"));
+        assertEquals("true", settings.get("jdk.GarbageCollection#enabled"));
+        assertEquals("true", settings.get("jdk.JavaMonitorEnter#enabled"));
+    }
+    
+    @Test
+    public void testCreateOrderRecordsEachStage() throws Exception {
+        stubCatalog(true);
+        Order saved = new Order("ORD-1", 1L, new BigDecimal("59.98"));
+        saved.setId(42L);
+        when(orderRepository.save(any(Order.class))).thenReturn(saved);
+        
+        List<RecordedEvent> events = record(() -> orderService.createOrder(1L, twoLines(), PaymentMethod.CREDIT_CARD));
+        
+        assertEquals(CREATE_STAGES, names(events));
+        for (RecordedEvent event : events) {
+            assertEquals(42L, event.getLong("orderId"));
+            assertEquals(2, event.getInt("lineCount"));
+            assertEquals(OrderStageEvent.SUCCESS, event.getString("outcome"));
+        }
+    }
+    
+    @Test
+    public void testFailedValidationRecordsOutcomeWithoutOrderId() throws Exception {
+        stubCatalog(false);
+        
+        List<RecordedEvent> events = record(() -> assertThrows(IllegalStateException.class,
+                () -> orderService.createOrder(1L, twoLines(), PaymentMethod.CREDIT_CARD)));
+        
+        assertEquals(Arrays.asList("com.example.ecommerce.OrderValidation"), names(events));
+        assertEquals(0L, events.get(0).getLong("orderId"));
+        assertEquals("IllegalStateException", events.get(0).getString("outcome"));
+        verify(orderRepository, never()).save(any());
+    }
+    
+    @Test
+    public void testFailedOrderInsertIsRecordedAsFailedValidation() throws Exception {
+        stubCatalog(true);
+        when(orderRepository.save(any(Order.class))).thenThrow(new IllegalStateException("constraint violation"));
+        
+        List<RecordedEvent> events = record(() -> assertThrows(IllegalStateException.class,
+                () -> orderService.createOrder(1L, twoLines(), PaymentMethod.CREDIT_CARD)));
+        
+        assertEquals(Arrays.asList("com.example.ecommerce.OrderValidation"), names(events));
+        assertEquals(0L, events.get(0).getLong("orderId"));
+        assertEquals("IllegalStateException", events.get(0).getString("outcome"));
+    }
+    
+    @Test
+    public void testStageFailureIsChargedToThatStage() throws Exception {
+        stubCatalog(true);
+        Order saved = new Order("ORD-2", 1L, new BigDecimal("59.98"));
+        saved.setId(7L);
+        when(orderRepository.save(any(Order.class))).thenReturn(saved);
+        doThrow(new IllegalArgumentException("gateway down")).when(paymentService)
+                .createPayment(anyLong(), any(BigDecimal.class), any(PaymentMethod.class), anyString());
+        
+        List<RecordedEvent> events = record(() -> assertThrows(IllegalArgumentException.class,
+                () -> orderService.createOrder(1L, twoLines(), PaymentMethod.CREDIT_CARD)));
+        
+        assertEquals(CREATE_STAGES.subList(0, 3), names(events));
+        assertEquals("IllegalArgumentException", events.get(2).getString("outcome"));
+        assertEquals(7L, events.get(2).getLong("orderId"));
+    }
+    
+    private List<RecordedEvent> record(Runnable action) throws Exception {
+        Path file = tempDir.resolve("stages.jfr");
+        try (Recording recording = new Recording(bundledProfile())) {
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(file);
+        }
+        return RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().startsWith("com.example.ecommerce."))
+                .filter(event -> event.getThread() != null && event.getThread().getJavaThreadId() == Thread.currentThread().getId())
+                .sorted((a, b) -> a.getStartTime().compareTo(b.getStartTime()))
+                .collect(Collectors.toList());
+    }
+    
+    private static Configuration bundledProfile() throws Exception {
+        try (Reader reader = new InputStreamReader(
+                OrderStageEventTest.class.getResourceAsStream("/jfr/ecommerce.jfc"), StandardCharsets.UTF_8)) {
+            return Configuration.create(reader);
+        }
+    }
+    
+    private static List<String> names(List<RecordedEvent> events) {
+        return events.stream().map(event -> event.getEventType().getName()).collect(Collectors.toList());
+    }
+    
+    private void stubCatalog(boolean available) {
+        User user = new User("Jane", "Doe", "jane@example.com", "hash", "555-0100");
+        user.setId(1L);
+        when(userService.getUserById(1L)).thenReturn(Optional.of(user));
+        when(productService.isProductAvailable(anyLong(), anyInt())).thenReturn(available);
+        if (available) {
+            Product product = new Product("Mouse", "Wireless", new BigDecimal("29.99"), 100, "Electronics");
+            when(productService.getProductById(anyLong())).thenReturn(Optional.of(product));
+        }
+    }
+    
+    private static Map<Long, Integer> twoLines() {
+        Map<Long, Integer> lines = new LinkedHashMap<>();
+        lines.put(10L, 1);
+        lines.put(11L, 1);
+        return lines;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.ecommerce.metrics;
+
+import com.example.ecommerce.audit.AuditEventType;
+import com.example.ecommerce.audit.AuditPipeline;
+import com.example.ecommerce.service.NotificationDigestCoalescer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for AuditPipelineMetrics and EmailDigestMetrics
+ */
+public class PipelineMetricsTest {
+    
+    private MeterRegistry registry;
+    
+    @BeforeEach
+    public void setUp() {
+        registry = new SimpleMeterRegistry();
+    }
+    
+    @Test
+    public void testAuditPipelineCountersAreReadOnScrape() {
+        AuditPipeline pipeline = mock(AuditPipeline.class);
+        new AuditPipelineMetrics(pipeline).bindTo(registry);
+        when(pipeline.getPublishedCount()).thenReturn(12L);
+        when(pipeline.getDroppedCount(any(AuditEventType.class))).thenReturn(0L);
+        when(pipeline.getDroppedCount(AuditEventType.STOCK_UPDATED)).thenReturn(3L);
+        when(pipeline.getBacklog()).thenReturn(5L);
+        
+        assertEquals(12.0, registry.get("ecommerce.audit.events.published").functionCounter().count());
+        assertEquals(3.0, registry.get("ecommerce.audit.events.dropped").tag("type", "STOCK_UPDATED")
+                .functionCounter().count());
+        assertEquals(0.0, registry.get("ecommerce.audit.events.dropped").tag("type", "ORDER_CREATED")
+                .functionCounter().count());
+        assertEquals(5.0, registry.get("ecommerce.audit.backlog").gauge().value());
+    }
+    
+    @Test
+    public void testDigestMergeRatioIsAGauge() {
+        NotificationDigestCoalescer coalescer = mock(NotificationDigestCoalescer.class);
+        new EmailDigestMetrics(coalescer).bindTo(registry);
+        when(coalescer.getMessagesIn()).thenReturn(30L);
+        when(coalescer.getDigestsBuilt()).thenReturn(4L);
+        when(coalescer.getMergeRatio()).thenReturn(2.5);
+        
+        assertEquals(30.0, registry.get("ecommerce.email.digest.messages.in").functionCounter().count());
+        assertEquals(4.0, registry.get("ecommerce.email.digests.built").functionCounter().count());
+        assertEquals(2.5, registry.get("ecommerce.email.digest.merge.ratio").gauge().value());
+    }
+}
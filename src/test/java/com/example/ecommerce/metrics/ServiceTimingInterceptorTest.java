@@ -0,0 +1,63 @@
+package com.example.ecommerce.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for ServiceTimingInterceptor
+ */
+public class ServiceTimingInterceptorTest {
+    
+    private MeterRegistry registry;
+    private Greeter greeter;
+    
+    @BeforeEach
+    public void setUp() {
+        registry = new SimpleMeterRegistry();
+        DefaultListableBeanFactory beans = new DefaultListableBeanFactory();
+        beans.registerSingleton("registry", registry);
+        ProxyFactory proxyFactory = new ProxyFactory(new Greeter());
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice(new ServiceTimingInterceptor(beans.getBeanProvider(MeterRegistry.class)));
+        greeter = (Greeter) proxyFactory.getProxy();
+    }
+    
+    @Test
+    public void testSuccessfulCallsShareOneTimer() {
+        assertEquals("Hello Ada", greeter.greet("Ada"));
+        assertEquals("Hello Bob", greeter.greet("Bob"));
+        
+        Timer timer = registry.get(ServiceTimingInterceptor.METRIC_NAME)
+                .tags("class", "Greeter", "method", "greet", "exception", "none")
+                .timer();
+        assertEquals(2, timer.count());
+    }
+    
+    @Test
+    public void testFailuresAreTaggedWithExceptionAndRethrown() {
+        assertThrows(IllegalArgumentException.class, () -> greeter.greet(null));
+        
+        Timer timer = registry.get(ServiceTimingInterceptor.METRIC_NAME)
+                .tags("method", "greet", "exception", "IllegalArgumentException")
+                .timer();
+        assertEquals(1, timer.count());
+        assertEquals(0, registry.get(ServiceTimingInterceptor.METRIC_NAME).tags("exception", "none").timer().count());
+    }
+    
+    public static class Greeter {
+        
+        public String greet(String name) {
+            if (name == null) {
+                throw new IllegalArgumentException("name is required");
+            }
+            return "Hello " + name;
+        }
+    }
+}
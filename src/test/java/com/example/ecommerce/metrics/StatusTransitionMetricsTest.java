@@ -0,0 +1,46 @@
+package com.example.ecommerce.metrics;
+
+import com.example.ecommerce.model.Order.OrderStatus;
+import com.example.ecommerce.model.Payment.PaymentStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for StatusTransitionMetrics
+ */
+public class StatusTransitionMetricsTest {
+    
+    private MeterRegistry registry;
+    private StatusTransitionMetrics metrics;
+    
+    @BeforeEach
+    public void setUp() {
+        registry = new SimpleMeterRegistry();
+        metrics = new StatusTransitionMetrics(registry);
+    }
+    
+    @Test
+    public void testTransitionsAreCountedPerPair() {
+        metrics.orderTransition(OrderStatus.PENDING, OrderStatus.CONFIRMED);
+        metrics.orderTransition(OrderStatus.PENDING, OrderStatus.CONFIRMED);
+        metrics.orderTransitions(OrderStatus.SHIPPED, OrderStatus.CANCELLED, 3);
+        metrics.paymentTransition(PaymentStatus.PENDING, PaymentStatus.COMPLETED);
+        
+        assertEquals(2.0, registry.get("ecommerce.order.transitions").tags("from", "PENDING", "to", "CONFIRMED").counter().count());
+        assertEquals(3.0, registry.get("ecommerce.order.transitions").tags("from", "SHIPPED", "to", "CANCELLED").counter().count());
+        assertEquals(1.0, registry.get("ecommerce.payment.transitions").tags("from", "PENDING", "to", "COMPLETED").counter().count());
+        assertEquals(3, registry.getMeters().size());
+    }
+    
+    @Test
+    public void testNoOpTransitionsAreNotExported() {
+        metrics.paymentTransition(PaymentStatus.PENDING, PaymentStatus.PENDING);
+        metrics.orderTransitions(OrderStatus.PENDING, OrderStatus.CANCELLED, 0);
+        
+        assertTrue(registry.getMeters().isEmpty());
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.ecommerce.metrics;
+
+import com.example.ecommerce.model.Product;
+import com.example.ecommerce.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for StockLevelGauges
+ */
+@ExtendWith(MockitoExtension.class)
+public class StockLevelGaugesTest {
+    
+    @Mock
+    private ProductRepository productRepository;
+    
+    @Test
+    public void testGaugesReadWatchedSkusWithOneQueryPerRefresh() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        when(productRepository.findBySkuIn(anyCollection()))
+            .thenReturn(Arrays.asList(product("SKU-1", 42), product("SKU-2", 7)));
+        
+        new StockLevelGauges(productRepository, registry, Arrays.asList("SKU-1", " SKU-2", "SKU-3", ""), 60_000);
+        
+        assertEquals(42.0, registry.get("ecommerce.product.stock").tag("sku", "SKU-1").gauge().value());
+        assertEquals(7.0, registry.get("ecommerce.product.stock").tag("sku", "SKU-2").gauge().value());
+        assertTrue(Double.isNaN(registry.get("ecommerce.product.stock").tag("sku", "SKU-3").gauge().value()));
+        assertEquals(3, registry.getMeters().size());
+        verify(productRepository, times(1)).findBySkuIn(anyCollection());
+    }
+    
+    @Test
+    public void testNoWatchedSkus() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        
+        StockLevelGauges gauges = new StockLevelGauges(productRepository, registry, Collections.emptyList(), 5000);
+        
+        assertTrue(gauges.getWatchedSkus().isEmpty());
+        assertTrue(registry.getMeters().isEmpty());
+        verifyNoInteractions(productRepository);
+    }
+    
+    private static Product product(String sku, int stock) {
+        Product product = new Product("Widget " + sku, "", new BigDecimal("9.99"), stock, "Tools");
+        product.setSku(sku);
+        return product;
+    }
+}
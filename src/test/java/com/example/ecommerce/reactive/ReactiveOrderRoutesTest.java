@@ -0,0 +1,123 @@
+package com.example.ecommerce.reactive;
+
+import com.example.ecommerce.model.Order.OrderStatus;
+import com.example.ecommerce.model.Payment.PaymentMethod;
+import com.example.ecommerce.reactive.model.OrderRow;
+import com.example.ecommerce.reactive.service.ReactiveOrderService;
+import com.example.ecommerce.reactive.web.ReactiveOrderHandler;
+import com.example.ecommerce.reactive.web.ReactiveOrderRoutes;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ReactiveOrderRoutesTest {
+    
+    @Mock
+    private ReactiveOrderService orderService;
+    
+    @InjectMocks
+    private ReactiveOrderHandler handler;
+    
+    private WebTestClient client;
+    
+    @BeforeEach
+    public void setUp() {
+        client = WebTestClient.bindToRouterFunction(new ReactiveOrderRoutes().reactiveOrderRouter(handler)).build();
+    }
+    
+    @Test
+    public void testCreateReturnsLocation() {
+        when(orderService.createOrder(eq(7L), anyMap(), eq(PaymentMethod.PAYPAL))).thenReturn(Mono.just(order(42L, OrderStatus.PENDING)));
+        
+        client.post().uri(ReactiveOrderRoutes.BASE_PATH)
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue("{\"userId\":7,\"items\":{\"3\":2},\"paymentMethod\":\"PAYPAL\"}")
+            .exchange()
+            .expectStatus().isCreated()
+            .expectHeader().location(ReactiveOrderRoutes.BASE_PATH + "/42")
+            .expectBody().jsonPath("$.status").isEqualTo("PENDING");
+        
+        verify(orderService).createOrder(7L, Collections.singletonMap(3L, 2), PaymentMethod.PAYPAL);
+    }
+    
+    @Test
+    public void testCreateWithoutItemsIsBadRequest() {
+        client.post().uri(ReactiveOrderRoutes.BASE_PATH)
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue("{\"userId\":7}")
+            .exchange()
+            .expectStatus().isBadRequest()
+            .expectBody().jsonPath("$.error").isEqualTo("userId and items are required");
+        
+        verify(orderService, never()).createOrder(any(), anyMap(), any());
+    }
+    
+    @Test
+    public void testUnknownOrderIsNotFound() {
+        when(orderService.getOrderById(5L)).thenReturn(Mono.empty());
+        
+        client.get().uri(ReactiveOrderRoutes.BASE_PATH + "/5").exchange().expectStatus().isNotFound();
+        client.get().uri(ReactiveOrderRoutes.BASE_PATH + "/abc").exchange().expectStatus().isBadRequest();
+    }
+    
+    @Test
+    public void testIllegalTransitionIsConflict() {
+        when(orderService.completeOrder(9L)).thenReturn(Mono.error(new IllegalStateException("Order must be shipped before completion")));
+        
+        client.post().uri(ReactiveOrderRoutes.BASE_PATH + "/9/complete")
+            .exchange()
+            .expectStatus().isEqualTo(409)
+            .expectBody().jsonPath("$.error").isEqualTo("Order must be shipped before completion");
+    }
+    
+    @Test
+    public void testListByUserAndStatus() {
+        when(orderService.getUserOrdersByStatus(7L, OrderStatus.SHIPPED))
+            .thenReturn(Flux.just(order(1L, OrderStatus.SHIPPED), order(2L, OrderStatus.SHIPPED)));
+        
+        client.get().uri(ReactiveOrderRoutes.BASE_PATH + "?userId=7&status=SHIPPED")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody().jsonPath("$.length()").isEqualTo(2);
+        
+        client.get().uri(ReactiveOrderRoutes.BASE_PATH).exchange().expectStatus().isBadRequest();
+    }
+    
+    @Test
+    public void testShipRequiresTrackingNumber() {
+        Map<String, String> body = Collections.singletonMap("trackingNumber", "TRACK-1");
+        when(orderService.shipOrder(4L, "TRACK-1")).thenReturn(Mono.just(order(4L, OrderStatus.SHIPPED)));
+        
+        client.post().uri(ReactiveOrderRoutes.BASE_PATH + "/4/ship").bodyValue(body)
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody().jsonPath("$.status").isEqualTo("SHIPPED");
+        client.post().uri(ReactiveOrderRoutes.BASE_PATH + "/4/ship").bodyValue(Collections.emptyMap())
+            .exchange()
+            .expectStatus().isBadRequest();
+    }
+    
+    private static OrderRow order(Long id, OrderStatus status) {
+        OrderRow order = new OrderRow("ORD-" + id, 7L, new BigDecimal("10.00"));
+        order.setId(id);
+        order.setStatus(status);
+        return order;
+    }
+}
@@ -0,0 +1,239 @@
+package com.example.ecommerce.reactive;
+
+import com.example.ecommerce.EcommerceApplication;
+import com.example.ecommerce.model.EmailOutboxMessage;
+import com.example.ecommerce.model.EmailOutboxMessage.EmailKind;
+import com.example.ecommerce.model.Order;
+import com.example.ecommerce.model.Order.OrderStatus;
+import com.example.ecommerce.model.Payment;
+import com.example.ecommerce.model.Payment.PaymentMethod;
+import com.example.ecommerce.model.Payment.PaymentStatus;
+import com.example.ecommerce.model.Product;
+import com.example.ecommerce.model.User;
+import com.example.ecommerce.reactive.model.OrderRow;
+import com.example.ecommerce.reactive.service.ReactiveOrderService;
+import com.example.ecommerce.repository.EmailOutboxRepository;
+import com.example.ecommerce.repository.OrderItemRepository;
+import com.example.ecommerce.repository.OrderRepository;
+import com.example.ecommerce.repository.PaymentRepository;
+import com.example.ecommerce.repository.ProductRepository;
+import com.example.ecommerce.service.OrderService;
+import com.example.ecommerce.service.ProductService;
+import com.example.ecommerce.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The reactive lifecycle against the real schema, checked through the blocking repositories to show both
+ * stacks share one database.
+ */
+@SpringBootTest(classes = EcommerceApplication.class, properties = {
+    "spring.jpa.show-sql=false",
+    "ecommerce.audit.store.enabled=false",
+    "ecommerce.email.dispatch.interval-ms=3600000",
+    "ecommerce.auth.pbkdf2-iterations=1000",
+    "ecommerce.payment.gateway.stub.base-latency-ms=0",
+    "ecommerce.payment.gateway.stub.jitter-ms=0",
+    "ecommerce.payment.gateway.stub.tail-probability=0"
+})
+public class ReactiveOrderServiceTest {
+    
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+    
+    @Autowired
+    private ReactiveOrderService reactiveOrderService;
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private UserService userService;
+    
+    @Autowired
+    private ProductService productService;
+    
+    @Autowired
+    private OrderRepository orderRepository;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private PaymentRepository paymentRepository;
+    
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+    
+    @Autowired
+    private EmailOutboxRepository outboxRepository;
+    
+    private User user;
+    private Product keyboard;
+    private Product mouse;
+    
+    @BeforeEach
+    public void setUp() {
+        int n = SEQUENCE.incrementAndGet();
+        user = userService.createUser("Reactive", "User", "reactive" + n + "@example.com", "secret", "555-0100");
+        keyboard = productService.createProduct("Keyboard " + n, "Mechanical", new BigDecimal("49.99"), 100, "Electronics");
+        mouse = productService.createProduct("Mouse " + n, "Wireless", new BigDecimal("19.99"), 5, "Electronics");
+    }
+    
+    @Test
+    public void testCreateOrderIsVisibleToTheBlockingStack() {
+        OrderRow created = reactiveOrderService.createOrder(user.getId(), lines(2, 1), PaymentMethod.CREDIT_CARD).block();
+        
+        assertNotNull(created.getId());
+        Order stored = orderRepository.findById(created.getId()).orElseThrow(AssertionError::new);
+        assertEquals(OrderStatus.PENDING, stored.getStatus());
+        assertEquals(0, new BigDecimal("119.97").compareTo(stored.getTotalAmount()));
+        assertEquals(98, productRepository.findById(keyboard.getId()).get().getStockQuantity());
+        assertEquals(4, productRepository.findById(mouse.getId()).get().getStockQuantity());
+        List<Payment> payments = paymentRepository.findByOrderId(created.getId());
+        assertEquals(1, payments.size());
+        assertEquals(PaymentStatus.PENDING, payments.get(0).getStatus());
+    }
+    
+    @Test
+    public void testOrderEmailsAreQueuedWithTheOrder() {
+        OrderRow created = reactiveOrderService.createOrder(user.getId(), lines(1, 1), PaymentMethod.CREDIT_CARD).block();
+        
+        List<EmailOutboxMessage> confirmations = orderEmailsFor(user.getEmail());
+        assertEquals(1, confirmations.size());
+        assertEquals(EmailKind.ORDER_CONFIRMATION, confirmations.get(0).getKind());
+        assertEquals(created.getOrderNumber(), confirmations.get(0).getDigestKey());
+        // The alert reports the stock the update left: 5 - 1
+        assertTrue(outboxRepository.findAll().stream().anyMatch(message -> message.getKind() == EmailKind.LOW_STOCK_ALERT
+                && message.getBody().contains("Only 4 units of " + mouse.getName() + " are left")));
+    }
+    
+    @Test
+    public void testUnavailableProductRollsBackEverything() {
+        StepVerifier.create(reactiveOrderService.createOrder(user.getId(), lines(1, 6), PaymentMethod.CREDIT_CARD))
+            .expectErrorMatches(e -> e instanceof IllegalStateException && e.getMessage().contains(String.valueOf(mouse.getId())))
+            .verify();
+        
+        assertTrue(orderService.getOrdersByUserId(user.getId()).isEmpty());
+        assertEquals(100, productRepository.findById(keyboard.getId()).get().getStockQuantity());
+        assertTrue(orderEmailsFor(user.getEmail()).isEmpty());
+    }
+    
+    @Test
+    public void testUnknownUserIsRejected() {
+        StepVerifier.create(reactiveOrderService.createOrder(-1L, lines(1, 1), PaymentMethod.CREDIT_CARD))
+            .expectError(IllegalArgumentException.class)
+            .verify();
+    }
+    
+    @Test
+    public void testLifecycleThroughCancellation() {
+        Long orderId = reactiveOrderService.createOrder(user.getId(), lines(1, 0), PaymentMethod.DEBIT_CARD).block().getId();
+        
+        StepVerifier.create(reactiveOrderService.processOrder(orderId, user.getEmail()))
+            .expectNextMatches(order -> order.getStatus() == OrderStatus.PROCESSING)
+            .verifyComplete();
+        assertEquals(PaymentStatus.COMPLETED, paymentRepository.findByOrderId(orderId).get(0).getStatus());
+        
+        StepVerifier.create(reactiveOrderService.cancelOrder(orderId))
+            .expectNextMatches(order -> order.getStatus() == OrderStatus.CANCELLED)
+            .verifyComplete();
+        assertEquals(PaymentStatus.REFUNDED, paymentRepository.findByOrderId(orderId).get(0).getStatus());
+        assertEquals(OrderStatus.CANCELLED, orderRepository.findById(orderId).get().getStatus());
+    }
+    
+    @Test
+    public void testProcessingTwiceDoesNotChargeAgain() {
+        Long orderId = reactiveOrderService.createOrder(user.getId(), lines(1, 0), PaymentMethod.CREDIT_CARD).block().getId();
+        reactiveOrderService.processOrder(orderId, user.getEmail()).block();
+        Payment charged = paymentRepository.findByOrderId(orderId).get(0);
+        assertEquals(PaymentStatus.COMPLETED, charged.getStatus());
+        
+        StepVerifier.create(reactiveOrderService.processOrder(orderId, user.getEmail()))
+            .expectErrorMatches(e -> e instanceof IllegalStateException && e.getMessage().contains("not pending"))
+            .verify();
+        
+        Payment after = paymentRepository.findByOrderId(orderId).get(0);
+        assertEquals(PaymentStatus.COMPLETED, after.getStatus());
+        assertEquals(charged.getProcessedAt(), after.getProcessedAt());
+        assertEquals(1, orderEmailsFor(user.getEmail()).stream()
+            .filter(message -> message.getKind() == EmailKind.PAYMENT_CONFIRMATION).count());
+    }
+    
+    @Test
+    public void testCancelReturnsStockOnce() {
+        Long orderId = reactiveOrderService.createOrder(user.getId(), lines(2, 1), PaymentMethod.CREDIT_CARD).block().getId();
+        assertEquals(2, orderItemRepository.findByOrderId(orderId).size());
+        
+        reactiveOrderService.cancelOrder(orderId).block();
+        StepVerifier.create(reactiveOrderService.cancelOrder(orderId))
+            .expectNextMatches(order -> order.getStatus() == OrderStatus.CANCELLED)
+            .verifyComplete();
+        
+        assertEquals(100, productRepository.findById(keyboard.getId()).get().getStockQuantity());
+        assertEquals(5, productRepository.findById(mouse.getId()).get().getStockQuantity());
+    }
+    
+    @Test
+    public void testBlockingCancelRestocksReactiveOrder() {
+        Long orderId = reactiveOrderService.createOrder(user.getId(), lines(2, 1), PaymentMethod.CREDIT_CARD).block().getId();
+        
+        orderService.cancelOrder(orderId);
+        
+        assertEquals(OrderStatus.CANCELLED, orderRepository.findById(orderId).get().getStatus());
+        assertEquals(100, productRepository.findById(keyboard.getId()).get().getStockQuantity());
+        assertEquals(5, productRepository.findById(mouse.getId()).get().getStockQuantity());
+    }
+    
+    @Test
+    public void testShipAndComplete() {
+        Long orderId = reactiveOrderService.createOrder(user.getId(), lines(1, 0), PaymentMethod.PAYPAL).block().getId();
+        
+        StepVerifier.create(reactiveOrderService.confirmOrder(orderId)
+                .then(reactiveOrderService.shipOrder(orderId, "TRACK-1"))
+                .then(reactiveOrderService.completeOrder(orderId)))
+            .expectNextMatches(order -> order.getStatus() == OrderStatus.DELIVERED && order.getCompletedAt() != null)
+            .verifyComplete();
+        
+        StepVerifier.create(reactiveOrderService.getOrdersByUserId(user.getId()).map(OrderRow::getStatus))
+            .expectNext(OrderStatus.DELIVERED)
+            .verifyComplete();
+        assertTrue(orderEmailsFor(user.getEmail()).stream().anyMatch(message -> message.getKind() == EmailKind.ORDER_SHIPPED
+                && message.getBody().contains("TRACK-1")));
+    }
+    
+    @Test
+    public void testOrdersCreatedByTheBlockingStackAreReadable() {
+        Order blocking = orderService.createOrder(user.getId(), lines(1, 0), PaymentMethod.CREDIT_CARD);
+        
+        StepVerifier.create(reactiveOrderService.getOrderByOrderNumber(blocking.getOrderNumber()))
+            .expectNextMatches(order -> order.getId().equals(blocking.getId()) && order.getStatus() == OrderStatus.PENDING)
+            .verifyComplete();
+    }
+    
+    private List<EmailOutboxMessage> orderEmailsFor(String recipient) {
+        return outboxRepository.findAll().stream()
+            .filter(message -> message.getRecipient().equals(recipient) && message.getKind() != EmailKind.WELCOME)
+            .collect(Collectors.toList());
+    }
+    
+    private Map<Long, Integer> lines(int keyboards, int mice) {
+        Map<Long, Integer> lines = new LinkedHashMap<>();
+        lines.put(keyboard.getId(), keyboards);
+        if (mice > 0) {
+            lines.put(mouse.getId(), mice);
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.ecommerce.reconciliation;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for SettlementFileReader
+ */
+public class SettlementFileReaderTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    @Test
+    public void testReadsAcrossRegionBoundaries() throws IOException {
+        StringBuilder content = new StringBuilder("# gateway settlement\r\n");
+        for (int i = 0; i < 500; i++) {
+            content.append(String.format("TXN-%08d,%d.%02d,COMPLETED\r\n", i, i, i % 100));
+        }
+        Path file = write(content.toString());
+        
+        List<SettlementRecord> records = readAll(file, 64);
+        
+        assertEquals(500, records.size());
+        assertEquals("TXN-00000000", records.get(0).getTransactionId());
+        assertEquals("TXN-00000499", records.get(499).getTransactionId());
+        assertEquals(new BigDecimal("499.99"), records.get(499).getAmount());
+        assertEquals("COMPLETED", records.get(499).getStatus());
+    }
+    
+    @Test
+    public void testLastLineWithoutNewline() throws IOException {
+        Path file = write("TXN-A,1.00,COMPLETED\n\nTXN-B,2.00,REFUNDED");
+        
+        List<SettlementRecord> records = readAll(file, 24);
+        
+        assertEquals(2, records.size());
+        assertEquals("REFUNDED", records.get(1).getStatus());
+    }
+    
+    @Test
+    public void testEmptyFile() throws IOException {
+        assertTrue(readAll(write(""), 16).isEmpty());
+    }
+    
+    @Test
+    public void testUnsortedFileRejected() throws IOException {
+        Path file = write("TXN-B,1.00,COMPLETED\nTXN-A,2.00,COMPLETED\n");
+        
+        assertThrows(IllegalStateException.class, () -> readAll(file, 1024));
+    }
+    
+    @Test
+    public void testLineLongerThanRegionRejected() throws IOException {
+        Path file = write("TXN-AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA,1.00,COMPLETED\n");
+        
+        assertThrows(IllegalStateException.class, () -> readAll(file, 16));
+    }
+    
+    @Test
+    public void testMalformedLineRejected() throws IOException {
+        Path file = write("TXN-A;1.00;COMPLETED\n");
+        
+        assertThrows(IllegalStateException.class, () -> readAll(file, 1024));
+    }
+    
+    private Path write(String content) throws IOException {
+        Path file = tempDir.resolve("settlement.csv");
+        Files.write(file, content.getBytes(StandardCharsets.US_ASCII));
+        return file;
+    }
+    
+    private static List<SettlementRecord> readAll(Path file, int regionBytes) throws IOException {
+        List<SettlementRecord> records = new ArrayList<>();
+        try (SettlementFileReader reader = new SettlementFileReader(file, regionBytes)) {
+            SettlementRecord record;
+            while ((record = reader.next()) != null) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.ecommerce.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for PasswordHashingPool - bounded hashing executor with load shedding
+ */
+public class PasswordHashingPoolTest {
+    
+    private PasswordHashingPool pool;
+    
+    @AfterEach
+    public void tearDown() {
+        pool.shutdown();
+    }
+    
+    @Test
+    public void testTaskResultIsReturned() {
+        pool = new PasswordHashingPool(1, 4, 1000);
+        
+        assertEquals("hashed", PasswordHashingPool.await(pool.submit(() -> "hashed")));
+        assertEquals(1, pool.getCompletedCount());
+    }
+    
+    @Test
+    public void testFullQueueIsRejectedImmediately() throws Exception {
+        pool = new PasswordHashingPool(1, 1, 1000);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        CompletableFuture<Boolean> busy = pool.submit(() -> {
+            started.countDown();
+            return await(release);
+        });
+        started.await();
+        CompletableFuture<String> queued = pool.submit(() -> "queued");
+        
+        CompletableFuture<String> shed = pool.submit(() -> "shed");
+        
+        PasswordHashingRejectedException e = assertThrows(PasswordHashingRejectedException.class,
+                () -> PasswordHashingPool.await(shed));
+        assertEquals(PasswordHashingRejectedException.Reason.QUEUE_FULL, e.getReason());
+        assertEquals(1, pool.getRejectedCount());
+        release.countDown();
+        assertTrue(busy.get());
+        assertEquals("queued", queued.get());
+    }
+    
+    @Test
+    public void testTaskThatWaitedTooLongIsDropped() throws Exception {
+        pool = new PasswordHashingPool(1, 4, 20);
+        CountDownLatch release = new CountDownLatch(1);
+        pool.submit(() -> await(release));
+        CompletableFuture<String> stale = pool.submit(() -> "stale");
+        
+        Thread.sleep(60);
+        release.countDown();
+        
+        PasswordHashingRejectedException e = assertThrows(PasswordHashingRejectedException.class,
+                () -> PasswordHashingPool.await(stale));
+        assertEquals(PasswordHashingRejectedException.Reason.QUEUE_TIMEOUT, e.getReason());
+        assertEquals(1, pool.getExpiredCount());
+        assertTrue(pool.getMaxQueueMillis() >= 20);
+    }
+    
+    private static boolean await(CountDownLatch latch) {
+        try {
+            latch.await();
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
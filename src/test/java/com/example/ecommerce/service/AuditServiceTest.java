@@ -1,57 +1,105 @@
 package com.example.ecommerce.service;
 
+import com.example.ecommerce.audit.AuditEvent;
+import com.example.ecommerce.audit.AuditEventType;
+import com.example.ecommerce.audit.AuditPipeline;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
+import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.Collections;
+
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 public class AuditServiceTest {
     
+    @Mock
+    private AuditPipeline auditPipeline;
+    
     @InjectMocks
     private AuditService auditService;
     
+    @BeforeEach
+    public void setUp() {
+        lenient().when(auditPipeline.begin(any())).thenAnswer(invocation ->
+                AuditEvent.detached(invocation.getArgument(0)));
+    }
+    
     @Test
     public void testLogUserCreated() {
-        assertDoesNotThrow(() -> {
-            auditService.logUserCreated(1L, "test@example.com");
-        });
+        auditService.logUserCreated(1L, "test@example.com");
+        
+        AuditEvent event = committed();
+        assertEquals(AuditEventType.USER_CREATED, event.getType());
+        assertEquals(Long.valueOf(1L), event.getEntityId());
+        assertEquals("test@example.com", event.getPrimaryText());
     }
     
     @Test
     public void testLogUserUpdated() {
-        assertDoesNotThrow(() -> {
-            auditService.logUserUpdated(1L, "test@example.com");
-        });
+        auditService.logUserUpdated(1L, "test@example.com");
+        
+        assertEquals(AuditEventType.USER_UPDATED, committed().getType());
     }
     
     @Test
     public void testLogProductCreated() {
-        assertDoesNotThrow(() -> {
-            auditService.logProductCreated(1L, "Test Product");
-        });
+        auditService.logProductCreated(1L, "Test Product");
+        
+        assertEquals("Test Product", committed().getPrimaryText());
     }
     
     @Test
     public void testLogStockUpdated() {
-        assertDoesNotThrow(() -> {
-            auditService.logStockUpdated(1L, 100, 90);
-        });
+        auditService.logStockUpdated(1L, 100, 90);
+        
+        AuditEvent event = committed();
+        assertEquals(100, event.getOldQuantity());
+        assertEquals(90, event.getNewQuantity());
     }
     
     @Test
     public void testLogOrderCreated() {
-        assertDoesNotThrow(() -> {
-            auditService.logOrderCreated(1L, "ORD-123", 1L);
-        });
+        auditService.logOrderCreated(1L, "ORD-123", 2L);
+        
+        AuditEvent event = committed();
+        assertEquals("ORD-123", event.getPrimaryText());
+        assertEquals(Long.valueOf(2L), event.getRelatedId());
     }
     
     @Test
     public void testLogPaymentProcessed() {
-        assertDoesNotThrow(() -> {
-            auditService.logPaymentProcessed(1L, "TXN-123", "COMPLETED");
-        });
+        auditService.logPaymentProcessed(1L, "TXN-123", "COMPLETED");
+        
+        assertEquals(AuditEventType.PAYMENT_PROCESSED, committed().getType());
+    }
+    
+    @Test
+    public void testLogPaymentBatchProcessed() {
+        auditService.logPaymentBatchProcessed(Collections.singletonMap("TXN-123", "COMPLETED"));
+        
+        assertEquals(Collections.singletonMap("TXN-123", "COMPLETED"), committed().getPayload());
+    }
+    
+    @Test
+    public void testDroppedEventIsNotCommitted() {
+        when(auditPipeline.begin(AuditEventType.USER_CREATED)).thenReturn(null);
+        
+        auditService.logUserCreated(1L, "test@example.com");
+        
+        verify(auditPipeline, never()).commit(any());
+    }
+    
+    private AuditEvent committed() {
+        ArgumentCaptor<AuditEvent> event = ArgumentCaptor.forClass(AuditEvent.class);
+        verify(auditPipeline).commit(event.capture());
+        return event.getValue();
     }
 }
@@ -0,0 +1,146 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.email.InProcessSmtpServer;
+import com.example.ecommerce.email.SmtpMailTransport;
+import com.example.ecommerce.model.EmailOutboxMessage;
+import com.example.ecommerce.model.EmailOutboxMessage.EmailKind;
+import com.example.ecommerce.model.EmailOutboxMessage.OutboxStatus;
+import com.example.ecommerce.repository.EmailOutboxRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for EmailOutboxDispatcher - batched, parallel outbox delivery with retry and dead-lettering
+ * Dependencies: EmailOutboxRepository, MailTransport (SMTP against the in-process stand-in), NotificationDigestCoalescer
+ */
+@ExtendWith(MockitoExtension.class)
+public class EmailOutboxDispatcherTest {
+    
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 1, 9, 0);
+    
+    @Mock
+    private EmailOutboxRepository outboxRepository;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
+    @InjectMocks
+    private NotificationDigestCoalescer digestCoalescer;
+    
+    private InProcessSmtpServer server;
+    private EmailOutboxDispatcher dispatcher;
+    
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = new InProcessSmtpServer(true);
+        SmtpMailTransport transport = new SmtpMailTransport("127.0.0.1", server.getPort(), "test.local",
+                "no-reply@example.com", 1000, 5000);
+        dispatcher = new EmailOutboxDispatcher(outboxRepository, transport, digestCoalescer, 100, 2, 3, 1000, 60_000, 24);
+    }
+    
+    @AfterEach
+    public void tearDown() throws IOException {
+        dispatcher.shutdown();
+        server.close();
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testBatchIsSplitAcrossConnectionsAndOutcomesWrittenInBulk() {
+        EmailOutboxMessage rejected = message(3L, "reject@example.com", 0);
+        EmailOutboxMessage busy = message(4L, "busy@example.com", 0);
+        when(outboxRepository.findDue(eq(OutboxStatus.PENDING), eq(NOW), any())).thenReturn(Arrays.asList(
+                message(1L, "a@example.com", 0), message(2L, "b@example.com", 0), rejected, busy,
+                message(5L, "c@example.com", 0), message(6L, "d@example.com", 0)));
+        
+        assertEquals(6, dispatcher.dispatchDue(NOW));
+        
+        ArgumentCaptor<Collection<Long>> sentIds = ArgumentCaptor.forClass(Collection.class);
+        verify(outboxRepository).markSent(sentIds.capture(), eq(NOW));
+        assertEquals(Arrays.asList(1L, 2L, 5L, 6L), new ArrayList<>(sentIds.getValue()));
+        ArgumentCaptor<List<EmailOutboxMessage>> failed = ArgumentCaptor.forClass(List.class);
+        verify(outboxRepository).batchUpdateDeliveryState(failed.capture());
+        assertEquals(Arrays.asList(rejected, busy), failed.getValue());
+        
+        assertEquals(OutboxStatus.DEAD, rejected.getStatus());
+        assertEquals(OutboxStatus.PENDING, busy.getStatus());
+        assertEquals(1, busy.getAttempts());
+        assertTrue(busy.getLastError().startsWith("451"));
+        assertFalse(busy.getNextAttemptAt().isBefore(NOW.plusSeconds(1)));
+        assertFalse(busy.getNextAttemptAt().isAfter(NOW.plusNanos(1_100_000_000L)));
+        
+        assertEquals(2, server.getConnectionCount());
+        assertEquals(4, server.getReceived().size());
+        assertEquals(4, dispatcher.getSentCount());
+        assertEquals(1, dispatcher.getRetriedCount());
+        assertEquals(1, dispatcher.getDeadLetteredCount());
+    }
+    
+    @Test
+    public void testMessageIsDeadLetteredWhenAttemptsRunOut() {
+        EmailOutboxMessage busy = message(9L, "busy@example.com", 2);
+        when(outboxRepository.findDue(eq(OutboxStatus.PENDING), eq(NOW), any())).thenReturn(Arrays.asList(busy));
+        
+        dispatcher.dispatchDue(NOW);
+        
+        assertEquals(OutboxStatus.DEAD, busy.getStatus());
+        assertEquals(3, busy.getAttempts());
+        verify(outboxRepository, never()).markSent(anyCollection(), any());
+    }
+    
+    @Test
+    public void testServerDownLeavesMessagesPendingWithBackoff() throws IOException {
+        server.close();
+        EmailOutboxMessage message = message(1L, "a@example.com", 1);
+        when(outboxRepository.findDue(eq(OutboxStatus.PENDING), eq(NOW), any())).thenReturn(Arrays.asList(message));
+        
+        dispatcher.dispatchDue(NOW);
+        
+        assertEquals(OutboxStatus.PENDING, message.getStatus());
+        assertEquals(2, message.getAttempts());
+        assertFalse(message.getNextAttemptAt().isBefore(NOW.plusSeconds(2)));
+    }
+    
+    @Test
+    public void testBackoffDoublesUpToTheCap() {
+        assertTrue(dispatcher.backoffMillis(1) >= 1000 && dispatcher.backoffMillis(1) <= 1100);
+        assertTrue(dispatcher.backoffMillis(4) >= 8000 && dispatcher.backoffMillis(4) <= 8800);
+        assertTrue(dispatcher.backoffMillis(40) >= 60_000 && dispatcher.backoffMillis(40) <= 66_000);
+    }
+    
+    @Test
+    public void testNothingDueTouchesNothing() {
+        when(outboxRepository.findDue(eq(OutboxStatus.PENDING), eq(NOW), any())).thenReturn(new ArrayList<>());
+        
+        assertEquals(0, dispatcher.dispatchDue(NOW));
+        
+        assertEquals(0, server.getConnectionCount());
+        verify(outboxRepository, never()).markSent(anyCollection(), any());
+    }
+    
+    private static EmailOutboxMessage message(Long id, String recipient, int attempts) {
+        EmailOutboxMessage message = new EmailOutboxMessage(EmailKind.ORDER_CONFIRMATION, recipient,
+                "Order confirmation ORD-" + id, "Your order number is ORD-" + id + ".");
+        message.setId(id);
+        message.setAttempts(attempts);
+        return message;
+    }
+}
@@ -1,15 +1,36 @@
 package com.example.ecommerce.service;
 
+import com.example.ecommerce.email.EmailTemplateRegistry;
+import com.example.ecommerce.model.EmailOutboxMessage;
+import com.example.ecommerce.model.EmailOutboxMessage.EmailKind;
+import com.example.ecommerce.model.EmailOutboxMessage.OutboxStatus;
+import com.example.ecommerce.repository.EmailOutboxRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 public class EmailServiceTest {
     
+    @Mock
+    private EmailOutboxRepository outboxRepository;
+    
+    @Spy
+    private EmailTemplateRegistry templateRegistry = new EmailTemplateRegistry("email-templates", "en");
+    
     @InjectMocks
     private EmailService emailService;
     
@@ -54,4 +75,64 @@ public class EmailServiceTest {
             emailService.sendLowStockAlert("Test Product", 5);
         });
     }
+    
+    @Test
+    public void testEmailIsWrittenToOutboxInsteadOfSent() {
+        emailService.sendOrderShipped("test@example.com", "ORD-123", "TRACK-789");
+        
+        ArgumentCaptor<EmailOutboxMessage> message = ArgumentCaptor.forClass(EmailOutboxMessage.class);
+        verify(outboxRepository).save(message.capture());
+        assertEquals(EmailKind.ORDER_SHIPPED, message.getValue().getKind());
+        assertEquals("test@example.com", message.getValue().getRecipient());
+        assertEquals(OutboxStatus.PENDING, message.getValue().getStatus());
+        assertTrue(message.getValue().getBody().contains("TRACK-789"));
+    }
+    
+    @Test
+    public void testEmailIsRenderedInTheRecipientsLocale() {
+        emailService.sendOrderShipped("test@example.com", "ORD-123", "TRACK-789", "de-CH");
+        emailService.sendOrderShipped("test@example.com", "ORD-124", "TRACK-790", null);
+        
+        ArgumentCaptor<EmailOutboxMessage> messages = ArgumentCaptor.forClass(EmailOutboxMessage.class);
+        verify(outboxRepository, times(2)).save(messages.capture());
+        EmailOutboxMessage german = messages.getAllValues().get(0);
+        assertEquals("Bestellung ORD-123 wurde versandt", german.getSubject());
+        assertEquals("de-CH", german.getLocale());
+        EmailOutboxMessage fallback = messages.getAllValues().get(1);
+        assertEquals("Order ORD-124 has shipped", fallback.getSubject());
+        assertNull(fallback.getLocale());
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testWelcomeEmailsAreEnqueuedInOneBatch() {
+        Map<String, String> recipients = new LinkedHashMap<>();
+        recipients.put("a@example.com", "Ann");
+        recipients.put("b@example.com", "Ben");
+        
+        emailService.sendWelcomeEmails(recipients);
+        
+        ArgumentCaptor<List<EmailOutboxMessage>> batch = ArgumentCaptor.forClass(List.class);
+        verify(outboxRepository).batchInsert(batch.capture());
+        assertEquals(2, batch.getValue().size());
+        assertTrue(batch.getValue().get(1).getBody().contains("Ben"));
+        verify(outboxRepository, never()).save(any());
+    }
+    
+    @Test
+    public void testOrderNotificationsAreHeldForTheDigestWindow() {
+        ReflectionTestUtils.setField(emailService, "digestWindowSeconds", 30L);
+        
+        emailService.sendPaymentConfirmation("test@example.com", "ORD-123", "TXN-456");
+        emailService.sendPasswordReset("test@example.com", "RESET-TOKEN");
+        
+        ArgumentCaptor<EmailOutboxMessage> messages = ArgumentCaptor.forClass(EmailOutboxMessage.class);
+        verify(outboxRepository, times(2)).save(messages.capture());
+        EmailOutboxMessage payment = messages.getAllValues().get(0);
+        assertEquals("ORD-123", payment.getDigestKey());
+        assertEquals(payment.getCreatedAt().plusSeconds(30), payment.getNextAttemptAt());
+        EmailOutboxMessage reset = messages.getAllValues().get(1);
+        assertNull(reset.getDigestKey());
+        assertEquals(reset.getCreatedAt(), reset.getNextAttemptAt());
+    }
 }
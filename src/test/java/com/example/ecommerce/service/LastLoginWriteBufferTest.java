@@ -0,0 +1,77 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for LastLoginWriteBuffer - coalesced, batched last-login writes
+ * Dependencies: UserRepository
+ */
+@ExtendWith(MockitoExtension.class)
+public class LastLoginWriteBufferTest {
+    
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 1, 1, 9, 0);
+    
+    @Mock
+    private UserRepository userRepository;
+    
+    @InjectMocks
+    private LastLoginWriteBuffer buffer;
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testLatestTimestampWinsAndFlushIsOneBatch() {
+        buffer.record(1L, T0.plusMinutes(5));
+        buffer.record(1L, T0);
+        buffer.record(2L, T0);
+        
+        assertEquals(2, buffer.flush());
+        
+        ArgumentCaptor<Map<Long, LocalDateTime>> batch = ArgumentCaptor.forClass(Map.class);
+        verify(userRepository, times(1)).batchUpdateLastLogin(batch.capture());
+        assertEquals(T0.plusMinutes(5), batch.getValue().get(1L));
+        assertEquals(T0, batch.getValue().get(2L));
+        assertEquals(0, buffer.getPendingCount());
+        verify(userRepository, never()).save(any());
+    }
+    
+    @Test
+    public void testLoginDuringFlushIsKeptForNextFlush() {
+        buffer.record(1L, T0);
+        doAnswer(invocation -> {
+            buffer.record(1L, T0.plusMinutes(1));
+            return null;
+        }).when(userRepository).batchUpdateLastLogin(anyMap());
+        
+        buffer.flush();
+        
+        assertEquals(T0.plusMinutes(1), buffer.getPending(1L));
+    }
+    
+    @Test
+    public void testFailedFlushKeepsPendingUpdates() {
+        buffer.record(1L, T0);
+        doThrow(new IllegalStateException("db down")).when(userRepository).batchUpdateLastLogin(anyMap());
+        
+        assertEquals(0, buffer.flush());
+        assertEquals(T0, buffer.getPending(1L));
+    }
+    
+    @Test
+    public void testFlushWithNothingPendingSkipsDatabase() {
+        assertEquals(0, buffer.flush());
+        verifyNoInteractions(userRepository);
+    }
+}
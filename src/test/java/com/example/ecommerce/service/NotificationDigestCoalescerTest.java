@@ -0,0 +1,151 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.email.EmailTemplateRegistry;
+import com.example.ecommerce.model.EmailOutboxMessage;
+import com.example.ecommerce.model.EmailOutboxMessage.EmailKind;
+import com.example.ecommerce.model.EmailOutboxMessage.OutboxStatus;
+import com.example.ecommerce.repository.EmailOutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for NotificationDigestCoalescer - merging held order notifications per recipient and order
+ * Dependencies: EmailOutboxRepository, TransactionTemplate
+ */
+@ExtendWith(MockitoExtension.class)
+public class NotificationDigestCoalescerTest {
+    
+    @Mock
+    private EmailOutboxRepository outboxRepository;
+    
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    
+    @Spy
+    private EmailTemplateRegistry templateRegistry = new EmailTemplateRegistry("email-templates", "en");
+    
+    @InjectMocks
+    private NotificationDigestCoalescer coalescer;
+    
+    @BeforeEach
+    public void setUp() {
+        lenient().doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testOrderNotificationsForOneRecipientBecomeOneDigest() {
+        EmailOutboxMessage confirmation = message(1L, EmailKind.ORDER_CONFIRMATION, "ann@example.com", "ORD-1", "Thanks");
+        EmailOutboxMessage payment = message(2L, EmailKind.PAYMENT_CONFIRMATION, "ann@example.com", "ORD-1", "Paid");
+        EmailOutboxMessage shipped = message(4L, EmailKind.ORDER_SHIPPED, "ann@example.com", "ORD-1", "Shipped");
+        EmailOutboxMessage otherRecipient = message(3L, EmailKind.ORDER_SHIPPED, "ben@example.com", "ORD-1", "Shipped");
+        EmailOutboxMessage welcome = message(5L, EmailKind.WELCOME, "cat@example.com", null, "Hello");
+        when(outboxRepository.findByStatusAndDigestKeyInOrderByIdAsc(eq(OutboxStatus.PENDING), anyCollection()))
+                .thenReturn(Arrays.asList(confirmation, payment, otherRecipient, shipped));
+        
+        List<EmailOutboxMessage> batch = coalescer.coalesce(Arrays.asList(confirmation, payment, otherRecipient, welcome));
+        
+        assertEquals(Arrays.asList(confirmation, otherRecipient, welcome), batch);
+        assertEquals(EmailKind.ORDER_DIGEST, confirmation.getKind());
+        assertEquals("Updates for order ORD-1", confirmation.getSubject());
+        assertEquals("Thanks\n\n----\n\nPaid\n\n----\n\nShipped", confirmation.getBody());
+        assertEquals(EmailKind.ORDER_SHIPPED, otherRecipient.getKind());
+        
+        verify(outboxRepository).batchUpdateContent(Arrays.asList(confirmation));
+        ArgumentCaptor<Map<Long, Long>> merged = ArgumentCaptor.forClass(Map.class);
+        verify(outboxRepository).batchMarkMerged(merged.capture());
+        assertEquals(Map.of(2L, 1L, 4L, 1L), merged.getValue());
+        
+        assertEquals(5, coalescer.getMessagesIn());
+        assertEquals(3, coalescer.getMessagesOut());
+        assertEquals(1, coalescer.getDigestsBuilt());
+        assertEquals(5.0 / 3, coalescer.getMergeRatio(), 1e-9);
+    }
+    
+    @Test
+    public void testDigestSizeIsCapped() {
+        ReflectionTestUtils.setField(coalescer, "maxMessagesPerDigest", 2);
+        EmailOutboxMessage first = message(1L, EmailKind.ORDER_CONFIRMATION, "ann@example.com", "ORD-2", "A");
+        when(outboxRepository.findByStatusAndDigestKeyInOrderByIdAsc(eq(OutboxStatus.PENDING), anyCollection()))
+                .thenReturn(Arrays.asList(first,
+                        message(2L, EmailKind.PAYMENT_CONFIRMATION, "ann@example.com", "ORD-2", "B"),
+                        message(3L, EmailKind.ORDER_SHIPPED, "ann@example.com", "ORD-2", "C")));
+        
+        coalescer.coalesce(Arrays.asList(first));
+        
+        assertEquals("A\n\n----\n\nB", first.getBody());
+        verify(outboxRepository).batchMarkMerged(Map.of(2L, 1L));
+    }
+    
+    @Test
+    public void testDigestIsRenderedInTheCarriersLocale() {
+        EmailOutboxMessage first = message(1L, EmailKind.ORDER_CONFIRMATION, "ann@example.com", "ORD-3", "Danke");
+        first.setLocale("de");
+        when(outboxRepository.findByStatusAndDigestKeyInOrderByIdAsc(eq(OutboxStatus.PENDING), anyCollection()))
+                .thenReturn(Arrays.asList(first,
+                        message(2L, EmailKind.PAYMENT_CONFIRMATION, "ann@example.com", "ORD-3", "Bezahlt")));
+        
+        coalescer.coalesce(Arrays.asList(first));
+        
+        assertEquals("Neuigkeiten zu Bestellung ORD-3", first.getSubject());
+        assertEquals("Danke\n\n----\n\nBezahlt", first.getBody());
+    }
+    
+    @Test
+    public void testRetriedDigestOnlyGainsTheNewSections() {
+        // The test-only Dutch digest template puts text around the sections, which must not be nested
+        Locale dutch = Locale.forLanguageTag("nl");
+        EmailOutboxMessage carrier = message(1L, EmailKind.ORDER_DIGEST, "ann@example.com", "ORD-4",
+                templateRegistry.render(EmailKind.ORDER_DIGEST, dutch, "ORD-4", "Bedankt\n\n----\n\nBetaald").getBody());
+        carrier.setLocale("nl");
+        when(outboxRepository.findByStatusAndDigestKeyInOrderByIdAsc(eq(OutboxStatus.PENDING), anyCollection()))
+                .thenReturn(Arrays.asList(carrier,
+                        message(5L, EmailKind.ORDER_SHIPPED, "ann@example.com", "ORD-4", "Verzonden")));
+        
+        coalescer.coalesce(Arrays.asList(carrier));
+        
+        assertEquals("Nieuws over bestelling ORD-4", carrier.getSubject());
+        assertEquals("Hier is het laatste nieuws over uw bestelling:\n\nBedankt\n\n----\n\nBetaald\n\n----\n\n"
+                + "Verzonden\n\nMet vriendelijke groet", carrier.getBody());
+        verify(outboxRepository).batchMarkMerged(Map.of(5L, 1L));
+    }
+    
+    @Test
+    public void testBatchWithoutDigestKeysIsPassedThrough() {
+        List<EmailOutboxMessage> due = Arrays.asList(message(1L, EmailKind.WELCOME, "ann@example.com", null, "Hello"));
+        
+        assertSame(due, coalescer.coalesce(due));
+        
+        verifyNoInteractions(outboxRepository);
+        assertEquals(1.0, coalescer.getMergeRatio(), 1e-9);
+    }
+    
+    private static EmailOutboxMessage message(Long id, EmailKind kind, String recipient, String digestKey, String body) {
+        EmailOutboxMessage message = new EmailOutboxMessage(kind, recipient, kind.toString(), body);
+        message.setId(id);
+        message.setDigestKey(digestKey);
+        return message;
+    }
+}
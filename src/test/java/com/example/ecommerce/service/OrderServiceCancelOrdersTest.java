@@ -0,0 +1,222 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.metrics.StatusTransitionMetrics;
+import com.example.ecommerce.model.Order;
+import com.example.ecommerce.model.Order.OrderStatus;
+import com.example.ecommerce.model.Payment;
+import com.example.ecommerce.model.Payment.PaymentMethod;
+import com.example.ecommerce.model.Payment.PaymentStatus;
+import com.example.ecommerce.repository.OrderItemRepository;
+import com.example.ecommerce.repository.OrderItemRepository.ProductQuantity;
+import com.example.ecommerce.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for OrderService.cancelOrder and cancelOrders - cancellation with refunds and restock
+ * Dependencies: OrderRepository, OrderItemRepository, PaymentService, ProductService, AuditService, TransactionTemplate
+ */
+@ExtendWith(MockitoExtension.class)
+public class OrderServiceCancelOrdersTest {
+    
+    @Mock
+    private OrderRepository orderRepository;
+    
+    @Mock
+    private OrderItemRepository orderItemRepository;
+    
+    @Mock
+    private PaymentService paymentService;
+    
+    @Mock
+    private ProductService productService;
+    
+    @Mock
+    private AuditService auditService;
+    
+    @Mock
+    private StatusTransitionMetrics transitionMetrics;
+    
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    
+    @InjectMocks
+    private OrderService orderService;
+    
+    private Order pendingOrder;
+    private Order paidOrder;
+    private Order cancelledOrder;
+    
+    @BeforeEach
+    public void setUp() {
+        pendingOrder = order(1L, OrderStatus.PENDING);
+        paidOrder = order(2L, OrderStatus.PROCESSING);
+        cancelledOrder = order(3L, OrderStatus.CANCELLED);
+    }
+    
+    @Test
+    public void testCancelOrders_Success() {
+        Payment completed = payment(20L, 2L, PaymentStatus.COMPLETED);
+        Payment pending = payment(10L, 1L, PaymentStatus.PENDING);
+        List<Long> cancelIds = Arrays.asList(1L, 2L);
+        Set<Long> changed = new LinkedHashSet<>(cancelIds);
+        
+        when(orderRepository.findAllById(anyCollection())).thenReturn(Arrays.asList(pendingOrder, paidOrder, cancelledOrder));
+        when(paymentService.getPaymentsByOrderIds(cancelIds)).thenReturn(Arrays.asList(pending, completed));
+        when(orderRepository.batchUpdateStatusIfChanged(cancelIds, OrderStatus.CANCELLED)).thenReturn(changed);
+        when(orderItemRepository.sumQuantityByProductForOrders(changed))
+            .thenReturn(Arrays.asList(line(100L, 5L), line(200L, 1L)));
+        runTransactionsInline();
+        
+        int result = orderService.cancelOrders(Arrays.asList(1L, 2L, 3L, 2L));
+        
+        assertEquals(2, result);
+        verify(paymentService, times(1)).refundPayments(Collections.singletonList(completed));
+        Map<Long, Integer> expectedRestock = new HashMap<>();
+        expectedRestock.put(100L, 5);
+        expectedRestock.put(200L, 1);
+        verify(productService, times(1)).increaseStock(expectedRestock);
+        verify(auditService, times(1)).logOrderBatchStatusChanged(changed, "CANCELLED");
+        verify(transitionMetrics).orderTransitions(OrderStatus.PENDING, OrderStatus.CANCELLED, 1L);
+        verify(transitionMetrics).orderTransitions(OrderStatus.PROCESSING, OrderStatus.CANCELLED, 1L);
+        verifyNoMoreInteractions(transitionMetrics);
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+    
+    @Test
+    public void testCancelOrders_SkipsOrdersCancelledConcurrently() {
+        List<Long> cancelIds = Arrays.asList(1L, 2L);
+        Set<Long> changed = Collections.singleton(1L);
+        
+        when(orderRepository.findAllById(anyCollection())).thenReturn(Arrays.asList(pendingOrder, paidOrder));
+        when(paymentService.getPaymentsByOrderIds(cancelIds)).thenReturn(Collections.emptyList());
+        when(orderRepository.batchUpdateStatusIfChanged(cancelIds, OrderStatus.CANCELLED)).thenReturn(changed);
+        when(orderItemRepository.sumQuantityByProductForOrders(changed))
+            .thenReturn(Collections.singletonList(line(100L, 2L)));
+        runTransactionsInline();
+        
+        assertEquals(1, orderService.cancelOrders(cancelIds));
+        verify(productService, times(1)).increaseStock(Collections.singletonMap(100L, 2));
+        verify(auditService, times(1)).logOrderBatchStatusChanged(changed, "CANCELLED");
+        verify(transitionMetrics).orderTransitions(OrderStatus.PENDING, OrderStatus.CANCELLED, 1L);
+        verifyNoMoreInteractions(transitionMetrics);
+    }
+    
+    @Test
+    public void testCancelOrders_MissingOrder() {
+        when(orderRepository.findAllById(anyCollection())).thenReturn(Collections.singletonList(pendingOrder));
+        
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> {
+            orderService.cancelOrders(Arrays.asList(1L, 99L));
+        });
+        
+        assertTrue(e.getMessage().contains("99"));
+        verify(paymentService, never()).refundPayments(anyCollection());
+        verify(orderRepository, never()).batchUpdateStatusIfChanged(anyCollection(), any(OrderStatus.class));
+    }
+    
+    @Test
+    public void testCancelOrders_AllAlreadyCancelled() {
+        when(orderRepository.findAllById(anyCollection())).thenReturn(Collections.singletonList(cancelledOrder));
+        
+        assertEquals(0, orderService.cancelOrders(Collections.singletonList(3L)));
+        verify(paymentService, never()).getPaymentsByOrderIds(anyCollection());
+    }
+    
+    @Test
+    public void testCancelOrder_RefundsAndRestocks() {
+        Payment completed = payment(20L, 2L, PaymentStatus.COMPLETED);
+        
+        when(orderRepository.findById(2L)).thenReturn(Optional.of(paidOrder));
+        when(paymentService.getPaymentsByOrderId(2L)).thenReturn(Collections.singletonList(completed));
+        when(orderRepository.updateStatusIfChanged(2L, OrderStatus.CANCELLED)).thenReturn(1);
+        when(orderItemRepository.sumQuantityByProductForOrders(Collections.singletonList(2L)))
+            .thenReturn(Collections.singletonList(line(100L, 3L)));
+        runTransactionsInline();
+        
+        Order result = orderService.cancelOrder(2L);
+        
+        assertEquals(OrderStatus.CANCELLED, result.getStatus());
+        verify(paymentService, times(1)).refundPayment(20L);
+        verify(productService, times(1)).increaseStock(Collections.singletonMap(100L, 3));
+        verify(auditService, times(1)).logOrderStatusChanged(2L, "PROCESSING", "CANCELLED");
+        verify(transitionMetrics).orderTransition(OrderStatus.PROCESSING, OrderStatus.CANCELLED);
+    }
+    
+    @Test
+    public void testCancelOrder_AlreadyCancelled() {
+        when(orderRepository.findById(3L)).thenReturn(Optional.of(cancelledOrder));
+        
+        Order result = orderService.cancelOrder(3L);
+        
+        assertSame(cancelledOrder, result);
+        verify(paymentService, never()).getPaymentsByOrderId(anyLong());
+        verify(productService, never()).increaseStock(anyMap());
+        verify(orderRepository, never()).updateStatusIfChanged(anyLong(), any(OrderStatus.class));
+    }
+    
+    @Test
+    public void testCancelOrder_CancelledConcurrently() {
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(pendingOrder));
+        when(paymentService.getPaymentsByOrderId(1L)).thenReturn(Collections.emptyList());
+        when(orderRepository.updateStatusIfChanged(1L, OrderStatus.CANCELLED)).thenReturn(0);
+        runTransactionsInline();
+        
+        assertEquals(OrderStatus.CANCELLED, orderService.cancelOrder(1L).getStatus());
+        verify(productService, never()).increaseStock(anyMap());
+        verify(auditService, never()).logOrderStatusChanged(anyLong(), anyString(), anyString());
+    }
+    
+    private void runTransactionsInline() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+    
+    private static Order order(Long id, OrderStatus status) {
+        Order order = new Order("ORD-" + id, 1L, new BigDecimal("10.00"));
+        order.setId(id);
+        order.setStatus(status);
+        return order;
+    }
+    
+    private static Payment payment(Long id, Long orderId, PaymentStatus status) {
+        Payment payment = new Payment(orderId, "TXN-" + id, new BigDecimal("10.00"), PaymentMethod.CREDIT_CARD);
+        payment.setId(id);
+        payment.setStatus(status);
+        return payment;
+    }
+    
+    private static ProductQuantity line(Long productId, Long quantity) {
+        return new ProductQuantity() {
+            @Override
+            public Long getProductId() {
+                return productId;
+            }
+            
+            @Override
+            public Long getQuantity() {
+                return quantity;
+            }
+        };
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.EcommerceApplication;
+import com.example.ecommerce.model.EmailOutboxMessage.EmailKind;
+import com.example.ecommerce.model.Order;
+import com.example.ecommerce.model.Payment.PaymentMethod;
+import com.example.ecommerce.model.Product;
+import com.example.ecommerce.model.User;
+import com.example.ecommerce.repository.EmailOutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * OrderService against the real schema, for behaviour that depends on transaction boundaries.
+ */
+@SpringBootTest(classes = EcommerceApplication.class, properties = {
+    "spring.jpa.show-sql=false",
+    "ecommerce.reactive.port=-1",
+    "ecommerce.audit.store.enabled=false",
+    "ecommerce.email.dispatch.interval-ms=3600000",
+    "ecommerce.auth.pbkdf2-iterations=1000",
+    "ecommerce.payment.gateway.stub.base-latency-ms=0",
+    "ecommerce.payment.gateway.stub.jitter-ms=0",
+    "ecommerce.payment.gateway.stub.tail-probability=0"
+})
+public class OrderServiceIntegrationTest {
+    
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private ProductService productService;
+    
+    @Autowired
+    private UserService userService;
+    
+    @Autowired
+    private TrendingProductsService trendingProductsService;
+    
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    private User user;
+    private Product product;
+    private String category;
+    
+    @BeforeEach
+    public void setUp() {
+        int n = SEQUENCE.incrementAndGet();
+        category = "Category " + n;
+        user = userService.createUser("Order", "Test", "order" + n + "@example.com", "secret", "555-0100");
+        product = productService.createProduct("Item " + n, "Test item", new BigDecimal("10.00"), 100, category);
+    }
+    
+    @Test
+    public void testCommittedOrderCountsAsSale() {
+        orderService.createOrder(user.getId(), Collections.singletonMap(product.getId(), 3), PaymentMethod.CREDIT_CARD);
+        
+        assertEquals(3L, trendingProductsService.getTopProducts(category, 1).get(0).getEstimatedQuantity());
+    }
+    
+    @Test
+    public void testRolledBackOrderIsNotASale() {
+        Order order = new TransactionTemplate(transactionManager).execute(status -> {
+            Order created = orderService.createOrder(user.getId(), Collections.singletonMap(product.getId(), 3),
+                    PaymentMethod.CREDIT_CARD);
+            status.setRollbackOnly();
+            return created;
+        });
+        
+        assertNotNull(order.getId());
+        assertFalse(orderService.getOrderById(order.getId()).isPresent());
+        assertTrue(trendingProductsService.getTopProducts(category, 1).isEmpty());
+    }
+    
+    @Test
+    public void testCancelOrderReturnsStock() {
+        Order order = orderService.createOrder(user.getId(), Collections.singletonMap(product.getId(), 3),
+                PaymentMethod.CREDIT_CARD);
+        assertEquals(97, stockOf(product));
+        
+        orderService.cancelOrder(order.getId());
+        orderService.cancelOrder(order.getId());
+        
+        assertEquals(100, stockOf(product));
+    }
+    
+    @Test
+    public void testCancelOrdersReturnsStock() {
+        Order first = orderService.createOrder(user.getId(), Collections.singletonMap(product.getId(), 3),
+                PaymentMethod.CREDIT_CARD);
+        Order second = orderService.createOrder(user.getId(), Collections.singletonMap(product.getId(), 4),
+                PaymentMethod.CREDIT_CARD);
+        assertEquals(93, stockOf(product));
+        
+        assertEquals(2, orderService.cancelOrders(Arrays.asList(first.getId(), second.getId())));
+        
+        assertEquals(100, stockOf(product));
+    }
+    
+    @Test
+    public void testShippingQueuesEmailWithTheStatusChange() {
+        Order order = orderService.createOrder(user.getId(), Collections.singletonMap(product.getId(), 1),
+                PaymentMethod.CREDIT_CARD);
+        
+        orderService.shipOrder(order.getId(), "TRACK-" + order.getId());
+        
+        assertEquals(Order.OrderStatus.SHIPPED, orderService.getOrderById(order.getId()).get().getStatus());
+        assertTrue(emailOutboxRepository.findAll().stream().anyMatch(message ->
+                message.getKind() == EmailKind.ORDER_SHIPPED && user.getEmail().equals(message.getRecipient())));
+    }
+    
+    private int stockOf(Product product) {
+        return productService.getProductById(product.getId()).get().getStockQuantity();
+    }
+}
@@ -87,7 +87,7 @@ public class OrderServiceTest {
         doNothing().when(productService).reduceStock(anyLong(), anyInt());
         when(paymentService.createPayment(anyLong(), any(BigDecimal.class), any(PaymentMethod.class)))
             .thenReturn(testPayment);
-        doNothing().when(emailService).sendOrderConfirmation(anyString(), anyString());
+        doNothing().when(emailService).sendOrderConfirmation(anyString(), anyString(), any());
         doNothing().when(auditService).logOrderCreated(anyLong(), anyString(), anyLong());
         
         Order result = orderService.createOrder(1L, items, PaymentMethod.CREDIT_CARD);
@@ -97,7 +97,7 @@ public class OrderServiceTest {
         verify(productService, times(1)).isProductAvailable(1L, 2);
         verify(productService, times(1)).reduceStock(1L, 2);
         verify(paymentService, times(1)).createPayment(anyLong(), any(BigDecimal.class), eq(PaymentMethod.CREDIT_CARD));
-        verify(emailService, times(1)).sendOrderConfirmation("john@example.com", anyString());
+        verify(emailService, times(1)).sendOrderConfirmation("john@example.com", anyString(), any());
         verify(auditService, times(1)).logOrderCreated(anyLong(), anyString(), eq(1L));
     }
     
@@ -186,7 +186,7 @@ public class OrderServiceTest {
         when(orderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
         when(orderRepository.save(any(Order.class))).thenReturn(testOrder);
         when(userService.getUserById(1L)).thenReturn(Optional.of(testUser));
-        doNothing().when(emailService).sendOrderShipped(anyString(), anyString(), anyString());
+        doNothing().when(emailService).sendOrderShipped(anyString(), anyString(), anyString(), any());
         doNothing().when(auditService).logOrderStatusChanged(anyLong(), anyString(), anyString(), anyString());
         
         Order result = orderService.shipOrder(1L, "TRACK-789");
@@ -194,7 +194,7 @@ public class OrderServiceTest {
         assertNotNull(result);
         assertEquals(OrderStatus.SHIPPED, result.getOrderStatus());
         assertEquals("TRACK-789", result.getTrackingNumber());
-        verify(emailService, times(1)).sendOrderShipped("john@example.com", anyString(), "TRACK-789");
+        verify(emailService, times(1)).sendOrderShipped("john@example.com", anyString(), "TRACK-789", any());
         verify(auditService, times(1)).logOrderStatusChanged(eq(1L), anyString(), eq("PROCESSING"), eq("SHIPPED"));
     }
     
@@ -0,0 +1,123 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.model.Payment;
+import com.example.ecommerce.model.Payment.PaymentMethod;
+import com.example.ecommerce.model.Payment.PaymentStatus;
+import com.example.ecommerce.reconciliation.ReconciliationSummary;
+import com.example.ecommerce.reconciliation.ReconciliationSummary.MismatchType;
+import com.example.ecommerce.repository.PaymentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for PaymentReconciliationService
+ * Dependencies: PaymentRepository
+ */
+@ExtendWith(MockitoExtension.class)
+public class PaymentReconciliationServiceTest {
+    
+    private static final LocalDate BUSINESS_DATE = LocalDate.of(2024, 3, 1);
+    
+    @Mock
+    private PaymentRepository paymentRepository;
+    
+    @InjectMocks
+    private PaymentReconciliationService paymentReconciliationService;
+    
+    @TempDir
+    Path tempDir;
+    
+    @BeforeEach
+    public void setUp() {
+        ReflectionTestUtils.setField(paymentReconciliationService, "pageSize", 2);
+        ReflectionTestUtils.setField(paymentReconciliationService, "mapRegionBytes", 32);
+    }
+    
+    @Test
+    public void testReconcile_ReportsEachMismatchType() throws IOException {
+        Path settlement = write("settlement.csv",
+                "TXN-A,10.00,COMPLETED\n"
+                + "TXN-B,20.00,COMPLETED\n"
+                + "TXN-C,30.00,REFUNDED\n"
+                + "TXN-E,50.00,COMPLETED\n");
+        Path report = tempDir.resolve("report.csv");
+        
+        stubLedgerPage("", Arrays.asList(
+                payment("TXN-A", "10.0", PaymentStatus.COMPLETED),
+                payment("TXN-B", "25.00", PaymentStatus.COMPLETED)));
+        stubLedgerPage("TXN-B", Arrays.asList(
+                payment("TXN-C", "30.00", PaymentStatus.COMPLETED),
+                payment("TXN-D", "40.00", PaymentStatus.COMPLETED)));
+        stubLedgerPage("TXN-D", Collections.singletonList(
+                payment("TXN-F", "60.00", PaymentStatus.PENDING)));
+        
+        ReconciliationSummary summary = paymentReconciliationService.reconcile(settlement, BUSINESS_DATE, report);
+        
+        assertEquals(4, summary.getSettlementRecords());
+        assertEquals(5, summary.getLedgerPayments());
+        assertEquals(1, summary.getMatched());
+        assertEquals(1, summary.getMismatchCount(MismatchType.AMOUNT_DIFFERS));
+        assertEquals(1, summary.getMismatchCount(MismatchType.STATUS_DIFFERS));
+        assertEquals(1, summary.getMismatchCount(MismatchType.MISSING_IN_SETTLEMENT));
+        assertEquals(1, summary.getMismatchCount(MismatchType.MISSING_IN_LEDGER));
+        
+        List<String> lines = Files.readAllLines(report);
+        assertEquals(5, lines.size());
+        assertEquals("AMOUNT_DIFFERS,TXN-B,25.00,20.00,COMPLETED,COMPLETED", lines.get(1));
+        assertEquals("STATUS_DIFFERS,TXN-C,30.00,30.00,COMPLETED,REFUNDED", lines.get(2));
+        assertEquals("MISSING_IN_SETTLEMENT,TXN-D,40.00,,COMPLETED,", lines.get(3));
+        assertEquals("MISSING_IN_LEDGER,TXN-E,,50.00,,COMPLETED", lines.get(4));
+    }
+    
+    @Test
+    public void testReconcile_EmptyLedger() throws IOException {
+        Path settlement = write("settlement.csv", "TXN-A,10.00,COMPLETED\n");
+        stubLedgerPage("", Collections.emptyList());
+        
+        ReconciliationSummary summary = paymentReconciliationService.reconcile(settlement, BUSINESS_DATE,
+                tempDir.resolve("report.csv"));
+        
+        assertEquals(1, summary.getMismatchCount(MismatchType.MISSING_IN_LEDGER));
+        assertEquals(0, summary.getLedgerPayments());
+    }
+    
+    private void stubLedgerPage(String after, List<Payment> payments) {
+        when(paymentRepository.findCreatedBetweenAfterTransactionId(
+                eq(LocalDateTime.of(2024, 3, 1, 0, 0)), eq(LocalDateTime.of(2024, 3, 2, 0, 0)),
+                eq(after), any(Pageable.class))).thenReturn(payments);
+    }
+    
+    private Path write(String name, String content) throws IOException {
+        Path file = tempDir.resolve(name);
+        Files.write(file, content.getBytes(StandardCharsets.US_ASCII));
+        return file;
+    }
+    
+    private static Payment payment(String transactionId, String amount, PaymentStatus status) {
+        Payment payment = new Payment(1L, transactionId, new BigDecimal(amount), PaymentMethod.CREDIT_CARD);
+        payment.setStatus(status);
+        return payment;
+    }
+}
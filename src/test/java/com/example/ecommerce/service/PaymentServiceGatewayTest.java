@@ -0,0 +1,289 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.EcommerceApplication;
+import com.example.ecommerce.gateway.GatewayRequest;
+import com.example.ecommerce.gateway.GatewayResponse;
+import com.example.ecommerce.gateway.PaymentGateway;
+import com.example.ecommerce.model.Payment;
+import com.example.ecommerce.model.Payment.PaymentMethod;
+import com.example.ecommerce.model.Payment.PaymentStatus;
+import com.example.ecommerce.repository.PaymentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PaymentService against a scripted gateway: charges and refunds are bounded by the client deadline,
+ * only refunds are hedged, a charge without a verdict leaves the payment PENDING, and bulk refunds keep
+ * their groups within the client's in-flight limit.
+ */
+@SpringBootTest(classes = {EcommerceApplication.class, PaymentServiceGatewayTest.GatewayConfig.class}, properties = {
+    "spring.jpa.show-sql=false",
+    "ecommerce.reactive.port=-1",
+    "ecommerce.audit.store.enabled=false",
+    "ecommerce.email.dispatch.interval-ms=3600000",
+    "ecommerce.payment.gateway.timeout-ms=400",
+    "ecommerce.payment.gateway.hedge-delay-ms=100",
+    "ecommerce.payment.gateway.max-in-flight=8",
+    "ecommerce.payment.refund-batch-size=1",
+    "ecommerce.payment.refund-groups-in-flight=2"
+})
+public class PaymentServiceGatewayTest {
+    
+    private static final long TIMEOUT_MILLIS = 400;
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+    
+    @Autowired
+    private PaymentService paymentService;
+    
+    @Autowired
+    private PaymentSettlementService paymentSettlementService;
+    
+    @Autowired
+    private PaymentRepository paymentRepository;
+    
+    @Autowired
+    private ScriptedGateway gateway;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    private String email;
+    
+    @BeforeEach
+    public void setUp() {
+        gateway.reset();
+        email = "gateway" + SEQUENCE.incrementAndGet() + "@example.com";
+    }
+    
+    @Test
+    public void testApprovedChargeCompletesPayment() {
+        Payment payment = newPayment();
+        
+        Payment processed = paymentService.processPayment(payment.getId(), email, "ORD-1");
+        
+        assertEquals(PaymentStatus.COMPLETED, processed.getStatus());
+        assertEquals(1, gateway.charges.get());
+    }
+    
+    @Test
+    public void testChargeTimeoutLeavesPaymentPendingWithoutHedging() throws InterruptedException {
+        Payment payment = newPayment();
+        gateway.script(CompletableFuture::new);
+        
+        long start = System.nanoTime();
+        Payment processed = paymentService.processPayment(payment.getId(), email, "ORD-2");
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        
+        assertEquals(PaymentStatus.PENDING, processed.getStatus());
+        assertEquals("TIMEOUT", processed.getPaymentGatewayResponse());
+        assertTrue(elapsedMillis >= TIMEOUT_MILLIS && elapsedMillis < TIMEOUT_MILLIS + 1_000,
+                "charge not bounded by the deadline: " + elapsedMillis + "ms");
+        assertEquals(PaymentStatus.PENDING, paymentService.getPaymentById(payment.getId()).get().getStatus());
+        // A charge is not idempotent, so it is never sent twice
+        Thread.sleep(200);
+        assertEquals(1, gateway.charges.get());
+    }
+    
+    @Test
+    public void testChargeErrorLeavesPaymentPending() {
+        Payment payment = newPayment();
+        gateway.script(() -> failed(new IllegalStateException("connection reset")));
+        
+        Payment processed = paymentService.processPayment(payment.getId(), email, "ORD-3");
+        
+        assertEquals(PaymentStatus.PENDING, processed.getStatus());
+        assertEquals(1, gateway.charges.get());
+    }
+    
+    @Test
+    public void testDeclinedChargeFailsPayment() {
+        Payment payment = newPayment();
+        gateway.script(() -> CompletableFuture.completedFuture(GatewayResponse.declined()));
+        
+        assertEquals(PaymentStatus.FAILED, paymentService.processPayment(payment.getId(), email, "ORD-4").getStatus());
+    }
+    
+    @Test
+    public void testPaymentIsChargedOnlyOnce() {
+        Payment payment = newPayment();
+        paymentService.processPayment(payment.getId(), email, "ORD-5");
+        
+        assertThrows(IllegalStateException.class, () -> paymentService.processPayment(payment.getId(), email, "ORD-5"));
+        assertEquals(1, gateway.charges.get());
+    }
+    
+    @Test
+    public void testSettlementSkipsPaymentsClaimedElsewhere() {
+        Payment claimed = newPayment();
+        Payment pending = newPayment();
+        assertEquals(Collections.singleton(claimed.getId()),
+                paymentRepository.claimPending(Collections.singletonList(claimed.getId())));
+        
+        paymentSettlementService.settlePendingPayments();
+        
+        assertEquals(PaymentStatus.PROCESSING, paymentService.getPaymentById(claimed.getId()).get().getStatus());
+        assertEquals(PaymentStatus.COMPLETED, paymentService.getPaymentById(pending.getId()).get().getStatus());
+        assertThrows(IllegalStateException.class, () -> paymentService.processPayment(claimed.getId(), email, "ORD-6"));
+    }
+    
+    @Test
+    public void testFailedSaveReleasesTheClaim() {
+        Payment payment = newPayment();
+        // A response code too long for its column fails the save after the charge
+        gateway.script(() -> CompletableFuture.completedFuture(new GatewayResponse(false, "X".repeat(300))));
+        
+        assertThrows(RuntimeException.class, () -> paymentService.processPayment(payment.getId(), email, "ORD-7"));
+        
+        assertEquals(PaymentStatus.PENDING, paymentService.getPaymentById(payment.getId()).get().getStatus());
+        assertEquals(PaymentStatus.COMPLETED, paymentService.processPayment(payment.getId(), email, "ORD-7").getStatus());
+    }
+    
+    @Test
+    public void testSettlementReleasesStaleClaims() {
+        Payment stranded = newPayment();
+        paymentRepository.claimPending(Collections.singletonList(stranded.getId()));
+        // As if its claimant crashed an hour ago
+        jdbcTemplate.update("update payments set claimed_at = ? where id = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusHours(1)), stranded.getId());
+        
+        paymentSettlementService.settlePendingPayments();
+        
+        assertEquals(PaymentStatus.COMPLETED, paymentService.getPaymentById(stranded.getId()).get().getStatus());
+    }
+    
+    @Test
+    public void testRefundIsHedgedPastASlowAttempt() {
+        Payment payment = completedPayment();
+        gateway.script(CompletableFuture::new);
+        
+        long start = System.nanoTime();
+        Payment refunded = paymentService.refundPayment(payment.getId());
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        
+        assertEquals(PaymentStatus.REFUNDED, refunded.getStatus());
+        assertEquals(2, gateway.refunds.get());
+        assertTrue(elapsedMillis < TIMEOUT_MILLIS, "hedge did not answer before the deadline: " + elapsedMillis + "ms");
+    }
+    
+    @Test
+    public void testRefundTimeoutKeepsPaymentCompleted() {
+        Payment payment = completedPayment();
+        gateway.script(CompletableFuture::new);
+        gateway.script(CompletableFuture::new);
+        
+        long start = System.nanoTime();
+        assertThrows(IllegalStateException.class, () -> paymentService.refundPayment(payment.getId()));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        
+        assertTrue(elapsedMillis < TIMEOUT_MILLIS + 1_000, "refund not bounded by the deadline: " + elapsedMillis + "ms");
+        assertEquals(PaymentStatus.COMPLETED, paymentService.getPaymentById(payment.getId()).get().getStatus());
+    }
+    
+    @Test
+    public void testBulkRefundStaysWithinInFlightLimit() {
+        List<Payment> payments = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            // A fresh payer each time keeps the velocity check out of the way
+            email = "gateway" + SEQUENCE.incrementAndGet() + "@example.com";
+            payments.add(paymentService.getPaymentById(completedPayment().getId()).get());
+        }
+        // Twelve single-payment groups against eight permits: firing them all at once would be rejected
+        for (int i = 0; i < payments.size(); i++) {
+            gateway.script(() -> CompletableFuture.supplyAsync(GatewayResponse::approved,
+                    CompletableFuture.delayedExecutor(50, TimeUnit.MILLISECONDS)));
+        }
+        
+        assertEquals(12, paymentService.refundPayments(payments));
+        
+        assertEquals(12, gateway.refunds.get());
+        for (Payment payment : payments) {
+            assertEquals(PaymentStatus.REFUNDED, paymentService.getPaymentById(payment.getId()).get().getStatus());
+        }
+    }
+    
+    private Payment newPayment() {
+        return paymentService.createPayment(SEQUENCE.incrementAndGet() + 1000L, new BigDecimal("25.00"),
+                PaymentMethod.CREDIT_CARD);
+    }
+    
+    private Payment completedPayment() {
+        Payment payment = newPayment();
+        assertEquals(PaymentStatus.COMPLETED, paymentService.processPayment(payment.getId(), email, "ORD-R").getStatus());
+        gateway.reset();
+        return payment;
+    }
+    
+    private static <T> CompletableFuture<T> failed(Throwable error) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(error);
+        return future;
+    }
+    
+    @TestConfiguration
+    static class GatewayConfig {
+        
+        @Bean
+        @Primary
+        public ScriptedGateway scriptedGateway() {
+            return new ScriptedGateway();
+        }
+    }
+    
+    /**
+     * Answers each call with the next scripted outcome, approving once the script runs out.
+     */
+    static class ScriptedGateway implements PaymentGateway {
+        
+        private final Deque<Supplier<CompletableFuture<GatewayResponse>>> script = new ConcurrentLinkedDeque<>();
+        private final AtomicInteger charges = new AtomicInteger();
+        private final AtomicInteger refunds = new AtomicInteger();
+        
+        void script(Supplier<CompletableFuture<GatewayResponse>> outcome) {
+            script.add(outcome);
+        }
+        
+        void reset() {
+            script.clear();
+            charges.set(0);
+            refunds.set(0);
+        }
+        
+        @Override
+        public CompletableFuture<GatewayResponse> charge(GatewayRequest request) {
+            charges.incrementAndGet();
+            return next();
+        }
+        
+        @Override
+        public CompletableFuture<GatewayResponse> refund(GatewayRequest request) {
+            refunds.incrementAndGet();
+            return next();
+        }
+        
+        private CompletableFuture<GatewayResponse> next() {
+            Supplier<CompletableFuture<GatewayResponse>> outcome = script.poll();
+            return outcome != null ? outcome.get() : CompletableFuture.completedFuture(GatewayResponse.approved());
+        }
+    }
+}
@@ -67,7 +67,7 @@ public class PaymentServiceTest {
         testPayment.setTransactionId("TXN-123");
         when(paymentRepository.findById(1L)).thenReturn(Optional.of(testPayment));
         when(paymentRepository.save(any(Payment.class))).thenReturn(testPayment);
-        doNothing().when(emailService).sendPaymentConfirmation(anyString(), anyString(), anyString());
+        doNothing().when(emailService).sendPaymentConfirmation(anyString(), anyString(), anyString(), any());
         doNothing().when(auditService).logPaymentProcessed(anyLong(), anyString(), anyString());
         
         Payment result = paymentService.processPayment(1L, "customer@example.com", "ORD-123");
@@ -85,7 +85,7 @@ public class PaymentServiceTest {
             paymentService.processPayment(999L, "customer@example.com", "ORD-123");
         });
         
-        verify(emailService, never()).sendPaymentConfirmation(anyString(), anyString(), anyString());
+        verify(emailService, never()).sendPaymentConfirmation(anyString(), anyString(), anyString(), any());
     }
     
     @Test
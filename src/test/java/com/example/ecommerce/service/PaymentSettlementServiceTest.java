@@ -0,0 +1,241 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.config.SettlementProperties;
+import com.example.ecommerce.gateway.AsyncPaymentGatewayClient;
+import com.example.ecommerce.gateway.GatewayRequest;
+import com.example.ecommerce.gateway.GatewayResponse;
+import com.example.ecommerce.gateway.PaymentGatewayException;
+import com.example.ecommerce.metrics.StatusTransitionMetrics;
+import com.example.ecommerce.model.Order;
+import com.example.ecommerce.model.Payment;
+import com.example.ecommerce.model.Payment.PaymentMethod;
+import com.example.ecommerce.model.Payment.PaymentStatus;
+import com.example.ecommerce.model.User;
+import com.example.ecommerce.repository.OrderRepository;
+import com.example.ecommerce.repository.PaymentRepository;
+import com.example.ecommerce.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for PaymentSettlementService
+ * Dependencies: PaymentRepository, OrderRepository, UserRepository, EmailService, AuditService
+ */
+@ExtendWith(MockitoExtension.class)
+public class PaymentSettlementServiceTest {
+    
+    @Mock
+    private PaymentRepository paymentRepository;
+    
+    @Mock
+    private OrderRepository orderRepository;
+    
+    @Mock
+    private UserRepository userRepository;
+    
+    @Mock
+    private EmailService emailService;
+    
+    @Mock
+    private AuditService auditService;
+    
+    @Mock
+    private AsyncPaymentGatewayClient paymentGatewayClient;
+    
+    @Spy
+    private SettlementProperties settlementProperties = new SettlementProperties();
+    
+    @Mock
+    private StatusTransitionMetrics transitionMetrics;
+    
+    @InjectMocks
+    private PaymentSettlementService paymentSettlementService;
+    
+    private Order testOrder;
+    private User testUser;
+    
+    @BeforeEach
+    public void setUp() {
+        settlementProperties.setChunkSize(2);
+        settlementProperties.setWorkerThreads(4);
+        
+        testUser = new User("John", "Doe", "john@example.com", "password123", "1234567890");
+        testUser.setId(1L);
+        
+        testOrder = new Order("ORD-123", 1L, new BigDecimal("99.99"));
+        testOrder.setId(10L);
+    }
+    
+    @Test
+    public void testSettlePendingPayments_ChunksAndBatchesUpdates() {
+        Payment approved = pendingPayment(1L, "50.00");
+        Payment declined = pendingPayment(2L, "0");
+        Payment unavailable = pendingPayment(3L, "-1");
+        
+        when(paymentRepository.findByStatusAndIdGreaterThanOrderByIdAsc(eq(PaymentStatus.PENDING), eq(0L), any(Pageable.class)))
+            .thenReturn(Arrays.asList(approved, declined));
+        when(paymentRepository.findByStatusAndIdGreaterThanOrderByIdAsc(eq(PaymentStatus.PENDING), eq(2L), any(Pageable.class)))
+            .thenReturn(Collections.singletonList(unavailable));
+        when(paymentRepository.findByStatusAndIdGreaterThanOrderByIdAsc(eq(PaymentStatus.PENDING), eq(3L), any(Pageable.class)))
+            .thenReturn(Collections.emptyList());
+        when(paymentGatewayClient.charge(any(GatewayRequest.class))).thenAnswer(invocation -> {
+            GatewayRequest request = invocation.getArgument(0);
+            int sign = request.getAmount().signum();
+            if (sign < 0) {
+                CompletableFuture<GatewayResponse> future = new CompletableFuture<>();
+                future.completeExceptionally(new PaymentGatewayException(PaymentGatewayException.Reason.TIMEOUT, "slow"));
+                return future;
+            }
+            return CompletableFuture.completedFuture(sign > 0 ? GatewayResponse.approved() : GatewayResponse.declined());
+        });
+        when(paymentRepository.claimPending(anyCollection())).thenAnswer(invocation -> new LinkedHashSet<>(invocation.getArgument(0)));
+        when(orderRepository.findAllById(anySet())).thenReturn(Collections.singletonList(testOrder));
+        when(userRepository.findAllById(anySet())).thenReturn(Collections.singletonList(testUser));
+        
+        SettlementReport report = paymentSettlementService.settlePendingPayments();
+        
+        assertEquals(3, report.getProcessed());
+        assertEquals(1, report.getCompleted());
+        assertEquals(1, report.getFailed());
+        assertEquals(1, report.getLeftPending());
+        assertEquals(2, report.getChunks());
+        assertEquals(PaymentStatus.COMPLETED, approved.getStatus());
+        assertEquals(PaymentStatus.FAILED, declined.getStatus());
+        assertEquals(PaymentStatus.PENDING, unavailable.getStatus());
+        verify(paymentRepository).batchUpdateClaimed(Arrays.asList(approved, declined));
+        verify(paymentRepository).batchUpdateClaimed(Collections.singletonList(unavailable));
+        assertEquals("TIMEOUT", unavailable.getPaymentGatewayResponse());
+        verify(paymentRepository, never()).saveAll(anyList());
+        verify(auditService, times(1)).logPaymentBatchProcessed(anyMap());
+        verify(emailService, times(1)).sendPaymentConfirmation("john@example.com", "ORD-123", "TXN-1", null);
+        verify(transitionMetrics).paymentTransitions(PaymentStatus.PENDING, PaymentStatus.COMPLETED, 1);
+        verify(transitionMetrics).paymentTransitions(PaymentStatus.PENDING, PaymentStatus.FAILED, 1);
+    }
+    
+    @Test
+    public void testSettlePendingPayments_NothingPending() {
+        when(paymentRepository.findByStatusAndIdGreaterThanOrderByIdAsc(any(), anyLong(), any(Pageable.class)))
+            .thenReturn(Collections.emptyList());
+        
+        SettlementReport report = paymentSettlementService.settlePendingPayments();
+        
+        assertEquals(0, report.getProcessed());
+        verify(paymentRepository, never()).claimPending(anyCollection());
+        verify(auditService, never()).logPaymentBatchProcessed(anyMap());
+    }
+    
+    @Test
+    public void testSettlePendingPayments_SkipsPaymentsClaimedElsewhere() {
+        Payment ours = pendingPayment(1L, "50.00");
+        Payment theirs = pendingPayment(2L, "50.00");
+        
+        when(paymentRepository.findByStatusAndIdGreaterThanOrderByIdAsc(eq(PaymentStatus.PENDING), eq(0L), any(Pageable.class)))
+            .thenReturn(Arrays.asList(ours, theirs));
+        when(paymentRepository.findByStatusAndIdGreaterThanOrderByIdAsc(eq(PaymentStatus.PENDING), eq(2L), any(Pageable.class)))
+            .thenReturn(Collections.emptyList());
+        when(paymentRepository.claimPending(Arrays.asList(1L, 2L))).thenReturn(Collections.singleton(1L));
+        when(paymentGatewayClient.charge(any(GatewayRequest.class)))
+            .thenReturn(CompletableFuture.completedFuture(GatewayResponse.approved()));
+        when(orderRepository.findAllById(anySet())).thenReturn(Collections.emptyList());
+        when(userRepository.findAllById(anySet())).thenReturn(Collections.emptyList());
+        
+        SettlementReport report = paymentSettlementService.settlePendingPayments();
+        
+        assertEquals(1, report.getCompleted());
+        verify(paymentGatewayClient, times(1)).charge(any(GatewayRequest.class));
+        verify(paymentRepository).batchUpdateClaimed(Collections.singletonList(ours));
+        assertEquals(PaymentStatus.PENDING, theirs.getStatus());
+    }
+    
+    @Test
+    public void testSettlePendingPayments_ReleasesClaimsWhenAChunkFails() {
+        Payment payment = pendingPayment(1L, "50.00");
+        CompletableFuture<GatewayResponse> cancelled = new CompletableFuture<>();
+        cancelled.cancel(false);
+        
+        when(paymentRepository.findByStatusAndIdGreaterThanOrderByIdAsc(eq(PaymentStatus.PENDING), eq(0L), any(Pageable.class)))
+            .thenReturn(Collections.singletonList(payment));
+        when(paymentRepository.claimPending(anyCollection())).thenReturn(Collections.singleton(1L));
+        when(paymentGatewayClient.charge(any(GatewayRequest.class))).thenReturn(cancelled);
+        
+        assertThrows(RuntimeException.class, () -> paymentSettlementService.settlePendingPayments());
+        
+        verify(paymentRepository).releaseClaims(Collections.singleton(1L));
+        verify(paymentRepository, never()).batchUpdateClaimed(anyList());
+    }
+    
+    @Test
+    public void testSettlePendingPayments_ReleasesStaleClaimsFirst() {
+        when(paymentRepository.findByStatusAndIdGreaterThanOrderByIdAsc(any(), anyLong(), any(Pageable.class)))
+            .thenReturn(Collections.emptyList());
+        
+        LocalDateTime before = LocalDateTime.now().minus(settlementProperties.getClaimTimeout());
+        paymentSettlementService.settlePendingPayments();
+        
+        verify(paymentRepository).releaseClaimsOlderThan(argThat(cutoff -> !cutoff.isBefore(before)
+                && !cutoff.isAfter(LocalDateTime.now().minus(settlementProperties.getClaimTimeout()))));
+    }
+    
+    @Test
+    public void testSettlePendingPayments_RespectsMethodConcurrency() {
+        settlementProperties.setChunkSize(20);
+        settlementProperties.getMethodConcurrency().put(PaymentMethod.BANK_TRANSFER, 1);
+        Payment[] payments = new Payment[20];
+        for (int i = 0; i < payments.length; i++) {
+            payments[i] = pendingPayment(i + 1L, "10.00");
+            payments[i].setPaymentMethod(PaymentMethod.BANK_TRANSFER);
+        }
+        List<Payment> chunk = Arrays.asList(payments);
+        
+        when(paymentRepository.findByStatusAndIdGreaterThanOrderByIdAsc(eq(PaymentStatus.PENDING), eq(0L), any(Pageable.class)))
+            .thenReturn(chunk);
+        when(paymentRepository.findByStatusAndIdGreaterThanOrderByIdAsc(eq(PaymentStatus.PENDING), eq(20L), any(Pageable.class)))
+            .thenReturn(Collections.emptyList());
+        int[] inFlight = new int[2];
+        when(paymentGatewayClient.charge(any(GatewayRequest.class))).thenAnswer(invocation -> {
+            synchronized (inFlight) {
+                inFlight[0]++;
+                inFlight[1] = Math.max(inFlight[1], inFlight[0]);
+            }
+            Thread.sleep(2);
+            synchronized (inFlight) {
+                inFlight[0]--;
+            }
+            return CompletableFuture.completedFuture(GatewayResponse.approved());
+        });
+        when(paymentRepository.claimPending(anyCollection())).thenAnswer(invocation -> new LinkedHashSet<>(invocation.getArgument(0)));
+        when(orderRepository.findAllById(anySet())).thenReturn(Collections.emptyList());
+        when(userRepository.findAllById(anySet())).thenReturn(Collections.emptyList());
+        
+        SettlementReport report = paymentSettlementService.settlePendingPayments();
+        
+        assertEquals(20, report.getCompleted());
+        assertEquals(1, inFlight[1]);
+        assertTrue(report.getP99Millis() >= report.getP50Millis());
+    }
+    
+    private Payment pendingPayment(Long id, String amount) {
+        Payment payment = new Payment(10L, "TXN-" + id, new BigDecimal(amount), PaymentMethod.CREDIT_CARD);
+        payment.setId(id);
+        return payment;
+    }
+}
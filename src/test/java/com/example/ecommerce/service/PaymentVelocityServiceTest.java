@@ -0,0 +1,126 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.model.Payment.PaymentMethod;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for PaymentVelocityService
+ * Uses a manual clock so the sliding window can be advanced deterministically
+ */
+public class PaymentVelocityServiceTest {
+    
+    private static final long WINDOW_MILLIS = 60_000L;
+    
+    private AtomicLong clock;
+    private PaymentVelocityService paymentVelocityService;
+    
+    @BeforeEach
+    public void setUp() {
+        clock = new AtomicLong(1_700_000_000_000L);
+        paymentVelocityService = new PaymentVelocityService(true, WINDOW_MILLIS, 3, new BigDecimal("500.00"), clock::get);
+    }
+    
+    @Test
+    public void testCountLimit() {
+        for (int i = 0; i < 3; i++) {
+            assertTrue(paymentVelocityService.tryRecord("john@example.com", PaymentMethod.CREDIT_CARD, BigDecimal.TEN));
+        }
+        
+        assertFalse(paymentVelocityService.tryRecord("john@example.com", PaymentMethod.CREDIT_CARD, BigDecimal.TEN));
+        assertTrue(paymentVelocityService.tryRecord("john@example.com", PaymentMethod.PAYPAL, BigDecimal.TEN));
+        assertTrue(paymentVelocityService.tryRecord("jane@example.com", PaymentMethod.CREDIT_CARD, BigDecimal.TEN));
+    }
+    
+    @Test
+    public void testAmountLimit() {
+        assertTrue(paymentVelocityService.tryRecord("john@example.com", PaymentMethod.CREDIT_CARD, new BigDecimal("400.00")));
+        assertFalse(paymentVelocityService.tryRecord("john@example.com", PaymentMethod.CREDIT_CARD, new BigDecimal("100.01")));
+        
+        // The rejected payment must not have been counted
+        assertTrue(paymentVelocityService.tryRecord("john@example.com", PaymentMethod.CREDIT_CARD, new BigDecimal("100.00")));
+    }
+    
+    @Test
+    public void testWindowSlides() {
+        for (int i = 0; i < 3; i++) {
+            paymentVelocityService.tryRecord("john@example.com", PaymentMethod.CREDIT_CARD, BigDecimal.TEN);
+            clock.addAndGet(10_000L);
+        }
+        assertFalse(paymentVelocityService.wouldAllow("john@example.com", PaymentMethod.CREDIT_CARD, BigDecimal.TEN));
+        
+        clock.addAndGet(31_000L);
+        
+        assertTrue(paymentVelocityService.wouldAllow("john@example.com", PaymentMethod.CREDIT_CARD, BigDecimal.TEN));
+        assertTrue(paymentVelocityService.tryRecord("john@example.com", PaymentMethod.CREDIT_CARD, BigDecimal.TEN));
+        assertFalse(paymentVelocityService.tryRecord("john@example.com", PaymentMethod.CREDIT_CARD, BigDecimal.TEN));
+    }
+    
+    @Test
+    public void testWouldAllowDoesNotCount() {
+        for (int i = 0; i < 10; i++) {
+            assertTrue(paymentVelocityService.wouldAllow("john@example.com", PaymentMethod.CREDIT_CARD, BigDecimal.TEN));
+        }
+        assertFalse(paymentVelocityService.wouldAllow("john@example.com", PaymentMethod.CREDIT_CARD, new BigDecimal("600.00")));
+    }
+    
+    @Test
+    public void testIdleKeysEvicted() {
+        paymentVelocityService.tryRecord("john@example.com", PaymentMethod.CREDIT_CARD, BigDecimal.TEN);
+        paymentVelocityService.tryRecord("jane@example.com", PaymentMethod.CREDIT_CARD, BigDecimal.TEN);
+        clock.addAndGet(WINDOW_MILLIS / 2);
+        paymentVelocityService.tryRecord("jane@example.com", PaymentMethod.CREDIT_CARD, BigDecimal.TEN);
+        clock.addAndGet(WINDOW_MILLIS / 2 + 1_000L);
+        
+        paymentVelocityService.evictIdleKeys();
+        
+        assertEquals(1, paymentVelocityService.getTrackedKeyCount());
+    }
+    
+    @Test
+    public void testDisabledAllowsEverything() {
+        PaymentVelocityService disabled = new PaymentVelocityService(false, WINDOW_MILLIS, 0, BigDecimal.ZERO, clock::get);
+        
+        assertTrue(disabled.tryRecord("john@example.com", PaymentMethod.CREDIT_CARD, BigDecimal.TEN));
+        assertEquals(0, disabled.getTrackedKeyCount());
+    }
+    
+    @Test
+    public void testConcurrentCallersNeverOvershoot() throws Exception {
+        PaymentVelocityService service = new PaymentVelocityService(true, WINDOW_MILLIS, 100, new BigDecimal("1000000"), clock::get);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<Integer>> tasks = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                tasks.add(() -> {
+                    int accepted = 0;
+                    for (int i = 0; i < 1_000; i++) {
+                        if (service.tryRecord("john@example.com", PaymentMethod.CREDIT_CARD, BigDecimal.ONE)) {
+                            accepted++;
+                        }
+                    }
+                    return accepted;
+                });
+            }
+            int accepted = 0;
+            for (Future<Integer> future : pool.invokeAll(tasks)) {
+                accepted += future.get();
+            }
+            assertTrue(accepted <= 100, "accepted " + accepted);
+            assertTrue(accepted > 0);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.EcommerceApplication;
+import com.example.ecommerce.model.Order;
+import com.example.ecommerce.model.Payment;
+import com.example.ecommerce.model.Payment.PaymentMethod;
+import com.example.ecommerce.model.Product;
+import com.example.ecommerce.model.User;
+import com.example.ecommerce.sql.SqlBudget;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SQL statement budgets for the service hot paths, against the real schema on H2.
+ * Fixtures are built in setUp, outside the budget; each budget is what the method needs today, so an added
+ * per-item query or lazy load fails here with the statements listed.
+ */
+@SpringBootTest(classes = EcommerceApplication.class, properties = {
+    "spring.jpa.show-sql=false",
+    "ecommerce.audit.store.enabled=false",
+    "ecommerce.email.dispatch.interval-ms=3600000",
+    "ecommerce.auth.pbkdf2-iterations=1000",
+    "ecommerce.last-login.flush-interval-ms=3600000",
+    "ecommerce.payment.gateway.stub.base-latency-ms=0",
+    "ecommerce.payment.gateway.stub.jitter-ms=0",
+    "ecommerce.payment.gateway.stub.tail-probability=0"
+})
+public class ServiceSqlBudgetTest {
+    
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private PaymentService paymentService;
+    
+    @Autowired
+    private ProductService productService;
+    
+    @Autowired
+    private UserService userService;
+    
+    @Autowired
+    private EmailService emailService;
+    
+    @Autowired
+    private AuditService auditService;
+    
+    private User user;
+    private List<Product> products;
+    private Order order;
+    private Payment payment;
+    
+    @BeforeEach
+    public void setUp() {
+        int n = SEQUENCE.incrementAndGet();
+        user = userService.createUser("Budget", "User", "budget" + n + "@example.com", "secret", "555-0100");
+        products = Arrays.asList(
+            productService.createProduct("Keyboard " + n, "Mechanical", new BigDecimal("49.99"), 1000, "Electronics"),
+            productService.createProduct("Mouse " + n, "Wireless", new BigDecimal("19.99"), 1000, "Electronics"),
+            productService.createProduct("Desk " + n, "Standing", new BigDecimal("299.00"), 1000, "Office"));
+        order = orderService.createOrder(user.getId(), threeLines(), PaymentMethod.CREDIT_CARD);
+        payment = paymentService.getPaymentsByOrderId(order.getId()).get(0);
+    }
+    
+    @Test
+    @SqlBudget(select = 4, insert = 4, update = 1)
+    public void testCreateOrder() {
+        Order created = orderService.createOrder(user.getId(), threeLines(), PaymentMethod.CREDIT_CARD);
+        
+        assertNotNull(created.getId());
+    }
+    
+    @Test
+    @SqlBudget(select = 4, insert = 4, update = 1)
+    public void testCreateOrderAfterLoginLeavesTheUserRowAlone() {
+        // The login is only buffered; showing it on the order's user must not write the users row
+        userService.updateLastLogin(user.getId());
+        
+        Order created = orderService.createOrder(user.getId(), threeLines(), PaymentMethod.CREDIT_CARD);
+        
+        assertNotNull(created.getId());
+    }
+    
+    @Test
+    @SqlBudget(select = 6, insert = 1, update = 3)
+    public void testProcessOrder() {
+        Order processed = orderService.processOrder(order.getId(), user.getEmail());
+        
+        assertEquals(Order.OrderStatus.PROCESSING, processed.getStatus());
+    }
+    
+    @Test
+    @SqlBudget(select = 4, update = 4)
+    public void testCancelPendingOrder() {
+        assertEquals(Order.OrderStatus.CANCELLED, orderService.cancelOrder(order.getId()).getStatus());
+    }
+    
+    @Test
+    @SqlBudget(select = 1, total = 1)
+    public void testOrdersForUser() {
+        List<Order> orders = orderService.getOrdersByUserId(user.getId());
+        
+        assertEquals(1, orders.size());
+    }
+    
+    @Test
+    @SqlBudget(select = 3, insert = 1, update = 2)
+    public void testProcessPayment() {
+        Payment processed = paymentService.processPayment(payment.getId(), user.getEmail(), order.getOrderNumber());
+        
+        assertEquals(Payment.PaymentStatus.COMPLETED, processed.getStatus());
+    }
+    
+    @Test
+    @SqlBudget(select = 2, update = 1)
+    public void testReduceStock() {
+        productService.reduceStock(products.get(0).getId(), 2);
+    }
+    
+    @Test
+    @SqlBudget(select = 1, total = 1)
+    public void testSearchProducts() {
+        assertEquals(1, productService.searchProducts(products.get(0).getName()).size());
+    }
+    
+    @Test
+    @SqlBudget(select = 1, insert = 2, total = 3)
+    public void testCreateUser() {
+        User created = userService.createUser("New", "User", "new" + SEQUENCE.incrementAndGet() + "@example.com", "secret", "555-0101");
+        
+        assertNotNull(created.getId());
+    }
+    
+    @Test
+    @SqlBudget(insert = 1, total = 1)
+    public void testSendWelcomeEmails() {
+        Map<String, String> recipients = new LinkedHashMap<>();
+        for (int i = 0; i < 20; i++) {
+            recipients.put("welcome" + SEQUENCE.incrementAndGet() + "@example.com", "Reader");
+        }
+        
+        emailService.sendWelcomeEmails(recipients);
+    }
+    
+    @Test
+    @SqlBudget(total = 0)
+    public void testAuditLoggingStaysOffTheCallerThread() {
+        auditService.logOrderCreated(order.getId(), order.getOrderNumber(), user.getId());
+        auditService.logStockUpdated(products.get(0).getId(), 10, 9);
+    }
+    
+    private Map<Long, Integer> threeLines() {
+        Map<Long, Integer> lines = new LinkedHashMap<>();
+        for (Product product : products) {
+            lines.put(product.getId(), 1);
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.analytics.TrendingProduct;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for TrendingProductsService
+ * Uses a manual clock so window expiry can be exercised deterministically
+ */
+public class TrendingProductsServiceTest {
+    
+    private static final long MINUTE = 60_000L;
+    
+    private AtomicLong clock;
+    private TrendingProductsService trendingProductsService;
+    
+    @BeforeEach
+    public void setUp() {
+        clock = new AtomicLong(1_000_000L * MINUTE);
+        trendingProductsService = new TrendingProductsService(60 * MINUTE, 12, 256, 4, 8, 3, clock::get);
+    }
+    
+    @Test
+    public void testTopProductsRankedByQuantity() {
+        trendingProductsService.recordSale(1L, "Electronics", 5);
+        trendingProductsService.recordSale(2L, "Electronics", 20);
+        trendingProductsService.recordSale(3L, "Electronics", 10);
+        trendingProductsService.recordSale(4L, "Books", 50);
+        
+        List<TrendingProduct> result = trendingProductsService.getTopProducts("Electronics", 2);
+        
+        assertEquals(2, result.size());
+        assertEquals(2L, result.get(0).getProductId());
+        assertEquals(20L, result.get(0).getEstimatedQuantity());
+        assertEquals(3L, result.get(1).getProductId());
+    }
+    
+    @Test
+    public void testTopProductsAcrossAllCategories() {
+        trendingProductsService.recordSale(1L, "Electronics", 5);
+        trendingProductsService.recordSale(4L, "Books", 50);
+        
+        List<TrendingProduct> result = trendingProductsService.getTopProducts(null, 10);
+        
+        assertEquals(2, result.size());
+        assertEquals(4L, result.get(0).getProductId());
+    }
+    
+    @Test
+    public void testSalesExpireAfterWindow() {
+        trendingProductsService.recordSale(1L, "Electronics", 100);
+        clock.addAndGet(30 * MINUTE);
+        trendingProductsService.recordSale(2L, "Electronics", 10);
+        
+        assertEquals(1L, trendingProductsService.getTopProducts("Electronics", 1).get(0).getProductId());
+        
+        clock.addAndGet(45 * MINUTE);
+        List<TrendingProduct> result = trendingProductsService.getTopProducts("Electronics", 5);
+        
+        assertEquals(1, result.size());
+        assertEquals(2L, result.get(0).getProductId());
+    }
+    
+    @Test
+    public void testNewBestSellerDisplacesStaleCandidates() {
+        for (long productId = 1; productId <= 8; productId++) {
+            trendingProductsService.recordSale(productId, "Electronics", 1000);
+        }
+        clock.addAndGet(61 * MINUTE);
+        trendingProductsService.recordSale(42L, "Electronics", 3);
+        
+        List<TrendingProduct> result = trendingProductsService.getTopProducts("Electronics", 3);
+        
+        assertEquals(1, result.size());
+        assertEquals(42L, result.get(0).getProductId());
+    }
+    
+    @Test
+    public void testCategoryCapEvictsTheIdlestCategory() {
+        trendingProductsService.recordSale(1L, "Books", 1);
+        clock.addAndGet(MINUTE);
+        trendingProductsService.recordSale(2L, "Garden", 1);
+        clock.addAndGet(MINUTE);
+        trendingProductsService.recordSale(3L, "Toys", 1);
+        clock.addAndGet(MINUTE);
+        trendingProductsService.recordSale(4L, "Books", 1);
+        
+        trendingProductsService.recordSale(5L, "Music", 1);
+        
+        assertEquals(3, trendingProductsService.trackedCategories());
+        assertTrue(trendingProductsService.getTopProducts("Garden", 5).isEmpty());
+        assertEquals(2, trendingProductsService.getTopProducts("Books", 5).size());
+        assertEquals(5, trendingProductsService.getTopProducts(null, 10).size());
+    }
+    
+    @Test
+    public void testUnknownCategoryReturnsEmpty() {
+        assertTrue(trendingProductsService.getTopProducts("Garden", 5).isEmpty());
+    }
+    
+    @Test
+    public void testInvalidLimit() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            trendingProductsService.getTopProducts("Electronics", 0);
+        });
+    }
+}
@@ -0,0 +1,208 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.importer.UserImportRecord;
+import com.example.ecommerce.importer.UserImportReport;
+import com.example.ecommerce.model.User;
+import com.example.ecommerce.repository.UserRepository;
+import com.example.ecommerce.security.PasswordHasher;
+import com.example.ecommerce.security.PasswordHashingPool;
+import com.example.ecommerce.security.PasswordHashingRejectedException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for UserImportService - Bloom-filtered bulk user import
+ * Dependencies: UserRepository, EmailService, AuditService, PasswordHasher, PasswordHashingPool
+ */
+@ExtendWith(MockitoExtension.class)
+public class UserImportServiceTest {
+    
+    @Mock
+    private UserRepository userRepository;
+    
+    @Mock
+    private EmailService emailService;
+    
+    @Mock
+    private AuditService auditService;
+    
+    @Spy
+    private PasswordHasher passwordHasher = new PasswordHasher(1000);
+    
+    @Mock
+    private PasswordHashingPool passwordHashingPool;
+    
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    
+    @InjectMocks
+    private UserImportService userImportService;
+    
+    private final List<String> storedEmails = new ArrayList<>();
+    
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        ReflectionTestUtils.setField(userImportService, "chunkSize", 2);
+        storedEmails.add("existing@example.com");
+        
+        when(userRepository.count()).thenAnswer(invocation -> (long) storedEmails.size());
+        doAnswer(invocation -> {
+            storedEmails.forEach(invocation.<Consumer<String>>getArgument(0));
+            return null;
+        }).when(userRepository).forEachEmail(any());
+        lenient().when(userRepository.findEmailsByEmailIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> emails = invocation.getArgument(0);
+            List<String> found = new ArrayList<>(emails);
+            found.retainAll(storedEmails);
+            return found;
+        });
+        lenient().when(passwordHashingPool.submit(any())).thenAnswer(invocation ->
+                CompletableFuture.completedFuture(invocation.<Supplier<?>>getArgument(0).get()));
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().when(userRepository.batchInsert(anyList())).thenAnswer(invocation -> {
+            List<User> users = invocation.getArgument(0);
+            users.forEach(user -> storedEmails.add(user.getEmail()));
+            return users.size();
+        });
+    }
+    
+    @Test
+    public void testImportSkipsExistingDuplicateAndInvalidRows() {
+        List<UserImportRecord> rows = Arrays.asList(
+                record("Ann", "ann@example.com"),
+                record("Old", "existing@example.com"),
+                record("Bob", "bob@example.com"),
+                record("Ann", "ann@example.com"),
+                record(null, "nobody@example.com"));
+        
+        UserImportReport report = userImportService.importUsers(rows);
+        
+        assertEquals(5, report.getRowsRead());
+        assertEquals(2, report.getImported());
+        assertEquals(2, report.getDuplicates());
+        assertEquals(1, report.getInvalid());
+        assertEquals(3, report.getChunks());
+        assertTrue(storedEmails.containsAll(Arrays.asList("ann@example.com", "bob@example.com")));
+        assertEquals(3, storedEmails.size());
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testWelcomeEmailsAndAuditAreBatchedPerChunk() {
+        List<UserImportRecord> rows = Arrays.asList(
+                record("Ann", "ann@example.com"),
+                record("Bob", "bob@example.com"));
+        
+        userImportService.importUsers(rows);
+        
+        ArgumentCaptor<Map<String, String>> recipients = ArgumentCaptor.forClass(Map.class);
+        verify(emailService).sendWelcomeEmails(recipients.capture());
+        assertEquals("Ann", recipients.getValue().get("ann@example.com"));
+        assertEquals("Bob", recipients.getValue().get("bob@example.com"));
+        verify(emailService, never()).sendWelcomeEmail(anyString(), anyString());
+        verify(auditService).logUserBatchImported(anyCollection());
+        verify(userRepository, never()).existsByEmail(anyString());
+        verify(userRepository, times(1)).batchInsert(anyList());
+    }
+    
+    @Test
+    public void testOnlyBloomHitsAreConfirmedAgainstDatabase() {
+        List<UserImportRecord> rows = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            rows.add(record("User" + i, "user" + i + "@example.com"));
+        }
+        
+        UserImportReport report = userImportService.importUsers(rows);
+        
+        assertEquals(200, report.getImported());
+        assertEquals(0, report.getDuplicates());
+        assertEquals(report.getBloomHits(), report.getFalsePositives());
+        assertTrue(report.getFalsePositiveRate() < 0.1);
+        verify(userRepository, atMost((int) report.getBloomHits())).findEmailsByEmailIn(anyCollection());
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testPasswordsAreStoredHashed() {
+        String preHashed = passwordHasher.hash("already");
+        List<UserImportRecord> rows = Arrays.asList(
+                record("Ann", "ann@example.com"),
+                new UserImportRecord("Bob", "Doe", "bob@example.com", preHashed, "555-0100"));
+        
+        userImportService.importUsers(rows);
+        
+        ArgumentCaptor<List<User>> users = ArgumentCaptor.forClass(List.class);
+        verify(userRepository).batchInsert(users.capture());
+        User ann = users.getValue().get(0);
+        assertNotEquals("secret", ann.getPassword());
+        assertTrue(passwordHasher.matches("secret", ann.getPassword()));
+        assertEquals(preHashed, users.getValue().get(1).getPassword());
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testPasswordsAreHashedOnThePoolAndShedHashesOnTheCaller() {
+        ReflectionTestUtils.setField(userImportService, "chunkSize", 10);
+        CompletableFuture<Object> shed = new CompletableFuture<>();
+        shed.completeExceptionally(new PasswordHashingRejectedException(
+                PasswordHashingRejectedException.Reason.QUEUE_FULL, "Password hashing queue is full"));
+        doAnswer(invocation -> CompletableFuture.completedFuture(invocation.<Supplier<?>>getArgument(0).get()))
+                .doReturn(shed)
+                .doAnswer(invocation -> CompletableFuture.completedFuture(invocation.<Supplier<?>>getArgument(0).get()))
+                .when(passwordHashingPool).submit(any());
+        List<UserImportRecord> rows = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            rows.add(record("User" + i, "user" + i + "@example.com"));
+        }
+        
+        userImportService.importUsers(rows);
+        
+        verify(passwordHashingPool, times(6)).submit(any());
+        ArgumentCaptor<List<User>> users = ArgumentCaptor.forClass(List.class);
+        verify(userRepository).batchInsert(users.capture());
+        assertEquals(6, users.getValue().size());
+        for (User user : users.getValue()) {
+            assertTrue(passwordHasher.matches("secret", user.getPassword()));
+        }
+        assertEquals("user5@example.com", users.getValue().get(5).getEmail());
+    }
+    
+    @Test
+    public void testImportOfEmptyInputTouchesNothing() {
+        UserImportReport report = userImportService.importUsers(Collections.emptyList());
+        
+        assertEquals(0, report.getRowsRead());
+        assertEquals(0, report.getFalsePositiveRate());
+        verify(userRepository, never()).batchInsert(anyList());
+        verifyNoInteractions(emailService);
+    }
+    
+    private static UserImportRecord record(String firstName, String email) {
+        return new UserImportRecord(firstName, "Doe", email, "secret", "555-0100");
+    }
+}
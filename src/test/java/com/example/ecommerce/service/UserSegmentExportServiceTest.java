@@ -0,0 +1,104 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.export.SegmentExportResult;
+import com.example.ecommerce.export.UserExportRow;
+import com.example.ecommerce.export.UserSegment;
+import com.example.ecommerce.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for UserSegmentExportService - streaming segment export
+ * Dependencies: UserRepository
+ */
+@ExtendWith(MockitoExtension.class)
+public class UserSegmentExportServiceTest {
+    
+    @Mock
+    private UserRepository userRepository;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
+    @InjectMocks
+    private UserSegmentExportService exportService;
+    
+    @TempDir
+    Path tempDir;
+    
+    @Test
+    public void testExportsSegmentsInParallelWithoutLoadingEntities() throws IOException {
+        stubSegment("active", 3);
+        stubSegment("city-Colombo", 2);
+        Map<UserSegment, Path> files = new LinkedHashMap<>();
+        files.put(UserSegment.active(), tempDir.resolve("active.csv"));
+        files.put(UserSegment.city("Colombo"), tempDir.resolve("colombo.csv"));
+        
+        List<SegmentExportResult> results = exportService.exportSegments(files, false);
+        
+        assertEquals(2, results.size());
+        assertEquals(3, results.get(0).getRows());
+        assertEquals(2, results.get(1).getRows());
+        List<String> lines = Files.readAllLines(tempDir.resolve("active.csv"), StandardCharsets.UTF_8);
+        assertEquals(4, lines.size());
+        assertEquals(UserExportRow.CSV_HEADER.trim(), lines.get(0));
+        assertTrue(lines.get(1).startsWith("1,First1,Last1,active1@example.com,"));
+        verify(userRepository, never()).findAll();
+        verify(userRepository, never()).findByActive(any());
+    }
+    
+    @Test
+    public void testExportRunsInReadOnlyTransactions() {
+        stubSegment("all", 1);
+        
+        exportService.exportSegment(UserSegment.all(), tempDir.resolve("all.csv.gz"), true);
+        
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(definition.capture());
+        assertTrue(definition.getValue().isReadOnly());
+    }
+    
+    @Test
+    public void testExportFailureIsPropagated() {
+        doThrow(new IllegalStateException("cursor closed"))
+                .when(userRepository).forEachInSegment(any(), anyInt(), any());
+        
+        assertThrows(IllegalStateException.class,
+                () -> exportService.exportSegment(UserSegment.all(), tempDir.resolve("all.csv"), false));
+    }
+    
+    private void stubSegment(String segmentName, int rows) {
+        doAnswer(invocation -> {
+            Consumer<UserExportRow> consumer = invocation.getArgument(2);
+            UserExportRow row = new UserExportRow();
+            for (int i = 1; i <= rows; i++) {
+                row.set(i, "First" + i, "Last" + i, segmentName + i + "@example.com", "555-0100", "Colombo",
+                        "00100", LocalDateTime.of(2024, 1, 1, 0, 0), null, true);
+                consumer.accept(row);
+            }
+            return null;
+        }).when(userRepository).forEachInSegment(argThat(segment -> segment.getName().equals(segmentName)),
+                anyInt(), any());
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.model.User;
+import com.example.ecommerce.repository.UserRepository;
+import com.example.ecommerce.security.PasswordHasher;
+import com.example.ecommerce.security.PasswordHashingPool;
+import com.example.ecommerce.security.SessionTokenCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for UserService authentication - pooled password hashing, rehash on login and session tokens
+ * Dependencies: UserRepository, LastLoginWriteBuffer, PasswordHasher, PasswordHashingPool, SessionTokenCache
+ */
+@ExtendWith(MockitoExtension.class)
+public class UserServiceAuthenticationTest {
+    
+    @Mock
+    private UserRepository userRepository;
+    
+    @Mock
+    private LastLoginWriteBuffer lastLoginWriteBuffer;
+    
+    @Spy
+    private PasswordHasher passwordHasher = new PasswordHasher(1000);
+    
+    @Spy
+    private PasswordHashingPool passwordHashingPool = new PasswordHashingPool(1, 8, 5000);
+    
+    @Spy
+    private SessionTokenCache sessionTokenCache = new SessionTokenCache(60, 100);
+    
+    @InjectMocks
+    private UserService userService;
+    
+    private User user;
+    
+    @BeforeEach
+    public void setUp() {
+        user = new User("John", "Doe", "john@example.com", passwordHasher.hash("secret"), "555-0100");
+        user.setId(1L);
+    }
+    
+    @AfterEach
+    public void tearDown() {
+        passwordHashingPool.shutdown();
+    }
+    
+    @Test
+    public void testAuthenticateIssuesTokenThatSkipsHashing() {
+        when(userRepository.findByEmail("john@example.com")).thenReturn(Optional.of(user));
+        
+        Optional<String> token = userService.authenticate("john@example.com", "secret");
+        
+        assertTrue(token.isPresent());
+        assertEquals(Optional.of(1L), userService.authenticateToken(token.get()));
+        verify(passwordHasher, times(1)).matches(anyString(), anyString());
+        verify(lastLoginWriteBuffer).record(eq(1L), any());
+        verify(userRepository, never()).updatePasswordIfUnchanged(anyLong(), anyString(), anyString());
+    }
+    
+    @Test
+    public void testWrongPasswordIsRejected() {
+        when(userRepository.findByEmail("john@example.com")).thenReturn(Optional.of(user));
+        
+        assertFalse(userService.authenticate("john@example.com", "wrong").isPresent());
+        assertEquals(0, sessionTokenCache.size());
+        verifyNoInteractions(lastLoginWriteBuffer);
+    }
+    
+    @Test
+    public void testLegacyPlainTextPasswordIsUpgradedOnLogin() {
+        user.setPassword("secret");
+        when(userRepository.findByEmail("john@example.com")).thenReturn(Optional.of(user));
+        
+        assertTrue(userService.authenticate("john@example.com", "secret").isPresent());
+        
+        ArgumentCaptor<String> newHash = ArgumentCaptor.forClass(String.class);
+        verify(userRepository).updatePasswordIfUnchanged(eq(1L), eq("secret"), newHash.capture());
+        assertFalse(passwordHasher.needsRehash(newHash.getValue()));
+        assertTrue(passwordHasher.matches("secret", newHash.getValue()));
+    }
+    
+    @Test
+    public void testWeakHashIsUpgradedOnLogin() {
+        String weakHash = new PasswordHasher(500).hash("secret");
+        user.setPassword(weakHash);
+        when(userRepository.findByEmail("john@example.com")).thenReturn(Optional.of(user));
+        
+        assertTrue(userService.authenticate("john@example.com", "secret").isPresent());
+        
+        // Conditional on the hash that was checked, so a password changed meanwhile is not overwritten
+        verify(userRepository).updatePasswordIfUnchanged(eq(1L), eq(weakHash), startsWith("pbkdf2-sha256$1000$"));
+        verify(userRepository, never()).updatePassword(anyLong(), anyString());
+    }
+    
+    @Test
+    public void testInactiveUserCannotAuthenticate() {
+        user.setActive(false);
+        when(userRepository.findByEmail("john@example.com")).thenReturn(Optional.of(user));
+        
+        assertFalse(userService.authenticate("john@example.com", "secret").isPresent());
+        verify(passwordHasher, never()).matches(anyString(), anyString());
+    }
+    
+    @Test
+    public void testChangePasswordDropsCachedSessions() {
+        when(userRepository.findByEmail("john@example.com")).thenReturn(Optional.of(user));
+        when(userRepository.updatePassword(eq(1L), anyString())).thenReturn(1);
+        String token = userService.authenticate("john@example.com", "secret").get();
+        
+        userService.changePassword(1L, "new-secret");
+        
+        assertFalse(userService.authenticateToken(token).isPresent());
+    }
+}
@@ -2,16 +2,24 @@ package com.example.ecommerce.service;
 
 import com.example.ecommerce.model.User;
 import com.example.ecommerce.repository.UserRepository;
+import com.example.ecommerce.security.PasswordHasher;
+import com.example.ecommerce.security.PasswordHashingPool;
+import com.example.ecommerce.security.SessionTokenCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -19,7 +27,8 @@ import static org.mockito.Mockito.*;
 
 /**
  * Tests for UserService
- * Dependencies: UserRepository, EmailService, AuditService
+ * Dependencies: UserRepository, EmailService, AuditService, LastLoginWriteBuffer,
+ * PasswordHasher, PasswordHashingPool, SessionTokenCache, TransactionTemplate
  */
 @ExtendWith(MockitoExtension.class)
 public class UserServiceTest {
@@ -33,6 +42,21 @@ public class UserServiceTest {
     @Mock
     private AuditService auditService;
     
+    @Mock
+    private LastLoginWriteBuffer lastLoginWriteBuffer;
+    
+    @Mock
+    private PasswordHasher passwordHasher;
+    
+    @Mock
+    private PasswordHashingPool passwordHashingPool;
+    
+    @Mock
+    private SessionTokenCache sessionTokenCache;
+    
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    
     @InjectMocks
     private UserService userService;
     
@@ -47,19 +71,38 @@ public class UserServiceTest {
     @Test
     public void testCreateUser_Success() {
         when(userRepository.existsByEmail(anyString())).thenReturn(false);
+        runHashingInline();
+        when(passwordHasher.hash("password123")).thenReturn("pbkdf2-sha256$1000$salt$hash");
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
         when(userRepository.save(any(User.class))).thenReturn(testUser);
-        doNothing().when(emailService).sendWelcomeEmail(anyString(), anyString());
+        doNothing().when(emailService).sendWelcomeEmail(anyString(), anyString(), any());
         doNothing().when(auditService).logUserCreated(anyLong(), anyString());
         
         User result = userService.createUser("John", "Doe", "john@example.com", "password123", "1234567890");
         
         assertNotNull(result);
         assertEquals("John", result.getFirstName());
-        verify(userRepository, times(1)).save(any(User.class));
-        verify(emailService, times(1)).sendWelcomeEmail("john@example.com", "John");
+        verify(userRepository, times(1)).save(argThat(user -> "pbkdf2-sha256$1000$salt$hash".equals(user.getPassword())));
+        verify(emailService, times(1)).sendWelcomeEmail("john@example.com", "John", null);
         verify(auditService, times(1)).logUserCreated(anyLong(), eq("john@example.com"));
     }
     
+    @Test
+    public void testCreateUser_KeepsTheLocaleForEmails() {
+        when(userRepository.existsByEmail(anyString())).thenReturn(false);
+        runHashingInline();
+        when(passwordHasher.hash("password123")).thenReturn("pbkdf2-sha256$1000$salt$hash");
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(userRepository.save(any(User.class))).thenReturn(testUser);
+        
+        userService.createUser("John", "Doe", "john@example.com", "password123", "1234567890", "de-CH");
+        
+        verify(userRepository).save(argThat(user -> "de-CH".equals(user.getLocale())));
+        verify(emailService).sendWelcomeEmail("john@example.com", "John", "de-CH");
+    }
+    
     @Test
     public void testCreateUser_EmailAlreadyExists() {
         when(userRepository.existsByEmail(anyString())).thenReturn(true);
@@ -69,12 +112,13 @@ public class UserServiceTest {
         });
         
         verify(userRepository, never()).save(any(User.class));
-        verify(emailService, never()).sendWelcomeEmail(anyString(), anyString());
+        verify(emailService, never()).sendWelcomeEmail(anyString(), anyString(), any());
     }
     
     @Test
     public void testGetUserById_Found() {
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(lastLoginWriteBuffer.getPending(1L)).thenReturn(null);
         
         Optional<User> result = userService.getUserById(1L);
         
@@ -85,6 +129,7 @@ public class UserServiceTest {
     @Test
     public void testGetUserByEmail_Found() {
         when(userRepository.findByEmail("john@example.com")).thenReturn(Optional.of(testUser));
+        when(lastLoginWriteBuffer.getPending(1L)).thenReturn(null);
         
         Optional<User> result = userService.getUserByEmail("john@example.com");
         
@@ -92,6 +137,30 @@ public class UserServiceTest {
         assertEquals(testUser.getEmail(), result.get().getEmail());
     }
     
+    @Test
+    public void testGetUserById_OverlaysPendingLastLogin() {
+        LocalDateTime stored = LocalDateTime.of(2024, 1, 1, 9, 0);
+        LocalDateTime pending = stored.plusHours(2);
+        testUser.setLastLoginAt(stored);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(lastLoginWriteBuffer.getPending(1L)).thenReturn(pending);
+        
+        Optional<User> result = userService.getUserById(1L);
+        
+        assertTrue(result.isPresent());
+        assertEquals(pending, result.get().getLastLoginAt());
+    }
+    
+    @Test
+    public void testGetUserById_KeepsNewerStoredLastLogin() {
+        LocalDateTime stored = LocalDateTime.of(2024, 1, 1, 9, 0);
+        testUser.setLastLoginAt(stored);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(lastLoginWriteBuffer.getPending(1L)).thenReturn(stored.minusMinutes(5));
+        
+        assertEquals(stored, userService.getUserById(1L).get().getLastLoginAt());
+    }
+    
     @Test
     public void testGetAllUsers() {
         User user2 = new User("Jane", "Smith", "jane@example.com", "pass456", "0987654321");
@@ -106,6 +175,7 @@ public class UserServiceTest {
     @Test
     public void testUpdateUser_Success() {
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(lastLoginWriteBuffer.getPending(1L)).thenReturn(null);
         when(userRepository.save(any(User.class))).thenReturn(testUser);
         doNothing().when(auditService).logUserUpdated(anyLong(), anyString());
         
@@ -129,6 +199,7 @@ public class UserServiceTest {
     @Test
     public void testDeactivateUser() {
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(lastLoginWriteBuffer.getPending(1L)).thenReturn(null);
         when(userRepository.save(any(User.class))).thenReturn(testUser);
         doNothing().when(auditService).logUserUpdated(anyLong(), anyString());
         
@@ -137,4 +208,9 @@ public class UserServiceTest {
         verify(userRepository, times(1)).save(any(User.class));
         verify(auditService, times(1)).logUserUpdated(1L, "john@example.com");
     }
+    
+    private void runHashingInline() {
+        when(passwordHashingPool.submit(any())).thenAnswer(invocation ->
+                CompletableFuture.completedFuture(invocation.<Supplier<?>>getArgument(0).get()));
+    }
 }
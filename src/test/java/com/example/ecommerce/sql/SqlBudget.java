@@ -0,0 +1,45 @@
+package com.example.ecommerce.sql;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Caps the JDBC statements a test method may execute, per kind; -1 leaves a kind unchecked.
+ * Only statements executed on the test thread during the test method itself are counted, so fixtures built in
+ * {@code @BeforeEach} and background work (audit consumer, email dispatcher) do not use up the budget. A JDBC
+ * batch counts once, as one round trip. On a method the annotation replaces one declared on the class.
+ *
+ * <pre>
+ * &#64;Test
+ * &#64;SqlBudget(select = 3, insert = 2)
+ * void createOrder() { ... }
+ * </pre>
+ *
+ * Works with {@code @SpringBootTest}: the application's DataSource is wrapped for test classes that use it.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Inherited
+@ExtendWith(SqlBudgetExtension.class)
+public @interface SqlBudget {
+    
+    int select() default -1;
+    
+    int insert() default -1;
+    
+    int update() default -1;
+    
+    int delete() default -1;
+    
+    /**
+     * Cap on all statements together, including DDL and calls.
+     */
+    int total() default -1;
+}
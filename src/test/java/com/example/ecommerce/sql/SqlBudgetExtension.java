@@ -0,0 +1,66 @@
+package com.example.ecommerce.sql;
+
+import com.example.ecommerce.sql.SqlStatementRecorder.Kind;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+import org.opentest4j.AssertionFailedError;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Records the statements a test method executes and fails it when they exceed its {@link SqlBudget}, listing
+ * every statement with its repeat count. A test that already failed is left to report its own failure.
+ */
+public class SqlBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+    
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        SqlStatementRecorder.start();
+    }
+    
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        List<String> statements = SqlStatementRecorder.stop();
+        if (context.getExecutionException().isPresent()) {
+            return;
+        }
+        Optional<SqlBudget> budget = AnnotationSupport.findAnnotation(context.getRequiredTestMethod(), SqlBudget.class);
+        if (!budget.isPresent()) {
+            budget = AnnotationSupport.findAnnotation(context.getRequiredTestClass(), SqlBudget.class);
+        }
+        if (budget.isPresent()) {
+            check(budget.get(), statements, context.getDisplayName());
+        }
+    }
+    
+    static void check(SqlBudget budget, List<String> statements, String testName) {
+        Map<Kind, Integer> counts = SqlStatementRecorder.countByKind(statements);
+        List<String> exceeded = new ArrayList<>();
+        exceed(exceeded, "select", counts.get(Kind.SELECT), budget.select());
+        exceed(exceeded, "insert", counts.get(Kind.INSERT), budget.insert());
+        exceed(exceeded, "update", counts.get(Kind.UPDATE), budget.update());
+        exceed(exceeded, "delete", counts.get(Kind.DELETE), budget.delete());
+        exceed(exceeded, "total", statements.size(), budget.total());
+        if (exceeded.isEmpty()) {
+            return;
+        }
+        
+        StringBuilder message = new StringBuilder("SQL budget exceeded in ").append(testName).append(": ")
+                .append(String.join(", ", exceeded)).append("\nStatements executed (")
+                .append(statements.size()).append("):");
+        SqlStatementRecorder.distinct(statements).forEach((sql, times) ->
+                message.append("\n  ").append(times).append(" x ").append(sql));
+        throw new AssertionFailedError(message.toString());
+    }
+    
+    private static void exceed(List<String> exceeded, String kind, int actual, int limit) {
+        if (limit >= 0 && actual > limit) {
+            exceeded.add(kind + " " + actual + " > " + limit);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.ecommerce.sql;
+
+import com.example.ecommerce.sql.SqlStatementRecorder.Kind;
+import org.junit.jupiter.api.Test;
+import org.opentest4j.AssertionFailedError;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SqlBudgetExtensionTest {
+    
+    private static final String SELECT_ITEM = "select * from order_items where order_id=?";
+    private static final String INSERT_ORDER = "insert into orders (id, status) values (default, ?)";
+    
+    @Test
+    public void testClassifiesStatementsByLeadingKeyword() {
+        assertEquals(Kind.SELECT, SqlStatementRecorder.kindOf("  SELECT 1"));
+        assertEquals(Kind.SELECT, SqlStatementRecorder.kindOf("(select 1) union (select 2)"));
+        assertEquals(Kind.SELECT, SqlStatementRecorder.kindOf("with t as (select 1) select * from t"));
+        assertEquals(Kind.INSERT, SqlStatementRecorder.kindOf(INSERT_ORDER));
+        assertEquals(Kind.UPDATE, SqlStatementRecorder.kindOf("merge into products key (id) values (?, ?)"));
+        assertEquals(Kind.DELETE, SqlStatementRecorder.kindOf("delete from orders where id=?"));
+        assertEquals(Kind.OTHER, SqlStatementRecorder.kindOf("call next value for hibernate_sequence"));
+    }
+    
+    @Test
+    public void testRecordsOnlyOnTheRecordingThread() throws InterruptedException {
+        SqlStatementRecorder.start();
+        SqlStatementRecorder.record(SELECT_ITEM);
+        Thread other = new Thread(() -> SqlStatementRecorder.record(INSERT_ORDER));
+        other.start();
+        other.join();
+        
+        assertEquals(Arrays.asList(SELECT_ITEM), SqlStatementRecorder.stop());
+        SqlStatementRecorder.record(SELECT_ITEM);
+        assertTrue(SqlStatementRecorder.stop().isEmpty());
+    }
+    
+    @Test
+    @SqlBudget(select = 1, insert = 1)
+    public void testWithinBudgetPasses() throws NoSuchMethodException {
+        SqlBudget budget = budgetOf("testWithinBudgetPasses");
+        
+        SqlBudgetExtension.check(budget, Arrays.asList(SELECT_ITEM, INSERT_ORDER), "within");
+    }
+    
+    @Test
+    @SqlBudget(select = 1, total = 2)
+    public void testRepeatedSelectIsReportedWithItsCount() throws NoSuchMethodException {
+        SqlBudget budget = budgetOf("testRepeatedSelectIsReportedWithItsCount");
+        List<String> statements = Arrays.asList(INSERT_ORDER, SELECT_ITEM, SELECT_ITEM, SELECT_ITEM);
+        
+        AssertionFailedError error = assertThrows(AssertionFailedError.class,
+                () -> SqlBudgetExtension.check(budget, statements, "n+1"));
+        
+        assertTrue(error.getMessage().contains("select 3 > 1"));
+        assertTrue(error.getMessage().contains("total 4 > 2"));
+        assertFalse(error.getMessage().contains("insert 1 >"));
+        assertTrue(error.getMessage().contains("3 x " + SELECT_ITEM));
+        assertTrue(error.getMessage().contains("1 x " + INSERT_ORDER));
+    }
+    
+    private static SqlBudget budgetOf(String method) throws NoSuchMethodException {
+        return SqlBudgetExtensionTest.class.getMethod(method).getAnnotation(SqlBudget.class);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.ecommerce.sql;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.context.ContextConfigurationAttributes;
+import org.springframework.test.context.ContextCustomizer;
+import org.springframework.test.context.ContextCustomizerFactory;
+import org.springframework.test.context.MergedContextConfiguration;
+import org.springframework.util.ReflectionUtils;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Wraps the application DataSource in a {@link SqlCountingDataSource} for Spring test classes that use
+ * {@link SqlBudget}; other test contexts are left untouched. Registered in META-INF/spring.factories.
+ */
+public class SqlCountingContextCustomizerFactory implements ContextCustomizerFactory {
+    
+    @Override
+    public ContextCustomizer createContextCustomizer(Class<?> testClass, List<ContextConfigurationAttributes> configAttributes) {
+        return usesSqlBudget(testClass) ? new SqlCountingContextCustomizer() : null;
+    }
+    
+    private static boolean usesSqlBudget(Class<?> testClass) {
+        if (testClass.isAnnotationPresent(SqlBudget.class)) {
+            return true;
+        }
+        AtomicBoolean found = new AtomicBoolean();
+        ReflectionUtils.doWithMethods(testClass, method -> found.set(true),
+                method -> method.isAnnotationPresent(SqlBudget.class));
+        return found.get();
+    }
+    
+    private static final class SqlCountingContextCustomizer implements ContextCustomizer {
+        
+        @Override
+        public void customizeContext(ConfigurableApplicationContext context, MergedContextConfiguration mergedConfig) {
+            context.getBeanFactory().addBeanPostProcessor(new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+                    return bean instanceof DataSource && !(bean instanceof SqlCountingDataSource)
+                            ? new SqlCountingDataSource((DataSource) bean) : bean;
+                }
+            });
+        }
+        
+        // All instances are interchangeable, so contexts that use them can be cached and shared
+        @Override
+        public boolean equals(Object other) {
+            return other != null && other.getClass() == getClass();
+        }
+        
+        @Override
+        public int hashCode() {
+            return SqlCountingContextCustomizer.class.hashCode();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.ecommerce.sql;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Collects the statements executed on the current thread between {@link #start()} and {@link #stop()}.
+ * Statements on threads that are not recording are ignored.
+ */
+public final class SqlStatementRecorder {
+    
+    public enum Kind {
+        SELECT, INSERT, UPDATE, DELETE, OTHER
+    }
+    
+    private static final ThreadLocal<List<String>> RECORDING = new ThreadLocal<>();
+    
+    private SqlStatementRecorder() {
+    }
+    
+    public static void start() {
+        RECORDING.set(new ArrayList<>());
+    }
+    
+    public static List<String> stop() {
+        List<String> statements = RECORDING.get();
+        RECORDING.remove();
+        return statements != null ? statements : Collections.emptyList();
+    }
+    
+    static void record(String sql) {
+        List<String> statements = RECORDING.get();
+        if (statements != null) {
+            statements.add(sql);
+        }
+    }
+    
+    public static Kind kindOf(String sql) {
+        String keyword = firstKeyword(sql);
+        switch (keyword) {
+            case "select":
+            case "with":
+                return Kind.SELECT;
+            case "insert":
+                return Kind.INSERT;
+            case "update":
+            case "merge":
+                return Kind.UPDATE;
+            case "delete":
+                return Kind.DELETE;
+            default:
+                return Kind.OTHER;
+        }
+    }
+    
+    public static Map<Kind, Integer> countByKind(List<String> statements) {
+        Map<Kind, Integer> counts = new EnumMap<>(Kind.class);
+        for (Kind kind : Kind.values()) {
+            counts.put(kind, 0);
+        }
+        for (String sql : statements) {
+            counts.merge(kindOf(sql), 1, Integer::sum);
+        }
+        return counts;
+    }
+    
+    /**
+     * Identical statements folded together with their repeat count, in order of first execution; a repeated
+     * select is what an N+1 looks like.
+     */
+    public static Map<String, Integer> distinct(List<String> statements) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (String sql : statements) {
+            counts.merge(sql.replaceAll("\\s+", " ").trim(), 1, Integer::sum);
+        }
+        return counts;
+    }
+    
+    private static String firstKeyword(String sql) {
+        int start = 0;
+        while (start < sql.length() && (Character.isWhitespace(sql.charAt(start)) || sql.charAt(start) == '(')) {
+            start++;
+        }
+        int end = start;
+        while (end < sql.length() && Character.isLetter(sql.charAt(end))) {
+            end++;
+        }
+        return sql.substring(start, end).toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.ecommerce.storage;
+
+import com.example.ecommerce.EcommerceApplication;
+import com.example.ecommerce.model.Order;
+import com.example.ecommerce.model.Payment.PaymentMethod;
+import com.example.ecommerce.model.Product;
+import com.example.ecommerce.model.User;
+import com.example.ecommerce.service.OrderService;
+import com.example.ecommerce.service.ProductService;
+import com.example.ecommerce.service.UserService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The file profile: online snapshots of the running database, and restoring one into a fresh directory.
+ */
+@SpringBootTest(classes = EcommerceApplication.class, properties = {
+    "ecommerce.reactive.port=-1",
+    "ecommerce.storage.snapshot.keep=2",
+    "ecommerce.audit.store.enabled=false",
+    "ecommerce.email.dispatch.interval-ms=3600000",
+    "ecommerce.auth.pbkdf2-iterations=1000",
+    "ecommerce.payment.gateway.stub.base-latency-ms=0",
+    "ecommerce.payment.gateway.stub.jitter-ms=0",
+    "ecommerce.payment.gateway.stub.tail-probability=0"
+})
+@ActiveProfiles("file")
+public class DatabaseSnapshotTest {
+    
+    private static final Path ROOT = createRoot();
+    
+    @Autowired
+    private DatabaseSnapshotService snapshotService;
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private ProductService productService;
+    
+    @Autowired
+    private UserService userService;
+    
+    @DynamicPropertySource
+    static void storage(DynamicPropertyRegistry registry) {
+        registry.add("ecommerce.storage.directory", () -> ROOT.resolve("db").toString());
+        registry.add("ecommerce.storage.snapshot.directory", () -> ROOT.resolve("snapshots").toString());
+    }
+    
+    @AfterAll
+    static void deleteRoot() throws IOException {
+        FileSystemUtils.deleteRecursively(ROOT);
+    }
+    
+    @Test
+    public void testSnapshotRestoresIntoAnotherDirectory() throws SQLException {
+        User user = userService.createUser("Snap", "Shot", "snapshot@example.com", "secret", "555-0100");
+        Product product = productService.createProduct("Globe", "Desk globe", new BigDecimal("30.00"), 5, "Office");
+        Order order = orderService.createOrder(user.getId(), Collections.singletonMap(product.getId(), 1),
+                PaymentMethod.CREDIT_CARD);
+        
+        Path snapshot = snapshotService.snapshot();
+        Path restored = ROOT.resolve("restored");
+        new SnapshotRestorer(Supplier::get).restore(snapshot, restored);
+        
+        try (Connection connection = DriverManager.getConnection(
+                    "jdbc:h2:file:" + restored.resolve(DatabaseSnapshotService.DATABASE_NAME), "sa", "");
+             Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("select order_number, status from orders")) {
+            assertTrue(rows.next());
+            assertEquals(order.getOrderNumber(), rows.getString(1));
+            assertEquals("PENDING", rows.getString(2));
+            assertFalse(rows.next());
+        }
+    }
+    
+    @Test
+    public void testKeepsOnlyTheNewestSnapshots() {
+        Path first = snapshotService.snapshot();
+        Path second = snapshotService.snapshot();
+        Path third = snapshotService.snapshot();
+        
+        List<Path> snapshots = snapshotService.listSnapshots();
+        
+        assertEquals(List.of(third, second), snapshots);
+        assertFalse(Files.exists(first));
+    }
+    
+    @Test
+    public void testRestoreRejectsAZipWithoutTheDatabase() throws IOException {
+        Path empty = Files.write(ROOT.resolve("empty.zip"), new byte[] {'P', 'K', 5, 6, 0, 0, 0, 0, 0, 0, 0, 0,
+                0, 0, 0, 0, 0, 0, 0, 0, 0, 0});
+        
+        Path live = Files.createDirectories(ROOT.resolve("live"));
+        Path database = Files.write(live.resolve(DatabaseSnapshotService.DATABASE_NAME + ".mv.db"), new byte[] {42});
+        
+        assertThrows(IllegalArgumentException.class,
+                () -> new SnapshotRestorer(Supplier::get).restore(empty, live));
+        
+        // The live database stays where it was, and nothing is left behind
+        assertArrayEquals(new byte[] {42}, Files.readAllBytes(database));
+        try (Stream<Path> files = Files.list(live)) {
+            assertEquals(List.of(database), files.collect(Collectors.toList()));
+        }
+    }
+    
+    private static Path createRoot() {
+        try {
+            return Files.createTempDirectory("snapshot-test");
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.ecommerce.web;
+
+import com.example.ecommerce.EcommerceApplication;
+import com.example.ecommerce.model.Product;
+import com.example.ecommerce.model.User;
+import com.example.ecommerce.service.ProductService;
+import com.example.ecommerce.service.UserService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The REST API on a real port: lifecycle round trips, and NDJSON listings sent chunked and, when asked, gzipped.
+ */
+@SpringBootTest(classes = EcommerceApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "spring.jpa.show-sql=false",
+    "ecommerce.reactive.port=-1",
+    "ecommerce.audit.store.enabled=false",
+    "ecommerce.email.dispatch.interval-ms=3600000",
+    "ecommerce.auth.pbkdf2-iterations=1000",
+    "ecommerce.payment.gateway.stub.base-latency-ms=0",
+    "ecommerce.payment.gateway.stub.jitter-ms=0",
+    "ecommerce.payment.gateway.stub.tail-probability=0",
+    "ecommerce.api.stream.fetch-size=7",
+    "server.compression.enabled=true"
+})
+public class RestApiTest {
+    
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+    
+    @LocalServerPort
+    private int port;
+    
+    @Autowired
+    private TestRestTemplate rest;
+    
+    @Autowired
+    private UserService userService;
+    
+    @Autowired
+    private ProductService productService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Test
+    public void testOrderLifecycle() {
+        int n = SEQUENCE.incrementAndGet();
+        Map<String, Object> newUser = new LinkedHashMap<>();
+        newUser.put("firstName", "Rest");
+        newUser.put("lastName", "User");
+        newUser.put("email", "rest" + n + "@example.com");
+        newUser.put("password", "secret");
+        newUser.put("phone", "555-0100");
+        ResponseEntity<JsonNode> user = rest.postForEntity(UserController.BASE_PATH, newUser, JsonNode.class);
+        assertEquals(HttpStatus.CREATED, user.getStatusCode());
+        assertFalse(user.getBody().has("password"));
+        long userId = user.getBody().get("id").asLong();
+        Product product = productService.createProduct("Lamp " + n, "Desk lamp", new BigDecimal("25.00"), 10, "Office");
+        
+        Map<String, Object> newOrder = new LinkedHashMap<>();
+        newOrder.put("userId", userId);
+        newOrder.put("items", Collections.singletonMap(product.getId(), 2));
+        ResponseEntity<JsonNode> order = rest.postForEntity(OrderController.BASE_PATH, newOrder, JsonNode.class);
+        assertEquals(HttpStatus.CREATED, order.getStatusCode());
+        long orderId = order.getBody().get("id").asLong();
+        assertEquals(OrderController.BASE_PATH + "/" + orderId, order.getHeaders().getLocation().getPath());
+        
+        JsonNode pending = rest.getForObject(PaymentController.BASE_PATH + "?orderId=" + orderId, JsonNode.class);
+        long paymentId = pending.get(0).get("id").asLong();
+        ResponseEntity<JsonNode> refund = rest.postForEntity(PaymentController.BASE_PATH + "/" + paymentId + "/refund",
+                null, JsonNode.class);
+        assertEquals(HttpStatus.CONFLICT, refund.getStatusCode());
+        assertEquals("Can only refund completed payments", refund.getBody().get("error").asText());
+        
+        JsonNode processed = rest.postForObject(OrderController.BASE_PATH + "/" + orderId + "/process",
+                Collections.singletonMap("userEmail", "rest" + n + "@example.com"), JsonNode.class);
+        assertEquals("PROCESSING", processed.get("status").asText());
+        
+        JsonNode payments = rest.getForObject(PaymentController.BASE_PATH + "?orderId=" + orderId, JsonNode.class);
+        assertEquals("COMPLETED", payments.get(0).get("status").asText());
+        assertEquals(HttpStatus.NOT_FOUND, rest.getForEntity(OrderController.BASE_PATH + "/-1", JsonNode.class).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, rest.getForEntity(OrderController.BASE_PATH, JsonNode.class).getStatusCode());
+    }
+    
+    @Test
+    public void testCatalogStreamsAsChunkedNdjson() throws IOException {
+        String category = "Stream" + SEQUENCE.incrementAndGet();
+        for (int i = 0; i < 50; i++) {
+            productService.createProduct("Streamed " + i, "Row " + i, new BigDecimal("1.50"), i, category);
+        }
+        
+        HttpURLConnection connection = open(ProductController.BASE_PATH + "/stream?category=" + category, false);
+        assertEquals(200, connection.getResponseCode());
+        assertTrue(connection.getContentType().startsWith(MediaType.APPLICATION_NDJSON_VALUE));
+        assertEquals("chunked", connection.getHeaderField(HttpHeaders.TRANSFER_ENCODING));
+        List<JsonNode> rows = readLines(connection.getInputStream());
+        
+        assertEquals(50, rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            assertEquals("Streamed " + i, rows.get(i).get("name").asText());
+            assertEquals(i, rows.get(i).get("stockQuantity").asInt());
+            assertEquals(category, rows.get(i).get("category").asText());
+        }
+    }
+    
+    @Test
+    public void testOrderStreamIsGzippedWhenAccepted() throws IOException {
+        int n = SEQUENCE.incrementAndGet();
+        User user = userService.createUser("Gzip", "User", "gzip" + n + "@example.com", "secret", "555-0100");
+        Product product = productService.createProduct("Cable " + n, "USB", new BigDecimal("5.00"), 1000, "Electronics");
+        Map<String, Object> newOrder = new LinkedHashMap<>();
+        newOrder.put("userId", user.getId());
+        newOrder.put("items", Collections.singletonMap(product.getId(), 1));
+        List<Long> cancelled = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            long orderId = rest.postForObject(OrderController.BASE_PATH, newOrder, JsonNode.class).get("id").asLong();
+            rest.exchange(OrderController.BASE_PATH + "/" + orderId + "/cancel", HttpMethod.POST, HttpEntity.EMPTY, JsonNode.class);
+            cancelled.add(orderId);
+        }
+        
+        HttpURLConnection connection = open(OrderController.BASE_PATH + "/stream?status=CANCELLED", true);
+        assertEquals("gzip", connection.getHeaderField(HttpHeaders.CONTENT_ENCODING));
+        List<Long> streamed = new ArrayList<>();
+        for (JsonNode row : readLines(new GZIPInputStream(connection.getInputStream()))) {
+            assertEquals("CANCELLED", row.get("status").asText());
+            streamed.add(row.get("id").asLong());
+        }
+        
+        assertTrue(streamed.containsAll(cancelled));
+        assertEquals(streamed.stream().sorted().collect(Collectors.toList()), streamed);
+    }
+    
+    private HttpURLConnection open(String path, boolean gzip) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + port + path).openConnection();
+        connection.setRequestProperty(HttpHeaders.ACCEPT, MediaType.APPLICATION_NDJSON_VALUE);
+        if (gzip) {
+            connection.setRequestProperty(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        }
+        return connection;
+    }
+    
+    private List<JsonNode> readLines(InputStream in) throws IOException {
+        List<JsonNode> rows = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                rows.add(objectMapper.readTree(line));
+            }
+        }
+        return rows;
+    }
+}